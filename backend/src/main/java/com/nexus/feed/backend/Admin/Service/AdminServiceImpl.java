@@ -6,12 +6,20 @@ import com.nexus.feed.backend.Auth.Entity.Role;
 import com.nexus.feed.backend.Auth.Repository.AppUserRepository;
 import com.nexus.feed.backend.Entity.Comment;
 import com.nexus.feed.backend.Entity.Post;
+import com.nexus.feed.backend.Entity.UserStats;
 import com.nexus.feed.backend.Entity.Users;
+import com.nexus.feed.backend.Event.PostDeletedEvent;
 import com.nexus.feed.backend.Exception.ResourceNotFoundException;
 import com.nexus.feed.backend.Entity.Vote;
 import com.nexus.feed.backend.Repository.*;
+import com.nexus.feed.backend.Service.KarmaService;
+import com.nexus.feed.backend.Service.PostStatsService;
+import com.nexus.feed.backend.Service.TagService;
+import com.nexus.feed.backend.Service.UserStatsService;
+import com.nexus.feed.backend.Service.VoteCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -19,6 +27,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Slf4j
@@ -31,8 +43,13 @@ public class AdminServiceImpl implements AdminService {
     private final PostRepository postRepository;
     private final CommentRepository commentRepository;
     private final VoteRepository voteRepository;
-    private final TagRepository tagRepository;
+    private final VoteCache voteCache;
     private final ReportRepository reportRepository;
+    private final PostStatsService postStatsService;
+    private final UserStatsService userStatsService;
+    private final KarmaService karmaService;
+    private final TagService tagService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -50,7 +67,10 @@ public class AdminServiceImpl implements AdminService {
     @Override
     @Transactional(readOnly = true)
     public Page<AdminUserResponse> getAllUsers(Pageable pageable) {
-        return userRepository.findAll(pageable).map(this::toAdminUserResponse);
+        Page<Users> users = userRepository.findAll(pageable);
+        Map<UUID, UserStats> stats = userStatsService.getStats(users.map(Users::getId).getContent());
+        Map<UUID, Long> karma = karmaService.getKarma(users.getContent());
+        return users.map(user -> toAdminUserResponse(user, stats.get(user.getId()), karma.get(user.getId())));
     }
 
     @Override
@@ -65,7 +85,7 @@ public class AdminServiceImpl implements AdminService {
         appUserRepository.save(appUser);
         
         log.info("User role updated: userId={}, oldRole={}, newRole={}", userId, oldRole, role.toUpperCase());
-        return toAdminUserResponse(user);
+        return toAdminUserResponse(user, userStatsService.getStats(userId), karmaService.getKarma(user));
     }
 
     @Override
@@ -100,6 +120,7 @@ public class AdminServiceImpl implements AdminService {
         
         // Delete the user (cascades to posts, comments, badges)
         userRepository.delete(user);
+        userStatsService.delete(userId);
         
         // Now delete the app_user record
         if (appUser != null) {
@@ -140,6 +161,12 @@ public class AdminServiceImpl implements AdminService {
         String postTitle = post.getTitle();
         UUID authorId = post.getUser().getId();
         
+        // Comments go with the post by cascade, so their authors are recounted afterwards
+        Set<UUID> affectedUsers = new HashSet<>(commentRepository.findAuthorIdsByPostId(postId));
+        affectedUsers.add(authorId);
+        Map<UUID, Long> karmaLost = karmaService.karmaOnPost(postId);
+        tagService.recordPostTagsChanged(post.getTags(), Set.of(), post.getCreatedAt());
+        
         // Delete votes on this post
         voteRepository.deleteByIdVotableId(postId);
         
@@ -149,12 +176,9 @@ public class AdminServiceImpl implements AdminService {
         }
         
         postRepository.delete(post);
-        
-        // Clean up orphan tags (tags with no posts)
-        int deletedTags = tagRepository.deleteOrphanTags();
-        if (deletedTags > 0) {
-            log.info("Cleaned up {} orphan tag(s) after post deletion", deletedTags);
-        }
+        eventPublisher.publishEvent(new PostDeletedEvent(postId));
+        userStatsService.refresh(affectedUsers);
+        karmaService.subtractKarma(karmaLost);
         
         log.info("Post deleted by admin: postId={}, title={}, authorId={}", postId, postTitle, authorId);
     }
@@ -173,17 +197,32 @@ public class AdminServiceImpl implements AdminService {
         
         UUID authorId = comment.getUser().getId();
         UUID postId = comment.getPost().getId();
+        Set<UUID> affectedUsers = new HashSet<>();
+        affectedUsers.add(authorId);
+        if (comment.getPath() != null) {
+            affectedUsers.addAll(commentRepository.findDescendantAuthorIds(comment.descendantPathPrefix()));
+        }
+        
+        Map<UUID, Long> karmaLost = karmaService.karmaOnComment(comment);
         
         // Delete votes on this comment and all its replies recursively
         deleteCommentVotesRecursively(comment);
         
         commentRepository.delete(comment);
+        postStatsService.refreshCommentCount(postId);
+        userStatsService.refresh(affectedUsers);
+        karmaService.subtractKarma(karmaLost);
         
         log.info("Comment deleted by admin: commentId={}, postId={}, authorId={}", commentId, postId, authorId);
     }
     
     private void deleteCommentVotesRecursively(Comment comment) {
-        // Delete votes on replies first
+        if (comment.getPath() != null) {
+            // One prefix range query over the materialized path covers the whole subtree
+            voteRepository.deleteByCommentSubtree(comment.getId(), comment.descendantPathPrefix());
+            return;
+        }
+        // Path not backfilled yet: walk the replies, deleting votes on them first
         for (Comment reply : comment.getReplies()) {
             deleteCommentVotesRecursively(reply);
         }
@@ -191,32 +230,25 @@ public class AdminServiceImpl implements AdminService {
         voteRepository.deleteByIdVotableId(comment.getId());
     }
 
-    private AdminUserResponse toAdminUserResponse(Users user) {
+    private AdminUserResponse toAdminUserResponse(Users user, UserStats stats, long karma) {
         String email = user.getAppUser() != null ? user.getAppUser().getEmail() : null;
         String role = (user.getAppUser() != null && user.getAppUser().getRole() != null) 
                 ? user.getAppUser().getRole().name() : "USER";
         
-        long postCount = postRepository.countByUser(user);
-        long commentCount = commentRepository.countByUser(user);
-        
         return new AdminUserResponse(
                 user.getId(),
                 user.getUsername(),
                 email,
                 role,
-                user.getKarma(),
+                karma,
                 user.getProfilePictureUrl(),
                 user.getCreatedAt(),
-                (int) postCount,
-                (int) commentCount
+                (int) stats.getPostCount(),
+                (int) stats.getCommentCount()
         );
     }
 
     private AdminPostResponse toAdminPostResponse(Post post) {
-        long upvotes = voteRepository.countByVotableIdAndVotableTypeAndVoteValue(
-                post.getId(), Vote.VotableType.POST, Vote.VoteValue.UPVOTE);
-        long downvotes = voteRepository.countByVotableIdAndVotableTypeAndVoteValue(
-                post.getId(), Vote.VotableType.POST, Vote.VoteValue.DOWNVOTE);
         long reportCount = reportRepository.countByPostId(post.getId());
         
         return new AdminPostResponse(
@@ -227,8 +259,8 @@ public class AdminServiceImpl implements AdminService {
                 post.getUser().getUsername(),
                 post.getImages().stream().map(img -> img.getImageUrl()).toList(),
                 post.getTags().stream().map(tag -> tag.getName()).toList(),
-                (int) upvotes,
-                (int) downvotes,
+                post.getUpvoteCount(),
+                post.getDownvoteCount(),
                 post.getComments().size(),
                 (int) reportCount,
                 post.getCreatedAt(),
@@ -237,10 +269,8 @@ public class AdminServiceImpl implements AdminService {
     }
 
     private AdminCommentResponse toAdminCommentResponse(Comment comment) {
-        long upvotes = voteRepository.countByVotableIdAndVotableTypeAndVoteValue(
-                comment.getId(), Vote.VotableType.COMMENT, Vote.VoteValue.UPVOTE);
-        long downvotes = voteRepository.countByVotableIdAndVotableTypeAndVoteValue(
-                comment.getId(), Vote.VotableType.COMMENT, Vote.VoteValue.DOWNVOTE);
+        VoteCache.VoteTally tally = voteCache.tallies(List.of(comment.getId()), Vote.VotableType.COMMENT)
+                .get(comment.getId());
         
         return new AdminCommentResponse(
                 comment.getId(),
@@ -249,8 +279,8 @@ public class AdminServiceImpl implements AdminService {
                 comment.getUser().getUsername(),
                 comment.getPost().getId(),
                 comment.getPost().getTitle(),
-                (int) upvotes,
-                (int) downvotes,
+                (int) tally.upvotes(),
+                (int) tally.downvotes(),
                 comment.getCreatedAt(),
                 comment.getUpdatedAt()
         );
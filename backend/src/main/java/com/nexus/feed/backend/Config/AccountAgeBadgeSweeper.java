@@ -0,0 +1,125 @@
+package com.nexus.feed.backend.Config;
+
+import com.nexus.feed.backend.Repository.UserRepository;
+import com.nexus.feed.backend.Service.BadgeAwardingService;
+import com.nexus.feed.backend.Service.JobLockService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Periodically awards account age badges. Users are read in id order a wave at a
+ * time; each wave is split into chunks that run in parallel, each in its own
+ * transaction. Only one instance sweeps at once, holding a lease in job_locks that
+ * is renewed with the cursor after every wave, so a sweep interrupted by a restart
+ * or a failed chunk resumes where it stopped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountAgeBadgeSweeper {
+
+    static final String JOB_NAME = "account-age-badges";
+
+    private final UserRepository userRepository;
+    private final BadgeAwardingService badgeAwardingService;
+    private final JobLockService jobLockService;
+
+    @Value("${badges.account-age.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${badges.account-age.parallelism:2}")
+    private int parallelism = 2;
+
+    @Value("${badges.account-age.lock-ttl-ms:600000}")
+    private long lockTtlMs = 600000;
+
+    private Executor executor;
+
+    @PostConstruct
+    void start() {
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(parallelism);
+        pool.setMaxPoolSize(parallelism);
+        pool.setThreadNamePrefix("badge-sweep-");
+        pool.initialize();
+        executor = pool;
+    }
+
+    @PreDestroy
+    void stop() {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${badges.account-age.initial-delay-ms:120000}",
+               fixedDelayString = "${badges.account-age.interval-ms:3600000}")
+    public void sweep() {
+        Duration lockTtl = Duration.ofMillis(lockTtlMs);
+        if (!jobLockService.tryAcquire(JOB_NAME, lockTtl)) {
+            log.debug("Account age badge sweep is running on another instance");
+            return;
+        }
+        try {
+            UUID cursor = jobLockService.getResumeCursor(JOB_NAME);
+            if (cursor != null) {
+                log.info("Resuming account age badge sweep after user {}", cursor);
+            }
+            int awarded = 0;
+            while (true) {
+                List<UUID> wave = nextWave(cursor);
+                if (wave.isEmpty()) {
+                    jobLockService.complete(JOB_NAME);
+                    break;
+                }
+                awarded += runInParallel(wave);
+                cursor = wave.get(wave.size() - 1);
+                if (!jobLockService.saveProgress(JOB_NAME, cursor, lockTtl)) {
+                    log.warn("Lost the account age badge sweep lock; stopping after user {}", cursor);
+                    return;
+                }
+            }
+            log.info("Account age badge sweep complete: {} badge(s) awarded", awarded);
+        } catch (Exception e) {
+            log.error("Account age badge sweep failed: {}", e.getMessage());
+        } finally {
+            jobLockService.release(JOB_NAME);
+        }
+    }
+
+    private List<UUID> nextWave(UUID cursor) {
+        PageRequest limit = PageRequest.of(0, batchSize * parallelism);
+        return cursor == null
+                ? userRepository.findIdsOrderById(limit)
+                : userRepository.findIdsAfterId(cursor, limit);
+    }
+
+    private int runInParallel(List<UUID> wave) {
+        List<CompletableFuture<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < wave.size(); from += batchSize) {
+            List<UUID> chunk = wave.subList(from, Math.min(from + batchSize, wave.size()));
+            chunks.add(CompletableFuture.supplyAsync(() -> badgeAwardingService.awardAccountAgeBadges(chunk), executor));
+        }
+        // A failed chunk fails the wave, leaving the cursor before it for the next run
+        return chunks.stream().mapToInt(CompletableFuture::join).sum();
+    }
+
+    // Lets tests run chunks on the calling thread
+    void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+}
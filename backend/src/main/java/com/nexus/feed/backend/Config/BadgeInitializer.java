@@ -1,18 +1,12 @@
 package com.nexus.feed.backend.Config;
 
-import com.nexus.feed.backend.Entity.Users;
 import com.nexus.feed.backend.Repository.BadgeRepository;
-import com.nexus.feed.backend.Repository.UserRepository;
-import com.nexus.feed.backend.Service.BadgeAwardingService;
 import com.nexus.feed.backend.Service.BadgeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -20,68 +14,51 @@ public class BadgeInitializer implements CommandLineRunner {
 
     private final BadgeRepository badgeRepository;
     private final BadgeService badgeService;
-    private final UserRepository userRepository;
-    private final BadgeAwardingService badgeAwardingService;
 
     @Override
     public void run(String... args) {
+        // Account age badges are awarded by AccountAgeBadgeSweeper, not at startup
         initializeBadges();
-        checkAccountAgeBadgesForAllUsers();
     }
 
     private void initializeBadges() {
         // Post badges
-        createBadgeIfNotExists("First Post", "Created your first post", "🎉");
-        createBadgeIfNotExists("Storyteller", "Created 5 posts", "📝");
-        createBadgeIfNotExists("Prolific Poster", "Created 10 posts", "✍️");
+        ensureBadge("First Post", "Created your first post", "🎉", "POSTS >= 1");
+        ensureBadge("Storyteller", "Created 5 posts", "📝", "POSTS >= 5");
+        ensureBadge("Prolific Poster", "Created 10 posts", "✍️", "POSTS >= 10");
         
         // Comment badges
-        createBadgeIfNotExists("First Comment", "Made your first comment", "💭");
-        createBadgeIfNotExists("Conversationalist", "Made 10 comments", "🗣️");
-        createBadgeIfNotExists("Commentator", "Made 50 comments", "💬");
+        ensureBadge("First Comment", "Made your first comment", "💭", "COMMENTS >= 1");
+        ensureBadge("Conversationalist", "Made 10 comments", "🗣️", "COMMENTS >= 10");
+        ensureBadge("Commentator", "Made 50 comments", "💬", "COMMENTS >= 50");
         
         // Karma badges
-        createBadgeIfNotExists("Getting Started", "Reached 10 karma", "🌱");
-        createBadgeIfNotExists("Rising Star", "Reached 50 karma", "⭐");
-        createBadgeIfNotExists("Popular", "Reached 100 karma", "🌟");
-        createBadgeIfNotExists("Superstar", "Reached 500 karma", "✨");
+        ensureBadge("Getting Started", "Reached 10 karma", "🌱", "KARMA >= 10");
+        ensureBadge("Rising Star", "Reached 50 karma", "⭐", "KARMA >= 50");
+        ensureBadge("Popular", "Reached 100 karma", "🌟", "KARMA >= 100");
+        ensureBadge("Superstar", "Reached 500 karma", "✨", "KARMA >= 500");
         
         // Engagement badges
-        createBadgeIfNotExists("First Vote", "Cast your first vote", "👍");
-        createBadgeIfNotExists("Active Voter", "Cast 20 votes", "🗳️");
+        ensureBadge("First Vote", "Cast your first vote", "👍", "VOTES >= 1");
+        ensureBadge("Active Voter", "Cast 20 votes", "🗳️", "VOTES >= 20");
         
         // Account age badges
-        createBadgeIfNotExists("Newcomer", "Member for 7 days", "👋");
-        createBadgeIfNotExists("Regular", "Member for 30 days", "📅");
-        createBadgeIfNotExists("Veteran", "Member for 1 year", "🏆");
+        ensureBadge("Newcomer", "Member for 7 days", "👋", "ACCOUNT_AGE_DAYS >= 7");
+        ensureBadge("Regular", "Member for 30 days", "📅", "ACCOUNT_AGE_DAYS >= 30");
+        ensureBadge("Veteran", "Member for 1 year", "🏆", "ACCOUNT_AGE_DAYS >= 365");
         
         log.info("Badge initialization complete");
     }
 
-    @Async
-    public void checkAccountAgeBadgesForAllUsers() {
-        try {
-            List<Users> allUsers = userRepository.findAll();
-            log.info("Checking account age badges for {} users", allUsers.size());
-            
-            for (Users user : allUsers) {
-                try {
-                    badgeAwardingService.checkAccountAgeBadges(user.getId());
-                } catch (Exception e) {
-                    log.error("Failed to check account age badges for user {}: {}", user.getId(), e.getMessage());
-                }
+    private void ensureBadge(String name, String description, String iconUrl, String criteria) {
+        badgeRepository.findByName(name).ifPresentOrElse(badge -> {
+            // Badges created before criteria were stored get theirs filled in
+            if (!criteria.equals(badge.getCriteria())) {
+                badgeService.updateBadgeCriteria(badge.getId(), criteria);
             }
-            
-            log.info("Account age badge check complete");
-        } catch (Exception e) {
-            log.error("Failed to check account age badges: {}", e.getMessage());
-        }
-    }
-
-    private void createBadgeIfNotExists(String name, String description, String iconUrl) {
-        if (!badgeRepository.existsByName(name)) {
-            badgeService.createBadge(name, description, iconUrl);
+        }, () -> {
+            badgeService.createBadge(name, description, iconUrl, criteria);
             log.info("Created badge: {}", name);
-        }
+        });
     }
 }
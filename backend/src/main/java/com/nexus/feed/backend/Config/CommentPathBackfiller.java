@@ -0,0 +1,62 @@
+package com.nexus.feed.backend.Config;
+
+import com.nexus.feed.backend.Service.CommentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills in the materialized comment path for rows written before the column
+ * existed, one level of the hierarchy at a time. Each batch runs in its own
+ * transaction, and new comments get their path on insert, so this only has
+ * real work to do once after an upgrade.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommentPathBackfiller {
+
+    private final CommentService commentService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${comments.path.backfill.batch-size:1000}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        createPatternIndex();
+        try {
+            long updated = 0;
+            int batch = commentService.backfillPathBatch(batchSize);
+            while (batch > 0) {
+                updated += batch;
+                batch = commentService.backfillPathBatch(batchSize);
+            }
+            if (updated > 0) {
+                log.info("Backfilled materialized path for {} comment(s)", updated);
+            }
+        } catch (Exception e) {
+            log.error("Comment path backfill failed: {}", e.getMessage());
+        }
+    }
+
+    // PostgreSQL only uses a b-tree for LIKE 'prefix%' under the C collation or with pattern ops,
+    // which ddl-auto can't declare
+    private void createPatternIndex() {
+        try {
+            String database = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            if ("PostgreSQL".equals(database)) {
+                jdbcTemplate.execute(
+                        "CREATE INDEX IF NOT EXISTS idx_comment_path_pattern ON comments (path varchar_pattern_ops)");
+            }
+        } catch (Exception e) {
+            log.error("Could not create comment path pattern index: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.nexus.feed.backend.Config;
+
+import com.nexus.feed.backend.Service.FeedRankingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the in-memory hot/best windows so score drift from missed events and
+ * the passage of time (for hot) are corrected on a fixed cadence.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FeedRankingRefresher {
+
+    private final FeedRankingService feedRankingService;
+
+    @Scheduled(initialDelayString = "${feed.ranking.initial-delay-ms:5000}",
+               fixedDelayString = "${feed.ranking.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            feedRankingService.refresh();
+        } catch (Exception e) {
+            log.error("Feed ranking refresh failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.nexus.feed.backend.Config;
+
+import com.nexus.feed.backend.Leaderboard.Service.KarmaLeaderboard;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the leaderboard's daily karma buckets to the database every few seconds,
+ * and periodically rebuilds the boards from it so they converge with votes taken
+ * by other instances and with karma repaired outside the event flow.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KarmaLeaderboardMaintainer {
+
+    private final KarmaLeaderboard karmaLeaderboard;
+
+    @Scheduled(initialDelayString = "${karma.leaderboard.flush-interval-ms:30000}",
+               fixedDelayString = "${karma.leaderboard.flush-interval-ms:30000}")
+    public void flush() {
+        try {
+            int buckets = karmaLeaderboard.flush();
+            if (buckets > 0) {
+                log.debug("Flushed {} karma leaderboard bucket(s)", buckets);
+            }
+        } catch (Exception e) {
+            log.error("Karma leaderboard flush failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${karma.leaderboard.rebuild-interval-ms:900000}",
+               fixedDelayString = "${karma.leaderboard.rebuild-interval-ms:900000}")
+    public void rebuild() {
+        try {
+            karmaLeaderboard.rebuild();
+        } catch (Exception e) {
+            log.error("Karma leaderboard rebuild failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.nexus.feed.backend.Config;
+
+import com.nexus.feed.backend.Service.JobLockService;
+import com.nexus.feed.backend.Service.KarmaService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Checks stored karma against the votes a few small batches of users at a time,
+ * repairing drift that the incremental updates on vote and delete can't see, such
+ * as votes removed with a deleted user. The high-water mark is kept in job_locks,
+ * so each run continues where the last one stopped and one instance works at once.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KarmaReconciler {
+
+    static final String JOB_NAME = "karma-reconcile";
+
+    private final KarmaService karmaService;
+    private final JobLockService jobLockService;
+
+    @Value("${karma.reconcile.batch-size:200}")
+    private int batchSize = 200;
+
+    @Value("${karma.reconcile.batches-per-run:10}")
+    private int batchesPerRun = 10;
+
+    @Value("${karma.reconcile.lock-ttl-ms:300000}")
+    private long lockTtlMs = 300000;
+
+    @Scheduled(initialDelayString = "${karma.reconcile.initial-delay-ms:300000}",
+               fixedDelayString = "${karma.reconcile.interval-ms:60000}")
+    public void reconcile() {
+        Duration lockTtl = Duration.ofMillis(lockTtlMs);
+        if (!jobLockService.tryAcquire(JOB_NAME, lockTtl)) {
+            return;
+        }
+        try {
+            UUID cursor = jobLockService.getResumeCursor(JOB_NAME);
+            for (int i = 0; i < batchesPerRun; i++) {
+                cursor = karmaService.reconcileBatch(cursor, batchSize);
+                if (cursor == null) {
+                    jobLockService.complete(JOB_NAME);
+                    log.debug("Karma reconciliation pass complete");
+                    return;
+                }
+                if (!jobLockService.saveProgress(JOB_NAME, cursor, lockTtl)) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Karma reconciliation failed: {}", e.getMessage());
+        } finally {
+            jobLockService.release(JOB_NAME);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.nexus.feed.backend.Config;
+
+import com.nexus.feed.backend.Service.KarmaService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically folds karma stripes into users.karma so the leaderboard, which
+ * sorts on that column, trails sharded writes by at most one interval. Runs even
+ * with sharding disabled so stripes left from an earlier run still drain.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KarmaShardCompactor {
+
+    private final KarmaService karmaService;
+
+    @Value("${karma.sharding.compact-batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${karma.sharding.compact-initial-delay-ms:10000}",
+               fixedDelayString = "${karma.sharding.compact-interval-ms:10000}")
+    public void compact() {
+        try {
+            int users = karmaService.compactShards(batchSize);
+            if (users > 0) {
+                log.debug("Karma compaction folded stripes for {} user(s)", users);
+            }
+        } catch (Exception e) {
+            log.error("Karma compaction failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.nexus.feed.backend.Config;
+
+import com.nexus.feed.backend.Service.TagService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes tags that no post carries any more. Candidates come from the
+ * post_count index rather than a scan of the tags table, and each batch runs in
+ * its own transaction, so post deletion itself never waits on tag cleanup.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrphanTagSweeper {
+
+    private final TagService tagService;
+
+    @Value("${tags.orphan-sweep.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${tags.orphan-sweep.initial-delay-ms:60000}",
+               fixedDelayString = "${tags.orphan-sweep.interval-ms:600000}")
+    public void sweep() {
+        try {
+            int batches = 0;
+            Long cursor = tagService.sweepOrphanTags(0L, batchSize);
+            while (cursor != null) {
+                batches++;
+                cursor = tagService.sweepOrphanTags(cursor, batchSize);
+            }
+            log.debug("Orphan tag sweep complete: {} batch(es)", batches);
+        } catch (Exception e) {
+            log.error("Orphan tag sweep failed: {}", e.getMessage());
+        }
+    }
+}
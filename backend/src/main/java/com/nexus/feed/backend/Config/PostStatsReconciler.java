@@ -0,0 +1,42 @@
+package com.nexus.feed.backend.Config;
+
+import com.nexus.feed.backend.Service.PostStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Periodically walks all posts in id order and repairs drift between the
+ * denormalized post counters and the votes/comments tables. Each batch runs
+ * in its own transaction so a full pass never holds long locks.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostStatsReconciler {
+
+    private final PostStatsService postStatsService;
+
+    @Value("${feed.post-stats.reconcile.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${feed.post-stats.reconcile.initial-delay-ms:300000}",
+               fixedDelayString = "${feed.post-stats.reconcile.interval-ms:3600000}")
+    public void reconcile() {
+        try {
+            int batches = 0;
+            UUID cursor = postStatsService.reconcileBatch(null, batchSize);
+            while (cursor != null) {
+                batches++;
+                cursor = postStatsService.reconcileBatch(cursor, batchSize);
+            }
+            log.debug("Post counter reconciliation complete: {} batch(es)", batches);
+        } catch (Exception e) {
+            log.error("Post counter reconciliation failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.nexus.feed.backend.Config;
+
+import com.nexus.feed.backend.Search.Service.TagAutocompleteIndex;
+import com.nexus.feed.backend.Service.TagService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recounts tags.post_count from post_tags, filling the column after an upgrade
+ * and repairing drift from posts removed by cascade, such as with a deleted user.
+ * Each pass also rebuilds the tag autocomplete index from the recounted column.
+ * Also creates the PostgreSQL indexes that tag search relies on.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TagPostCountReconciler {
+
+    private final TagService tagService;
+    private final TagAutocompleteIndex tagAutocompleteIndex;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Scheduled(initialDelayString = "${tags.post-count.reconcile.initial-delay-ms:10000}",
+               fixedDelayString = "${tags.post-count.reconcile.interval-ms:3600000}")
+    public void reconcile() {
+        try {
+            int repaired = tagService.reconcilePostCounts();
+            if (repaired > 0) {
+                log.info("Repaired post count for {} tag(s)", repaired);
+            }
+            tagAutocompleteIndex.rebuild();
+        } catch (Exception e) {
+            log.error("Tag post count reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    // ddl-auto can't declare expression or operator-class indexes
+    @EventListener(ApplicationReadyEvent.class)
+    public void createSearchIndexes() {
+        try {
+            String database = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            if (!"PostgreSQL".equals(database)) {
+                return;
+            }
+            jdbcTemplate.execute(
+                    "CREATE INDEX IF NOT EXISTS idx_tag_name_prefix ON tags (lower(name) varchar_pattern_ops)");
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute(
+                    "CREATE INDEX IF NOT EXISTS idx_tag_name_trgm ON tags USING GIN (lower(name) gin_trgm_ops)");
+        } catch (Exception e) {
+            log.error("Could not create tag search indexes: {}", e.getMessage());
+        }
+    }
+}
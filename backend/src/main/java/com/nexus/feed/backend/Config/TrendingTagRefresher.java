@@ -0,0 +1,56 @@
+package com.nexus.feed.backend.Config;
+
+import com.nexus.feed.backend.Service.JobLockService;
+import com.nexus.feed.backend.Service.TagService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Recomputes the cached top trending tags from the hourly buckets, so scores
+ * follow new posts and decay as buckets age into lower-weighted windows. On the
+ * first start after an upgrade the buckets are seeded from the last 30 days of
+ * posts, under a job lock so only one instance does it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TrendingTagRefresher {
+
+    static final String BACKFILL_JOB_NAME = "tag-trending-backfill";
+
+    private final TagService tagService;
+    private final JobLockService jobLockService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!jobLockService.tryAcquire(BACKFILL_JOB_NAME, Duration.ofMinutes(5))) {
+            return;
+        }
+        try {
+            int buckets = tagService.backfillTrendingCounts();
+            if (buckets > 0) {
+                log.info("Backfilled {} trending tag bucket(s) from recent posts", buckets);
+            }
+        } catch (Exception e) {
+            log.error("Trending tag backfill failed: {}", e.getMessage());
+        } finally {
+            jobLockService.release(BACKFILL_JOB_NAME);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${tags.trending.initial-delay-ms:5000}",
+               fixedDelayString = "${tags.trending.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            tagService.refreshTrendingTags();
+        } catch (Exception e) {
+            log.error("Trending tag refresh failed: {}", e.getMessage());
+        }
+    }
+}
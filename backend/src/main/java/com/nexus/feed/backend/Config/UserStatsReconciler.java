@@ -0,0 +1,42 @@
+package com.nexus.feed.backend.Config;
+
+import com.nexus.feed.backend.Service.UserStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Periodically walks the user counters in id order and repairs drift from
+ * deletes that cascade to other users' content, such as an admin removing
+ * the votes on a deleted post. Each batch runs in its own transaction.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserStatsReconciler {
+
+    private final UserStatsService userStatsService;
+
+    @Value("${users.stats.reconcile.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${users.stats.reconcile.initial-delay-ms:600000}",
+               fixedDelayString = "${users.stats.reconcile.interval-ms:3600000}")
+    public void reconcile() {
+        try {
+            int batches = 0;
+            UUID cursor = userStatsService.reconcileBatch(null, batchSize);
+            while (cursor != null) {
+                batches++;
+                cursor = userStatsService.reconcileBatch(cursor, batchSize);
+            }
+            log.debug("User counter reconciliation complete: {} batch(es)", batches);
+        } catch (Exception e) {
+            log.error("User counter reconciliation failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.nexus.feed.backend.Config;
+
+import com.nexus.feed.backend.Service.VoteBuffer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes buffered votes to the database on a short interval when write-behind
+ * voting is enabled. Flush failures are logged by the buffer and retried here.
+ */
+@Component
+@RequiredArgsConstructor
+public class VoteBufferFlusher {
+
+    private final VoteBuffer voteBuffer;
+
+    @Scheduled(fixedDelayString = "${votes.write-behind.flush-interval-ms:500}")
+    public void flush() {
+        if (voteBuffer.isEnabled()) {
+            voteBuffer.flush();
+        }
+    }
+}
@@ -48,6 +48,28 @@ public class CommentController {
         return ResponseEntity.ok(comments);
     }
 
+    @GetMapping("/post/{postId}/thread")
+    public ResponseEntity<CursorPage<CommentResponse>> getCommentThread(
+            @PathVariable UUID postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "3") int depth,
+            @RequestParam(defaultValue = "5") int breadth) {
+        CursorPage<CommentResponse> thread = commentService.getCommentThread(postId, cursor, size, depth, breadth);
+        return ResponseEntity.ok(thread);
+    }
+
+    @GetMapping("/{id}/replies")
+    public ResponseEntity<CursorPage<CommentResponse>> getReplies(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "3") int depth,
+            @RequestParam(defaultValue = "5") int breadth) {
+        CursorPage<CommentResponse> replies = commentService.getReplies(id, cursor, size, depth, breadth);
+        return ResponseEntity.ok(replies);
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<Page<CommentResponse>> getCommentsByUser(
             @PathVariable UUID userId,
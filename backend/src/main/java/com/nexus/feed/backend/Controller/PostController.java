@@ -55,6 +55,15 @@ public class PostController {
         return ResponseEntity.ok(posts);
     }
 
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<PostResponse>> getPostFeed(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "new") String sort) {
+        CursorPage<PostResponse> posts = postService.getPostFeed(cursor, size, sort);
+        return ResponseEntity.ok(posts);
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<Page<PostResponse>> getPostsByUser(
             @PathVariable UUID userId,
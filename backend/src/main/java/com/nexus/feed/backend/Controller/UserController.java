@@ -48,7 +48,15 @@ public class UserController {
 
     @GetMapping("/top")
     public ResponseEntity<List<UserResponse>> getTopUsers(
-            @RequestParam(defaultValue = "5") int limit) {
-        return ResponseEntity.ok(userService.getTopUsersByKarma(limit));
+            @RequestParam(defaultValue = "5") int limit,
+            @RequestParam(defaultValue = "all") String window) {
+        return ResponseEntity.ok(userService.getTopUsersByKarma(limit, window));
+    }
+
+    @GetMapping("/{id}/rank")
+    public ResponseEntity<UserRankResponse> getUserRank(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "all") String window) {
+        return ResponseEntity.ok(userService.getUserRank(id, window));
     }
 }
\ No newline at end of file
@@ -29,6 +29,11 @@ public class CommentResponse {
     // Nested replies (can be limited to avoid deep nesting)
     private List<CommentResponse> replies;
     
+    // Paged threads only: set when replies were cut off by the breadth or depth limit.
+    // Pass to GET /api/comments/{id}/replies?cursor= to load the rest of this subtree.
+    private boolean hasMoreReplies;
+    private String repliesCursor;
+    
     // Engagement metrics
     private int upvotes;
     private int downvotes;
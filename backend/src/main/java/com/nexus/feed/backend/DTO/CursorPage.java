@@ -0,0 +1,21 @@
+package com.nexus.feed.backend.DTO;
+
+import lombok.*;
+import java.util.List;
+
+/**
+ * A slice of results addressed by an opaque cursor instead of a page number.
+ * There is deliberately no total count, so every page costs the same to fetch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    
+    // Pass back as ?cursor= to fetch the next slice; null on the last slice
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,18 @@
+package com.nexus.feed.backend.DTO;
+
+import lombok.*;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserRankResponse {
+    private UUID userId;
+    private String username;
+    private String window;
+    // Null when the user has no karma in the window
+    private Integer rank;
+    private Long karma;
+    private Integer rankedUsers;
+}
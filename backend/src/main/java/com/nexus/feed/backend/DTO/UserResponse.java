@@ -17,6 +17,10 @@ public class UserResponse {
     private Instant createdAt;
     private Instant updatedAt;
     private Long karma;
+    // Karma gained in the requested window on week and month leaderboards
+    private Long windowKarma;
+    private Long postCount;
+    private Long commentCount;
     
     // Note: passwordHash is intentionally excluded for security
 }
\ No newline at end of file
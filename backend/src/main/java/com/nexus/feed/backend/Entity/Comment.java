@@ -20,10 +20,17 @@ import java.util.*;
     @Index(name = "idx_comment_post_id", columnList = "post_id"),
     @Index(name = "idx_comment_user_id", columnList = "user_id"),
     @Index(name = "idx_comment_parent_id", columnList = "parent_comment_id"),
+    @Index(name = "idx_comment_path", columnList = "path"),
+    @Index(name = "idx_comment_parent_created", columnList = "parent_comment_id, created_at"),
     @Index(name = "idx_comment_post_created", columnList = "post_id, created_at"),
     @Index(name = "idx_comment_user_created", columnList = "user_id, created_at")
 })
 public class Comment {
+    // Each ancestor adds its UUID plus a '/' separator to the path
+    public static final int PATH_SEGMENT_LENGTH = 37;
+    public static final int MAX_DEPTH = 64;
+    public static final int MAX_PATH_LENGTH = PATH_SEGMENT_LENGTH * MAX_DEPTH;
+
     @Id
     @GeneratedValue
     private UUID id;
@@ -35,14 +42,21 @@ public class Comment {
     @JoinColumn(name = "user_id")
     private Users user;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id")
     private Post post;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "parent_comment_id")
     private Comment parentComment;
 
+    /**
+     * Materialized ancestor chain, root first: "" for a top-level comment, otherwise the
+     * parent's path followed by "{parentId}/". Null until backfilled for legacy rows.
+     */
+    @Column(name = "path", length = MAX_PATH_LENGTH)
+    private String path;
+
     @OneToMany(mappedBy = "parentComment", cascade = CascadeType.ALL, orphanRemoval = true)
     @BatchSize(size = 10)
     private List<Comment> replies = new ArrayList<>();
@@ -57,6 +71,18 @@ public class Comment {
     protected void onCreate() {
         createdAt = Instant.now();
         updatedAt = createdAt;
+        if (parentComment == null) {
+            path = "";
+        } else if (parentComment.getPath() != null) {
+            path = parentComment.descendantPathPrefix();
+        }
+    }
+
+    /**
+     * The path shared by every descendant of this comment, for {@code LIKE prefix%} subtree queries.
+     */
+    public String descendantPathPrefix() {
+        return path + id + "/";
     }
 
     @PreUpdate
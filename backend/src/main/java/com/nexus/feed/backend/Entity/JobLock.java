@@ -0,0 +1,36 @@
+package com.nexus.feed.backend.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A lease on a scheduled job shared by every instance. The holder renews it as it
+ * makes progress; an expired lease can be claimed by any instance, which picks up
+ * from the saved cursor.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "job_locks")
+public class JobLock {
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(name = "locked_by")
+    private String lockedBy;
+
+    @Column(name = "locked_until")
+    private Instant lockedUntil;
+
+    @Column(name = "resume_cursor")
+    private UUID resumeCursor;
+
+    @Column(name = "last_completed_at")
+    private Instant lastCompletedAt;
+}
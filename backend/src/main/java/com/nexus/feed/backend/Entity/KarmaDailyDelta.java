@@ -0,0 +1,41 @@
+package com.nexus.feed.backend.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Net karma a user gained from votes on one UTC day. The week and month
+ * leaderboards are sums over these buckets; rows older than the longest window
+ * are pruned.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "karma_daily_deltas", indexes = {
+    @Index(name = "idx_karma_daily_day", columnList = "bucket_day")
+})
+public class KarmaDailyDelta {
+    @EmbeddedId
+    private KarmaDailyDeltaId id;
+
+    @Column(nullable = false)
+    private long delta;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Embeddable
+    public static class KarmaDailyDeltaId implements Serializable {
+        @Column(name = "user_id")
+        private UUID userId;
+
+        @Column(name = "bucket_day")
+        private LocalDate day;
+    }
+}
@@ -0,0 +1,38 @@
+package com.nexus.feed.backend.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * One stripe of karma not yet folded into {@link Users#getKarma()}. Spreading a
+ * popular author's vote deltas over several rows lets concurrent voters update
+ * different rows instead of queueing on the author's.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "karma_shards")
+public class KarmaShard {
+    @EmbeddedId
+    private KarmaShardId id;
+
+    @Column(nullable = false)
+    private long delta;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Embeddable
+    public static class KarmaShardId implements Serializable {
+        @Column(name = "user_id")
+        private UUID userId;
+
+        @Column(name = "shard")
+        private int shard;
+    }
+}
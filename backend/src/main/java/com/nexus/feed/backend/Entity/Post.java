@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
 import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.Instant;
 import java.util.*;
@@ -18,7 +19,8 @@ import java.util.*;
 @Table(name = "posts", indexes = {
     @Index(name = "idx_post_user_id", columnList = "user_id"),
     @Index(name = "idx_post_created_at", columnList = "created_at"),
-    @Index(name = "idx_post_user_created", columnList = "user_id, created_at")
+    @Index(name = "idx_post_user_created", columnList = "user_id, created_at"),
+    @Index(name = "idx_post_score_created", columnList = "score, created_at")
 })
 public class Post {
     @Id
@@ -43,6 +45,27 @@ public class Post {
     @Column(name = "updated_at")
     private Instant updatedAt;
 
+    // Denormalized engagement counters, maintained by PostStatsService through bulk
+    // updates. Not updatable via the entity so a stale Post can never overwrite them.
+    @ColumnDefault("0")
+    @Column(name = "upvote_count", nullable = false, updatable = false)
+    private Integer upvoteCount = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "downvote_count", nullable = false, updatable = false)
+    private Integer downvoteCount = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "score", nullable = false, updatable = false)
+    private Integer score = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    private Integer commentCount = 0;
+
+    @Column(name = "last_activity_at", updatable = false)
+    private Instant lastActivityAt;
+
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
     @BatchSize(size = 10)
     @OrderBy("orderIndex ASC")
@@ -66,6 +89,7 @@ public class Post {
         Instant now = Instant.now();
         createdAt = now;
         updatedAt = now;
+        lastActivityAt = now;
     }
 
     @PreUpdate
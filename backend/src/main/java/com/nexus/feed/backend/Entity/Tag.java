@@ -3,6 +3,7 @@ package com.nexus.feed.backend.Entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -16,7 +17,8 @@ import java.util.Set;
 @EqualsAndHashCode(exclude = {"posts"})
 @Entity
 @Table(name = "tags", indexes = {
-    @Index(name = "idx_tag_name", columnList = "name", unique = true)
+    @Index(name = "idx_tag_name", columnList = "name", unique = true),
+    @Index(name = "idx_tag_post_count", columnList = "post_count")
 })
 public class Tag {
     @Id
@@ -28,6 +30,11 @@ public class Tag {
     @Column(unique = true)
     private String name;
 
+    // Posts carrying this tag, kept by TagService as posts gain and lose tags
+    @ColumnDefault("0")
+    @Column(name = "post_count", nullable = false)
+    private int postCount;
+
     @ManyToMany(mappedBy = "tags")
     private Set<Post> posts = new HashSet<>();
 }
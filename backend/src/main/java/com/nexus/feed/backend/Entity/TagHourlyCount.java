@@ -0,0 +1,39 @@
+package com.nexus.feed.backend.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Number of posts created in one hour that currently carry a tag. Trending
+ * scores are weighted sums over the last 30 days of these buckets.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tag_hourly_counts", indexes = {
+    @Index(name = "idx_tag_hourly_hour", columnList = "bucket_hour")
+})
+public class TagHourlyCount {
+    @EmbeddedId
+    private TagHourlyCountId id;
+
+    @Column(name = "post_count", nullable = false)
+    private int postCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Embeddable
+    public static class TagHourlyCountId implements Serializable {
+        @Column(name = "tag_id")
+        private Long tagId;
+
+        @Column(name = "bucket_hour")
+        private Instant hour;
+    }
+}
@@ -0,0 +1,40 @@
+package com.nexus.feed.backend.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Denormalized per-user activity counters, maintained by UserStatsService through
+ * bulk updates in the same transaction as the write they count. Karma stays on
+ * {@link Users}, which is already kept current the same way.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "user_stats")
+public class UserStats {
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @ColumnDefault("0")
+    @Column(name = "post_count", nullable = false)
+    private long postCount;
+
+    @ColumnDefault("0")
+    @Column(name = "comment_count", nullable = false)
+    private long commentCount;
+
+    @ColumnDefault("0")
+    @Column(name = "vote_count", nullable = false)
+    private long voteCount;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
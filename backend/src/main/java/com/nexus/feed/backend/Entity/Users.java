@@ -20,7 +20,8 @@ import java.util.*;
     },
     indexes = {
         @Index(name = "idx_user_username", columnList = "username"),
-        @Index(name = "idx_user_app_user", columnList = "app_user_id")
+        @Index(name = "idx_user_app_user", columnList = "app_user_id"),
+        @Index(name = "idx_user_karma", columnList = "karma")
     }
 )
 public class Users {
@@ -0,0 +1,7 @@
+package com.nexus.feed.backend.Event;
+
+/**
+ * Published when a badge is created or its criteria change; cached rules reload after commit.
+ */
+public record BadgeCatalogChangedEvent(Integer badgeId) {
+}
@@ -0,0 +1,9 @@
+package com.nexus.feed.backend.Event;
+
+import java.util.UUID;
+
+/**
+ * Published inside the creating transaction; listeners react after commit.
+ */
+public record CommentCreatedEvent(UUID commentId, UUID postId, UUID authorId) {
+}
@@ -0,0 +1,11 @@
+package com.nexus.feed.backend.Event;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Published when stored karma changes other than by a vote, such as content
+ * being deleted or a repair by the reconciler. Maps user id to the change.
+ */
+public record KarmaAdjustedEvent(Map<UUID, Long> deltas) {
+}
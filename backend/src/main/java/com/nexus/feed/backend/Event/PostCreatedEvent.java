@@ -0,0 +1,10 @@
+package com.nexus.feed.backend.Event;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Published inside the creating transaction; listeners react after commit.
+ */
+public record PostCreatedEvent(UUID postId, UUID authorId, Instant createdAt) {
+}
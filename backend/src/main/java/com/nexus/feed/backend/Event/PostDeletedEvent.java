@@ -0,0 +1,9 @@
+package com.nexus.feed.backend.Event;
+
+import java.util.UUID;
+
+/**
+ * Published inside the deleting transaction; listeners react after commit.
+ */
+public record PostDeletedEvent(UUID postId) {
+}
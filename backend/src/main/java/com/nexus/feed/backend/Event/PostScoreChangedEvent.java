@@ -0,0 +1,9 @@
+package com.nexus.feed.backend.Event;
+
+import java.util.UUID;
+
+/**
+ * Published when a vote changes a post's net score by {@code scoreDelta}.
+ */
+public record PostScoreChangedEvent(UUID postId, int scoreDelta) {
+}
@@ -0,0 +1,14 @@
+package com.nexus.feed.backend.Event;
+
+import java.util.List;
+
+/**
+ * Published when posts gain or lose tags, with the change to each tag's post
+ * count. A tag enters the autocomplete index with its first post and leaves it
+ * with its last, which is also when it becomes an orphan.
+ */
+public record TagPostCountsChangedEvent(List<Change> changes) {
+
+    public record Change(Long tagId, String name, int delta) {
+    }
+}
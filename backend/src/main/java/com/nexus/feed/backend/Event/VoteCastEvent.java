@@ -0,0 +1,22 @@
+package com.nexus.feed.backend.Event;
+
+import com.nexus.feed.backend.Entity.Vote;
+
+import java.util.UUID;
+
+/**
+ * Published whenever a user's vote on a post or comment changes, including when
+ * it is withdrawn. {@code oldValue} and {@code newValue} are null for "no vote".
+ * {@code authorId} may be null when the change leaves karma untouched.
+ */
+public record VoteCastEvent(UUID voterId, UUID votableId, Vote.VotableType votableType, UUID authorId,
+                            Vote.VoteValue oldValue, Vote.VoteValue newValue, int karmaDelta) {
+
+    public boolean isNewVote() {
+        return oldValue == null && newValue != null;
+    }
+
+    public boolean raisesAuthorKarma() {
+        return karmaDelta > 0 && !authorId.equals(voterId);
+    }
+}
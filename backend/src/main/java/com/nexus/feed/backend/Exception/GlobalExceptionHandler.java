@@ -119,6 +119,14 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error("Invalid or missing request body"));
     }
 
+    @ExceptionHandler(LeaderboardNotReadyException.class)
+    public ResponseEntity<ApiResponse<Void>> handleLeaderboardNotReady(LeaderboardNotReadyException ex) {
+        log.warn("Leaderboard not ready: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ApiResponse<Void>> handleIllegalArgument(IllegalArgumentException ex) {
         log.warn("Illegal argument: {}", ex.getMessage());
@@ -0,0 +1,11 @@
+package com.nexus.feed.backend.Exception;
+
+/**
+ * Exception thrown when a windowed leaderboard is asked for before it has been built.
+ */
+public class LeaderboardNotReadyException extends RuntimeException {
+
+    public LeaderboardNotReadyException(String window) {
+        super(String.format("The %s leaderboard is still being built, try again shortly", window));
+    }
+}
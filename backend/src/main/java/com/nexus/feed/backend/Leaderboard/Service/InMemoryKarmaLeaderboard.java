@@ -0,0 +1,404 @@
+package com.nexus.feed.backend.Leaderboard.Service;
+
+import com.nexus.feed.backend.Entity.KarmaDailyDelta;
+import com.nexus.feed.backend.Event.KarmaAdjustedEvent;
+import com.nexus.feed.backend.Event.VoteCastEvent;
+import com.nexus.feed.backend.Repository.KarmaDailyDeltaRepository;
+import com.nexus.feed.backend.Repository.KarmaShardRepository;
+import com.nexus.feed.backend.Repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Order-statistic trees over every user's karma and over the karma each user
+ * gained from votes in the week and month windows, so the top of a board and any
+ * user's rank come from memory in O(log n). Built from the database once the
+ * application is ready and moved by vote and karma adjustment events after commit.
+ * <p>
+ * Windowed boards sum per-day buckets: a day's bucket is subtracted once it falls
+ * out of a window. Buckets are buffered here and written to karma_daily_deltas by
+ * {@link #flush}, which is what {@link #rebuild} reads them back from, so other
+ * instances' votes and drift in the all-time board are picked up at each rebuild.
+ * <p>
+ * The all-time board is read from users.karma without holding the lock. A change
+ * delivered before a user's read starts is left to the read; one delivered while
+ * the read runs is kept beside it and added when the read is installed, as is one
+ * delivered later. Only a change committed just before a read starts but delivered
+ * after it has started is counted twice, until the next rebuild corrects it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InMemoryKarmaLeaderboard implements KarmaLeaderboard {
+
+    private final UserRepository userRepository;
+    private final KarmaShardRepository karmaShardRepository;
+    private final KarmaDailyDeltaRepository karmaDailyDeltaRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${karma.leaderboard.rebuild-batch-size:1000}")
+    private int rebuildBatchSize = 1000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Clock clock = Clock.systemUTC();
+    private Board board = new Board(LocalDate.now(clock));
+    private Map<KarmaDailyDelta.KarmaDailyDeltaId, Long> unflushed = new HashMap<>();
+    // Users being read by track(), with the all-time deltas that arrived meanwhile
+    private final Map<UUID, Long> tracking = new HashMap<>();
+    // The board a rebuild is reading into, and the deltas that arrived while its current batch was read
+    private Board rebuilding;
+    private Map<UUID, Long> batchDeltas;
+    private volatile boolean ready;
+
+    void setClock(Clock clock) {
+        this.clock = clock;
+        this.board = new Board(LocalDate.now(clock));
+    }
+
+    private static final class Board {
+        private final OrderStatisticTree allTime = new OrderStatisticTree();
+        private final Map<LeaderboardWindow, OrderStatisticTree> windows = new EnumMap<>(LeaderboardWindow.class);
+        private final TreeMap<LocalDate, Map<UUID, Long>> days = new TreeMap<>();
+        private LocalDate today;
+
+        Board(LocalDate today) {
+            this.today = today;
+            windows.put(LeaderboardWindow.WEEK, new OrderStatisticTree());
+            windows.put(LeaderboardWindow.MONTH, new OrderStatisticTree());
+        }
+
+        OrderStatisticTree tree(LeaderboardWindow window) {
+            return window == LeaderboardWindow.ALL ? allTime : windows.get(window);
+        }
+
+        void addToDay(UUID userId, LocalDate day, long delta) {
+            if (!day.isAfter(today.minusDays(LeaderboardWindow.MONTH.getDays()))) {
+                return;
+            }
+            days.computeIfAbsent(day, d -> new HashMap<>()).merge(userId, delta, Long::sum);
+            windows.forEach((window, tree) -> {
+                if (day.isAfter(today.minusDays(window.getDays()))) {
+                    addToWindow(tree, userId, delta);
+                }
+            });
+        }
+
+        void roll(LocalDate to) {
+            if (!to.isAfter(today)) {
+                return;
+            }
+            windows.forEach((window, tree) -> days
+                    .subMap(today.minusDays(window.getDays()), false, to.minusDays(window.getDays()), true)
+                    .forEach((day, bucket) -> bucket.forEach((userId, delta) -> addToWindow(tree, userId, -delta))));
+            days.headMap(to.minusDays(LeaderboardWindow.MONTH.getDays()), true).clear();
+            today = to;
+        }
+
+        // Users whose window karma nets to zero leave the board rather than rank among the idle
+        private static void addToWindow(OrderStatisticTree tree, UUID userId, long delta) {
+            if (tree.add(userId, delta) == 0) {
+                tree.remove(userId);
+            }
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Override
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        // Everything buffered so far is in the database before it is read back
+        flush();
+        LocalDate today = LocalDate.now(clock);
+        Board fresh = new Board(today);
+
+        lock.writeLock().lock();
+        try {
+            rebuilding = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            PageRequest limit = PageRequest.of(0, rebuildBatchSize);
+            UUID lastId = readBatch(fresh, null, limit);
+            while (lastId != null) {
+                lastId = readBatch(fresh, lastId, limit);
+            }
+            for (KarmaDailyDelta bucket : karmaDailyDeltaRepository.findSince(
+                    today.minusDays(LeaderboardWindow.MONTH.getDays() - 1))) {
+                fresh.addToDay(bucket.getId().getUserId(), bucket.getId().getDay(), bucket.getDelta());
+            }
+
+            lock.writeLock().lock();
+            try {
+                // Votes recorded while the database was being read aren't in it yet
+                unflushed.forEach((key, delta) -> fresh.addToDay(key.getUserId(), key.getDay(), delta));
+                fresh.roll(LocalDate.now(clock));
+                board = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                rebuilding = null;
+                batchDeltas = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        ready = true;
+        Integer pruned = new TransactionTemplate(transactionManager).execute(
+                status -> karmaDailyDeltaRepository.deleteBefore(today.minusDays(LeaderboardWindow.MONTH.getDays())));
+        log.info("Karma leaderboard built: {} user(s), {} expired bucket(s) pruned in {} ms",
+                fresh.allTime.size(), pruned, System.currentTimeMillis() - started);
+    }
+
+    // Reads one batch of users after lastId into the board being rebuilt; null once there are none left
+    private UUID readBatch(Board fresh, UUID lastId, PageRequest limit) {
+        lock.writeLock().lock();
+        try {
+            batchDeltas = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<UserRepository.StoredKarma> batch = lastId == null
+                ? userRepository.findKarmaOrderById(limit)
+                : userRepository.findKarmaAfterId(lastId, limit);
+        Map<UUID, Long> pending = batch.isEmpty() ? Map.of()
+                : pendingKarma(batch.stream().map(UserRepository.StoredKarma::getUserId).toList());
+        lock.writeLock().lock();
+        try {
+            // Deltas for users outside this batch will be in the read that reaches them
+            for (UserRepository.StoredKarma stored : batch) {
+                UUID userId = stored.getUserId();
+                fresh.allTime.put(userId, stored.getKarma() + pending.getOrDefault(userId, 0L)
+                        + batchDeltas.getOrDefault(userId, 0L));
+            }
+            batchDeltas = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return batch.isEmpty() ? null : batch.get(batch.size() - 1).getUserId();
+    }
+
+    @Override
+    public synchronized int flush() {
+        Map<KarmaDailyDelta.KarmaDailyDeltaId, Long> pending;
+        lock.writeLock().lock();
+        try {
+            if (unflushed.isEmpty()) {
+                return 0;
+            }
+            pending = unflushed;
+            unflushed = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(
+                    status -> karmaDailyDeltaRepository.addDeltas(pending));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pending.forEach((key, delta) -> unflushed.merge(key, delta, Long::sum));
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        return pending.size();
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("Could not flush karma leaderboard buckets on shutdown: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVoteCast(VoteCastEvent event) {
+        if (event.karmaDelta() == 0 || event.authorId() == null || event.authorId().equals(event.voterId())) {
+            return;
+        }
+        UUID authorId = event.authorId();
+        LocalDate today = LocalDate.now(clock);
+        boolean tracked;
+        lock.writeLock().lock();
+        try {
+            board.roll(today);
+            unflushed.merge(new KarmaDailyDelta.KarmaDailyDeltaId(authorId, today), (long) event.karmaDelta(), Long::sum);
+            board.addToDay(authorId, today, event.karmaDelta());
+            tracked = adjustTracked(authorId, event.karmaDelta());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!tracked) {
+            track(authorId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onKarmaAdjusted(KarmaAdjustedEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.deltas().forEach(this::adjustTracked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Moves a user already on the all-time board, or being read onto it; others are read when first needed
+    private boolean adjustTracked(UUID userId, long delta) {
+        if (rebuilding != null && delta != 0) {
+            // Users the rebuild has yet to reach will have this change in what it reads
+            if (rebuilding.allTime.contains(userId)) {
+                rebuilding.allTime.add(userId, delta);
+            } else if (batchDeltas != null) {
+                batchDeltas.merge(userId, delta, Long::sum);
+            }
+        }
+        if (tracking.containsKey(userId)) {
+            tracking.merge(userId, delta, Long::sum);
+            return true;
+        }
+        if (!board.allTime.contains(userId)) {
+            return false;
+        }
+        if (delta != 0) {
+            board.allTime.add(userId, delta);
+        }
+        return true;
+    }
+
+    private void track(UUID userId) {
+        if (!ready) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            // One read per user at a time; changes delivered while it runs are kept in tracking
+            if (board.allTime.contains(userId) || tracking.putIfAbsent(userId, 0L) != null) {
+                return;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Long karma = null;
+        try {
+            // Read after the change committed, so the stored value already includes it
+            karma = userRepository.findById(userId)
+                    .map(user -> user.getKarma() + pendingKarma(List.of(userId)).getOrDefault(userId, 0L))
+                    .orElse(null);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                long missed = tracking.remove(userId);
+                if (karma != null && !board.allTime.contains(userId)) {
+                    board.allTime.put(userId, karma + missed);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    public List<OrderStatisticTree.Entry> top(LeaderboardWindow window, int limit) {
+        rollIfStale();
+        lock.readLock().lock();
+        try {
+            return board.tree(window).range(0, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Standing> standing(UUID userId, LeaderboardWindow window) {
+        rollIfStale();
+        if (window == LeaderboardWindow.ALL) {
+            lock.readLock().lock();
+            boolean tracked;
+            try {
+                tracked = board.allTime.contains(userId);
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (!tracked) {
+                track(userId);
+            }
+        }
+        lock.readLock().lock();
+        try {
+            OrderStatisticTree tree = board.tree(window);
+            int rank = tree.rank(userId);
+            return rank == 0 ? Optional.empty() : Optional.of(new Standing(rank, tree.score(userId), tree.size()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(UUID userId) {
+        lock.writeLock().lock();
+        try {
+            board.allTime.remove(userId);
+            board.windows.values().forEach(tree -> tree.remove(userId));
+            board.days.values().forEach(bucket -> bucket.remove(userId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void rollIfStale() {
+        LocalDate today = LocalDate.now(clock);
+        lock.readLock().lock();
+        try {
+            if (!today.isAfter(board.today)) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            board.roll(today);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<UUID, Long> pendingKarma(List<UUID> userIds) {
+        return karmaShardRepository.sumByUserIds(userIds).stream().collect(Collectors.toMap(
+                KarmaShardRepository.PendingKarma::getUserId, KarmaShardRepository.PendingKarma::getPending));
+    }
+}
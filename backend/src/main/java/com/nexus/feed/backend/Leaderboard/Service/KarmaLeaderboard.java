@@ -0,0 +1,25 @@
+package com.nexus.feed.backend.Leaderboard.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface KarmaLeaderboard {
+
+    record Standing(int rank, long karma, int rankedUsers) {
+    }
+
+    boolean isReady();
+
+    List<OrderStatisticTree.Entry> top(LeaderboardWindow window, int limit);
+
+    /** Empty when the user has no karma in a windowed board or is unknown to the all-time one. */
+    Optional<Standing> standing(UUID userId, LeaderboardWindow window);
+
+    void remove(UUID userId);
+
+    void rebuild();
+
+    /** Writes buffered daily deltas to the database and returns how many buckets were written. */
+    int flush();
+}
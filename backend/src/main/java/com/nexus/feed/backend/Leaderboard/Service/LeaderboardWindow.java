@@ -0,0 +1,38 @@
+package com.nexus.feed.backend.Leaderboard.Service;
+
+import java.util.Locale;
+
+/**
+ * Period a leaderboard ranks over. Windowed boards score karma earned from
+ * votes on the last {@link #getDays()} UTC days, today included.
+ */
+public enum LeaderboardWindow {
+    ALL("all", 0),
+    WEEK("week", 7),
+    MONTH("month", 30);
+
+    private final String value;
+    private final int days;
+
+    LeaderboardWindow(String value, int days) {
+        this.value = value;
+        this.days = days;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public static LeaderboardWindow fromValue(String value) {
+        for (LeaderboardWindow window : values()) {
+            if (window.value.equals(value.toLowerCase(Locale.ROOT))) {
+                return window;
+            }
+        }
+        throw new IllegalArgumentException("Window must be one of all, week, month: " + value);
+    }
+}
@@ -0,0 +1,217 @@
+package com.nexus.feed.backend.Leaderboard.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Treap over (score descending, userId ascending) where every node also counts
+ * its subtree, so a user's rank and the entry at any rank are found in expected
+ * O(log n). A side map from user to score lets callers move a user without
+ * knowing their old score. Not thread-safe.
+ */
+public class OrderStatisticTree {
+
+    public record Entry(UUID userId, long score) {
+    }
+
+    private static final class Node {
+        final UUID userId;
+        final long score;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(UUID userId, long score) {
+            this.userId = userId;
+            this.score = score;
+        }
+    }
+
+    private final Map<UUID, Long> scores = new HashMap<>();
+    private Node root;
+
+    public int size() {
+        return scores.size();
+    }
+
+    public boolean contains(UUID userId) {
+        return scores.containsKey(userId);
+    }
+
+    public Long score(UUID userId) {
+        return scores.get(userId);
+    }
+
+    public void put(UUID userId, long score) {
+        Long old = scores.put(userId, score);
+        if (old != null) {
+            if (old == score) {
+                return;
+            }
+            root = delete(root, old, userId);
+        }
+        root = insert(root, new Node(userId, score));
+    }
+
+    /** Adds {@code delta} to the user's score, starting from zero if they aren't in the tree. */
+    public long add(UUID userId, long delta) {
+        long score = scores.getOrDefault(userId, 0L) + delta;
+        put(userId, score);
+        return score;
+    }
+
+    public boolean remove(UUID userId) {
+        Long old = scores.remove(userId);
+        if (old == null) {
+            return false;
+        }
+        root = delete(root, old, userId);
+        return true;
+    }
+
+    /** 1-based position of the user, or 0 if they aren't in the tree. */
+    public int rank(UUID userId) {
+        Long score = scores.get(userId);
+        if (score == null) {
+            return 0;
+        }
+        int ahead = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(score, userId, node);
+            if (cmp == 0) {
+                return ahead + size(node.left) + 1;
+            }
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                ahead += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        throw new IllegalStateException("Score map and tree disagree for " + userId);
+    }
+
+    /** Up to {@code limit} entries starting at the 0-based position {@code offset}. */
+    public List<Entry> range(int offset, int limit) {
+        List<Entry> entries = new ArrayList<>(Math.max(0, Math.min(limit, size() - offset)));
+        collect(root, offset, limit, entries);
+        return entries;
+    }
+
+    public void clear() {
+        scores.clear();
+        root = null;
+    }
+
+    // In-order walk that skips whole subtrees lying before the offset
+    private static int collect(Node node, int skip, int limit, List<Entry> out) {
+        if (node == null || out.size() >= limit) {
+            return skip;
+        }
+        if (skip >= size(node.left) + 1) {
+            return collect(node.right, skip - size(node.left) - 1, limit, out);
+        }
+        skip = collect(node.left, skip, limit, out);
+        if (out.size() >= limit) {
+            return skip;
+        }
+        if (skip > 0) {
+            skip--;
+        } else {
+            out.add(new Entry(node.userId, node.score));
+        }
+        return collect(node.right, skip, limit, out);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (added.priority > node.priority) {
+            Node[] parts = split(node, added.score, added.userId);
+            added.left = parts[0];
+            added.right = parts[1];
+            update(added);
+            return added;
+        }
+        if (compare(added.score, added.userId, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node delete(Node node, long score, UUID userId) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(score, userId, node);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = delete(node.left, score, userId);
+        } else {
+            node.right = delete(node.right, score, userId);
+        }
+        update(node);
+        return node;
+    }
+
+    // Splits into keys ordered before (score, userId) and the rest
+    private static Node[] split(Node node, long score, UUID userId) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (compare(score, userId, node) > 0) {
+            Node[] parts = split(node.right, score, userId);
+            node.right = parts[0];
+            update(node);
+            parts[0] = node;
+            return parts;
+        }
+        Node[] parts = split(node.left, score, userId);
+        node.left = parts[1];
+        update(node);
+        parts[1] = node;
+        return parts;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static int compare(long score, UUID userId, Node node) {
+        int cmp = Long.compare(node.score, score);
+        return cmp != 0 ? cmp : userId.compareTo(node.userId);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+}
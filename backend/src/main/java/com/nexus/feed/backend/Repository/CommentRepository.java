@@ -6,9 +6,12 @@ import com.nexus.feed.backend.Entity.Users;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,8 +21,84 @@ public interface CommentRepository extends JpaRepository<Comment, UUID> {
     
     List<Comment> findByParentCommentOrderByCreatedAtAsc(Comment parentComment);
     
+    // Whole thread in one round trip; the caller links replies to parents in memory
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user LEFT JOIN FETCH c.parentComment WHERE c.post.id = :postId ORDER BY c.createdAt ASC")
+    List<Comment> findAllByPostIdWithUser(@Param("postId") UUID postId);
+    
+    // Subtree query over the materialized path, a prefix range scan on idx_comment_path
+    @Query("SELECT DISTINCT c.user.id FROM Comment c WHERE c.path LIKE CONCAT(:prefix, '%')")
+    List<UUID> findDescendantAuthorIds(@Param("prefix") String prefix);
+    
+    @Query("SELECT DISTINCT c.user.id FROM Comment c WHERE c.post.id = :postId")
+    List<UUID> findAuthorIdsByPostId(@Param("postId") UUID postId);
+    
+    // Backfill for rows created before paths existed, one bounded batch per call
+    @Modifying
+    @Query(value = "UPDATE comments SET path = '' WHERE id IN (" +
+                   "SELECT id FROM comments WHERE path IS NULL AND parent_comment_id IS NULL LIMIT :limit)",
+           nativeQuery = true)
+    int backfillTopLevelPaths(@Param("limit") int limit);
+    
+    @Modifying
+    @Query(value = "UPDATE comments SET path = (" +
+                   "SELECT p.path || CAST(p.id AS VARCHAR(36)) || '/' FROM comments p WHERE p.id = comments.parent_comment_id) " +
+                   "WHERE id IN (SELECT c.id FROM comments c JOIN comments p ON p.id = c.parent_comment_id " +
+                   "WHERE c.path IS NULL AND p.path IS NOT NULL AND LENGTH(p.path) <= :maxParentLength LIMIT :limit)",
+           nativeQuery = true)
+    int backfillReplyPaths(@Param("maxParentLength") int maxParentLength, @Param("limit") int limit);
+    
+    // Author lookup that doubles as an existence check, without loading the comment
+    @Query("SELECT c.user.id FROM Comment c WHERE c.id = :commentId")
+    java.util.Optional<UUID> findAuthorIdById(@Param("commentId") UUID commentId);
+    
     Page<Comment> findByUserOrderByCreatedAtDesc(Users user, Pageable pageable);
     
+    // User comment pages and single lookups hydrate the author in the same statement; post and
+    // parent are lazy and only their ids, read from the row's foreign keys, are needed
+    @Query(value = "SELECT c FROM Comment c JOIN FETCH c.user WHERE c.user.id = :userId ORDER BY c.createdAt DESC",
+            countQuery = "SELECT COUNT(c) FROM Comment c WHERE c.user.id = :userId")
+    Page<Comment> findPageWithUserByUserId(@Param("userId") UUID userId, Pageable pageable);
+    
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.id = :id")
+    java.util.Optional<Comment> findWithUserById(@Param("id") UUID id);
+    
+    // Paged thread queries: keyset on (created_at, id), top-level newest first via idx_comment_post_created,
+    // replies oldest first via idx_comment_parent_created
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.post.id = :postId AND c.parentComment IS NULL " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findTopLevelByPostId(@Param("postId") UUID postId, Pageable pageable);
+    
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.post.id = :postId AND c.parentComment IS NULL " +
+           "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findTopLevelByPostIdAfter(@Param("postId") UUID postId, @Param("createdAt") Instant createdAt,
+                                            @Param("id") UUID id, Pageable pageable);
+    
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.parentComment.id = :parentId " +
+           "ORDER BY c.createdAt ASC, c.id ASC")
+    List<Comment> findRepliesByParentId(@Param("parentId") UUID parentId, Pageable pageable);
+    
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.parentComment.id = :parentId " +
+           "AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id)) " +
+           "ORDER BY c.createdAt ASC, c.id ASC")
+    List<Comment> findRepliesByParentIdAfter(@Param("parentId") UUID parentId, @Param("createdAt") Instant createdAt,
+                                             @Param("id") UUID id, Pageable pageable);
+    
+    // First :perParent replies of each parent in one round trip; ids come back as text for driver portability
+    @Query(value = """
+        SELECT CAST(r.id AS VARCHAR(36)) FROM (
+            SELECT c.id, ROW_NUMBER() OVER (PARTITION BY c.parent_comment_id ORDER BY c.created_at, c.id) AS rn
+            FROM comments c WHERE c.parent_comment_id IN (:parentIds)
+        ) r WHERE r.rn <= :perParent
+        """, nativeQuery = true)
+    List<String> findFirstReplyIdsPerParent(@Param("parentIds") Collection<UUID> parentIds, @Param("perParent") int perParent);
+    
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.id IN :ids")
+    List<Comment> findAllWithUserByIdIn(@Param("ids") Collection<UUID> ids);
+    
+    @Query("SELECT DISTINCT c.parentComment.id FROM Comment c WHERE c.parentComment.id IN :parentIds")
+    List<UUID> findParentIdsWithReplies(@Param("parentIds") Collection<UUID> parentIds);
+    
     @Query("SELECT COUNT(c) FROM Comment c WHERE c.post = :post")
     long countByPost(Post post);
     
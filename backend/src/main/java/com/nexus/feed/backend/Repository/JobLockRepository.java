@@ -0,0 +1,42 @@
+package com.nexus.feed.backend.Repository;
+
+import com.nexus.feed.backend.Entity.JobLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Repository
+public interface JobLockRepository extends JpaRepository<JobLock, String> {
+
+    @Modifying
+    @Query("UPDATE JobLock l SET l.lockedBy = :owner, l.lockedUntil = :until " +
+           "WHERE l.name = :name AND (l.lockedUntil IS NULL OR l.lockedUntil < :now OR l.lockedBy = :owner)")
+    int claim(@Param("name") String name, @Param("owner") String owner,
+              @Param("now") Instant now, @Param("until") Instant until);
+
+    @Modifying
+    @Query(value = "INSERT INTO job_locks (name, locked_by, locked_until) " +
+                   "SELECT :name, :owner, :until WHERE NOT EXISTS (SELECT 1 FROM job_locks WHERE name = :name)",
+           nativeQuery = true)
+    int insertClaimed(@Param("name") String name, @Param("owner") String owner, @Param("until") Instant until);
+
+    @Modifying
+    @Query("UPDATE JobLock l SET l.resumeCursor = :cursor, l.lockedUntil = :until " +
+           "WHERE l.name = :name AND l.lockedBy = :owner")
+    int saveCursor(@Param("name") String name, @Param("owner") String owner,
+                   @Param("cursor") UUID cursor, @Param("until") Instant until);
+
+    @Modifying
+    @Query("UPDATE JobLock l SET l.resumeCursor = NULL, l.lastCompletedAt = :now " +
+           "WHERE l.name = :name AND l.lockedBy = :owner")
+    int complete(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE JobLock l SET l.lockedUntil = NULL WHERE l.name = :name AND l.lockedBy = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
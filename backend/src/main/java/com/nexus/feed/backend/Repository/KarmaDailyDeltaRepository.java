@@ -0,0 +1,23 @@
+package com.nexus.feed.backend.Repository;
+
+import com.nexus.feed.backend.Entity.KarmaDailyDelta;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface KarmaDailyDeltaRepository extends JpaRepository<KarmaDailyDelta, KarmaDailyDelta.KarmaDailyDeltaId>,
+        KarmaDailyDeltaRepositoryCustom {
+
+    @Query("SELECT d FROM KarmaDailyDelta d WHERE d.id.day >= :since AND d.delta <> 0")
+    List<KarmaDailyDelta> findSince(@Param("since") LocalDate since);
+
+    @Modifying
+    @Query("DELETE FROM KarmaDailyDelta d WHERE d.id.day < :before")
+    int deleteBefore(@Param("before") LocalDate before);
+}
@@ -0,0 +1,10 @@
+package com.nexus.feed.backend.Repository;
+
+import com.nexus.feed.backend.Entity.KarmaDailyDelta;
+
+import java.util.Map;
+
+public interface KarmaDailyDeltaRepositoryCustom {
+    // Adds each delta to its bucket, creating buckets that don't exist yet
+    void addDeltas(Map<KarmaDailyDelta.KarmaDailyDeltaId, Long> deltas);
+}
@@ -0,0 +1,69 @@
+package com.nexus.feed.backend.Repository;
+
+import com.nexus.feed.backend.Entity.KarmaDailyDelta;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.Map;
+
+/**
+ * PostgreSQL writes all buckets in one batched upsert; other databases (H2 in
+ * tests) update each bucket and insert the ones that are missing.
+ */
+@RequiredArgsConstructor
+public class KarmaDailyDeltaRepositoryCustomImpl implements KarmaDailyDeltaRepositoryCustom {
+
+    private static final String UPSERT = """
+            INSERT INTO karma_daily_deltas (user_id, bucket_day, delta) VALUES (:userId, :day, :delta)
+            ON CONFLICT (user_id, bucket_day) DO UPDATE SET delta = karma_daily_deltas.delta + EXCLUDED.delta
+            """;
+
+    private static final String UPDATE =
+            "UPDATE karma_daily_deltas SET delta = delta + :delta WHERE user_id = :userId AND bucket_day = :day";
+
+    private static final String INSERT =
+            "INSERT INTO karma_daily_deltas (user_id, bucket_day, delta) VALUES (:userId, :day, :delta)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public void addDeltas(Map<KarmaDailyDelta.KarmaDailyDeltaId, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource[] batch = deltas.entrySet().stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("userId", entry.getKey().getUserId())
+                        .addValue("day", entry.getKey().getDay())
+                        .addValue("delta", entry.getValue()))
+                .toArray(MapSqlParameterSource[]::new);
+        if (isPostgres()) {
+            jdbcTemplate.batchUpdate(UPSERT, batch);
+            return;
+        }
+        for (MapSqlParameterSource params : batch) {
+            if (jdbcTemplate.update(UPDATE, params) > 0) {
+                continue;
+            }
+            try {
+                jdbcTemplate.update(INSERT, params);
+            } catch (DuplicateKeyException e) {
+                jdbcTemplate.update(UPDATE, params);
+            }
+        }
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            String database = jdbcTemplate.getJdbcTemplate().execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equals(database);
+        }
+        return postgres;
+    }
+}
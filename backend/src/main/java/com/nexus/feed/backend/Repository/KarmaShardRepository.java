@@ -0,0 +1,41 @@
+package com.nexus.feed.backend.Repository;
+
+import com.nexus.feed.backend.Entity.KarmaShard;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface KarmaShardRepository extends JpaRepository<KarmaShard, KarmaShard.KarmaShardId>, KarmaShardRepositoryCustom {
+
+    @Query("SELECT s.id.userId as userId, SUM(s.delta) as pending FROM KarmaShard s " +
+           "WHERE s.id.userId IN :userIds GROUP BY s.id.userId")
+    List<PendingKarma> sumByUserIds(@Param("userIds") Collection<UUID> userIds);
+
+    @Query("SELECT DISTINCT s.id.userId FROM KarmaShard s WHERE s.delta <> 0")
+    List<UUID> findUserIdsWithPendingKarma(Pageable pageable);
+
+    @Query("SELECT s FROM KarmaShard s WHERE s.id.userId = :userId AND s.delta <> 0")
+    List<KarmaShard> findPendingByUserId(@Param("userId") UUID userId);
+
+    // Subtracts the amount that was folded, so deltas added since it was read stay behind
+    @Modifying
+    @Query("UPDATE KarmaShard s SET s.delta = s.delta - :folded WHERE s.id.userId = :userId AND s.id.shard = :shard")
+    int subtractDelta(@Param("userId") UUID userId, @Param("shard") int shard, @Param("folded") long folded);
+
+    @Modifying
+    @Query("DELETE FROM KarmaShard s WHERE s.delta = 0")
+    int deleteDrained();
+
+    interface PendingKarma {
+        UUID getUserId();
+        Long getPending();
+    }
+}
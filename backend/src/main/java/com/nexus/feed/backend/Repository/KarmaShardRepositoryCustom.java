@@ -0,0 +1,11 @@
+package com.nexus.feed.backend.Repository;
+
+import java.util.UUID;
+
+public interface KarmaShardRepositoryCustom {
+
+    /**
+     * Add to one stripe of a user's pending karma, creating the stripe if needed.
+     */
+    void addDelta(UUID userId, int shard, long delta);
+}
@@ -0,0 +1,62 @@
+package com.nexus.feed.backend.Repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.UUID;
+
+/**
+ * PostgreSQL adds to a stripe with a single upsert; other databases (H2 in tests)
+ * update first, insert a missing stripe, and update again if a concurrent insert
+ * created it first.
+ */
+@RequiredArgsConstructor
+public class KarmaShardRepositoryCustomImpl implements KarmaShardRepositoryCustom {
+
+    private static final String UPSERT = """
+            INSERT INTO karma_shards (user_id, shard, delta) VALUES (:userId, :shard, :delta)
+            ON CONFLICT (user_id, shard) DO UPDATE SET delta = karma_shards.delta + EXCLUDED.delta
+            """;
+
+    private static final String UPDATE =
+            "UPDATE karma_shards SET delta = delta + :delta WHERE user_id = :userId AND shard = :shard";
+
+    private static final String INSERT =
+            "INSERT INTO karma_shards (user_id, shard, delta) VALUES (:userId, :shard, :delta)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public void addDelta(UUID userId, int shard, long delta) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("shard", shard)
+                .addValue("delta", delta);
+        if (isPostgres()) {
+            jdbcTemplate.update(UPSERT, params);
+            return;
+        }
+        if (jdbcTemplate.update(UPDATE, params) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(INSERT, params);
+        } catch (DuplicateKeyException e) {
+            jdbcTemplate.update(UPDATE, params);
+        }
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            String database = jdbcTemplate.getJdbcTemplate().execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equals(database);
+        }
+        return postgres;
+    }
+}
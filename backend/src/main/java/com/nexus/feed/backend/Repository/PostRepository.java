@@ -2,83 +2,316 @@ package com.nexus.feed.backend.Repository;
 
 import com.nexus.feed.backend.Entity.Post;
 import com.nexus.feed.backend.Entity.Users;
+import com.nexus.feed.backend.Entity.Vote;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, UUID> {
-    @Query("SELECT DISTINCT p FROM Post p LEFT JOIN FETCH p.user LEFT JOIN FETCH p.images LEFT JOIN FETCH p.tags WHERE p.user = :user ORDER BY p.createdAt DESC")
-    Page<Post> findByUserOrderByCreatedAtDesc(@Param("user") Users user, Pageable pageable);
+    // Paged post listings run in two phases: an id query the database can LIMIT/OFFSET, then one
+    // JOIN FETCH query hydrating user, images and tags for just that page. Putting the collection
+    // fetches on the paged query makes Hibernate load every matching row and paginate in memory.
     
-    @Query("SELECT DISTINCT p FROM Post p LEFT JOIN FETCH p.user LEFT JOIN FETCH p.images LEFT JOIN FETCH p.tags ORDER BY p.createdAt DESC")
-    Page<Post> findAllOrderByCreatedAtDesc(Pageable pageable);
+    @Query(value = "SELECT p.id FROM Post p WHERE p.user = :user ORDER BY p.createdAt DESC",
+           countQuery = "SELECT COUNT(p) FROM Post p WHERE p.user = :user")
+    Page<UUID> findIdsByUserOrderByCreatedAtDesc(@Param("user") Users user, Pageable pageable);
     
-    @Query("SELECT DISTINCT p FROM Post p LEFT JOIN FETCH p.user LEFT JOIN FETCH p.images LEFT JOIN FETCH p.tags WHERE p.title LIKE %:keyword% OR p.body LIKE %:keyword% ORDER BY p.createdAt DESC")
-    Page<Post> findByTitleContainingOrBodyContainingOrderByCreatedAtDesc(@Param("keyword") String keyword, Pageable pageable);
+    default Page<Post> findByUserOrderByCreatedAtDesc(Users user, Pageable pageable) {
+        return hydratePage(findIdsByUserOrderByCreatedAtDesc(user, pageable));
+    }
+    
+    @Query(value = "SELECT p.id FROM Post p ORDER BY p.createdAt DESC",
+           countQuery = "SELECT COUNT(p) FROM Post p")
+    Page<UUID> findIdsOrderByCreatedAtDesc(Pageable pageable);
+    
+    default Page<Post> findAllOrderByCreatedAtDesc(Pageable pageable) {
+        return hydratePage(findIdsOrderByCreatedAtDesc(pageable));
+    }
+    
+    @Query(value = "SELECT p.id FROM Post p WHERE p.title LIKE %:keyword% OR p.body LIKE %:keyword% ORDER BY p.createdAt DESC",
+           countQuery = "SELECT COUNT(p) FROM Post p WHERE p.title LIKE %:keyword% OR p.body LIKE %:keyword%")
+    Page<UUID> findIdsByKeywordOrderByCreatedAtDesc(@Param("keyword") String keyword, Pageable pageable);
+    
+    default Page<Post> findByTitleContainingOrBodyContainingOrderByCreatedAtDesc(String keyword, Pageable pageable) {
+        return hydratePage(findIdsByKeywordOrderByCreatedAtDesc(keyword, pageable));
+    }
     
     @Query("SELECT DISTINCT p FROM Post p LEFT JOIN FETCH p.user LEFT JOIN FETCH p.images LEFT JOIN FETCH p.tags WHERE p.id = :id")
     java.util.Optional<Post> findByIdWithUserAndImages(@Param("id") UUID id);
     
-    @Query("SELECT DISTINCT p FROM Post p LEFT JOIN FETCH p.user LEFT JOIN FETCH p.images LEFT JOIN p.tags t WHERE LOWER(t.name) = LOWER(:tagName) ORDER BY p.createdAt DESC")
-    Page<Post> findByTagName(@Param("tagName") String tagName, Pageable pageable);
+    // Post detail reads in two projection queries that leave nothing managed: the post row with its
+    // author, denormalized counters and the viewer's vote, then its images and tags as one row set
+    interface PostDetailView {
+        UUID getId();
+        String getTitle();
+        String getBody();
+        Instant getCreatedAt();
+        Instant getUpdatedAt();
+        UUID getUserId();
+        String getUsername();
+        String getProfilePictureUrl();
+        Integer getCommentCount();
+        Integer getUpvoteCount();
+        Integer getDownvoteCount();
+        Vote.VoteValue getUserVote();
+    }
+    
+    interface PostAttributeView {
+        String getKind();
+        String getContent();
+    }
+    
+    String ATTRIBUTE_IMAGE = "IMAGE";
+    String ATTRIBUTE_TAG = "TAG";
+    
+    @Query("SELECT p.id AS id, p.title AS title, p.body AS body, p.createdAt AS createdAt, p.updatedAt AS updatedAt, " +
+           "u.id AS userId, u.username AS username, u.profilePictureUrl AS profilePictureUrl, " +
+           "p.commentCount AS commentCount, p.upvoteCount AS upvoteCount, p.downvoteCount AS downvoteCount, " +
+           "v.voteValue AS userVote " +
+           "FROM Post p JOIN p.user u " +
+           "LEFT JOIN Vote v ON v.id.votableId = p.id AND v.id.userId = :viewerId AND v.votableType = 'POST' " +
+           "WHERE p.id = :id")
+    java.util.Optional<PostDetailView> findDetailById(@Param("id") UUID id, @Param("viewerId") UUID viewerId);
+    
+    // Images in display order, then tags by name
+    @Query(value = """
+        SELECT 'IMAGE' AS kind, i.image_url AS content, i.order_index AS sort_order
+        FROM post_images i WHERE i.post_id = :postId
+        UNION ALL
+        SELECT 'TAG' AS kind, t.name AS content, 0 AS sort_order
+        FROM post_tags pt JOIN tags t ON t.id = pt.tag_id WHERE pt.post_id = :postId
+        ORDER BY kind, sort_order, content
+        """, nativeQuery = true)
+    List<PostAttributeView> findDetailAttributesById(@Param("postId") UUID postId);
+    
+    @Query(value = "SELECT p.id FROM Post p WHERE EXISTS (SELECT t FROM p.tags t WHERE LOWER(t.name) = LOWER(:tagName)) ORDER BY p.createdAt DESC",
+           countQuery = "SELECT COUNT(p) FROM Post p WHERE EXISTS (SELECT t FROM p.tags t WHERE LOWER(t.name) = LOWER(:tagName))")
+    Page<UUID> findIdsByTagName(@Param("tagName") String tagName, Pageable pageable);
+    
+    default Page<Post> findByTagName(String tagName, Pageable pageable) {
+        return hydratePage(findIdsByTagName(tagName, pageable));
+    }
+    
+    @Query(value = "SELECT p.id FROM Post p WHERE EXISTS (SELECT t FROM p.tags t WHERE LOWER(t.name) IN :tagNames) ORDER BY p.createdAt DESC",
+           countQuery = "SELECT COUNT(p) FROM Post p WHERE EXISTS (SELECT t FROM p.tags t WHERE LOWER(t.name) IN :tagNames)")
+    Page<UUID> findIdsByTagNames(@Param("tagNames") java.util.List<String> tagNames, Pageable pageable);
     
-    @Query("SELECT DISTINCT p FROM Post p LEFT JOIN FETCH p.user LEFT JOIN FETCH p.images LEFT JOIN p.tags t WHERE LOWER(t.name) IN :tagNames ORDER BY p.createdAt DESC")
-    Page<Post> findByTagNames(@Param("tagNames") java.util.List<String> tagNames, Pageable pageable);
+    default Page<Post> findByTagNames(java.util.List<String> tagNames, Pageable pageable) {
+        return hydratePage(findIdsByTagNames(tagNames, pageable));
+    }
     
     long countByUser(Users user);
     
+    @Query(value = "SELECT p.id FROM Post p ORDER BY p.score DESC, p.createdAt DESC",
+           countQuery = "SELECT COUNT(p) FROM Post p")
+    Page<UUID> findIdsOrderByBest(Pageable pageable);
+    
+    default Page<Post> findAllOrderByBest(Pageable pageable) {
+        return hydratePage(findIdsOrderByBest(pageable));
+    }
+    
+    // Native id queries return text ids; UUID columns don't map to one Java type across drivers
     @Query(value = """
-        SELECT p.* FROM posts p 
-        LEFT JOIN (
-            SELECT v.votable_id, 
-                   SUM(CASE WHEN v.vote_value = 'UPVOTE' THEN 1 WHEN v.vote_value = 'DOWNVOTE' THEN -1 ELSE 0 END) as net_votes
-            FROM votes v WHERE v.votable_type = 'POST' GROUP BY v.votable_id
-        ) vc ON vc.votable_id = p.id
-        ORDER BY COALESCE(vc.net_votes, 0) DESC, p.created_at DESC
+        SELECT CAST(p.id AS VARCHAR(36)) FROM posts p 
+        ORDER BY p.score / POWER(EXTRACT(EPOCH FROM (CURRENT_TIMESTAMP - p.created_at)) / 3600.0 + 2, 1.5) DESC, p.created_at DESC
         """, 
         countQuery = "SELECT COUNT(p.id) FROM posts p",
         nativeQuery = true)
-    Page<Post> findAllOrderByBest(Pageable pageable);
+    Page<String> findIdsOrderByHot(Pageable pageable);
+    
+    default Page<Post> findAllOrderByHot(Pageable pageable) {
+        return hydratePage(findIdsOrderByHot(pageable).map(UUID::fromString));
+    }
+    
+    @Query("SELECT DISTINCT p FROM Post p LEFT JOIN FETCH p.user LEFT JOIN FETCH p.images LEFT JOIN FETCH p.tags WHERE p.id IN :ids")
+    List<Post> findAllWithDetailsByIdIn(@Param("ids") java.util.Collection<UUID> ids);
+    
+    default Page<Post> hydratePage(Page<UUID> ids) {
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), ids.getPageable(), ids.getTotalElements());
+        }
+        java.util.Map<UUID, Post> byId = new java.util.HashMap<>();
+        for (Post post : findAllWithDetailsByIdIn(ids.getContent())) {
+            byId.put(post.getId(), post);
+        }
+        // Rows deleted between the two queries are skipped rather than returned as nulls
+        List<Post> ordered = ids.getContent().stream()
+                .map(byId::get)
+                .filter(java.util.Objects::nonNull)
+                .toList();
+        return new PageImpl<>(ordered, ids.getPageable(), ids.getTotalElements());
+    }
+    
+    // Keyset (cursor) feed queries: no OFFSET and no count query, so every slice costs the same
+    @Query("SELECT p FROM Post p JOIN FETCH p.user ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findFeedNewFirst(Pageable pageable);
+    
+    @Query("SELECT p FROM Post p JOIN FETCH p.user " +
+           "WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findFeedNewAfter(@Param("createdAt") Instant createdAt, @Param("id") UUID id, Pageable pageable);
+    
+    @Query("SELECT p FROM Post p JOIN FETCH p.user ORDER BY p.score DESC, p.createdAt DESC, p.id DESC")
+    List<Post> findFeedBestFirst(Pageable pageable);
+    
+    @Query("SELECT p FROM Post p JOIN FETCH p.user " +
+           "WHERE p.score < :score OR (p.score = :score AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))) " +
+           "ORDER BY p.score DESC, p.createdAt DESC, p.id DESC")
+    List<Post> findFeedBestAfter(@Param("score") int score, @Param("createdAt") Instant createdAt,
+                                 @Param("id") UUID id, Pageable pageable);
     
     @Query(value = """
-        SELECT p.* FROM posts p 
-        LEFT JOIN (
-            SELECT v.votable_id, 
-                   SUM(CASE WHEN v.vote_value = 'UPVOTE' THEN 1 WHEN v.vote_value = 'DOWNVOTE' THEN -1 ELSE 0 END) as net_votes
-            FROM votes v WHERE v.votable_type = 'POST' GROUP BY v.votable_id
-        ) vc ON vc.votable_id = p.id
-        ORDER BY COALESCE(vc.net_votes, 0) / POWER(EXTRACT(EPOCH FROM (CURRENT_TIMESTAMP - p.created_at)) / 3600.0 + 2, 1.5) DESC, p.created_at DESC
-        """, 
-        countQuery = "SELECT COUNT(p.id) FROM posts p",
+        SELECT CAST(ranked.id AS VARCHAR(36)) AS id, ranked.hot_rank AS hotRank FROM (
+            SELECT p.id, p.created_at,
+                   p.score / POWER(EXTRACT(EPOCH FROM (CAST(:asOf AS TIMESTAMP WITH TIME ZONE) - p.created_at)) / 3600.0 + 2, 1.5) AS hot_rank
+            FROM posts p WHERE p.created_at <= :asOf
+        ) ranked
+        ORDER BY ranked.hot_rank DESC, ranked.created_at DESC, ranked.id DESC
+        """,
+        nativeQuery = true)
+    List<HotFeedKey> findFeedHotFirst(@Param("asOf") Instant asOf, Pageable pageable);
+    
+    @Query(value = """
+        SELECT CAST(ranked.id AS VARCHAR(36)) AS id, ranked.hot_rank AS hotRank FROM (
+            SELECT p.id, p.created_at,
+                   p.score / POWER(EXTRACT(EPOCH FROM (CAST(:asOf AS TIMESTAMP WITH TIME ZONE) - p.created_at)) / 3600.0 + 2, 1.5) AS hot_rank
+            FROM posts p WHERE p.created_at <= :asOf
+        ) ranked
+        WHERE ranked.hot_rank < :hotRank
+           OR (ranked.hot_rank = :hotRank AND (ranked.created_at < :createdAt
+               OR (ranked.created_at = :createdAt AND ranked.id < :id)))
+        ORDER BY ranked.hot_rank DESC, ranked.created_at DESC, ranked.id DESC
+        """,
         nativeQuery = true)
-    Page<Post> findAllOrderByHot(Pageable pageable);
+    List<HotFeedKey> findFeedHotAfter(@Param("asOf") Instant asOf, @Param("hotRank") double hotRank,
+                                      @Param("createdAt") Instant createdAt, @Param("id") UUID id,
+                                      Pageable pageable);
+    
+    // The id is read back as text because native UUID columns don't map to one Java type across drivers
+    interface HotFeedKey {
+        String getId();
+        Double getHotRank();
+        
+        default UUID getPostId() {
+            return UUID.fromString(getId());
+        }
+    }
+    
+    @Query("SELECT p.id as id, p.score as score, p.createdAt as createdAt FROM Post p " +
+           "ORDER BY p.score DESC, p.createdAt DESC, p.id DESC")
+    List<RankingRow> findRankingRowsOrderByBest(Pageable pageable);
+    
+    @Query("SELECT p.id as id, p.score as score, p.createdAt as createdAt FROM Post p WHERE p.id IN :ids")
+    List<RankingRow> findRankingRowsByIdIn(@Param("ids") java.util.Collection<UUID> ids);
+    
+    @Query("SELECT p.id as id, p.title as title, p.body as body, p.createdAt as createdAt FROM Post p ORDER BY p.id")
+    List<SearchDocument> findSearchDocumentsOrderById(Pageable pageable);
+    
+    @Query("SELECT p.id as id, p.title as title, p.body as body, p.createdAt as createdAt FROM Post p " +
+           "WHERE p.id > :afterId ORDER BY p.id")
+    List<SearchDocument> findSearchDocumentsAfterId(@Param("afterId") UUID afterId, Pageable pageable);
+    
+    @Query("SELECT p.id as id, p.title as title, p.body as body, p.createdAt as createdAt FROM Post p WHERE p.id = :id")
+    java.util.Optional<SearchDocument> findSearchDocumentById(@Param("id") UUID id);
+    
+    @Query("SELECT t.id as tagId, p.createdAt as createdAt FROM Post p JOIN p.tags t WHERE p.createdAt >= :since")
+    List<TaggedPost> findTaggedPostsSince(@Param("since") java.time.Instant since);
+
+    interface TaggedPost {
+        Long getTagId();
+        java.time.Instant getCreatedAt();
+    }
+    
+    interface SearchDocument {
+        UUID getId();
+        String getTitle();
+        String getBody();
+        Instant getCreatedAt();
+    }
+    
+    interface RankingRow {
+        UUID getId();
+        Integer getScore();
+        Instant getCreatedAt();
+    }
+    
+    // Author lookup that doubles as an existence check, without loading the post
+    @Query("SELECT p.user.id FROM Post p WHERE p.id = :postId")
+    java.util.Optional<UUID> findAuthorIdById(@Param("postId") UUID postId);
+    
+    @Modifying
+    @Query("UPDATE Post p SET p.upvoteCount = p.upvoteCount + :upDelta, p.downvoteCount = p.downvoteCount + :downDelta, " +
+           "p.score = p.score + :upDelta - :downDelta, p.lastActivityAt = :now WHERE p.id = :postId")
+    int applyVoteDelta(@Param("postId") UUID postId, @Param("upDelta") int upDelta,
+                       @Param("downDelta") int downDelta, @Param("now") Instant now);
+    
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = p.commentCount + 1, p.lastActivityAt = :now WHERE p.id = :postId")
+    int incrementCommentCount(@Param("postId") UUID postId, @Param("now") Instant now);
+    
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = (SELECT COUNT(c) FROM Comment c WHERE c.post.id = :postId) WHERE p.id = :postId")
+    int refreshCommentCount(@Param("postId") UUID postId);
+    
+    @Modifying
+    @Query("UPDATE Post p SET p.upvoteCount = :upvotes, p.downvoteCount = :downvotes, p.score = :upvotes - :downvotes, " +
+           "p.commentCount = :comments WHERE p.id = :postId")
+    int overwriteCounters(@Param("postId") UUID postId, @Param("upvotes") int upvotes,
+                          @Param("downvotes") int downvotes, @Param("comments") int comments);
+    
+    @Query("SELECT p.id as id, p.upvoteCount as upvoteCount, p.downvoteCount as downvoteCount, p.commentCount as commentCount " +
+           "FROM Post p ORDER BY p.id")
+    List<PostCounters> findCountersOrderById(Pageable pageable);
+    
+    @Query("SELECT p.id as id, p.upvoteCount as upvoteCount, p.downvoteCount as downvoteCount, p.commentCount as commentCount " +
+           "FROM Post p WHERE p.id > :afterId ORDER BY p.id")
+    List<PostCounters> findCountersAfterId(@Param("afterId") UUID afterId, Pageable pageable);
+    
+    interface PostCounters {
+        UUID getId();
+        Integer getUpvoteCount();
+        Integer getDownvoteCount();
+        Integer getCommentCount();
+    }
     
     @Query(value = """
-        SELECT p.* FROM posts p 
+        SELECT CAST(p.id AS VARCHAR(36)) FROM posts p 
         LEFT JOIN (
-            SELECT r.post_id, COUNT(*) as report_count
-            FROM reports r GROUP BY r.post_id
+            SELECT r.reportable_id AS post_id, COUNT(*) as report_count
+            FROM reports r WHERE r.reportable_type = 'POST' GROUP BY r.reportable_id
         ) rc ON rc.post_id = p.id
         ORDER BY COALESCE(rc.report_count, 0) DESC, p.created_at DESC
         """, 
         countQuery = "SELECT COUNT(p.id) FROM posts p",
         nativeQuery = true)
-    Page<Post> findAllOrderByReportsDesc(Pageable pageable);
+    Page<String> findIdsOrderByReportsDesc(Pageable pageable);
+    
+    default Page<Post> findAllOrderByReportsDesc(Pageable pageable) {
+        return hydratePage(findIdsOrderByReportsDesc(pageable).map(UUID::fromString));
+    }
     
     @Query(value = """
-        SELECT p.* FROM posts p 
+        SELECT CAST(p.id AS VARCHAR(36)) FROM posts p 
         LEFT JOIN (
-            SELECT r.post_id, COUNT(*) as report_count
-            FROM reports r GROUP BY r.post_id
+            SELECT r.reportable_id AS post_id, COUNT(*) as report_count
+            FROM reports r WHERE r.reportable_type = 'POST' GROUP BY r.reportable_id
         ) rc ON rc.post_id = p.id
         ORDER BY COALESCE(rc.report_count, 0) ASC, p.created_at DESC
         """, 
         countQuery = "SELECT COUNT(p.id) FROM posts p",
         nativeQuery = true)
-    Page<Post> findAllOrderByReportsAsc(Pageable pageable);
+    Page<String> findIdsOrderByReportsAsc(Pageable pageable);
+    
+    default Page<Post> findAllOrderByReportsAsc(Pageable pageable) {
+        return hydratePage(findIdsOrderByReportsAsc(pageable).map(UUID::fromString));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.nexus.feed.backend.Repository;
+
+import com.nexus.feed.backend.Entity.TagHourlyCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TagHourlyCountRepository extends JpaRepository<TagHourlyCount, TagHourlyCount.TagHourlyCountId>,
+        TagHourlyCountRepositoryCustom {
+
+    @Query("SELECT c FROM TagHourlyCount c WHERE c.id.hour >= :since AND c.postCount > 0")
+    List<TagHourlyCount> findSince(@Param("since") Instant since);
+
+    @Modifying
+    @Query("DELETE FROM TagHourlyCount c WHERE c.id.hour < :before OR c.postCount <= 0")
+    int deleteExpired(@Param("before") Instant before);
+}
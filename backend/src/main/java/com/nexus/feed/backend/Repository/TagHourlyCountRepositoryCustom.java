@@ -0,0 +1,10 @@
+package com.nexus.feed.backend.Repository;
+
+import com.nexus.feed.backend.Entity.TagHourlyCount;
+
+import java.util.Map;
+
+public interface TagHourlyCountRepositoryCustom {
+    // Adds each delta to its bucket, creating buckets that don't exist yet
+    void addCounts(Map<TagHourlyCount.TagHourlyCountId, Integer> deltas);
+}
@@ -0,0 +1,70 @@
+package com.nexus.feed.backend.Repository;
+
+import com.nexus.feed.backend.Entity.TagHourlyCount;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.Map;
+
+/**
+ * PostgreSQL writes all buckets in one batched upsert; other databases (H2 in
+ * tests) update each bucket and insert the ones that are missing.
+ */
+@RequiredArgsConstructor
+public class TagHourlyCountRepositoryCustomImpl implements TagHourlyCountRepositoryCustom {
+
+    private static final String UPSERT = """
+            INSERT INTO tag_hourly_counts (tag_id, bucket_hour, post_count) VALUES (:tagId, :hour, :delta)
+            ON CONFLICT (tag_id, bucket_hour) DO UPDATE SET post_count = tag_hourly_counts.post_count + EXCLUDED.post_count
+            """;
+
+    private static final String UPDATE =
+            "UPDATE tag_hourly_counts SET post_count = post_count + :delta WHERE tag_id = :tagId AND bucket_hour = :hour";
+
+    private static final String INSERT =
+            "INSERT INTO tag_hourly_counts (tag_id, bucket_hour, post_count) VALUES (:tagId, :hour, :delta)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public void addCounts(Map<TagHourlyCount.TagHourlyCountId, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource[] batch = deltas.entrySet().stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("tagId", entry.getKey().getTagId())
+                        .addValue("hour", Timestamp.from(entry.getKey().getHour()))
+                        .addValue("delta", entry.getValue()))
+                .toArray(MapSqlParameterSource[]::new);
+        if (isPostgres()) {
+            jdbcTemplate.batchUpdate(UPSERT, batch);
+            return;
+        }
+        for (MapSqlParameterSource params : batch) {
+            if (jdbcTemplate.update(UPDATE, params) > 0) {
+                continue;
+            }
+            try {
+                jdbcTemplate.update(INSERT, params);
+            } catch (DuplicateKeyException e) {
+                jdbcTemplate.update(UPDATE, params);
+            }
+        }
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            String database = jdbcTemplate.getJdbcTemplate().execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equals(database);
+        }
+        return postgres;
+    }
+}
@@ -1,6 +1,7 @@
 package com.nexus.feed.backend.Repository;
 
 import com.nexus.feed.backend.Entity.Tag;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -12,24 +13,57 @@ import java.util.Optional;
 import java.util.Set;
 
 @Repository
-public interface TagRepository extends JpaRepository<Tag, Long> {
+public interface TagRepository extends JpaRepository<Tag, Long>, TagRepositoryCustom {
     Optional<Tag> findByNameIgnoreCase(String name);
     
     List<Tag> findByNameInIgnoreCase(Set<String> names);
     
-    @Query("SELECT t FROM Tag t WHERE LOWER(t.name) LIKE LOWER(CONCAT('%', :query, '%')) ORDER BY SIZE(t.posts) DESC")
-    List<Tag> searchByName(@Param("query") String query);
+    // Served by the trigram index on PostgreSQL once the query has three characters
+    @Query("SELECT t FROM Tag t WHERE LOWER(t.name) LIKE CONCAT('%', LOWER(:query), '%') ESCAPE '\\' " +
+           "ORDER BY t.postCount DESC, t.name")
+    List<Tag> searchByName(@Param("query") String query, Pageable pageable);
+
+    // Served by the pattern index on PostgreSQL
+    @Query("SELECT t FROM Tag t WHERE LOWER(t.name) LIKE CONCAT(LOWER(:prefix), '%') ESCAPE '\\' " +
+           "ORDER BY t.postCount DESC, t.name")
+    List<Tag> searchByNamePrefix(@Param("prefix") String prefix, Pageable pageable);
     
-    @Query("SELECT t FROM Tag t ORDER BY SIZE(t.posts) DESC")
-    List<Tag> findTopTags();
+    @Query("SELECT t FROM Tag t ORDER BY t.postCount DESC, t.name")
+    List<Tag> findTopTags(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Tag t SET t.postCount = t.postCount + :delta WHERE t.id IN :ids")
+    int adjustPostCount(@Param("ids") java.util.Collection<Long> ids, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE Tag t SET t.postCount = SIZE(t.posts) WHERE t.postCount <> SIZE(t.posts)")
+    int recountPostCounts();
     
     @Query("SELECT DISTINCT t FROM Tag t LEFT JOIN FETCH t.posts")
     List<Tag> findAllWithPosts();
     
+    @Query("SELECT t.id as id, t.name as name, t.postCount as postCount FROM Tag t WHERE t.id IN :ids")
+    List<TagSummary> findSummariesByIdIn(@Param("ids") java.util.Collection<Long> ids);
+
+    @Query("SELECT t.id as id, t.name as name, t.postCount as postCount FROM Tag t " +
+           "WHERE t.postCount > 0 AND t.id > :afterId ORDER BY t.id")
+    List<TagSummary> findCountedAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    interface TagSummary {
+        Long getId();
+        String getName();
+        Integer getPostCount();
+    }
+
     boolean existsByNameIgnoreCase(String name);
     
+    // Candidates for the orphan sweep; post_count reaches zero when a tag's last post lets go of it
+    @Query("SELECT t.id FROM Tag t WHERE t.postCount <= 0 AND t.id > :afterId ORDER BY t.id")
+    List<Long> findUnusedIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Rechecks both the counter and post_tags, so a tag picked up by a post since it was selected survives
     @Modifying
-    @Query("DELETE FROM Tag t WHERE t.posts IS EMPTY")
-    int deleteOrphanTags();
+    @Query("DELETE FROM Tag t WHERE t.id IN :ids AND t.postCount <= 0 AND t.posts IS EMPTY")
+    int deleteUnusedByIdIn(@Param("ids") java.util.Collection<Long> ids);
     
 }
@@ -0,0 +1,9 @@
+package com.nexus.feed.backend.Repository;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface TagRepositoryCustom {
+    // Lowercase name to id for each name, inserting missing tags without failing on concurrent inserts
+    Map<String, Long> findOrInsertIds(Collection<String> names);
+}
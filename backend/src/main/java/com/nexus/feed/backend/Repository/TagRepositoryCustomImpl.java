@@ -0,0 +1,84 @@
+package com.nexus.feed.backend.Repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PostgreSQL reads existing tags and inserts missing ones in a single statement,
+ * skipping names another transaction inserts first. Those are read afterwards,
+ * once that transaction has committed. Other databases (H2 in tests) read,
+ * insert the missing names one at a time and read again.
+ */
+@RequiredArgsConstructor
+public class TagRepositoryCustomImpl implements TagRepositoryCustom {
+
+    private static final String FIND_OR_INSERT = """
+            WITH input AS (SELECT DISTINCT unnest(CAST(ARRAY[:names] AS varchar[])) AS name),
+            existing AS (SELECT t.id, lower(t.name) AS name FROM tags t JOIN input i ON lower(t.name) = i.name),
+            inserted AS (
+                INSERT INTO tags (name, post_count)
+                SELECT i.name, 0 FROM input i WHERE NOT EXISTS (SELECT 1 FROM existing e WHERE e.name = i.name)
+                ON CONFLICT (name) DO NOTHING
+                RETURNING id, name)
+            SELECT id, name FROM existing UNION ALL SELECT id, name FROM inserted
+            """;
+
+    private static final String FIND = "SELECT id, LOWER(name) AS name FROM tags WHERE LOWER(name) IN (:names)";
+
+    private static final String INSERT = "INSERT INTO tags (name, post_count) VALUES (:name, 0)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public Map<String, Long> findOrInsertIds(Collection<String> names) {
+        Map<String, Long> ids = new HashMap<>();
+        if (names.isEmpty()) {
+            return ids;
+        }
+        if (isPostgres()) {
+            query(FIND_OR_INSERT, names, ids);
+        } else {
+            query(FIND, names, ids);
+            for (String name : names) {
+                if (ids.containsKey(name)) {
+                    continue;
+                }
+                try {
+                    jdbcTemplate.update(INSERT, new MapSqlParameterSource("name", name));
+                } catch (DuplicateKeyException e) {
+                    // Inserted concurrently; read below
+                }
+            }
+        }
+        List<String> unresolved = names.stream().filter(name -> !ids.containsKey(name)).toList();
+        if (!unresolved.isEmpty()) {
+            query(FIND, unresolved, ids);
+        }
+        return ids;
+    }
+
+    private void query(String sql, Collection<String> names, Map<String, Long> ids) {
+        jdbcTemplate.query(sql, new MapSqlParameterSource("names", names),
+                (RowCallbackHandler) rs -> ids.putIfAbsent(rs.getString("name"), rs.getLong("id")));
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            String database = jdbcTemplate.getJdbcTemplate().execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equals(database);
+        }
+        return postgres;
+    }
+}
@@ -3,12 +3,25 @@ package com.nexus.feed.backend.Repository;
 import com.nexus.feed.backend.Entity.UserBadge;
 import com.nexus.feed.backend.Entity.Users;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface UserBadgeRepository extends JpaRepository<UserBadge, UserBadge.UserBadgeId> {
+public interface UserBadgeRepository extends JpaRepository<UserBadge, UserBadge.UserBadgeId>, UserBadgeRepositoryCustom {
     List<UserBadge> findByUser(Users user);
     boolean existsByIdUserIdAndIdBadgeId(UUID userId, Integer badgeId);
+
+    @Query("SELECT ub.id.badgeId FROM UserBadge ub WHERE ub.id.userId = :userId")
+    List<Integer> findBadgeIdsByUserId(@Param("userId") UUID userId);
+
+    @Query("SELECT u.id FROM Users u WHERE u.id IN :userIds AND u.createdAt <= :createdBefore " +
+           "AND NOT EXISTS (SELECT 1 FROM UserBadge ub WHERE ub.id.userId = u.id AND ub.id.badgeId = :badgeId)")
+    List<UUID> findUserIdsMissingBadge(@Param("userIds") Collection<UUID> userIds,
+                                       @Param("createdBefore") Instant createdBefore,
+                                       @Param("badgeId") Integer badgeId);
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.nexus.feed.backend.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface UserBadgeRepositoryCustom {
+
+    /**
+     * Award one badge to many users as a single JDBC batch. Users who already hold
+     * the badge, including through a concurrent award, are skipped.
+     *
+     * @return the users who received the badge
+     */
+    List<UUID> insertAwards(Integer badgeId, List<UUID> userIds, Instant awardedAt);
+}
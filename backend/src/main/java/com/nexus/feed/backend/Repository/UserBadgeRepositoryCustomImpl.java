@@ -0,0 +1,87 @@
+package com.nexus.feed.backend.Repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * PostgreSQL skips existing awards with ON CONFLICT DO NOTHING; other databases
+ * (H2 in tests) check first and, if a concurrent award still collides, retry the
+ * batch row by row so the rest of it lands.
+ */
+@RequiredArgsConstructor
+public class UserBadgeRepositoryCustomImpl implements UserBadgeRepositoryCustom {
+
+    private static final String INSERT_AWARD = """
+            INSERT INTO user_badges (user_id, badge_id, awarded_at)
+            SELECT :userId, :badgeId, :awardedAt
+            WHERE NOT EXISTS (SELECT 1 FROM user_badges WHERE user_id = :userId AND badge_id = :badgeId)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public List<UUID> insertAwards(Integer badgeId, List<UUID> userIds, Instant awardedAt) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        SqlParameterSource[] batch = userIds.stream()
+                .map(userId -> new MapSqlParameterSource()
+                        .addValue("userId", userId)
+                        .addValue("badgeId", badgeId)
+                        .addValue("awardedAt", Timestamp.from(awardedAt)))
+                .toArray(SqlParameterSource[]::new);
+
+        int[] counts;
+        if (isPostgres()) {
+            counts = jdbcTemplate.batchUpdate(INSERT_AWARD + "ON CONFLICT (user_id, badge_id) DO NOTHING", batch);
+        } else {
+            try {
+                counts = jdbcTemplate.batchUpdate(INSERT_AWARD, batch);
+            } catch (DuplicateKeyException e) {
+                counts = insertOneByOne(batch);
+            }
+        }
+
+        List<UUID> awarded = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                awarded.add(userIds.get(i));
+            }
+        }
+        return awarded;
+    }
+
+    private int[] insertOneByOne(SqlParameterSource[] batch) {
+        int[] counts = new int[batch.length];
+        for (int i = 0; i < batch.length; i++) {
+            try {
+                counts[i] = jdbcTemplate.update(INSERT_AWARD, batch[i]);
+            } catch (DuplicateKeyException e) {
+                counts[i] = 0;
+            }
+        }
+        return counts;
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            String database = jdbcTemplate.getJdbcTemplate().execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equals(database);
+        }
+        return postgres;
+    }
+}
@@ -19,6 +19,33 @@ public interface UserRepository extends JpaRepository<Users, UUID> {
     @Query("UPDATE Users u SET u.karma = u.karma + :delta WHERE u.id = :userId")
     void incrementKarma(@Param("userId") UUID userId, @Param("delta") int delta);
 
+    // Compare-and-set, so a vote applied since the stored value was read is never overwritten
+    @Modifying
+    @Query("UPDATE Users u SET u.karma = :karma WHERE u.id = :userId AND u.karma = :expected")
+    int setKarmaIfUnchanged(@Param("userId") UUID userId, @Param("expected") long expected, @Param("karma") long karma);
+
+    @Query("SELECT u.id as userId, u.karma as karma FROM Users u ORDER BY u.id")
+    List<StoredKarma> findKarmaOrderById(org.springframework.data.domain.Pageable pageable);
+
+    @Query("SELECT u.id as userId, u.karma as karma FROM Users u WHERE u.id > :afterId ORDER BY u.id")
+    List<StoredKarma> findKarmaAfterId(@Param("afterId") UUID afterId, org.springframework.data.domain.Pageable pageable);
+
+    interface StoredKarma {
+        UUID getUserId();
+        Long getKarma();
+    }
+
+    @Query("SELECT u.id FROM Users u ORDER BY u.id")
+    List<UUID> findIdsOrderById(org.springframework.data.domain.Pageable pageable);
+
+    @Query("SELECT u.id FROM Users u WHERE u.id > :afterId ORDER BY u.id")
+    List<UUID> findIdsAfterId(@Param("afterId") UUID afterId, org.springframework.data.domain.Pageable pageable);
+
+    @Query("SELECT u FROM Users u JOIN FETCH u.appUser WHERE u.id IN :ids")
+    List<Users> findAllWithAppUserByIdIn(@Param("ids") java.util.Collection<UUID> ids);
+
+    long countByKarmaGreaterThan(Long karma);
+
     @Query("SELECT u FROM Users u ORDER BY u.karma DESC")
     List<Users> findTopByKarma(org.springframework.data.domain.Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.nexus.feed.backend.Repository;
+
+import com.nexus.feed.backend.Entity.UserStats;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface UserStatsRepository extends JpaRepository<UserStats, UUID>, UserStatsRepositoryCustom {
+
+    @Modifying
+    @Query("UPDATE UserStats s SET s.postCount = s.postCount + :delta, s.updatedAt = :now WHERE s.userId = :userId")
+    int adjustPostCount(@Param("userId") UUID userId, @Param("delta") int delta, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE UserStats s SET s.commentCount = s.commentCount + :delta, s.updatedAt = :now WHERE s.userId = :userId")
+    int adjustCommentCount(@Param("userId") UUID userId, @Param("delta") int delta, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE UserStats s SET s.voteCount = s.voteCount + :delta, s.updatedAt = :now WHERE s.userId = :userId")
+    int adjustVoteCount(@Param("userId") UUID userId, @Param("delta") int delta, @Param("now") Instant now);
+
+    @Modifying
+    @Query("""
+            UPDATE UserStats s SET
+                s.postCount = (SELECT COUNT(p) FROM Post p WHERE p.user.id = s.userId),
+                s.commentCount = (SELECT COUNT(c) FROM Comment c WHERE c.user.id = s.userId),
+                s.voteCount = (SELECT COUNT(v) FROM Vote v WHERE v.id.userId = s.userId),
+                s.updatedAt = :now
+            WHERE s.userId IN :userIds
+            """)
+    int recount(@Param("userIds") Collection<UUID> userIds, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE UserStats s SET s.postCount = :posts, s.commentCount = :comments, s.voteCount = :votes, " +
+           "s.updatedAt = :now WHERE s.userId = :userId")
+    int overwriteCounters(@Param("userId") UUID userId, @Param("posts") long posts,
+                          @Param("comments") long comments, @Param("votes") long votes, @Param("now") Instant now);
+
+    @Query("SELECT s FROM UserStats s ORDER BY s.userId")
+    List<UserStats> findOrderByUserId(Pageable pageable);
+
+    @Query("SELECT s FROM UserStats s WHERE s.userId > :afterId ORDER BY s.userId")
+    List<UserStats> findAfterUserId(@Param("afterId") UUID afterId, Pageable pageable);
+
+    @Query("SELECT p.user.id as userId, COUNT(p) as count FROM Post p WHERE p.user.id IN :userIds GROUP BY p.user.id")
+    List<UserCount> countPostsByUserIds(@Param("userIds") Collection<UUID> userIds);
+
+    @Query("SELECT c.user.id as userId, COUNT(c) as count FROM Comment c WHERE c.user.id IN :userIds GROUP BY c.user.id")
+    List<UserCount> countCommentsByUserIds(@Param("userIds") Collection<UUID> userIds);
+
+    @Query("SELECT v.id.userId as userId, COUNT(v) as count FROM Vote v WHERE v.id.userId IN :userIds GROUP BY v.id.userId")
+    List<UserCount> countVotesByUserIds(@Param("userIds") Collection<UUID> userIds);
+
+    interface UserCount {
+        UUID getUserId();
+        Long getCount();
+    }
+}
@@ -0,0 +1,16 @@
+package com.nexus.feed.backend.Repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface UserStatsRepositoryCustom {
+
+    /**
+     * Create a user's row counted from the source tables. Pending writes are flushed
+     * first, so the counts include everything done earlier in the transaction.
+     *
+     * @return 0 when the row already exists (including when a concurrent transaction
+     * created it first) or the user does not
+     */
+    int insertCounted(UUID userId, Instant now);
+}
@@ -0,0 +1,63 @@
+package com.nexus.feed.backend.Repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * PostgreSQL skips an existing row with ON CONFLICT DO NOTHING, which also
+ * covers a concurrent insert; other databases (H2 in tests) check first and
+ * treat a duplicate key as the row already existing.
+ */
+@RequiredArgsConstructor
+public class UserStatsRepositoryCustomImpl implements UserStatsRepositoryCustom {
+
+    private static final String INSERT_COUNTED = """
+            INSERT INTO user_stats (user_id, post_count, comment_count, vote_count, updated_at)
+            SELECT u.id,
+                   (SELECT COUNT(*) FROM posts p WHERE p.user_id = u.id),
+                   (SELECT COUNT(*) FROM comments c WHERE c.user_id = u.id),
+                   (SELECT COUNT(*) FROM votes v WHERE v.user_id = u.id),
+                   :now
+            FROM users u WHERE u.id = :userId
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public int insertCounted(UUID userId, Instant now) {
+        // The counts are read with plain JDBC, which can't see writes Hibernate is still holding
+        entityManager.flush();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("now", Timestamp.from(now));
+        if (isPostgres()) {
+            return jdbcTemplate.update(INSERT_COUNTED + "ON CONFLICT (user_id) DO NOTHING", params);
+        }
+        try {
+            return jdbcTemplate.update(INSERT_COUNTED +
+                    "AND NOT EXISTS (SELECT 1 FROM user_stats s WHERE s.user_id = u.id)", params);
+        } catch (DuplicateKeyException e) {
+            return 0;
+        }
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            String database = jdbcTemplate.getJdbcTemplate().execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equals(database);
+        }
+        return postgres;
+    }
+}
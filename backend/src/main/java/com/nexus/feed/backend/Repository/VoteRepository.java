@@ -2,6 +2,7 @@ package com.nexus.feed.backend.Repository;
 
 import com.nexus.feed.backend.Entity.Vote;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -9,7 +10,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface VoteRepository extends JpaRepository<Vote, Vote.VoteId> {
+public interface VoteRepository extends JpaRepository<Vote, Vote.VoteId>, VoteRepositoryCustom {
     
     @Query("SELECT v FROM Vote v WHERE v.id.userId = :userId AND v.id.votableId = :votableId AND v.votableType = :votableType")
     Optional<Vote> findByUserIdAndVotableIdAndVotableType(
@@ -44,6 +45,12 @@ public interface VoteRepository extends JpaRepository<Vote, Vote.VoteId> {
     
     void deleteByIdVotableId(UUID votableId);
     
+    // Votes on a comment and every reply beneath it, via the materialized comment path
+    @Modifying
+    @Query("DELETE FROM Vote v WHERE v.id.votableId = :commentId OR v.id.votableId IN " +
+           "(SELECT c.id FROM Comment c WHERE c.path LIKE CONCAT(:prefix, '%'))")
+    int deleteByCommentSubtree(@Param("commentId") UUID commentId, @Param("prefix") String prefix);
+    
     void deleteByIdUserId(UUID userId);
     
     interface VoteCount {
@@ -62,6 +69,46 @@ public interface VoteRepository extends JpaRepository<Vote, Vote.VoteId> {
            "WHERE c.user.id = :userId AND v.votableType = 'COMMENT' AND v.id.userId != :userId")
     long calculateCommentKarma(@Param("userId") UUID userId);
     
+    // Karma the content's authors earned from it, read before the content is deleted
+
+    @Query("SELECT p.user.id as userId, SUM(CASE WHEN v.voteValue = 'UPVOTE' THEN 1 ELSE -1 END) as karma " +
+           "FROM Vote v JOIN Post p ON v.id.votableId = p.id " +
+           "WHERE p.id = :postId AND v.votableType = 'POST' AND v.id.userId <> p.user.id GROUP BY p.user.id")
+    java.util.List<AuthorKarma> sumKarmaOnPost(@Param("postId") UUID postId);
+
+    @Query("SELECT c.user.id as userId, SUM(CASE WHEN v.voteValue = 'UPVOTE' THEN 1 ELSE -1 END) as karma " +
+           "FROM Vote v JOIN Comment c ON v.id.votableId = c.id " +
+           "WHERE c.post.id = :postId AND v.votableType = 'COMMENT' AND v.id.userId <> c.user.id GROUP BY c.user.id")
+    java.util.List<AuthorKarma> sumKarmaOnPostComments(@Param("postId") UUID postId);
+
+    @Query("SELECT c.user.id as userId, SUM(CASE WHEN v.voteValue = 'UPVOTE' THEN 1 ELSE -1 END) as karma " +
+           "FROM Vote v JOIN Comment c ON v.id.votableId = c.id " +
+           "WHERE (c.id = :commentId OR c.path LIKE CONCAT(:prefix, '%')) " +
+           "AND v.votableType = 'COMMENT' AND v.id.userId <> c.user.id GROUP BY c.user.id")
+    java.util.List<AuthorKarma> sumKarmaOnCommentSubtree(@Param("commentId") UUID commentId, @Param("prefix") String prefix);
+
+    @Query("SELECT c.user.id as userId, SUM(CASE WHEN v.voteValue = 'UPVOTE' THEN 1 ELSE -1 END) as karma " +
+           "FROM Vote v JOIN Comment c ON v.id.votableId = c.id " +
+           "WHERE c.id = :commentId AND v.votableType = 'COMMENT' AND v.id.userId <> c.user.id GROUP BY c.user.id")
+    java.util.List<AuthorKarma> sumKarmaOnComment(@Param("commentId") UUID commentId);
+
+    // calculatePostKarma and calculateCommentKarma for a batch of users
+
+    @Query("SELECT p.user.id as userId, SUM(CASE WHEN v.voteValue = 'UPVOTE' THEN 1 ELSE -1 END) as karma " +
+           "FROM Vote v JOIN Post p ON v.id.votableId = p.id " +
+           "WHERE p.user.id IN :userIds AND v.votableType = 'POST' AND v.id.userId <> p.user.id GROUP BY p.user.id")
+    java.util.List<AuthorKarma> sumPostKarmaByAuthors(@Param("userIds") java.util.Collection<UUID> userIds);
+
+    @Query("SELECT c.user.id as userId, SUM(CASE WHEN v.voteValue = 'UPVOTE' THEN 1 ELSE -1 END) as karma " +
+           "FROM Vote v JOIN Comment c ON v.id.votableId = c.id " +
+           "WHERE c.user.id IN :userIds AND v.votableType = 'COMMENT' AND v.id.userId <> c.user.id GROUP BY c.user.id")
+    java.util.List<AuthorKarma> sumCommentKarmaByAuthors(@Param("userIds") java.util.Collection<UUID> userIds);
+
+    interface AuthorKarma {
+        UUID getUserId();
+        Long getKarma();
+    }
+    
     @Query("SELECT COUNT(v) FROM Vote v WHERE v.id.userId = :userId")
     long countByUserId(@Param("userId") UUID userId);
 }
\ No newline at end of file
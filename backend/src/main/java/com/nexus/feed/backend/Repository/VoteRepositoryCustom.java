@@ -0,0 +1,45 @@
+package com.nexus.feed.backend.Repository;
+
+import com.nexus.feed.backend.Entity.Vote;
+
+import java.util.UUID;
+
+public interface VoteRepositoryCustom {
+
+    /**
+     * Apply a vote with toggle semantics in one round trip: insert when the user has no vote,
+     * delete when repeating the stored value, update otherwise. Safe against concurrent casts
+     * of the same (user, votable) pair.
+     *
+     * @return the stored value before and after; either may be null (no vote)
+     */
+    VoteTransition castVote(UUID userId, UUID votableId, Vote.VotableType votableType, Vote.VoteValue voteValue);
+
+    record VoteTransition(Vote.VoteValue oldValue, Vote.VoteValue newValue) {
+
+        /**
+         * Change in the content author's karma: +1 per upvote, -1 per downvote.
+         */
+        public int karmaDelta() {
+            return karmaValue(newValue) - karmaValue(oldValue);
+        }
+
+        public boolean isNewVote() {
+            return oldValue == null && newValue != null;
+        }
+
+        /**
+         * Change in the number of votes the user holds: +1 for a new vote, -1 for a withdrawn one.
+         */
+        public int voteCountDelta() {
+            return (newValue != null ? 1 : 0) - (oldValue != null ? 1 : 0);
+        }
+
+        private static int karmaValue(Vote.VoteValue value) {
+            if (value == null) {
+                return 0;
+            }
+            return value == Vote.VoteValue.UPVOTE ? 1 : -1;
+        }
+    }
+}
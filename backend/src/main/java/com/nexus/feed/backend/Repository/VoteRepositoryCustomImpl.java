@@ -0,0 +1,126 @@
+package com.nexus.feed.backend.Repository;
+
+import com.nexus.feed.backend.Entity.Vote;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * PostgreSQL applies a vote with a single writable CTE; other databases (H2 in
+ * tests) lock the row with SELECT ... FOR UPDATE and issue one write.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class VoteRepositoryCustomImpl implements VoteRepositoryCustom {
+
+    // All data-modifying CTEs scan the statement's snapshot, but old ... FOR UPDATE waits for a concurrent
+    // writer and returns the row version current after the lock. removed and changed then re-check their
+    // WHERE against that version (EvalPlanQual) only if the snapshot row matched in the first place: a
+    // concurrent UP->DOWN flip racing a repeated UPVOTE leaves old = DOWNVOTE while neither removed nor
+    // changed touches the row. An existing old value with no write, like a lost insert (old and created
+    // both empty), means the result doesn't describe the row, so the cast is retried on a fresh snapshot.
+    private static final String CAST_VOTE_CTE = """
+            WITH old AS (
+                SELECT vote_value FROM votes WHERE user_id = :userId AND votable_id = :votableId FOR UPDATE
+            ), removed AS (
+                DELETE FROM votes WHERE user_id = :userId AND votable_id = :votableId AND vote_value = :voteValue
+                RETURNING vote_value
+            ), changed AS (
+                UPDATE votes SET vote_value = :voteValue
+                WHERE user_id = :userId AND votable_id = :votableId AND vote_value <> :voteValue
+                RETURNING vote_value
+            ), created AS (
+                INSERT INTO votes (user_id, votable_id, votable_type, vote_value)
+                SELECT :userId, :votableId, :votableType, :voteValue WHERE NOT EXISTS (SELECT 1 FROM old)
+                ON CONFLICT (user_id, votable_id) DO NOTHING
+                RETURNING vote_value
+            )
+            SELECT (SELECT vote_value FROM old) AS old_value,
+                   COALESCE((SELECT vote_value FROM changed), (SELECT vote_value FROM created)) AS new_value,
+                   (SELECT COUNT(*) FROM removed) AS removed,
+                   (SELECT COUNT(*) FROM changed) AS changed,
+                   (SELECT COUNT(*) FROM created) AS created
+            """;
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public VoteTransition castVote(UUID userId, UUID votableId, Vote.VotableType votableType, Vote.VoteValue voteValue) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("votableId", votableId)
+                .addValue("votableType", votableType.name())
+                .addValue("voteValue", voteValue.name());
+        for (int attempt = 1; ; attempt++) {
+            VoteTransition transition = isPostgres() ? castWithCte(params) : castWithRowLock(params);
+            if (transition != null) {
+                return transition;
+            }
+            if (attempt == MAX_ATTEMPTS) {
+                throw new IllegalStateException("Vote could not be applied after concurrent updates");
+            }
+            log.debug("Concurrent first vote on votableId={} by userId={}, retrying", votableId, userId);
+        }
+    }
+
+    // Null when a concurrent write to the same pair left the statement without an effect to report
+    private VoteTransition castWithCte(MapSqlParameterSource params) {
+        return jdbcTemplate.queryForObject(CAST_VOTE_CTE, params, (rs, rowNum) -> {
+            Vote.VoteValue oldValue = valueOf(rs.getString("old_value"));
+            if (oldValue == null && rs.getLong("created") == 0) {
+                return null;
+            }
+            if (oldValue != null && rs.getLong("removed") == 0 && rs.getLong("changed") == 0) {
+                return null;
+            }
+            return new VoteTransition(oldValue, valueOf(rs.getString("new_value")));
+        });
+    }
+
+    private VoteTransition castWithRowLock(MapSqlParameterSource params) {
+        List<String> stored = jdbcTemplate.queryForList(
+                "SELECT vote_value FROM votes WHERE user_id = :userId AND votable_id = :votableId FOR UPDATE",
+                params, String.class);
+        Vote.VoteValue oldValue = stored.isEmpty() ? null : valueOf(stored.get(0));
+        Vote.VoteValue requested = valueOf((String) params.getValue("voteValue"));
+        if (oldValue == null) {
+            try {
+                jdbcTemplate.update("INSERT INTO votes (user_id, votable_id, votable_type, vote_value) " +
+                        "VALUES (:userId, :votableId, :votableType, :voteValue)", params);
+            } catch (DuplicateKeyException e) {
+                return null;
+            }
+            return new VoteTransition(null, requested);
+        }
+        if (oldValue == requested) {
+            jdbcTemplate.update("DELETE FROM votes WHERE user_id = :userId AND votable_id = :votableId", params);
+            return new VoteTransition(oldValue, null);
+        }
+        jdbcTemplate.update("UPDATE votes SET vote_value = :voteValue " +
+                "WHERE user_id = :userId AND votable_id = :votableId", params);
+        return new VoteTransition(oldValue, requested);
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            String database = jdbcTemplate.getJdbcTemplate().execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equals(database);
+        }
+        return postgres;
+    }
+
+    private static Vote.VoteValue valueOf(String value) {
+        return value == null ? null : Vote.VoteValue.valueOf(value);
+    }
+}
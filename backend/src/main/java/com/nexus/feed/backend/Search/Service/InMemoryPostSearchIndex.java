@@ -0,0 +1,211 @@
+package com.nexus.feed.backend.Search.Service;
+
+import com.nexus.feed.backend.Event.PostCreatedEvent;
+import com.nexus.feed.backend.Event.PostDeletedEvent;
+import com.nexus.feed.backend.Event.PostUpdatedEvent;
+import com.nexus.feed.backend.Repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index ranked with BM25, treating a title occurrence as
+ * {@link #TITLE_BOOST} body occurrences. Built from the database once the
+ * application is ready and kept current from post events after commit.
+ * <p>
+ * A query term with no exact match is expanded to indexed terms it prefixes,
+ * so partially typed words still find posts the way the old LIKE search did.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "search.backend", havingValue = "memory", matchIfMissing = true)
+public class InMemoryPostSearchIndex implements PostSearchIndex {
+
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    static final double TITLE_BOOST = 2.0;
+
+    private final PostRepository postRepository;
+
+    @Value("${search.memory.rebuild-batch-size:500}")
+    private int rebuildBatchSize = 500;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Map<UUID, Double>> postings = new TreeMap<>();
+    private final Map<UUID, Document> documents = new HashMap<>();
+    private double totalLength;
+    private volatile boolean ready;
+
+    private record Document(Instant createdAt, Set<String> terms, double length) {
+    }
+
+    private record Hit(UUID id, double score, Instant createdAt) {
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        PageRequest limit = PageRequest.of(0, rebuildBatchSize);
+        List<PostRepository.SearchDocument> batch = postRepository.findSearchDocumentsOrderById(limit);
+        while (!batch.isEmpty()) {
+            for (PostRepository.SearchDocument doc : batch) {
+                index(doc.getId(), doc.getTitle(), doc.getBody(), doc.getCreatedAt());
+            }
+            UUID last = batch.get(batch.size() - 1).getId();
+            batch = postRepository.findSearchDocumentsAfterId(last, limit);
+        }
+        ready = true;
+        log.info("Post search index built: {} post(s), {} term(s) in {} ms",
+                documents.size(), postings.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener
+    public void onPostCreated(PostCreatedEvent event) {
+        reindex(event.postId());
+    }
+
+    @TransactionalEventListener
+    public void onPostUpdated(PostUpdatedEvent event) {
+        reindex(event.postId());
+    }
+
+    @TransactionalEventListener
+    public void onPostDeleted(PostDeletedEvent event) {
+        remove(event.postId());
+    }
+
+    private void reindex(UUID postId) {
+        postRepository.findSearchDocumentById(postId).ifPresentOrElse(
+                doc -> index(doc.getId(), doc.getTitle(), doc.getBody(), doc.getCreatedAt()),
+                () -> remove(postId));
+    }
+
+    void index(UUID postId, String title, String body, Instant createdAt) {
+        Map<String, Double> weights = new HashMap<>();
+        List<String> titleTerms = tokenize(title);
+        List<String> bodyTerms = tokenize(body);
+        titleTerms.forEach(term -> weights.merge(term, TITLE_BOOST, Double::sum));
+        bodyTerms.forEach(term -> weights.merge(term, 1.0, Double::sum));
+        double length = titleTerms.size() * TITLE_BOOST + bodyTerms.size();
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(postId);
+            weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(postId, weight));
+            documents.put(postId, new Document(createdAt, weights.keySet(), length));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(UUID postId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(UUID postId) {
+        Document previous = documents.remove(postId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms()) {
+            Map<UUID, Double> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(postId);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= previous.length();
+    }
+
+    @Override
+    public Page<UUID> search(String query, Pageable pageable) {
+        Set<String> queryTerms = new LinkedHashSet<>(tokenize(query));
+        List<Hit> hits = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            int docCount = documents.size();
+            if (docCount == 0 || queryTerms.isEmpty()) {
+                return new PageImpl<>(List.of(), pageable, 0);
+            }
+            double avgLength = Math.max(totalLength / docCount, 1.0);
+            Map<UUID, Double> scores = new HashMap<>();
+            for (String queryTerm : queryTerms) {
+                for (Map<UUID, Double> docs : matchingPostings(queryTerm)) {
+                    double idf = Math.log(1 + (docCount - docs.size() + 0.5) / (docs.size() + 0.5));
+                    docs.forEach((postId, tf) -> {
+                        double norm = K1 * (1 - B + B * documents.get(postId).length() / avgLength);
+                        scores.merge(postId, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                    });
+                }
+            }
+            scores.forEach((postId, score) -> hits.add(new Hit(postId, score, documents.get(postId).createdAt())));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed()
+                .thenComparing(Hit::createdAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        int from = (int) Math.min(pageable.getOffset(), hits.size());
+        int to = Math.min(from + pageable.getPageSize(), hits.size());
+        List<UUID> ids = hits.subList(from, to).stream().map(Hit::id).toList();
+        return new PageImpl<>(ids, pageable, hits.size());
+    }
+
+    private List<Map<UUID, Double>> matchingPostings(String queryTerm) {
+        Map<UUID, Double> exact = postings.get(queryTerm);
+        if (exact != null) {
+            return List.of(exact);
+        }
+        return new ArrayList<>(postings.subMap(queryTerm, queryTerm + Character.MAX_VALUE).values());
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+")) {
+            if (!token.isEmpty()) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,25 @@
+package com.nexus.feed.backend.Search.Service;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.UUID;
+
+/**
+ * Relevance-ranked full-text search over post titles and bodies. The backend is
+ * chosen with {@code search.backend}: {@code memory} (in-process BM25 index) or
+ * {@code postgres} (tsvector expression with a GIN index).
+ */
+public interface PostSearchIndex {
+
+    /**
+     * Whether the index can answer queries yet. Until it can, callers fall back
+     * to the plain substring query.
+     */
+    boolean isReady();
+
+    /**
+     * Ids of matching posts, best match first, with ties broken by newest first.
+     */
+    Page<UUID> search(String query, Pageable pageable);
+}
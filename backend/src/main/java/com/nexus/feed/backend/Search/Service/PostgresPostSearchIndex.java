@@ -0,0 +1,75 @@
+package com.nexus.feed.backend.Search.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Full-text search served by PostgreSQL: a weighted tsvector expression over
+ * title (weight A) and body (weight B) backed by an expression GIN index, ranked
+ * with ts_rank_cd. The database keeps the index current, so writes need no hooks.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "search.backend", havingValue = "postgres")
+public class PostgresPostSearchIndex implements PostSearchIndex {
+
+    // Must match the indexed expression exactly for the planner to use the GIN index
+    private static final String DOCUMENT =
+            "(setweight(to_tsvector('english', coalesce(title, '')), 'A') || " +
+            "setweight(to_tsvector('english', coalesce(body, '')), 'B'))";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private volatile boolean ready;
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Schema is managed by ddl-auto, which can't declare expression indexes
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndex() {
+        try {
+            jdbcTemplate.getJdbcTemplate().execute(
+                    "CREATE INDEX IF NOT EXISTS idx_post_search ON posts USING GIN (" + DOCUMENT + ")");
+            ready = true;
+            log.info("Post search using PostgreSQL full-text index");
+        } catch (Exception e) {
+            log.error("Could not create post search index, falling back to substring search: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public Page<UUID> search(String query, Pageable pageable) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("query", query)
+                .addValue("limit", pageable.getPageSize())
+                .addValue("offset", pageable.getOffset());
+
+        List<UUID> ids = jdbcTemplate.query("""
+                SELECT p.id FROM posts p, websearch_to_tsquery('english', :query) q
+                WHERE %s @@ q
+                ORDER BY ts_rank_cd(%s, q) DESC, p.created_at DESC
+                LIMIT :limit OFFSET :offset
+                """.formatted(DOCUMENT, DOCUMENT), params,
+                (rs, rowNum) -> rs.getObject("id", UUID.class));
+        Long total = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM posts p WHERE " + DOCUMENT + " @@ websearch_to_tsquery('english', :query)",
+                params, Long.class);
+        return new PageImpl<>(ids, pageable, total == null ? 0 : total);
+    }
+}
@@ -0,0 +1,179 @@
+package com.nexus.feed.backend.Search.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Prefix-compressed trie over lowercased names. Every node caches the best
+ * {@code capacity} entries of its subtree by weight, so completing a prefix is a
+ * walk down the prefix plus a copy of that list, independent of how many names
+ * share it. Updates recompute the cached lists along one root-to-leaf path.
+ * Not thread-safe.
+ */
+public class RadixTrie {
+
+    public record Entry(Long id, String name, long weight) {
+    }
+
+    private static final Comparator<Entry> ORDER =
+            Comparator.comparingLong(Entry::weight).reversed().thenComparing(Entry::name);
+
+    private static final class Node {
+        String label;
+        final TreeMap<Character, Node> children = new TreeMap<>();
+        Entry entry;
+        List<Entry> top = List.of();
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private final int capacity;
+    private final Node root = new Node("");
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    public RadixTrie(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** Adds {@code delta} to a name's weight, inserting it if absent and removing it once the weight is gone. */
+    public void adjust(Long id, String name, long delta) {
+        Entry current = entries.get(key(name));
+        long weight = (current == null ? 0 : current.weight()) + delta;
+        if (weight > 0) {
+            put(id, name, weight);
+        } else {
+            remove(name);
+        }
+    }
+
+    public void put(Long id, String name, long weight) {
+        String key = key(name);
+        Entry entry = new Entry(id, name, weight);
+        entries.put(key, entry);
+
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null) {
+                Node leaf = new Node(key.substring(i));
+                node.children.put(key.charAt(i), leaf);
+                node = leaf;
+                path.add(leaf);
+                break;
+            }
+            int common = commonPrefixLength(child.label, key, i);
+            if (common < child.label.length()) {
+                // Split the edge where the new key leaves it
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children.put(child.label.charAt(0), child);
+                node.children.put(middle.label.charAt(0), middle);
+                child = middle;
+            }
+            node = child;
+            path.add(node);
+            i += common;
+        }
+        node.entry = entry;
+        refresh(path);
+    }
+
+    public boolean remove(String name) {
+        String key = key(name);
+        if (entries.remove(key) == null) {
+            return false;
+        }
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            node = node.children.get(key.charAt(i));
+            i += node.label.length();
+            path.add(node);
+        }
+        node.entry = null;
+
+        // Drop the emptied leaf and fold any node left with a single child into it
+        for (int depth = path.size() - 1; depth > 0; depth--) {
+            Node current = path.get(depth);
+            Node parent = path.get(depth - 1);
+            if (current.entry == null && current.children.isEmpty()) {
+                parent.children.remove(current.label.charAt(0));
+            } else if (current.entry == null && current.children.size() == 1) {
+                Node only = current.children.firstEntry().getValue();
+                current.label = current.label + only.label;
+                current.entry = only.entry;
+                current.top = only.top;
+                current.children.clear();
+                current.children.putAll(only.children);
+            }
+        }
+        refresh(path);
+        return true;
+    }
+
+    /** Up to {@code limit} entries whose lowercased name starts with the prefix, heaviest first. */
+    public List<Entry> complete(String prefix, int limit) {
+        String key = key(prefix);
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null) {
+                return List.of();
+            }
+            int common = commonPrefixLength(child.label, key, i);
+            if (i + common == key.length()) {
+                node = child;
+                break;
+            }
+            if (common < child.label.length()) {
+                return List.of();
+            }
+            node = child;
+            i += common;
+        }
+        return node.top.subList(0, Math.min(limit, node.top.size()));
+    }
+
+    private void refresh(List<Node> path) {
+        for (int depth = path.size() - 1; depth >= 0; depth--) {
+            Node node = path.get(depth);
+            List<Entry> candidates = new ArrayList<>();
+            if (node.entry != null) {
+                candidates.add(node.entry);
+            }
+            node.children.values().forEach(child -> candidates.addAll(child.top));
+            candidates.sort(ORDER);
+            node.top = List.copyOf(candidates.subList(0, Math.min(capacity, candidates.size())));
+        }
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int n = 0;
+        while (n < max && label.charAt(n) == key.charAt(offset + n)) {
+            n++;
+        }
+        return n;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,86 @@
+package com.nexus.feed.backend.Search.Service;
+
+import com.nexus.feed.backend.Event.TagPostCountsChangedEvent;
+import com.nexus.feed.backend.Repository.TagRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Tag name completions weighted by post count, served from a {@link RadixTrie}
+ * so autocomplete doesn't query the database on every keystroke. Holds only tags
+ * that are on at least one post. Built from the database once the application is
+ * ready, kept current from tag post count events after commit, and rebuilt
+ * periodically to pick up other instances' changes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TagAutocompleteIndex {
+
+    public static final int MAX_COMPLETIONS = 10;
+
+    private final TagRepository tagRepository;
+
+    @Value("${tags.autocomplete.rebuild-batch-size:1000}")
+    private int rebuildBatchSize = 1000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private RadixTrie trie = new RadixTrie(MAX_COMPLETIONS);
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        RadixTrie fresh = new RadixTrie(MAX_COMPLETIONS);
+        PageRequest limit = PageRequest.of(0, rebuildBatchSize);
+        List<TagRepository.TagSummary> batch = tagRepository.findCountedAfterId(0L, limit);
+        while (!batch.isEmpty()) {
+            for (TagRepository.TagSummary tag : batch) {
+                fresh.put(tag.getId(), tag.getName(), tag.getPostCount());
+            }
+            batch = tagRepository.findCountedAfterId(batch.get(batch.size() - 1).getId(), limit);
+        }
+
+        lock.writeLock().lock();
+        try {
+            trie = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("Tag autocomplete index built: {} tag(s) in {} ms", fresh.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTagPostCountsChanged(TagPostCountsChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.changes().forEach(change -> trie.adjust(change.tagId(), change.name(), change.delta()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Up to {@code limit} tags whose name starts with the prefix, most used first. */
+    public List<RadixTrie.Entry> complete(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            return trie.complete(prefix, Math.min(limit, MAX_COMPLETIONS));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.nexus.feed.backend.Service;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -36,4 +37,11 @@ public interface BadgeAwardingService {
      * Run all badge checks for a user.
      */
     void checkAllBadges(UUID userId);
+
+    /**
+     * Award every account age badge the given users have reached, one batch insert per badge.
+     *
+     * @return the number of badges awarded
+     */
+    int awardAccountAgeBadges(List<UUID> userIds);
 }
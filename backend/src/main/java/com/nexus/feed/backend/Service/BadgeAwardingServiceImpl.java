@@ -1,18 +1,35 @@
 package com.nexus.feed.backend.Service;
 
 import com.nexus.feed.backend.Email.Service.EmailService;
-import com.nexus.feed.backend.Entity.Badge;
+import com.nexus.feed.backend.Entity.UserStats;
 import com.nexus.feed.backend.Entity.Users;
 import com.nexus.feed.backend.Repository.*;
+import com.nexus.feed.backend.Service.BadgeCriteria.Metric;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Evaluates the declarative rules in {@link BadgeCatalog} against a user's current
+ * metrics. Badges a user already holds are tracked in a bounded per-user bitset keyed
+ * by badge id, so a check that crosses no new threshold makes no badge queries at all.
+ * Awards are insert-or-skip, so a badge granted elsewhere since the bitset was loaded
+ * is simply not inserted again; bits and emails for new awards wait for the commit.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -20,179 +37,168 @@ import java.util.UUID;
 public class BadgeAwardingServiceImpl implements BadgeAwardingService {
 
     private final UserRepository userRepository;
-    private final PostRepository postRepository;
-    private final VoteRepository voteRepository;
-    private final CommentRepository commentRepository;
-    private final BadgeRepository badgeRepository;
+    private final UserStatsService userStatsService;
+    private final KarmaService karmaService;
     private final UserBadgeRepository userBadgeRepository;
-    private final BadgeService badgeService;
+    private final BadgeCatalog badgeCatalog;
     private final EmailService emailService;
 
-    // Badge name constants
-    private static final String BADGE_FIRST_POST = "First Post";
-    private static final String BADGE_STORYTELLER = "Storyteller";
-    private static final String BADGE_PROLIFIC_POSTER = "Prolific Poster";
-    private static final String BADGE_FIRST_COMMENT = "First Comment";
-    private static final String BADGE_CONVERSATIONALIST = "Conversationalist";
-    private static final String BADGE_COMMENTATOR = "Commentator";
-    private static final String BADGE_GETTING_STARTED = "Getting Started";
-    private static final String BADGE_RISING_STAR = "Rising Star";
-    private static final String BADGE_POPULAR = "Popular";
-    private static final String BADGE_SUPERSTAR = "Superstar";
-    private static final String BADGE_FIRST_VOTE = "First Vote";
-    private static final String BADGE_ACTIVE_VOTER = "Active Voter";
-    private static final String BADGE_NEWCOMER = "Newcomer";
-    private static final String BADGE_REGULAR = "Regular";
-    private static final String BADGE_VETERAN = "Veteran";
+    @Value("${badges.held-cache.max-users:10000}")
+    private int heldCacheMaxUsers = 10000;
 
-    @Override
-    public void checkPostBadges(UUID userId) {
-        Users user = userRepository.findById(userId).orElse(null);
-        if (user == null) return;
-
-        long postCount = postRepository.countByUser(user);
-
-        // First Post badge
-        if (postCount >= 1) {
-            tryAwardBadge(userId, BADGE_FIRST_POST);
+    // Access-ordered, so the least recently checked users are evicted first
+    private final Map<UUID, BitSet> heldBadges = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, BitSet> eldest) {
+            return size() > heldCacheMaxUsers;
         }
+    };
 
-        // Storyteller badge (5+ posts)
-        if (postCount >= 5) {
-            tryAwardBadge(userId, BADGE_STORYTELLER);
-        }
-
-        // Prolific Poster badge (10+ posts)
-        if (postCount >= 10) {
-            tryAwardBadge(userId, BADGE_PROLIFIC_POSTER);
-        }
+    @Override
+    public void checkPostBadges(UUID userId) {
+        evaluate(userId, Metric.POSTS, userStatsService.getStats(userId).getPostCount());
     }
 
     @Override
     public void checkCommentBadges(UUID userId) {
-        Users user = userRepository.findById(userId).orElse(null);
-        if (user == null) return;
-
-        long commentCount = commentRepository.countByUser(user);
-
-        // First Comment badge
-        if (commentCount >= 1) {
-            tryAwardBadge(userId, BADGE_FIRST_COMMENT);
-        }
-
-        // Conversationalist badge (10+ comments)
-        if (commentCount >= 10) {
-            tryAwardBadge(userId, BADGE_CONVERSATIONALIST);
-        }
-
-        // Commentator badge (50+ comments)
-        if (commentCount >= 50) {
-            tryAwardBadge(userId, BADGE_COMMENTATOR);
-        }
+        evaluate(userId, Metric.COMMENTS, userStatsService.getStats(userId).getCommentCount());
     }
 
     @Override
     public void checkKarmaBadges(UUID userId) {
-        Users user = userRepository.findById(userId).orElse(null);
-        if (user == null) return;
-
-        long karma = user.getKarma();
-
-        // Getting Started badge (10+ karma)
-        if (karma >= 10) {
-            tryAwardBadge(userId, BADGE_GETTING_STARTED);
-        }
-
-        // Rising Star badge (50+ karma)
-        if (karma >= 50) {
-            tryAwardBadge(userId, BADGE_RISING_STAR);
-        }
-
-        // Popular badge (100+ karma)
-        if (karma >= 100) {
-            tryAwardBadge(userId, BADGE_POPULAR);
-        }
-
-        // Superstar badge (500+ karma)
-        if (karma >= 500) {
-            tryAwardBadge(userId, BADGE_SUPERSTAR);
-        }
+        userRepository.findById(userId).ifPresent(user -> evaluate(userId, Metric.KARMA, karmaService.getKarma(user)));
     }
 
     @Override
     public void checkAccountAgeBadges(UUID userId) {
-        Users user = userRepository.findById(userId).orElse(null);
-        if (user == null || user.getCreatedAt() == null) return;
+        userRepository.findById(userId).ifPresent(this::evaluateAccountAge);
+    }
+
+    @Override
+    public void checkVoteBadges(UUID userId) {
+        evaluate(userId, Metric.VOTES, userStatsService.getStats(userId).getVoteCount());
+    }
 
-        long daysSinceCreation = ChronoUnit.DAYS.between(user.getCreatedAt(), Instant.now());
+    @Override
+    public void checkAllBadges(UUID userId) {
+        UserStats stats = userStatsService.getStats(userId);
+        evaluate(userId, Metric.POSTS, stats.getPostCount());
+        evaluate(userId, Metric.COMMENTS, stats.getCommentCount());
+        evaluate(userId, Metric.VOTES, stats.getVoteCount());
+        userRepository.findById(userId).ifPresent(user -> {
+            evaluate(userId, Metric.KARMA, karmaService.getKarma(user));
+            evaluateAccountAge(user);
+        });
+    }
 
-        // Newcomer badge (7+ days)
-        if (daysSinceCreation >= 7) {
-            tryAwardBadge(userId, BADGE_NEWCOMER);
+    @Override
+    public int awardAccountAgeBadges(List<UUID> userIds) {
+        Instant now = Instant.now();
+        Map<UUID, List<BadgeCatalog.Rule>> awardedByUser = new HashMap<>();
+        for (BadgeCatalog.Rule rule : badgeCatalog.rulesFor(Metric.ACCOUNT_AGE_DAYS)) {
+            Instant createdBefore = now.minus(rule.criteria().threshold(), ChronoUnit.DAYS);
+            List<UUID> eligible = userBadgeRepository.findUserIdsMissingBadge(userIds, createdBefore, rule.badgeId());
+            for (UUID userId : userBadgeRepository.insertAwards(rule.badgeId(), eligible, now)) {
+                awardedByUser.computeIfAbsent(userId, id -> new ArrayList<>()).add(rule);
+            }
         }
-
-        // Regular badge (30+ days)
-        if (daysSinceCreation >= 30) {
-            tryAwardBadge(userId, BADGE_REGULAR);
+        if (!awardedByUser.isEmpty()) {
+            List<Users> users = userRepository.findAllWithAppUserByIdIn(awardedByUser.keySet());
+            afterCommit(() -> {
+                awardedByUser.forEach((userId, rules) -> rules.forEach(rule -> markHeld(userId, rule.badgeId())));
+                for (Users user : users) {
+                    awardedByUser.get(user.getId()).forEach(rule -> sendBadgeEmailNotification(user, rule));
+                }
+            });
         }
+        return awardedByUser.values().stream().mapToInt(List::size).sum();
+    }
 
-        // Veteran badge (1+ year = 365 days)
-        if (daysSinceCreation >= 365) {
-            tryAwardBadge(userId, BADGE_VETERAN);
+    private void evaluateAccountAge(Users user) {
+        if (user.getCreatedAt() != null) {
+            evaluate(user.getId(), Metric.ACCOUNT_AGE_DAYS, ChronoUnit.DAYS.between(user.getCreatedAt(), Instant.now()));
         }
     }
 
-    @Override
-    public void checkVoteBadges(UUID userId) {
-        long voteCount = voteRepository.countByUserId(userId);
-
-        // First Vote badge
-        if (voteCount >= 1) {
-            tryAwardBadge(userId, BADGE_FIRST_VOTE);
+    private void evaluate(UUID userId, Metric metric, long value) {
+        BitSet held = null;
+        for (BadgeCatalog.Rule rule : badgeCatalog.rulesFor(metric)) {
+            if (!rule.criteria().isMetBy(value)) {
+                break; // rules are ordered by threshold
+            }
+            if (held == null) {
+                held = heldBadges(userId);
+            }
+            boolean alreadyHeld;
+            synchronized (held) {
+                alreadyHeld = held.get(rule.badgeId());
+            }
+            if (!alreadyHeld) {
+                awardBadge(userId, rule, held);
+            }
         }
+    }
 
-        // Active Voter badge (20+ votes)
-        if (voteCount >= 20) {
-            tryAwardBadge(userId, BADGE_ACTIVE_VOTER);
+    // Only users already cached need updating; others load their badges on next check
+    private void markHeld(UUID userId, Integer badgeId) {
+        BitSet held;
+        synchronized (heldBadges) {
+            held = heldBadges.get(userId);
+        }
+        if (held != null) {
+            synchronized (held) {
+                held.set(badgeId);
+            }
         }
     }
 
-    @Override
-    public void checkAllBadges(UUID userId) {
-        checkPostBadges(userId);
-        checkCommentBadges(userId);
-        checkKarmaBadges(userId);
-        checkAccountAgeBadges(userId);
-        checkVoteBadges(userId);
+    private BitSet heldBadges(UUID userId) {
+        synchronized (heldBadges) {
+            BitSet cached = heldBadges.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        BitSet loaded = new BitSet();
+        userBadgeRepository.findBadgeIdsByUserId(userId).forEach(loaded::set);
+        synchronized (heldBadges) {
+            BitSet raced = heldBadges.putIfAbsent(userId, loaded);
+            return raced != null ? raced : loaded;
+        }
     }
 
-    private void tryAwardBadge(UUID userId, String badgeName) {
-        try {
-            Badge badge = badgeRepository.findByName(badgeName).orElse(null);
-            if (badge == null) {
-                log.warn("Badge not found: {}", badgeName);
-                return;
+    private void awardBadge(UUID userId, BadgeCatalog.Rule rule, BitSet held) {
+        boolean inserted = !userBadgeRepository.insertAwards(rule.badgeId(), List.of(userId), Instant.now()).isEmpty();
+        // Only new awards need the user row, for the email
+        Users user = inserted ? userRepository.findById(userId).orElse(null) : null;
+        afterCommit(() -> {
+            synchronized (held) {
+                held.set(rule.badgeId());
             }
-
-            // Check if user already has this badge
-            if (userBadgeRepository.existsByIdUserIdAndIdBadgeId(userId, badge.getId())) {
-                return; // Already has badge
+            if (user != null) {
+                log.info("Badge '{}' awarded to user {}", rule.name(), userId);
+                sendBadgeEmailNotification(user, rule);
             }
+        });
+    }
 
-            badgeService.awardBadgeToUser(userId, badge.getId());
-            log.info("Badge '{}' awarded to user {}", badgeName, userId);
-            
-            // Send email notification (async)
-            sendBadgeEmailNotification(userId, badge);
-        } catch (Exception e) {
-            log.error("Failed to award badge '{}' to user {}: {}", badgeName, userId, e.getMessage());
+    // Runs once the surrounding transaction commits, or right away outside one
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
     
-    private void sendBadgeEmailNotification(UUID userId, Badge badge) {
+    private void sendBadgeEmailNotification(Users user, BadgeCatalog.Rule rule) {
         try {
-            Users user = userRepository.findById(userId).orElse(null);
-            if (user == null || user.getAppUser() == null) return;
+            if (user.getAppUser() == null) return;
             
             String email = user.getAppUser().getEmail();
             String username = user.getUsername();
@@ -200,12 +206,12 @@ public class BadgeAwardingServiceImpl implements BadgeAwardingService {
             emailService.sendBadgeAwardedEmail(
                 email, 
                 username, 
-                badge.getName(), 
-                badge.getDescription(), 
-                badge.getIconUrl()
+                rule.name(), 
+                rule.description(), 
+                rule.iconUrl()
             );
         } catch (Exception e) {
-            log.error("Failed to send badge email for user {}: {}", userId, e.getMessage());
+            log.error("Failed to send badge email for user {}: {}", user.getId(), e.getMessage());
         }
     }
 }
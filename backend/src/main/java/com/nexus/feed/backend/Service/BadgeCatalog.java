@@ -0,0 +1,73 @@
+package com.nexus.feed.backend.Service;
+
+import com.nexus.feed.backend.Entity.Badge;
+import com.nexus.feed.backend.Event.BadgeCatalogChangedEvent;
+import com.nexus.feed.backend.Repository.BadgeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory copy of the active badges that carry criteria, grouped by metric and
+ * ordered by threshold. Loaded on first use and dropped whenever a badge is created
+ * or its criteria change, so rule evaluation never queries the badges table.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BadgeCatalog {
+
+    private final BadgeRepository badgeRepository;
+
+    private volatile Map<BadgeCriteria.Metric, List<Rule>> rules;
+
+    public record Rule(Integer badgeId, String name, String description, String iconUrl, BadgeCriteria criteria) {
+    }
+
+    public List<Rule> rulesFor(BadgeCriteria.Metric metric) {
+        Map<BadgeCriteria.Metric, List<Rule>> current = rules;
+        if (current == null) {
+            current = load();
+        }
+        return current.getOrDefault(metric, List.of());
+    }
+
+    // Synchronized with load so an invalidation can't be overwritten by a load that read stale rows
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChanged(BadgeCatalogChangedEvent event) {
+        rules = null;
+        log.debug("Badge catalog invalidated by badge {}", event.badgeId());
+    }
+
+    private synchronized Map<BadgeCriteria.Metric, List<Rule>> load() {
+        if (rules != null) {
+            return rules;
+        }
+        Map<BadgeCriteria.Metric, List<Rule>> loaded = new EnumMap<>(BadgeCriteria.Metric.class);
+        for (Badge badge : badgeRepository.findAll()) {
+            if (!Boolean.TRUE.equals(badge.getIsActive()) || badge.getCriteria() == null) {
+                continue;
+            }
+            try {
+                BadgeCriteria criteria = BadgeCriteria.parse(badge.getCriteria());
+                loaded.computeIfAbsent(criteria.metric(), m -> new ArrayList<>()).add(new Rule(
+                        badge.getId(), badge.getName(), badge.getDescription(), badge.getIconUrl(), criteria));
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipping badge '{}' with invalid criteria: {}", badge.getName(), e.getMessage());
+            }
+        }
+        loaded.replaceAll((metric, list) -> list.stream()
+                .sorted(Comparator.comparingLong(rule -> rule.criteria().threshold()))
+                .toList());
+        log.info("Loaded badge catalog: {} rules", loaded.values().stream().mapToInt(List::size).sum());
+        rules = loaded;
+        return loaded;
+    }
+}
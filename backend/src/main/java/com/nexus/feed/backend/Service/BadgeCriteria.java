@@ -0,0 +1,38 @@
+package com.nexus.feed.backend.Service;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The rule a badge is awarded by, stored in {@code badges.criteria} as text such
+ * as {@code POSTS >= 5}. Badges without criteria are never awarded automatically.
+ */
+public record BadgeCriteria(Metric metric, long threshold) {
+
+    public enum Metric { POSTS, COMMENTS, VOTES, KARMA, ACCOUNT_AGE_DAYS }
+
+    private static final Pattern FORMAT = Pattern.compile("\\s*([A-Za-z_]+)\\s*>=\\s*(\\d+)\\s*");
+
+    public static BadgeCriteria parse(String criteria) {
+        Matcher matcher = FORMAT.matcher(criteria);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Badge criteria must look like 'POSTS >= 5': " + criteria);
+        }
+        try {
+            Metric metric = Metric.valueOf(matcher.group(1).toUpperCase(Locale.ROOT));
+            return new BadgeCriteria(metric, Long.parseLong(matcher.group(2)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown badge criteria metric: " + matcher.group(1));
+        }
+    }
+
+    public boolean isMetBy(long value) {
+        return value >= threshold;
+    }
+
+    @Override
+    public String toString() {
+        return metric + " >= " + threshold;
+    }
+}
@@ -0,0 +1,170 @@
+package com.nexus.feed.backend.Service;
+
+import com.nexus.feed.backend.Event.CommentCreatedEvent;
+import com.nexus.feed.backend.Event.PostCreatedEvent;
+import com.nexus.feed.backend.Event.VoteCastEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs badge checks off the request path. Content and vote events are received
+ * after their transaction commits and turned into per-user pending checks; a
+ * user with checks already waiting absorbs new ones instead of queueing another
+ * task, so a burst of activity costs one pass over that user's badges.
+ * <p>
+ * Work runs on a bounded pool of its own, separate from the email executor. When
+ * the pool is saturated the publishing thread runs the checks itself, which slows
+ * writers down rather than dropping awards.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BadgeEventDispatcher {
+
+    enum Check { POST, COMMENT, VOTE, KARMA }
+
+    private final BadgeAwardingService badgeAwardingService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${events.badge.pool-size:2}")
+    private int poolSize = 2;
+
+    @Value("${events.badge.queue-capacity:1000}")
+    private int queueCapacity = 1000;
+
+    private final Map<UUID, Pending> pending = new ConcurrentHashMap<>();
+    private Executor executor;
+    private Timer lag;
+    private Counter coalesced;
+
+    private static final class Pending {
+        final EnumSet<Check> checks;
+        final long enqueuedAt = System.nanoTime();
+
+        Pending(Check check) {
+            this.checks = EnumSet.of(check);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(poolSize);
+        pool.setMaxPoolSize(poolSize);
+        pool.setQueueCapacity(queueCapacity);
+        pool.setThreadNamePrefix("badge-events-");
+        pool.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.setWaitForTasksToCompleteOnShutdown(true);
+        pool.setAwaitTerminationSeconds(10);
+        pool.initialize();
+        executor = pool;
+        registerMetrics();
+    }
+
+    void registerMetrics() {
+        Gauge.builder("events.badge.queue.depth", pending, Map::size)
+                .description("Users with badge checks waiting to run")
+                .register(meterRegistry);
+        lag = Timer.builder("events.badge.lag")
+                .description("Time from the first coalesced event to its badge checks starting")
+                .register(meterRegistry);
+        coalesced = Counter.builder("events.badge.coalesced")
+                .description("Events folded into checks already pending for the same user")
+                .register(meterRegistry);
+    }
+
+    // Lets tests control when queued work runs
+    void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    @PreDestroy
+    void stop() {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        enqueue(event.authorId(), Check.POST);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        enqueue(event.authorId(), Check.COMMENT);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVoteCast(VoteCastEvent event) {
+        if (event.isNewVote()) {
+            enqueue(event.voterId(), Check.VOTE);
+        }
+        if (event.raisesAuthorKarma()) {
+            enqueue(event.authorId(), Check.KARMA);
+        }
+    }
+
+    /**
+     * Users with checks that have not started yet.
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    void enqueue(UUID userId, Check check) {
+        boolean[] scheduled = {false};
+        pending.compute(userId, (id, waiting) -> {
+            if (waiting == null) {
+                scheduled[0] = true;
+                return new Pending(check);
+            }
+            waiting.checks.add(check);
+            return waiting;
+        });
+        if (scheduled[0]) {
+            executor.execute(() -> process(userId));
+        } else {
+            coalesced.increment();
+        }
+    }
+
+    private void process(UUID userId) {
+        // Removing first means events arriving from here on schedule a fresh pass
+        Pending work = pending.remove(userId);
+        if (work == null) {
+            return;
+        }
+        lag.record(System.nanoTime() - work.enqueuedAt, TimeUnit.NANOSECONDS);
+        for (Check check : work.checks) {
+            try {
+                switch (check) {
+                    case POST -> badgeAwardingService.checkPostBadges(userId);
+                    case COMMENT -> badgeAwardingService.checkCommentBadges(userId);
+                    case VOTE -> badgeAwardingService.checkVoteBadges(userId);
+                    case KARMA -> badgeAwardingService.checkKarmaBadges(userId);
+                }
+            } catch (RuntimeException e) {
+                log.error("{} badge check failed for user {}: {}", check, userId, e.getMessage());
+            }
+        }
+    }
+}
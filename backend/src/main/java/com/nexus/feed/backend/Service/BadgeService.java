@@ -9,6 +9,8 @@ public interface BadgeService {
     BadgeResponse getBadgeById(Integer id);
     BadgeResponse getBadgeByName(String name);
     Badge createBadge(String name, String description, String iconUrl);
+    Badge createBadge(String name, String description, String iconUrl, String criteria);
+    Badge updateBadgeCriteria(Integer badgeId, String criteria);
     List<BadgeResponse> getUserBadges(java.util.UUID userId);
     void awardBadgeToUser(java.util.UUID userId, Integer badgeId);
 }
\ No newline at end of file
@@ -2,10 +2,12 @@ package com.nexus.feed.backend.Service;
 
 import com.nexus.feed.backend.DTO.BadgeResponse;
 import com.nexus.feed.backend.Entity.*;
+import com.nexus.feed.backend.Event.BadgeCatalogChangedEvent;
 import com.nexus.feed.backend.Exception.ResourceNotFoundException;
 import com.nexus.feed.backend.Repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
@@ -21,6 +23,7 @@ public class BadgeServiceImpl implements BadgeService {
     private final BadgeRepository badgeRepository;
     private final UserRepository userRepository;
     private final UserBadgeRepository userBadgeRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -48,6 +51,12 @@ public class BadgeServiceImpl implements BadgeService {
 
     @Override
     public Badge createBadge(String name, String description, String iconUrl) {
+        return createBadge(name, description, iconUrl, null);
+    }
+
+    @Override
+    public Badge createBadge(String name, String description, String iconUrl, String criteria) {
+        validateCriteria(criteria);
         if (badgeRepository.existsByName(name)) {
             log.warn("Attempt to create duplicate badge: {}", name);
             throw new IllegalArgumentException("Badge with name '" + name + "' already exists");
@@ -58,12 +67,33 @@ public class BadgeServiceImpl implements BadgeService {
         badge.setDescription(description);
         badge.setIconUrl(iconUrl);
         badge.setIsActive(true);
+        badge.setCriteria(criteria);
         
         Badge savedBadge = badgeRepository.save(badge);
-        log.info("Badge created: id={}, name={}", savedBadge.getId(), name);
+        eventPublisher.publishEvent(new BadgeCatalogChangedEvent(savedBadge.getId()));
+        log.info("Badge created: id={}, name={}, criteria={}", savedBadge.getId(), name, criteria);
+        return savedBadge;
+    }
+
+    @Override
+    public Badge updateBadgeCriteria(Integer badgeId, String criteria) {
+        validateCriteria(criteria);
+        Badge badge = badgeRepository.findById(badgeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Badge", "id", badgeId));
+        badge.setCriteria(criteria);
+
+        Badge savedBadge = badgeRepository.save(badge);
+        eventPublisher.publishEvent(new BadgeCatalogChangedEvent(badgeId));
+        log.info("Badge criteria updated: id={}, criteria={}", badgeId, criteria);
         return savedBadge;
     }
 
+    private void validateCriteria(String criteria) {
+        if (criteria != null) {
+            BadgeCriteria.parse(criteria);
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<BadgeResponse> getUserBadges(UUID userId) {
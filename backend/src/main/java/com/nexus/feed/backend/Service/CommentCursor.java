@@ -0,0 +1,49 @@
+package com.nexus.feed.backend.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position among sibling comments, encoded as an opaque URL-safe string.
+ * Top-level comments page newest first and replies oldest first, both on
+ * (createdAt, id). A cursor without a position starts from the first sibling,
+ * which is how a "continue thread" link below the depth limit is expressed.
+ */
+public record CommentCursor(Instant createdAt, UUID id) {
+
+    private static final String VERSION = "c1";
+
+    public static CommentCursor start() {
+        return new CommentCursor(null, null);
+    }
+
+    public boolean isStart() {
+        return createdAt == null || id == null;
+    }
+
+    public String encode() {
+        String raw = String.join("|",
+                VERSION,
+                createdAt != null ? createdAt.toString() : "",
+                id != null ? id.toString() : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CommentCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid comment cursor");
+            }
+            if (parts[1].isEmpty() || parts[2].isEmpty()) {
+                return start();
+            }
+            return new CommentCursor(Instant.parse(parts[1]), UUID.fromString(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid comment cursor");
+        }
+    }
+}
@@ -10,7 +10,16 @@ public interface CommentService {
     CommentResponse createComment(UUID userId, UUID postId, CommentCreateRequest request);
     CommentResponse getCommentById(UUID id);
     List<CommentResponse> getCommentsByPost(UUID postId);
+    CursorPage<CommentResponse> getCommentThread(UUID postId, String cursor, int size, int depth, int breadth);
+    CursorPage<CommentResponse> getReplies(UUID commentId, String cursor, int size, int depth, int breadth);
     Page<CommentResponse> getCommentsByUser(UUID userId, Pageable pageable);
     CommentResponse updateComment(UUID commentId, UUID userId, CommentUpdateRequest request);
     void deleteComment(UUID commentId, UUID userId);
+
+    /**
+     * Fill in the materialized path of up to {@code batchSize} comments whose parent already has one.
+     *
+     * @return the number of comments updated, zero once no more paths can be filled
+     */
+    int backfillPathBatch(int batchSize);
 }
\ No newline at end of file
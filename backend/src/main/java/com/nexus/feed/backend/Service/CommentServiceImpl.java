@@ -2,12 +2,16 @@ package com.nexus.feed.backend.Service;
 
 import com.nexus.feed.backend.DTO.*;
 import com.nexus.feed.backend.Entity.*;
+import com.nexus.feed.backend.Event.CommentCreatedEvent;
 import com.nexus.feed.backend.Exception.ResourceNotFoundException;
 import com.nexus.feed.backend.Exception.UnauthorizedException;
 import com.nexus.feed.backend.Repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,10 +28,22 @@ public class CommentServiceImpl implements CommentService {
     private final CommentRepository commentRepository;
     private final PostRepository postRepository;
     private final UserRepository userRepository;
-    private final VoteRepository voteRepository;
     private final AuthenticationService authenticationService;
+    private final VoteBuffer voteBuffer;
+    private final VoteCache voteCache;
     private final KarmaService karmaService;
-    private final BadgeAwardingService badgeAwardingService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PostStatsService postStatsService;
+    private final UserStatsService userStatsService;
+
+    @Value("${comments.thread.max-page-size:50}")
+    private int maxThreadPageSize = 50;
+
+    @Value("${comments.thread.max-depth:10}")
+    private int maxThreadDepth = 10;
+
+    @Value("${comments.thread.max-breadth:50}")
+    private int maxThreadBreadth = 50;
 
     @Override
     public CommentResponse createComment(UUID userId, UUID postId, CommentCreateRequest request) {
@@ -46,14 +62,19 @@ public class CommentServiceImpl implements CommentService {
         if (request.getParentCommentId() != null) {
             Comment parentComment = commentRepository.findById(request.getParentCommentId())
                     .orElseThrow(() -> new ResourceNotFoundException("Comment", "id", request.getParentCommentId()));
+            if (parentComment.getPath() != null
+                    && parentComment.descendantPathPrefix().length() > Comment.MAX_PATH_LENGTH) {
+                throw new IllegalArgumentException(
+                        "Replies cannot be nested more than " + Comment.MAX_DEPTH + " levels deep");
+            }
             comment.setParentComment(parentComment);
         }
 
         Comment savedComment = commentRepository.save(comment);
+        postStatsService.recordCommentAdded(postId);
+        userStatsService.recordComment(userId, 1);
         log.info("Comment created: id={}, postId={}, userId={}", savedComment.getId(), postId, userId);
-
-        // Check for comment-related badges
-        badgeAwardingService.checkCommentBadges(userId);
+        eventPublisher.publishEvent(new CommentCreatedEvent(savedComment.getId(), postId, userId));
 
         return convertToResponse(savedComment);
     }
@@ -61,7 +82,7 @@ public class CommentServiceImpl implements CommentService {
     @Override
     @Transactional(readOnly = true)
     public CommentResponse getCommentById(UUID id) {
-        Comment comment = commentRepository.findById(id)
+        Comment comment = commentRepository.findWithUserById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment", "id", id));
         return convertToResponse(comment);
     }
@@ -69,69 +90,216 @@ public class CommentServiceImpl implements CommentService {
     @Override
     @Transactional(readOnly = true)
     public List<CommentResponse> getCommentsByPost(UUID postId) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new ResourceNotFoundException("Post", "id", postId));
+        if (!postRepository.existsById(postId)) {
+            throw new ResourceNotFoundException("Post", "id", postId);
+        }
         
-        List<Comment> topLevelComments = commentRepository.findByPostAndParentCommentIsNullOrderByCreatedAtDesc(post);
+        List<Comment> comments = commentRepository.findAllByPostIdWithUser(postId);
+        if (comments.isEmpty()) {
+            return java.util.Collections.emptyList();
+        }
         
-        // Collect all comment IDs (including nested replies)
-        List<UUID> allCommentIds = new java.util.ArrayList<>();
-        collectCommentIds(topLevelComments, allCommentIds);
+        List<UUID> allCommentIds = comments.stream()
+                .map(Comment::getId)
+                .collect(Collectors.toList());
+        return assembleTree(comments, responseMapper(allCommentIds));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CommentResponse> getCommentThread(UUID postId, String cursor, int size, int depth, int breadth) {
+        validateThreadLimits(size, depth, breadth);
+        if (!postRepository.existsById(postId)) {
+            throw new ResourceNotFoundException("Post", "id", postId);
+        }
+        CommentCursor position = decodeCursor(cursor);
         
-        if (allCommentIds.isEmpty()) {
-            return java.util.Collections.emptyList();
+        // Fetch one extra row to learn whether another slice exists
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Comment> roots = position.isStart()
+                ? commentRepository.findTopLevelByPostId(postId, limit)
+                : commentRepository.findTopLevelByPostIdAfter(postId, position.createdAt(), position.id(), limit);
+        return expandPage(roots, size, depth, breadth);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CommentResponse> getReplies(UUID commentId, String cursor, int size, int depth, int breadth) {
+        validateThreadLimits(size, depth, breadth);
+        if (!commentRepository.existsById(commentId)) {
+            throw new ResourceNotFoundException("Comment", "id", commentId);
+        }
+        CommentCursor position = decodeCursor(cursor);
+        
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Comment> replies = position.isStart()
+                ? commentRepository.findRepliesByParentId(commentId, limit)
+                : commentRepository.findRepliesByParentIdAfter(commentId, position.createdAt(), position.id(), limit);
+        return expandPage(replies, size, depth, breadth);
+    }
+    
+    private void validateThreadLimits(int size, int depth, int breadth) {
+        if (size < 1 || size > maxThreadPageSize) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + maxThreadPageSize);
+        }
+        if (depth < 0 || depth > maxThreadDepth) {
+            throw new IllegalArgumentException("Depth must be between 0 and " + maxThreadDepth);
+        }
+        if (breadth < 1 || breadth > maxThreadBreadth) {
+            throw new IllegalArgumentException("Breadth must be between 1 and " + maxThreadBreadth);
+        }
+    }
+    
+    private CommentCursor decodeCursor(String cursor) {
+        return cursor == null || cursor.isBlank() ? CommentCursor.start() : CommentCursor.decode(cursor);
+    }
+    
+    /**
+     * Attach up to {@code depth} levels of replies (at most {@code breadth} per comment) beneath a
+     * slice of sibling comments. Each level is one id query plus one hydrating query, so the cost
+     * depends on the limits, never on how large the thread is.
+     */
+    private CursorPage<CommentResponse> expandPage(List<Comment> siblings, int size, int depth, int breadth) {
+        boolean hasNext = siblings.size() > size;
+        List<Comment> page = hasNext ? siblings.subList(0, size) : siblings;
+        if (page.isEmpty()) {
+            return CursorPage.<CommentResponse>builder()
+                    .content(java.util.Collections.emptyList())
+                    .size(0)
+                    .hasNext(false)
+                    .build();
         }
         
-        // Batch fetch vote counts
-        List<VoteRepository.VoteCount> voteCounts = voteRepository.countByVotableIdsAndVotableType(
-                allCommentIds, Vote.VotableType.COMMENT);
+        List<Comment> loaded = new java.util.ArrayList<>(page);
+        java.util.Map<UUID, List<Comment>> childrenByParent = new java.util.HashMap<>();
+        java.util.Map<UUID, CommentCursor> moreReplies = new java.util.HashMap<>();
+        List<Comment> frontier = page;
         
-        java.util.Map<UUID, Integer> upvotesMap = new java.util.HashMap<>();
-        java.util.Map<UUID, Integer> downvotesMap = new java.util.HashMap<>();
+        for (int level = 0; level < depth && !frontier.isEmpty(); level++) {
+            List<UUID> parentIds = frontier.stream().map(Comment::getId).collect(Collectors.toList());
+            List<UUID> childIds = commentRepository.findFirstReplyIdsPerParent(parentIds, breadth + 1).stream()
+                    .map(UUID::fromString)
+                    .collect(Collectors.toList());
+            if (childIds.isEmpty()) {
+                frontier = java.util.Collections.emptyList();
+                break;
+            }
+            
+            java.util.Map<UUID, List<Comment>> grouped = commentRepository.findAllWithUserByIdIn(childIds).stream()
+                    .sorted(java.util.Comparator.comparing(Comment::getCreatedAt).thenComparing(Comment::getId))
+                    .collect(Collectors.groupingBy(c -> c.getParentComment().getId()));
+            List<Comment> next = new java.util.ArrayList<>();
+            for (Comment parent : frontier) {
+                List<Comment> children = grouped.getOrDefault(parent.getId(), java.util.Collections.emptyList());
+                if (children.size() > breadth) {
+                    children = children.subList(0, breadth);
+                    Comment lastShown = children.get(children.size() - 1);
+                    moreReplies.put(parent.getId(), new CommentCursor(lastShown.getCreatedAt(), lastShown.getId()));
+                }
+                childrenByParent.put(parent.getId(), children);
+                next.addAll(children);
+            }
+            loaded.addAll(next);
+            frontier = next;
+        }
+        
+        // Comments at the depth limit only report whether a subtree continues below them
+        if (!frontier.isEmpty()) {
+            List<UUID> frontierIds = frontier.stream().map(Comment::getId).collect(Collectors.toList());
+            for (UUID parentId : commentRepository.findParentIdsWithReplies(frontierIds)) {
+                moreReplies.put(parentId, CommentCursor.start());
+            }
+        }
         
-        for (VoteRepository.VoteCount vc : voteCounts) {
-            if (vc.getVoteValue() == Vote.VoteValue.UPVOTE) {
-                upvotesMap.put(vc.getVotableId(), vc.getCount().intValue());
-            } else {
-                downvotesMap.put(vc.getVotableId(), vc.getCount().intValue());
+        java.util.function.Function<Comment, CommentResponse> mapper = responseMapper(
+                loaded.stream().map(Comment::getId).collect(Collectors.toList()));
+        java.util.Map<UUID, CommentResponse> responses = new java.util.HashMap<>();
+        for (Comment comment : loaded) {
+            CommentResponse response = mapper.apply(comment);
+            response.setReplies(new java.util.ArrayList<>());
+            CommentCursor more = moreReplies.get(comment.getId());
+            if (more != null) {
+                response.setHasMoreReplies(true);
+                response.setRepliesCursor(more.encode());
             }
+            responses.put(comment.getId(), response);
         }
+        childrenByParent.forEach((parentId, children) -> children.forEach(
+                child -> responses.get(parentId).getReplies().add(responses.get(child.getId()))));
         
-        // Batch fetch user votes
+        Comment last = page.get(page.size() - 1);
+        return CursorPage.<CommentResponse>builder()
+                .content(page.stream().map(c -> responses.get(c.getId())).collect(Collectors.toList()))
+                .size(page.size())
+                .nextCursor(hasNext ? new CommentCursor(last.getCreatedAt(), last.getId()).encode() : null)
+                .hasNext(hasNext)
+                .build();
+    }
+    
+    /**
+     * Batch-load vote totals and the current user's votes for a set of comments, returning a
+     * converter that needs no further queries.
+     */
+    private java.util.function.Function<Comment, CommentResponse> responseMapper(List<UUID> commentIds) {
+        // Vote totals, with misses loaded in one batch
+        java.util.Map<UUID, Integer> upvotesMap = new java.util.HashMap<>();
+        java.util.Map<UUID, Integer> downvotesMap = new java.util.HashMap<>();
+        voteCache.tallies(commentIds, Vote.VotableType.COMMENT).forEach((commentId, tally) -> {
+            upvotesMap.put(commentId, (int) tally.upvotes());
+            downvotesMap.put(commentId, (int) tally.downvotes());
+        });
+        
+        // Current user's votes, with misses loaded in one batch
         java.util.Map<UUID, String> userVotesMap = new java.util.HashMap<>();
         try {
             UUID currentUserId = authenticationService.getCurrentUserId();
-            List<Vote> userVotes = voteRepository.findByUserIdAndVotableIdsAndVotableType(
-                    currentUserId, allCommentIds, Vote.VotableType.COMMENT);
-            for (Vote vote : userVotes) {
-                userVotesMap.put(vote.getId().getVotableId(), vote.getVoteValue().name());
+            voteCache.userVotes(currentUserId, commentIds, Vote.VotableType.COMMENT)
+                    .forEach((commentId, value) -> userVotesMap.put(commentId, value.name()));
+            if (voteBuffer.isEnabled()) {
+                voteBuffer.overlayUserVotes(currentUserId, commentIds, userVotesMap);
             }
         } catch (RuntimeException e) {
             // User not authenticated, userVotesMap remains empty
         }
         
-        return topLevelComments.stream()
-                .map(comment -> convertToResponseWithRepliesBatch(comment, upvotesMap, downvotesMap, userVotesMap))
-                .collect(Collectors.toList());
+        return comment -> toResponse(comment, upvotesMap, downvotesMap, userVotesMap);
     }
     
-    private void collectCommentIds(List<Comment> comments, List<UUID> allIds) {
+    /**
+     * Link a flat, createdAt-ascending list of comments into reply trees in a single pass,
+     * so thread depth never grows the call stack. Top-level comments come back newest first,
+     * replies oldest first.
+     */
+    private List<CommentResponse> assembleTree(List<Comment> comments, java.util.function.Function<Comment, CommentResponse> mapper) {
+        java.util.Map<UUID, CommentResponse> byId = new java.util.HashMap<>();
+        for (Comment comment : comments) {
+            CommentResponse response = mapper.apply(comment);
+            response.setReplies(new java.util.ArrayList<>());
+            byId.put(comment.getId(), response);
+        }
+        
+        List<CommentResponse> topLevel = new java.util.ArrayList<>();
         for (Comment comment : comments) {
-            allIds.add(comment.getId());
-            List<Comment> replies = commentRepository.findByParentCommentOrderByCreatedAtAsc(comment);
-            if (!replies.isEmpty()) {
-                collectCommentIds(replies, allIds);
+            CommentResponse response = byId.get(comment.getId());
+            if (response.getParentCommentId() == null) {
+                topLevel.add(response);
+                continue;
+            }
+            CommentResponse parent = byId.get(response.getParentCommentId());
+            if (parent != null) {
+                parent.getReplies().add(response);
             }
         }
+        java.util.Collections.reverse(topLevel);
+        return topLevel;
     }
     
-    private CommentResponse convertToResponseWithRepliesBatch(
+    private CommentResponse toResponse(
             Comment comment,
             java.util.Map<UUID, Integer> upvotesMap,
             java.util.Map<UUID, Integer> downvotesMap,
             java.util.Map<UUID, String> userVotesMap) {
-        
-        CommentResponse response = CommentResponse.builder()
+        return CommentResponse.builder()
                 .id(comment.getId())
                 .body(comment.getBody())
                 .createdAt(comment.getCreatedAt())
@@ -145,24 +313,17 @@ public class CommentServiceImpl implements CommentService {
                 .downvotes(downvotesMap.getOrDefault(comment.getId(), 0))
                 .userVote(userVotesMap.get(comment.getId()))
                 .build();
-        
-        // Load replies recursively
-        List<Comment> replies = commentRepository.findByParentCommentOrderByCreatedAtAsc(comment);
-        List<CommentResponse> replyResponses = replies.stream()
-                .map(reply -> convertToResponseWithRepliesBatch(reply, upvotesMap, downvotesMap, userVotesMap))
-                .collect(Collectors.toList());
-        
-        response.setReplies(replyResponses);
-        return response;
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<CommentResponse> getCommentsByUser(UUID userId, Pageable pageable) {
-        Users user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
-        return commentRepository.findByUserOrderByCreatedAtDesc(user, pageable)
-                .map(this::convertToResponse);
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+        Page<Comment> comments = commentRepository.findPageWithUserByUserId(userId, pageable);
+        List<UUID> commentIds = comments.getContent().stream().map(Comment::getId).toList();
+        return comments.map(responseMapper(commentIds));
     }
 
     @Override
@@ -193,42 +354,36 @@ public class CommentServiceImpl implements CommentService {
         }
 
         UUID authorId = comment.getUser().getId();
+        UUID postId = comment.getPost().getId();
+        java.util.Set<UUID> affectedUsers = new java.util.HashSet<>();
+        affectedUsers.add(authorId);
+        if (comment.getPath() != null) {
+            affectedUsers.addAll(commentRepository.findDescendantAuthorIds(comment.descendantPathPrefix()));
+        }
+
+        java.util.Map<UUID, Long> karmaLost = karmaService.karmaOnComment(comment);
 
         commentRepository.delete(comment);
-        karmaService.recalculateKarma(authorId);
+        // Replies are removed by cascade, so recount rather than decrement
+        postStatsService.refreshCommentCount(postId);
+        userStatsService.refresh(affectedUsers);
+        karmaService.subtractKarma(karmaLost);
         log.info("Comment deleted: id={}, userId={}", commentId, userId);
     }
 
-    private CommentResponse convertToResponse(Comment comment) {
-        long upvotes = voteRepository.countByVotableIdAndVotableTypeAndVoteValue(
-                comment.getId(), Vote.VotableType.COMMENT, Vote.VoteValue.UPVOTE);
-        long downvotes = voteRepository.countByVotableIdAndVotableTypeAndVoteValue(
-                comment.getId(), Vote.VotableType.COMMENT, Vote.VoteValue.DOWNVOTE);
-
-        String userVote = null;
-        try {
-            UUID currentUserId = authenticationService.getCurrentUserId();
-            userVote = voteRepository.findByUserIdAndVotableIdAndVotableType(
-                    currentUserId, comment.getId(), Vote.VotableType.COMMENT)
-                    .map(vote -> vote.getVoteValue().name())
-                    .orElse(null);
-        } catch (RuntimeException e) {
-            // User not authenticated, userVote remains null
+    @Override
+    @Transactional
+    public int backfillPathBatch(int batchSize) {
+        // Top-level comments first; each later batch reaches one level deeper
+        int updated = commentRepository.backfillTopLevelPaths(batchSize);
+        if (updated == 0) {
+            updated = commentRepository.backfillReplyPaths(
+                    Comment.MAX_PATH_LENGTH - Comment.PATH_SEGMENT_LENGTH, batchSize);
         }
+        return updated;
+    }
 
-        return CommentResponse.builder()
-                .id(comment.getId())
-                .body(comment.getBody())
-                .createdAt(comment.getCreatedAt())
-                .updatedAt(comment.getUpdatedAt())
-                .userId(comment.getUser().getId())
-                .username(comment.getUser().getUsername())
-                .userProfilePictureUrl(comment.getUser().getProfilePictureUrl())
-                .postId(comment.getPost().getId())
-                .parentCommentId(comment.getParentComment() != null ? comment.getParentComment().getId() : null)
-                .upvotes((int) upvotes)
-                .downvotes((int) downvotes)
-                .userVote(userVote)
-                .build();
+    private CommentResponse convertToResponse(Comment comment) {
+        return responseMapper(List.of(comment.getId())).apply(comment);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,49 @@
+package com.nexus.feed.backend.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in the post feed, encoded as an opaque URL-safe string.
+ * <ul>
+ *   <li>new: (createdAt, id)</li>
+ *   <li>best: (score, createdAt, id)</li>
+ *   <li>hot: (hot rank, createdAt, id) evaluated at {@code asOf}, so the ordering
+ *       stays stable while a client scrolls</li>
+ * </ul>
+ */
+public record FeedCursor(String sort, double rank, Instant createdAt, UUID id, Instant asOf) {
+
+    private static final String VERSION = "v1";
+
+    public String encode() {
+        String raw = String.join("|",
+                VERSION,
+                sort,
+                Double.toString(rank),
+                createdAt.toString(),
+                id.toString(),
+                asOf != null ? asOf.toString() : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static FeedCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 6 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid feed cursor");
+            }
+            return new FeedCursor(
+                    parts[1],
+                    Double.parseDouble(parts[2]),
+                    Instant.parse(parts[3]),
+                    UUID.fromString(parts[4]),
+                    parts[5].isEmpty() ? null : Instant.parse(parts[5]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid feed cursor");
+        }
+    }
+}
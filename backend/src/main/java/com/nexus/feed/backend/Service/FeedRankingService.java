@@ -0,0 +1,25 @@
+package com.nexus.feed.backend.Service;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * In-process ranking of the top posts for the "hot" and "best" feeds, so the
+ * first pages of those feeds don't re-rank every post in SQL on each request.
+ */
+public interface FeedRankingService {
+
+    /**
+     * Page of post ids for the given sort, or empty when the page lies outside
+     * the ranked window (or the index isn't loaded yet) and SQL should be used.
+     */
+    Optional<Page<UUID>> findPage(String sort, Pageable pageable);
+
+    /**
+     * Rebuild the ranked windows from the database.
+     */
+    void refresh();
+}
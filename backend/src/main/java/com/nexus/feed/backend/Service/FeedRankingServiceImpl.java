@@ -0,0 +1,268 @@
+package com.nexus.feed.backend.Service;
+
+import com.nexus.feed.backend.Event.PostCreatedEvent;
+import com.nexus.feed.backend.Event.PostDeletedEvent;
+import com.nexus.feed.backend.Event.PostScoreChangedEvent;
+import com.nexus.feed.backend.Repository.PostRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the top {@code feed.ranking.window-size} post ids per sort in a concurrent
+ * skip list. The windows are rebuilt from the database on a schedule and patched
+ * in between from post and vote events, so they stay close to what SQL would return.
+ * <p>
+ * Hot ranks are computed against the instant of the last rebuild, the same way a
+ * hot cursor pins its {@code asOf}; the next rebuild re-ages every post.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FeedRankingServiceImpl implements FeedRankingService {
+
+    static final String HOT = "hot";
+    static final String BEST = "best";
+
+    private final PostRepository postRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${feed.ranking.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${feed.ranking.window-size:1000}")
+    private int windowSize = 1000;
+
+    private final Map<String, RankedWindow> windows = new ConcurrentHashMap<>();
+    private final AtomicLong totalPosts = new AtomicLong();
+
+    @PostConstruct
+    void registerMetrics() {
+        for (String sort : List.of(HOT, BEST)) {
+            Gauge.builder("feed.ranking.index.size", windows, w -> w.containsKey(sort) ? w.get(sort).size() : 0)
+                    .tag("sort", sort)
+                    .description("Post ids held in the in-memory ranked window")
+                    .register(meterRegistry);
+            Gauge.builder("feed.ranking.refresh.lag", windows, w -> w.containsKey(sort) ? w.get(sort).lagSeconds() : -1)
+                    .tag("sort", sort)
+                    .baseUnit("seconds")
+                    .description("Time since the ranked window was last rebuilt from the database")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public Optional<Page<UUID>> findPage(String sort, Pageable pageable) {
+        RankedWindow window = enabled ? windows.get(sort) : null;
+        if (window == null) {
+            return Optional.empty();
+        }
+        long end = pageable.getOffset() + pageable.getPageSize();
+        if (end > window.size() && !window.complete) {
+            return Optional.empty();
+        }
+
+        List<UUID> ids = window.slice(pageable.getOffset(), pageable.getPageSize());
+        long total = window.complete ? window.size() : Math.max(totalPosts.get(), window.size());
+        return Optional.of(new PageImpl<>(ids, pageable, total));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        Instant asOf = Instant.now();
+        PageRequest limit = PageRequest.of(0, windowSize);
+
+        RankedWindow best = new RankedWindow(asOf, windowSize, false);
+        List<PostRepository.RankingRow> bestRows = postRepository.findRankingRowsOrderByBest(limit);
+        for (PostRepository.RankingRow row : bestRows) {
+            best.put(new RankedPost(row.getId(), row.getScore(), row.getCreatedAt(), row.getScore()));
+        }
+        best.complete = bestRows.size() < windowSize;
+
+        RankedWindow hot = new RankedWindow(asOf, windowSize, true);
+        List<PostRepository.HotFeedKey> hotKeys = postRepository.findFeedHotFirst(asOf, limit);
+        Map<UUID, Double> hotRanks = hotKeys.stream()
+                .collect(Collectors.toMap(PostRepository.HotFeedKey::getPostId, PostRepository.HotFeedKey::getHotRank));
+        if (!hotRanks.isEmpty()) {
+            for (PostRepository.RankingRow row : postRepository.findRankingRowsByIdIn(hotRanks.keySet())) {
+                hot.put(new RankedPost(row.getId(), row.getScore(), row.getCreatedAt(), hotRanks.get(row.getId())));
+            }
+        }
+        hot.complete = hotKeys.size() < windowSize;
+
+        totalPosts.set(postRepository.count());
+        windows.put(BEST, best);
+        windows.put(HOT, hot);
+        log.debug("Feed ranking refreshed: best={}, hot={}, totalPosts={}", best.size(), hot.size(), totalPosts.get());
+    }
+
+    @TransactionalEventListener
+    public void onPostCreated(PostCreatedEvent event) {
+        totalPosts.incrementAndGet();
+        for (RankedWindow window : windows.values()) {
+            window.offer(event.postId(), 0, event.createdAt());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onPostDeleted(PostDeletedEvent event) {
+        totalPosts.decrementAndGet();
+        for (RankedWindow window : windows.values()) {
+            window.remove(event.postId());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onScoreChanged(PostScoreChangedEvent event) {
+        List<PostRepository.RankingRow> outsider = null;
+        for (RankedWindow window : windows.values()) {
+            if (!window.adjust(event.postId(), event.scoreDelta()) && event.scoreDelta() > 0) {
+                // Only an upvote can lift a post from outside into the window; its committed row has the new score
+                if (outsider == null) {
+                    outsider = postRepository.findRankingRowsByIdIn(List.of(event.postId()));
+                }
+                for (PostRepository.RankingRow row : outsider) {
+                    window.offer(row.getId(), row.getScore(), row.getCreatedAt());
+                }
+            }
+        }
+    }
+
+    static double hotRank(int score, Instant createdAt, Instant asOf) {
+        double ageHours = Math.max(0, Duration.between(createdAt, asOf).toMillis() / 3_600_000.0);
+        return score / Math.pow(ageHours + 2, 1.5);
+    }
+
+    record RankedPost(UUID id, int score, Instant createdAt, double rank) {
+    }
+
+    private static final Comparator<RankedPost> RANK_ORDER = Comparator
+            .comparingDouble(RankedPost::rank).reversed()
+            .thenComparing(RankedPost::createdAt, Comparator.reverseOrder())
+            .thenComparing(RankedPost::id, Comparator.reverseOrder());
+
+    /**
+     * The top-K prefix of one feed ordering. Invariant: every post outside the window
+     * ranks at or below the window's last entry, so any prefix of it is a correct page.
+     * When {@code complete} is set the window holds every post.
+     */
+    static final class RankedWindow {
+        private final ConcurrentSkipListSet<RankedPost> ranked = new ConcurrentSkipListSet<>(RANK_ORDER);
+        private final Map<UUID, RankedPost> byId = new ConcurrentHashMap<>();
+        private final Instant asOf;
+        private final int capacity;
+        private final boolean hot;
+        volatile boolean complete;
+
+        RankedWindow(Instant asOf, int capacity, boolean hot) {
+            this.asOf = asOf;
+            this.capacity = capacity;
+            this.hot = hot;
+        }
+
+        int size() {
+            return byId.size();
+        }
+
+        double lagSeconds() {
+            return Duration.between(asOf, Instant.now()).toMillis() / 1000.0;
+        }
+
+        synchronized void put(RankedPost post) {
+            RankedPost previous = byId.put(post.id(), post);
+            if (previous != null) {
+                ranked.remove(previous);
+            }
+            ranked.add(post);
+        }
+
+        synchronized void remove(UUID id) {
+            RankedPost previous = byId.remove(id);
+            if (previous != null) {
+                ranked.remove(previous);
+            }
+        }
+
+        /**
+         * Move a windowed post's score by delta; false when the post isn't in the window.
+         */
+        synchronized boolean adjust(UUID id, int delta) {
+            RankedPost current = byId.get(id);
+            if (current == null) {
+                return false;
+            }
+            offer(id, current.score() + delta, current.createdAt());
+            return true;
+        }
+
+        /**
+         * Insert or re-rank a post, keeping the window invariant.
+         */
+        synchronized void offer(UUID id, int score, Instant createdAt) {
+            double rank = hot ? hotRank(score, createdAt, asOf) : score;
+            RankedPost candidate = new RankedPost(id, score, createdAt, rank);
+            RankedPost previous = byId.get(id);
+            if (complete) {
+                put(candidate);
+                if (byId.size() > capacity) {
+                    complete = false;
+                    remove(ranked.last().id());
+                }
+                return;
+            }
+            if (ranked.isEmpty()) {
+                return;
+            }
+            RankedPost tail = ranked.last();
+            if (RANK_ORDER.compare(candidate, tail) < 0) {
+                put(candidate);
+                if (byId.size() > capacity) {
+                    remove(ranked.last().id());
+                }
+            } else if (previous != null) {
+                // Sank past the tail: unloaded posts may now outrank it, so drop it until the next rebuild
+                remove(id);
+            }
+        }
+
+        List<UUID> slice(long offset, int limit) {
+            List<UUID> ids = new ArrayList<>(limit);
+            Iterator<RankedPost> it = ranked.iterator();
+            for (long skipped = 0; skipped < offset && it.hasNext(); skipped++) {
+                it.next();
+            }
+            while (ids.size() < limit && it.hasNext()) {
+                ids.add(it.next().id());
+            }
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.nexus.feed.backend.Service;
+
+import java.time.Duration;
+import java.util.UUID;
+
+public interface JobLockService {
+    boolean tryAcquire(String jobName, Duration ttl);
+    UUID getResumeCursor(String jobName);
+    boolean saveProgress(String jobName, UUID cursor, Duration ttl);
+    void complete(String jobName);
+    void release(String jobName);
+}
@@ -0,0 +1,73 @@
+package com.nexus.feed.backend.Service;
+
+import com.nexus.feed.backend.Entity.JobLock;
+import com.nexus.feed.backend.Repository.JobLockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.IntSupplier;
+
+/**
+ * Cluster-wide job leases stored in {@code job_locks}. Each statement commits on
+ * its own so a lease is visible to other instances as soon as it is taken.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JobLockServiceImpl implements JobLockService {
+
+    private final JobLockRepository jobLockRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+
+    @Override
+    public boolean tryAcquire(String jobName, Duration ttl) {
+        Instant now = Instant.now();
+        Instant until = now.plus(ttl);
+        if (inTransaction(() -> jobLockRepository.claim(jobName, owner, now, until)) > 0) {
+            return true;
+        }
+        try {
+            return inTransaction(() -> jobLockRepository.insertClaimed(jobName, owner, until)) > 0;
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the row first and holds the lease
+            log.debug("Lost race to create lock for job {}", jobName);
+            return false;
+        }
+    }
+
+    @Override
+    public UUID getResumeCursor(String jobName) {
+        return jobLockRepository.findById(jobName).map(JobLock::getResumeCursor).orElse(null);
+    }
+
+    @Override
+    public boolean saveProgress(String jobName, UUID cursor, Duration ttl) {
+        Instant until = Instant.now().plus(ttl);
+        return inTransaction(() -> jobLockRepository.saveCursor(jobName, owner, cursor, until)) > 0;
+    }
+
+    @Override
+    public void complete(String jobName) {
+        inTransaction(() -> jobLockRepository.complete(jobName, owner, Instant.now()));
+    }
+
+    @Override
+    public void release(String jobName) {
+        inTransaction(() -> jobLockRepository.release(jobName, owner));
+    }
+
+    private int inTransaction(IntSupplier statement) {
+        Integer updated = new TransactionTemplate(transactionManager).execute(status -> statement.getAsInt());
+        return updated == null ? 0 : updated;
+    }
+}
@@ -1,9 +1,21 @@
 package com.nexus.feed.backend.Service;
 
+import com.nexus.feed.backend.Entity.Comment;
+import com.nexus.feed.backend.Entity.Users;
+
+import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
 
 public interface KarmaService {
     void updateKarmaForVote(UUID contentAuthorId, UUID voterId, int delta);
     long calculateKarma(UUID userId);
     void recalculateKarma(UUID userId);
+    long getKarma(Users user);
+    Map<UUID, Long> getKarma(Collection<Users> users);
+    int compactShards(int maxUsers);
+    Map<UUID, Long> karmaOnPost(UUID postId);
+    Map<UUID, Long> karmaOnComment(Comment comment);
+    void subtractKarma(Map<UUID, Long> karmaByAuthor);
+    UUID reconcileBatch(UUID afterId, int batchSize);
 }
@@ -1,14 +1,38 @@
 package com.nexus.feed.backend.Service;
 
+import com.nexus.feed.backend.Entity.Comment;
+import com.nexus.feed.backend.Entity.KarmaShard;
+import com.nexus.feed.backend.Entity.Users;
+import com.nexus.feed.backend.Event.KarmaAdjustedEvent;
+import com.nexus.feed.backend.Repository.KarmaShardRepository;
 import com.nexus.feed.backend.Repository.UserRepository;
 import com.nexus.feed.backend.Repository.VoteRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
+/**
+ * Keeps karma on {@code users.karma}. With {@code karma.sharding.enabled}, vote
+ * deltas go to one of {@code karma.sharding.stripes} rows in karma_shards chosen by
+ * the voter, so voters on a popular author don't serialize on the author's row.
+ * Reads then add the pending stripes, cached briefly per user, and
+ * {@link #compactShards} folds the stripes back into users.karma.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -17,7 +41,31 @@ public class KarmaServiceImpl implements KarmaService {
 
     private final UserRepository userRepository;
     private final VoteRepository voteRepository;
-    private final BadgeAwardingService badgeAwardingService;
+    private final KarmaShardRepository karmaShardRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${karma.sharding.enabled:false}")
+    private boolean shardingEnabled = false;
+
+    @Value("${karma.sharding.stripes:8}")
+    private int stripes = 8;
+
+    @Value("${karma.sharding.read-cache-ttl-ms:5000}")
+    private long readCacheTtlMs = 5000;
+
+    @Value("${karma.sharding.read-cache-max-users:10000}")
+    private int readCacheMaxUsers = 10000;
+
+    private record CachedKarma(long karma, long expiresAt) {
+    }
+
+    private final Map<UUID, CachedKarma> karmaCache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, CachedKarma> eldest) {
+            return size() > readCacheMaxUsers;
+        }
+    };
 
     @Override
     public void updateKarmaForVote(UUID contentAuthorId, UUID voterId, int delta) {
@@ -27,13 +75,13 @@ public class KarmaServiceImpl implements KarmaService {
             return;
         }
 
-        userRepository.incrementKarma(contentAuthorId, delta);
-        log.debug("Updated karma for user {} by {}", contentAuthorId, delta);
-
-        // Check for karma-based badges (only on positive karma changes)
-        if (delta > 0) {
-            badgeAwardingService.checkKarmaBadges(contentAuthorId);
+        if (shardingEnabled) {
+            int shard = Math.floorMod(voterId.hashCode(), stripes);
+            karmaShardRepository.addDelta(contentAuthorId, shard, delta);
+        } else {
+            userRepository.incrementKarma(contentAuthorId, delta);
         }
+        log.debug("Updated karma for user {} by {}", contentAuthorId, delta);
     }
 
     @Override
@@ -49,12 +97,157 @@ public class KarmaServiceImpl implements KarmaService {
         long calculatedKarma = calculateKarma(userId);
         // Reset karma to 0 then increment by calculated value
         userRepository.findById(userId).ifPresent(user -> {
-            long currentKarma = user.getKarma();
+            long currentKarma = user.getKarma() + pendingKarma(List.of(userId)).getOrDefault(userId, 0L);
             int delta = (int) (calculatedKarma - currentKarma);
             if (delta != 0) {
                 userRepository.incrementKarma(userId, delta);
+                eventPublisher.publishEvent(new KarmaAdjustedEvent(Map.of(userId, (long) delta)));
                 log.info("Recalculated karma for user {}: {} -> {}", userId, currentKarma, calculatedKarma);
             }
         });
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getKarma(Users user) {
+        return getKarma(List.of(user)).get(user.getId());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<UUID, Long> getKarma(Collection<Users> users) {
+        Map<UUID, Long> karma = new HashMap<>();
+        if (!shardingEnabled) {
+            users.forEach(user -> karma.put(user.getId(), user.getKarma()));
+            return karma;
+        }
+
+        long now = System.currentTimeMillis();
+        Map<UUID, Users> uncached = new HashMap<>();
+        synchronized (karmaCache) {
+            for (Users user : users) {
+                CachedKarma cached = karmaCache.get(user.getId());
+                if (cached != null && cached.expiresAt() > now) {
+                    karma.put(user.getId(), cached.karma());
+                } else {
+                    uncached.put(user.getId(), user);
+                }
+            }
+        }
+        if (!uncached.isEmpty()) {
+            Map<UUID, Long> pending = pendingKarma(uncached.keySet());
+            synchronized (karmaCache) {
+                uncached.forEach((id, user) -> {
+                    long total = user.getKarma() + pending.getOrDefault(id, 0L);
+                    karma.put(id, total);
+                    karmaCache.put(id, new CachedKarma(total, now + readCacheTtlMs));
+                });
+            }
+        }
+        return karma;
+    }
+
+    private Map<UUID, Long> pendingKarma(Collection<UUID> userIds) {
+        return karmaShardRepository.sumByUserIds(userIds).stream().collect(Collectors.toMap(
+                KarmaShardRepository.PendingKarma::getUserId, KarmaShardRepository.PendingKarma::getPending));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int compactShards(int maxUsers) {
+        List<UUID> userIds = karmaShardRepository.findUserIdsWithPendingKarma(PageRequest.of(0, maxUsers));
+        // One short transaction per user, so a hot author's stripe rows are locked only while that user is folded
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (UUID userId : userIds) {
+            transaction.executeWithoutResult(status -> compactUser(userId));
+        }
+        if (!userIds.isEmpty()) {
+            transaction.executeWithoutResult(status -> karmaShardRepository.deleteDrained());
+        }
+        return userIds.size();
+    }
+
+    private void compactUser(UUID userId) {
+        long folded = 0;
+        for (KarmaShard shard : karmaShardRepository.findPendingByUserId(userId)) {
+            karmaShardRepository.subtractDelta(userId, shard.getId().getShard(), shard.getDelta());
+            folded += shard.getDelta();
+        }
+        if (folded != 0) {
+            userRepository.incrementKarma(userId, Math.toIntExact(folded));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<UUID, Long> karmaOnPost(UUID postId) {
+        // Comments go with the post by cascade, so their authors lose their karma too
+        Map<UUID, Long> karma = toMap(voteRepository.sumKarmaOnPost(postId));
+        toMap(voteRepository.sumKarmaOnPostComments(postId)).forEach((id, k) -> karma.merge(id, k, Long::sum));
+        return karma;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<UUID, Long> karmaOnComment(Comment comment) {
+        if (comment.getPath() == null) {
+            // Path not backfilled yet: replies' karma is left to the reconciler
+            return toMap(voteRepository.sumKarmaOnComment(comment.getId()));
+        }
+        return toMap(voteRepository.sumKarmaOnCommentSubtree(comment.getId(), comment.descendantPathPrefix()));
+    }
+
+    @Override
+    public void subtractKarma(Map<UUID, Long> karmaByAuthor) {
+        Map<UUID, Long> deltas = new HashMap<>();
+        karmaByAuthor.forEach((userId, karma) -> {
+            if (karma != 0) {
+                userRepository.incrementKarma(userId, Math.toIntExact(-karma));
+                deltas.put(userId, -karma);
+            }
+        });
+        if (!deltas.isEmpty()) {
+            eventPublisher.publishEvent(new KarmaAdjustedEvent(deltas));
+        }
+    }
+
+    @Override
+    public UUID reconcileBatch(UUID afterId, int batchSize) {
+        PageRequest limit = PageRequest.of(0, batchSize);
+        // Stored values are read before the votes, so a vote landing in between fails the compare-and-set
+        List<UserRepository.StoredKarma> batch = afterId == null
+                ? userRepository.findKarmaOrderById(limit)
+                : userRepository.findKarmaAfterId(afterId, limit);
+        if (batch.isEmpty()) {
+            return null;
+        }
+
+        List<UUID> userIds = batch.stream().map(UserRepository.StoredKarma::getUserId).toList();
+        Map<UUID, Long> postKarma = toMap(voteRepository.sumPostKarmaByAuthors(userIds));
+        Map<UUID, Long> commentKarma = toMap(voteRepository.sumCommentKarmaByAuthors(userIds));
+        Map<UUID, Long> pending = pendingKarma(userIds);
+        Map<UUID, Long> repaired = new HashMap<>();
+        for (UserRepository.StoredKarma stored : batch) {
+            UUID userId = stored.getUserId();
+            if (pending.getOrDefault(userId, 0L) != 0) {
+                continue; // checked once the compactor has folded its stripes
+            }
+            long calculated = postKarma.getOrDefault(userId, 0L) + commentKarma.getOrDefault(userId, 0L);
+            if (stored.getKarma() != calculated
+                    && userRepository.setKarmaIfUnchanged(userId, stored.getKarma(), calculated) > 0) {
+                log.info("Repaired karma for user {}: {} -> {}", userId, stored.getKarma(), calculated);
+                repaired.put(userId, calculated - stored.getKarma());
+            }
+        }
+        if (!repaired.isEmpty()) {
+            eventPublisher.publishEvent(new KarmaAdjustedEvent(repaired));
+        }
+        return userIds.get(userIds.size() - 1);
+    }
+
+    private static Map<UUID, Long> toMap(List<VoteRepository.AuthorKarma> karma) {
+        return karma.stream().collect(Collectors.toMap(
+                VoteRepository.AuthorKarma::getUserId, VoteRepository.AuthorKarma::getKarma,
+                Long::sum, HashMap::new));
+    }
 }
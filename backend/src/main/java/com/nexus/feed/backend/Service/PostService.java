@@ -10,6 +10,7 @@ public interface PostService {
     PostResponse getPostById(UUID id);
     PostDetailResponse getPostWithComments(UUID id);
     Page<PostResponse> getAllPosts(Pageable pageable, String sort);
+    CursorPage<PostResponse> getPostFeed(String cursor, int size, String sort);
     Page<PostResponse> getPostsByUser(UUID userId, Pageable pageable);
     Page<PostResponse> searchPosts(String keyword, Pageable pageable);
     Page<PostResponse> searchByTag(String tagName, Pageable pageable);
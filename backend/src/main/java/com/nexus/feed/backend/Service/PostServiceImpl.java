@@ -4,13 +4,21 @@ import com.nexus.feed.backend.DTO.*;
 import com.nexus.feed.backend.Entity.*;
 import com.nexus.feed.backend.Exception.ResourceNotFoundException;
 import com.nexus.feed.backend.Exception.UnauthorizedException;
+import com.nexus.feed.backend.Event.PostCreatedEvent;
+import com.nexus.feed.backend.Event.PostDeletedEvent;
+import com.nexus.feed.backend.Event.PostUpdatedEvent;
 import com.nexus.feed.backend.Repository.*;
+import com.nexus.feed.backend.Search.Service.PostSearchIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -25,14 +33,17 @@ public class PostServiceImpl implements PostService {
     private final PostRepository postRepository;
     private final UserRepository userRepository;
     private final PostImageRepository postImageRepository;
-    private final VoteRepository voteRepository;
     private final CommentRepository commentRepository;
     private final AuthenticationService authenticationService;
+    private final VoteBuffer voteBuffer;
+    private final VoteCache voteCache;
     private final CommentService commentService;
     private final KarmaService karmaService;
-    private final BadgeAwardingService badgeAwardingService;
     private final TagService tagService;
-    private final TagRepository tagRepository;
+    private final FeedRankingService feedRankingService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PostSearchIndex postSearchIndex;
+    private final UserStatsService userStatsService;
 
     @Override
     public PostResponse createPost(UUID userId, PostCreateRequest request) {
@@ -52,7 +63,10 @@ public class PostServiceImpl implements PostService {
         }
 
         Post savedPost = postRepository.save(post);
+        userStatsService.recordPost(userId, 1);
+        tagService.recordPostTagsChanged(Set.of(), savedPost.getTags(), savedPost.getCreatedAt());
         log.info("Post created: id={}, userId={}", savedPost.getId(), userId);
+        eventPublisher.publishEvent(new PostCreatedEvent(savedPost.getId(), userId, savedPost.getCreatedAt()));
 
         // Handle images with order preservation
         if (request.getImageUrls() != null && !request.getImageUrls().isEmpty()) {
@@ -69,18 +83,57 @@ public class PostServiceImpl implements PostService {
             savedPost.setImages(images);
         }
 
-        // Check for post-related badges
-        badgeAwardingService.checkPostBadges(userId);
-
         return convertToResponse(savedPost);
     }
 
     @Override
     @Transactional(readOnly = true)
     public PostResponse getPostById(UUID id) {
-        Post post = postRepository.findByIdWithUserAndImages(id)
+        // Projections only: the post row with the viewer's vote, then images and tags
+        UUID currentUserId = currentUserIdOrNull();
+        PostRepository.PostDetailView detail = postRepository.findDetailById(id, currentUserId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post", "id", id));
-        return convertToResponse(post);
+        
+        List<String> imageUrls = new java.util.ArrayList<>();
+        List<String> tags = new java.util.ArrayList<>();
+        for (PostRepository.PostAttributeView attribute : postRepository.findDetailAttributesById(id)) {
+            if (PostRepository.ATTRIBUTE_IMAGE.equals(attribute.getKind())) {
+                imageUrls.add(attribute.getContent());
+            } else {
+                tags.add(attribute.getContent());
+            }
+        }
+        
+        Vote.VoteValue userVote = detail.getUserVote();
+        if (currentUserId != null && voteBuffer.isEnabled()) {
+            userVote = voteBuffer.userVote(currentUserId, id, userVote);
+        }
+        
+        return PostResponse.builder()
+                .id(detail.getId())
+                .title(detail.getTitle())
+                .body(detail.getBody())
+                .createdAt(detail.getCreatedAt())
+                .updatedAt(detail.getUpdatedAt())
+                .userId(detail.getUserId())
+                .username(detail.getUsername())
+                .profilePictureUrl(detail.getProfilePictureUrl())
+                .imageUrls(imageUrls)
+                .tags(tags)
+                .commentCount(detail.getCommentCount())
+                .upvotes(detail.getUpvoteCount())
+                .downvotes(detail.getDownvoteCount())
+                .userVote(userVote != null ? userVote.name() : null)
+                .build();
+    }
+    
+    private UUID currentUserIdOrNull() {
+        try {
+            return authenticationService.getCurrentUserId();
+        } catch (RuntimeException e) {
+            // User not authenticated
+            return null;
+        }
     }
 
     @Override
@@ -99,6 +152,13 @@ public class PostServiceImpl implements PostService {
     @Transactional(readOnly = true)
     public Page<PostResponse> getAllPosts(Pageable pageable, String sort) {
         String validatedSort = validateSortOption(sort);
+        if (!"new".equals(validatedSort)) {
+            // Leading hot/best pages come from the in-memory ranking; deeper pages fall through to SQL
+            java.util.Optional<Page<UUID>> rankedIds = feedRankingService.findPage(validatedSort, pageable);
+            if (rankedIds.isPresent()) {
+                return convertToResponseBatch(postRepository.hydratePage(rankedIds.get()));
+            }
+        }
         Page<Post> posts = switch (validatedSort) {
             case "best" -> postRepository.findAllOrderByBest(pageable);
             case "hot" -> postRepository.findAllOrderByHot(pageable);
@@ -107,6 +167,82 @@ public class PostServiceImpl implements PostService {
         return convertToResponseBatch(posts);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PostResponse> getPostFeed(String cursor, int size, String sort) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        String validatedSort = validateSortOption(sort);
+        FeedCursor position = null;
+        if (cursor != null && !cursor.isBlank()) {
+            position = FeedCursor.decode(cursor);
+            if (!position.sort().equals(validatedSort)) {
+                throw new IllegalArgumentException("Cursor does not match sort '" + validatedSort + "'");
+            }
+        }
+
+        // Fetch one extra row to learn whether another slice exists
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Post> posts;
+        java.util.Map<UUID, Double> hotRanks = java.util.Collections.emptyMap();
+        Instant asOf = null;
+        switch (validatedSort) {
+            case "best" -> posts = position == null
+                    ? postRepository.findFeedBestFirst(limit)
+                    : postRepository.findFeedBestAfter((int) position.rank(), position.createdAt(), position.id(), limit);
+            case "hot" -> {
+                if (position != null && position.asOf() == null) {
+                    throw new IllegalArgumentException("Invalid feed cursor");
+                }
+                asOf = position == null ? Instant.now() : position.asOf();
+                List<PostRepository.HotFeedKey> keys = position == null
+                        ? postRepository.findFeedHotFirst(asOf, limit)
+                        : postRepository.findFeedHotAfter(asOf, position.rank(), position.createdAt(), position.id(), limit);
+                hotRanks = new java.util.LinkedHashMap<>();
+                for (PostRepository.HotFeedKey key : keys) {
+                    hotRanks.put(key.getPostId(), key.getHotRank());
+                }
+                posts = loadInOrder(hotRanks.keySet());
+            }
+            default -> posts = position == null
+                    ? postRepository.findFeedNewFirst(limit)
+                    : postRepository.findFeedNewAfter(position.createdAt(), position.id(), limit);
+        }
+
+        boolean hasNext = posts.size() > size;
+        List<Post> slice = hasNext ? posts.subList(0, size) : posts;
+        String nextCursor = null;
+        if (hasNext) {
+            Post last = slice.get(slice.size() - 1);
+            double rank = switch (validatedSort) {
+                case "best" -> last.getScore();
+                case "hot" -> hotRanks.get(last.getId());
+                default -> 0;
+            };
+            nextCursor = new FeedCursor(validatedSort, rank, last.getCreatedAt(), last.getId(), asOf).encode();
+        }
+
+        return CursorPage.<PostResponse>builder()
+                .content(convertToResponseList(slice))
+                .size(slice.size())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    private List<Post> loadInOrder(java.util.Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return java.util.Collections.emptyList();
+        }
+        java.util.Map<UUID, Post> byId = postRepository.findAllWithDetailsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Post::getId, post -> post));
+        return ids.stream()
+                .map(byId::get)
+                .filter(java.util.Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+    
     private String validateSortOption(String sort) {
         if (sort == null) return "new";
         String normalized = sort.toLowerCase().trim();
@@ -128,6 +264,10 @@ public class PostServiceImpl implements PostService {
     @Override
     @Transactional(readOnly = true)
     public Page<PostResponse> searchPosts(String keyword, Pageable pageable) {
+        if (postSearchIndex.isReady()) {
+            return convertToResponseBatch(postRepository.hydratePage(postSearchIndex.search(keyword, pageable)));
+        }
+        // Index still building at startup: substring match is slow but correct
         Page<Post> posts = postRepository.findByTitleContainingOrBodyContainingOrderByCreatedAtDesc(keyword, pageable);
         return convertToResponseBatch(posts);
     }
@@ -184,6 +324,7 @@ public class PostServiceImpl implements PostService {
         }
 
         // Handle tag updates
+        Set<Tag> previousTags = new java.util.HashSet<>(post.getTags());
         if (request.getTags() != null) {
             post.getTags().clear();
             if (!request.getTags().isEmpty()) {
@@ -193,6 +334,10 @@ public class PostServiceImpl implements PostService {
         }
 
         Post updatedPost = postRepository.save(post);
+        if (request.getTags() != null) {
+            tagService.recordPostTagsChanged(previousTags, updatedPost.getTags(), updatedPost.getCreatedAt());
+        }
+        eventPublisher.publishEvent(new PostUpdatedEvent(postId));
         log.info("Post updated: id={}, userId={}", postId, userId);
         return convertToResponse(updatedPost);
     }
@@ -208,16 +353,17 @@ public class PostServiceImpl implements PostService {
         }
 
         UUID authorId = post.getUser().getId();
+        // Comments go with the post by cascade, so their authors are recounted afterwards
+        Set<UUID> affectedUsers = new java.util.HashSet<>(commentRepository.findAuthorIdsByPostId(postId));
+        affectedUsers.add(authorId);
+        java.util.Map<UUID, Long> karmaLost = karmaService.karmaOnPost(postId);
+        tagService.recordPostTagsChanged(post.getTags(), Set.of(), post.getCreatedAt());
 
         postRepository.delete(post);
+        eventPublisher.publishEvent(new PostDeletedEvent(postId));
+        userStatsService.refresh(affectedUsers);
+        karmaService.subtractKarma(karmaLost);
         
-        // Clean up orphan tags (tags with no posts)
-        int deletedTags = tagRepository.deleteOrphanTags();
-        if (deletedTags > 0) {
-            log.info("Cleaned up {} orphan tag(s) after post deletion", deletedTags);
-        }
-        
-        karmaService.recalculateKarma(authorId);
         log.info("Post deleted: id={}, userId={}", postId, userId);
     }
 
@@ -231,24 +377,19 @@ public class PostServiceImpl implements PostService {
                 .map(Tag::getName)
                 .collect(Collectors.toList());
 
-        long upvotes = voteRepository.countByVotableIdAndVotableTypeAndVoteValue(
-                post.getId(), Vote.VotableType.POST, Vote.VoteValue.UPVOTE);
-        long downvotes = voteRepository.countByVotableIdAndVotableTypeAndVoteValue(
-                post.getId(), Vote.VotableType.POST, Vote.VoteValue.DOWNVOTE);
-
         String userVote = null;
         try {
             UUID currentUserId = authenticationService.getCurrentUserId();
-            userVote = voteRepository.findByUserIdAndVotableIdAndVotableType(
-                    currentUserId, post.getId(), Vote.VotableType.POST)
-                    .map(vote -> vote.getVoteValue().name())
-                    .orElse(null);
+            Vote.VoteValue persisted = voteCache.userVotes(currentUserId, List.of(post.getId()), Vote.VotableType.POST)
+                    .get(post.getId());
+            Vote.VoteValue effective = voteBuffer.isEnabled()
+                    ? voteBuffer.userVote(currentUserId, post.getId(), persisted)
+                    : persisted;
+            userVote = effective != null ? effective.name() : null;
         } catch (RuntimeException e) {
             // User not authenticated, userVote remains null
         }
 
-        long commentCount = commentRepository.countByPost(post);
-
         return PostResponse.builder()
                 .id(post.getId())
                 .title(post.getTitle())
@@ -260,9 +401,9 @@ public class PostServiceImpl implements PostService {
                 .profilePictureUrl(post.getUser().getProfilePictureUrl())
                 .imageUrls(imageUrls)
                 .tags(tags)
-                .commentCount((int) commentCount)
-                .upvotes((int) upvotes)
-                .downvotes((int) downvotes)
+                .commentCount(post.getCommentCount())
+                .upvotes(post.getUpvoteCount())
+                .downvotes(post.getDownvoteCount())
                 .userVote(userVote)
                 .build();
     }
@@ -271,48 +412,33 @@ public class PostServiceImpl implements PostService {
         if (posts.isEmpty()) {
             return posts.map(this::convertToResponse);
         }
+        return new PageImpl<>(convertToResponseList(posts.getContent()), posts.getPageable(), posts.getTotalElements());
+    }
+    
+    private List<PostResponse> convertToResponseList(List<Post> posts) {
+        if (posts.isEmpty()) {
+            return java.util.Collections.emptyList();
+        }
         
-        List<UUID> postIds = posts.getContent().stream()
+        List<UUID> postIds = posts.stream()
                 .map(Post::getId)
                 .collect(Collectors.toList());
         
-        // Batch fetch vote counts
-        List<VoteRepository.VoteCount> voteCounts = voteRepository.countByVotableIdsAndVotableType(
-                postIds, Vote.VotableType.POST);
-        
-        java.util.Map<UUID, Integer> upvotesMap = new java.util.HashMap<>();
-        java.util.Map<UUID, Integer> downvotesMap = new java.util.HashMap<>();
-        
-        for (VoteRepository.VoteCount vc : voteCounts) {
-            if (vc.getVoteValue() == Vote.VoteValue.UPVOTE) {
-                upvotesMap.put(vc.getVotableId(), vc.getCount().intValue());
-            } else {
-                downvotesMap.put(vc.getVotableId(), vc.getCount().intValue());
-            }
-        }
-        
-        // Batch fetch user votes
+        // Vote and comment counts come from the denormalized post counters;
+        // only the current user's votes need a batch lookup
         java.util.Map<UUID, String> userVotesMap = new java.util.HashMap<>();
         try {
             UUID currentUserId = authenticationService.getCurrentUserId();
-            List<Vote> userVotes = voteRepository.findByUserIdAndVotableIdsAndVotableType(
-                    currentUserId, postIds, Vote.VotableType.POST);
-            for (Vote vote : userVotes) {
-                userVotesMap.put(vote.getId().getVotableId(), vote.getVoteValue().name());
+            voteCache.userVotes(currentUserId, postIds, Vote.VotableType.POST)
+                    .forEach((votableId, value) -> userVotesMap.put(votableId, value.name()));
+            if (voteBuffer.isEnabled()) {
+                voteBuffer.overlayUserVotes(currentUserId, postIds, userVotesMap);
             }
         } catch (RuntimeException e) {
             // User not authenticated, userVotesMap remains empty
         }
         
-        // Batch fetch comment counts
-        List<CommentRepository.CommentCount> commentCounts = commentRepository.countByPostIds(postIds);
-        java.util.Map<UUID, Integer> commentCountMap = commentCounts.stream()
-                .collect(Collectors.toMap(
-                        CommentRepository.CommentCount::getPostId,
-                        cc -> cc.getCount().intValue()
-                ));
-        
-        return posts.map(post -> {
+        return posts.stream().map(post -> {
             List<String> imageUrls = post.getImages().stream()
                     .sorted(java.util.Comparator.comparingInt(PostImage::getOrderIndex))
                     .map(PostImage::getImageUrl)
@@ -333,11 +459,11 @@ public class PostServiceImpl implements PostService {
                     .profilePictureUrl(post.getUser().getProfilePictureUrl())
                     .imageUrls(imageUrls)
                     .tags(tags)
-                    .commentCount(commentCountMap.getOrDefault(post.getId(), 0))
-                    .upvotes(upvotesMap.getOrDefault(post.getId(), 0))
-                    .downvotes(downvotesMap.getOrDefault(post.getId(), 0))
+                    .commentCount(post.getCommentCount())
+                    .upvotes(post.getUpvoteCount())
+                    .downvotes(post.getDownvoteCount())
                     .userVote(userVotesMap.get(post.getId()))
                     .build();
-        });
+        }).collect(Collectors.toList());
     }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.nexus.feed.backend.Service;
+
+import com.nexus.feed.backend.Entity.Vote;
+
+import java.util.UUID;
+
+/**
+ * Maintains the denormalized engagement counters stored on each post.
+ */
+public interface PostStatsService {
+
+    /**
+     * Apply a vote transition on a post. Either value may be null (no vote).
+     */
+    void recordVote(UUID postId, Vote.VoteValue oldValue, Vote.VoteValue newValue);
+
+    /**
+     * Apply the net effect of several vote transitions on a post at once.
+     */
+    void recordVoteDelta(UUID postId, int upDelta, int downDelta);
+
+    /**
+     * Record a new comment on a post.
+     */
+    void recordCommentAdded(UUID postId);
+
+    /**
+     * Recount the comments of a post, e.g. after a delete that cascaded to replies.
+     */
+    void refreshCommentCount(UUID postId);
+
+    /**
+     * Compare the stored counters of a batch of posts (ordered by id, starting after
+     * {@code afterId}) against the votes and comments tables and repair any drift.
+     *
+     * @return the last post id examined, or null when there are no more posts
+     */
+    UUID reconcileBatch(UUID afterId, int batchSize);
+}
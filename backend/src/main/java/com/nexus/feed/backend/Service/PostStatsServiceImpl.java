@@ -0,0 +1,106 @@
+package com.nexus.feed.backend.Service;
+
+import com.nexus.feed.backend.Entity.Vote;
+import com.nexus.feed.backend.Event.PostScoreChangedEvent;
+import com.nexus.feed.backend.Repository.CommentRepository;
+import com.nexus.feed.backend.Repository.PostRepository;
+import com.nexus.feed.backend.Repository.VoteRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class PostStatsServiceImpl implements PostStatsService {
+
+    private final PostRepository postRepository;
+    private final VoteRepository voteRepository;
+    private final CommentRepository commentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void recordVote(UUID postId, Vote.VoteValue oldValue, Vote.VoteValue newValue) {
+        int upDelta = (newValue == Vote.VoteValue.UPVOTE ? 1 : 0) - (oldValue == Vote.VoteValue.UPVOTE ? 1 : 0);
+        int downDelta = (newValue == Vote.VoteValue.DOWNVOTE ? 1 : 0) - (oldValue == Vote.VoteValue.DOWNVOTE ? 1 : 0);
+        recordVoteDelta(postId, upDelta, downDelta);
+    }
+
+    @Override
+    public void recordVoteDelta(UUID postId, int upDelta, int downDelta) {
+        if (upDelta == 0 && downDelta == 0) {
+            return;
+        }
+        postRepository.applyVoteDelta(postId, upDelta, downDelta, Instant.now());
+        if (upDelta != downDelta) {
+            eventPublisher.publishEvent(new PostScoreChangedEvent(postId, upDelta - downDelta));
+        }
+    }
+
+    @Override
+    public void recordCommentAdded(UUID postId) {
+        postRepository.incrementCommentCount(postId, Instant.now());
+    }
+
+    @Override
+    public void refreshCommentCount(UUID postId) {
+        postRepository.refreshCommentCount(postId);
+    }
+
+    @Override
+    public UUID reconcileBatch(UUID afterId, int batchSize) {
+        PageRequest limit = PageRequest.of(0, batchSize);
+        List<PostRepository.PostCounters> batch = afterId == null
+                ? postRepository.findCountersOrderById(limit)
+                : postRepository.findCountersAfterId(afterId, limit);
+        if (batch.isEmpty()) {
+            return null;
+        }
+
+        List<UUID> postIds = batch.stream()
+                .map(PostRepository.PostCounters::getId)
+                .collect(Collectors.toList());
+
+        Map<UUID, Integer> upvotesMap = new HashMap<>();
+        Map<UUID, Integer> downvotesMap = new HashMap<>();
+        for (VoteRepository.VoteCount vc : voteRepository.countByVotableIdsAndVotableType(postIds, Vote.VotableType.POST)) {
+            if (vc.getVoteValue() == Vote.VoteValue.UPVOTE) {
+                upvotesMap.put(vc.getVotableId(), vc.getCount().intValue());
+            } else {
+                downvotesMap.put(vc.getVotableId(), vc.getCount().intValue());
+            }
+        }
+        Map<UUID, Integer> commentCountMap = commentRepository.countByPostIds(postIds).stream()
+                .collect(Collectors.toMap(
+                        CommentRepository.CommentCount::getPostId,
+                        cc -> cc.getCount().intValue()
+                ));
+
+        for (PostRepository.PostCounters stored : batch) {
+            UUID postId = stored.getId();
+            int upvotes = upvotesMap.getOrDefault(postId, 0);
+            int downvotes = downvotesMap.getOrDefault(postId, 0);
+            int comments = commentCountMap.getOrDefault(postId, 0);
+            if (stored.getUpvoteCount() != upvotes
+                    || stored.getDownvoteCount() != downvotes
+                    || stored.getCommentCount() != comments) {
+                postRepository.overwriteCounters(postId, upvotes, downvotes, comments);
+                log.info("Repaired post counters: postId={}, upvotes {} -> {}, downvotes {} -> {}, comments {} -> {}",
+                        postId, stored.getUpvoteCount(), upvotes, stored.getDownvoteCount(), downvotes,
+                        stored.getCommentCount(), comments);
+            }
+        }
+        return postIds.get(postIds.size() - 1);
+    }
+}
@@ -4,6 +4,7 @@ import com.nexus.feed.backend.DTO.TagResponse;
 import com.nexus.feed.backend.DTO.TrendingTagResponse;
 import com.nexus.feed.backend.Entity.Tag;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Set;
 
@@ -15,4 +16,15 @@ public interface TagService {
 
     double calculateTrendingScore(Tag tag);
     List<TrendingTagResponse> getTrendingTagsWithScore(int limit);
+    void recordPostTagsChanged(Set<Tag> before, Set<Tag> after, Instant postCreatedAt);
+    void refreshTrendingTags();
+    int backfillTrendingCounts();
+    int reconcilePostCounts();
+
+    /**
+     * Deletes up to {@code batchSize} tags no post carries, starting after {@code afterId}.
+     *
+     * @return the last id examined, or null once there are no more candidates
+     */
+    Long sweepOrphanTags(Long afterId, int batchSize);
 }
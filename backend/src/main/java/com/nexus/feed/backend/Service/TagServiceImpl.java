@@ -4,17 +4,36 @@ import com.nexus.feed.backend.DTO.TagResponse;
 import com.nexus.feed.backend.DTO.TrendingTagResponse;
 import com.nexus.feed.backend.Entity.Post;
 import com.nexus.feed.backend.Entity.Tag;
+import com.nexus.feed.backend.Entity.TagHourlyCount;
+import com.nexus.feed.backend.Event.TagPostCountsChangedEvent;
+import com.nexus.feed.backend.Repository.PostRepository;
+import com.nexus.feed.backend.Repository.TagHourlyCountRepository;
 import com.nexus.feed.backend.Repository.TagRepository;
+import com.nexus.feed.backend.Search.Service.TagAutocompleteIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Trending scores come from tag_hourly_counts: the number of posts created in
+ * each hour of the last 30 days that carry a tag, kept current as posts are
+ * created, retagged and deleted. A scheduled refresh scores the buckets and keeps
+ * only the top {@code tags.trending.top-k}, so neither the refresh nor the cache
+ * grows with the total number of posts.
+ * <p>
+ * Search completes prefixes from the in-memory {@link TagAutocompleteIndex} and
+ * only goes to the database for substring matches the prefixes don't cover.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -22,6 +41,30 @@ import java.util.stream.Collectors;
 public class TagServiceImpl implements TagService {
 
     private final TagRepository tagRepository;
+    private final TagHourlyCountRepository tagHourlyCountRepository;
+    private final PostRepository postRepository;
+    private final TagAutocompleteIndex tagAutocompleteIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${tags.trending.top-k:50}")
+    private int trendingTopK = 50;
+
+    private volatile List<TrendingTagResponse> trending;
+
+    @Value("${tags.id-cache.max-size:10000}")
+    private int idCacheMaxSize = 10000;
+
+    // Normalized name to tag id, access-ordered so the least recently used names are evicted first
+    private final Map<String, Long> tagIds = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > idCacheMaxSize;
+        }
+    };
+
+    // Below this length a substring match can't use the trigram index, so search by prefix
+    static final int MIN_SUBSTRING_QUERY_LENGTH = 3;
+    private static final int SEARCH_LIMIT = 10;
 
     @Override
     public Set<Tag> getOrCreateTags(List<String> tagNames) {
@@ -39,23 +82,45 @@ public class TagServiceImpl implements TagService {
             return new HashSet<>();
         }
 
-        // Find existing tags
-        List<Tag> existingTags = tagRepository.findByNameInIgnoreCase(normalizedNames);
-        Set<String> existingNames = existingTags.stream()
-                .map(tag -> tag.getName().toLowerCase())
-                .collect(Collectors.toSet());
+        Map<String, Long> ids = new HashMap<>();
+        synchronized (tagIds) {
+            for (String name : normalizedNames) {
+                Long id = tagIds.get(name);
+                if (id != null) {
+                    ids.put(name, id);
+                }
+            }
+        }
+        // At most one statement for the names not cached and one to load the tags
+        resolveIds(normalizedNames, ids);
+        List<Tag> tags = tagRepository.findAllById(List.copyOf(ids.values()));
 
-        // Create new tags for names that don't exist
-        Set<Tag> result = new HashSet<>(existingTags);
-        for (String name : normalizedNames) {
-            if (!existingNames.contains(name)) {
-                Tag newTag = Tag.builder().name(name).build();
-                result.add(tagRepository.save(newTag));
-                log.info("Created new tag: {}", name);
+        Set<Long> found = tags.stream().map(Tag::getId).collect(Collectors.toSet());
+        if (found.size() < new HashSet<>(ids.values()).size()) {
+            // Cached ids of tags deleted as orphans since; look those names up again
+            Set<String> stale = ids.entrySet().stream()
+                    .filter(entry -> !found.contains(entry.getValue()))
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toSet());
+            synchronized (tagIds) {
+                stale.forEach(tagIds::remove);
             }
+            stale.forEach(ids::remove);
+            resolveIds(stale, ids);
+            tags = tagRepository.findAllById(List.copyOf(ids.values()));
         }
 
-        return result;
+        synchronized (tagIds) {
+            tagIds.putAll(ids);
+        }
+        return new HashSet<>(tags);
+    }
+
+    private void resolveIds(Set<String> names, Map<String, Long> ids) {
+        List<String> missing = names.stream().filter(name -> !ids.containsKey(name)).toList();
+        if (!missing.isEmpty()) {
+            ids.putAll(tagRepository.findOrInsertIds(missing));
+        }
     }
 
     @Override
@@ -66,18 +131,38 @@ public class TagServiceImpl implements TagService {
             return getTrendingTags(10);
         }
         
-        log.debug("Searching tags with query: {}", query.trim());
-        return tagRepository.searchByName(query.trim()).stream()
-                .limit(10)
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        String trimmed = query.trim();
+        log.debug("Searching tags with query: {}", trimmed);
+        String pattern = trimmed.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        PageRequest limit = PageRequest.of(0, SEARCH_LIMIT);
+        if (!tagAutocompleteIndex.isReady()) {
+            List<Tag> tags = trimmed.length() < MIN_SUBSTRING_QUERY_LENGTH
+                    ? tagRepository.searchByNamePrefix(pattern, limit)
+                    : tagRepository.searchByName(pattern, limit);
+            return tags.stream()
+                    .map(this::convertToResponse)
+                    .collect(Collectors.toList());
+        }
+
+        Map<Long, TagResponse> results = new LinkedHashMap<>();
+        tagAutocompleteIndex.complete(trimmed, SEARCH_LIMIT).forEach(entry -> results.put(entry.id(),
+                TagResponse.builder().id(entry.id()).name(entry.name()).postCount((int) entry.weight()).build()));
+        if (results.size() < SEARCH_LIMIT && trimmed.length() >= MIN_SUBSTRING_QUERY_LENGTH) {
+            // Prefix completions first, then names containing the query elsewhere
+            for (Tag tag : tagRepository.searchByName(pattern, limit)) {
+                if (results.size() >= SEARCH_LIMIT) {
+                    break;
+                }
+                results.putIfAbsent(tag.getId(), convertToResponse(tag));
+            }
+        }
+        return new ArrayList<>(results.values());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<TagResponse> getTrendingTags(int limit) {
-        return tagRepository.findTopTags().stream()
-                .limit(limit)
+        return tagRepository.findTopTags(PageRequest.of(0, limit)).stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
     }
@@ -94,7 +179,7 @@ public class TagServiceImpl implements TagService {
         return TagResponse.builder()
                 .id(tag.getId())
                 .name(tag.getName())
-                .postCount(tag.getPosts() != null ? tag.getPosts().size() : 0)
+                .postCount(tag.getPostCount())
                 .build();
     }
 
@@ -106,48 +191,148 @@ public class TagServiceImpl implements TagService {
         }
 
         Instant now = Instant.now();
-        Instant oneDayAgo = now.minus(Duration.ofDays(1));
-        Instant sevenDaysAgo = now.minus(Duration.ofDays(7));
-        Instant thirtyDaysAgo = now.minus(Duration.ofDays(30));
-
         double score = 0.0;
         for (Post post : tag.getPosts()) {
-            Instant createdAt = post.getCreatedAt();
-            if (createdAt == null || createdAt.isBefore(thirtyDaysAgo)) {
-                // Posts older than 30 days don't contribute
-                continue;
-            }
-            
-            if (createdAt.isAfter(oneDayAgo)) {
-                // Posts from last 24 hours: weight 1.0
-                score += 1.0;
-            } else if (createdAt.isAfter(sevenDaysAgo)) {
-                // Posts from 1-7 days: weight 0.5
-                score += 0.5;
-            } else {
-                // Posts from 7-30 days: weight 0.1
-                score += 0.1;
-            }
+            score += trendingWeight(post.getCreatedAt(), now);
         }
         return score;
     }
 
+    // Weight of a post created at createdAt, or of an hourly bucket starting then
+    private static double trendingWeight(Instant createdAt, Instant now) {
+        if (createdAt == null || createdAt.isBefore(now.minus(Duration.ofDays(30)))) {
+            // Posts older than 30 days don't contribute
+            return 0.0;
+        }
+        if (createdAt.isAfter(now.minus(Duration.ofDays(1)))) {
+            // Posts from last 24 hours: weight 1.0
+            return 1.0;
+        }
+        if (createdAt.isAfter(now.minus(Duration.ofDays(7)))) {
+            // Posts from 1-7 days: weight 0.5
+            return 0.5;
+        }
+        // Posts from 7-30 days: weight 0.1
+        return 0.1;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<TrendingTagResponse> getTrendingTagsWithScore(int limit) {
-        return tagRepository.findAllWithPosts().stream()
-                .map(tag -> {
-                    double score = calculateTrendingScore(tag);
-                    return TrendingTagResponse.builder()
-                            .id(tag.getId())
-                            .name(tag.getName())
-                            .postCount(tag.getPosts() != null ? tag.getPosts().size() : 0)
-                            .trendingScore(score)
-                            .build();
-                })
-                .filter(response -> response.getTrendingScore() > 0) // Exclude tags with no recent posts
-                .sorted(Comparator.comparingDouble(TrendingTagResponse::getTrendingScore).reversed())
-                .limit(limit)
-                .collect(Collectors.toList());
+        List<TrendingTagResponse> top = trending;
+        if (top == null) {
+            top = computeTrending(Instant.now());
+            trending = top;
+        }
+        return top.stream().limit(limit).collect(Collectors.toList());
+    }
+
+    @Override
+    public void recordPostTagsChanged(Set<Tag> before, Set<Tag> after, Instant postCreatedAt) {
+        List<Long> removed = before.stream().filter(tag -> !after.contains(tag)).map(Tag::getId).toList();
+        List<Long> added = after.stream().filter(tag -> !before.contains(tag)).map(Tag::getId).toList();
+        if (!removed.isEmpty()) {
+            tagRepository.adjustPostCount(removed, -1);
+        }
+        if (!added.isEmpty()) {
+            tagRepository.adjustPostCount(added, 1);
+        }
+        if (!removed.isEmpty() || !added.isEmpty()) {
+            List<TagPostCountsChangedEvent.Change> changes = new ArrayList<>();
+            before.stream().filter(tag -> !after.contains(tag))
+                    .forEach(tag -> changes.add(new TagPostCountsChangedEvent.Change(tag.getId(), tag.getName(), -1)));
+            after.stream().filter(tag -> !before.contains(tag))
+                    .forEach(tag -> changes.add(new TagPostCountsChangedEvent.Change(tag.getId(), tag.getName(), 1)));
+            eventPublisher.publishEvent(new TagPostCountsChangedEvent(changes));
+        }
+
+        if (postCreatedAt == null || postCreatedAt.isBefore(Instant.now().minus(Duration.ofDays(30)))) {
+            return; // outside every trending window
+        }
+        Instant hour = postCreatedAt.truncatedTo(ChronoUnit.HOURS);
+        Map<TagHourlyCount.TagHourlyCountId, Integer> deltas = new HashMap<>();
+        removed.forEach(id -> deltas.merge(new TagHourlyCount.TagHourlyCountId(id, hour), -1, Integer::sum));
+        added.forEach(id -> deltas.merge(new TagHourlyCount.TagHourlyCountId(id, hour), 1, Integer::sum));
+        tagHourlyCountRepository.addCounts(deltas);
+    }
+
+    @Override
+    public int reconcilePostCounts() {
+        return tagRepository.recountPostCounts();
+    }
+
+    @Override
+    public Long sweepOrphanTags(Long afterId, int batchSize) {
+        List<Long> candidates = tagRepository.findUnusedIdsAfter(afterId, PageRequest.of(0, batchSize));
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        int deleted = tagRepository.deleteUnusedByIdIn(candidates);
+        if (deleted > 0) {
+            Set<Long> swept = new HashSet<>(candidates);
+            synchronized (tagIds) {
+                tagIds.values().removeIf(swept::contains);
+            }
+            log.info("Deleted {} orphan tag(s)", deleted);
+        }
+        return candidates.get(candidates.size() - 1);
+    }
+
+    @Override
+    public void refreshTrendingTags() {
+        Instant now = Instant.now();
+        int expired = tagHourlyCountRepository.deleteExpired(now.minus(Duration.ofDays(30)).truncatedTo(ChronoUnit.HOURS));
+        trending = computeTrending(now);
+        log.debug("Trending tags refreshed: {} tag(s), {} expired bucket(s) removed", trending.size(), expired);
+    }
+
+    @Override
+    public int backfillTrendingCounts() {
+        if (tagHourlyCountRepository.count() > 0) {
+            return 0;
+        }
+        Map<TagHourlyCount.TagHourlyCountId, Integer> counts = new HashMap<>();
+        for (PostRepository.TaggedPost post : postRepository.findTaggedPostsSince(Instant.now().minus(Duration.ofDays(30)))) {
+            counts.merge(new TagHourlyCount.TagHourlyCountId(post.getTagId(),
+                    post.getCreatedAt().truncatedTo(ChronoUnit.HOURS)), 1, Integer::sum);
+        }
+        tagHourlyCountRepository.addCounts(counts);
+        return counts.size();
+    }
+
+    private List<TrendingTagResponse> computeTrending(Instant now) {
+        Map<Long, Double> scores = new HashMap<>();
+        for (TagHourlyCount bucket : tagHourlyCountRepository.findSince(now.minus(Duration.ofDays(30)))) {
+            double weight = trendingWeight(bucket.getId().getHour(), now);
+            scores.merge(bucket.getId().getTagId(), bucket.getPostCount() * weight, Double::sum);
+        }
+
+        // Min-heap of the best K so far: a tag only enters by beating the weakest one
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            if (entry.getValue() <= 0) {
+                continue; // Exclude tags with no recent posts
+            }
+            heap.offer(entry);
+            if (heap.size() > trendingTopK) {
+                heap.poll();
+            }
+        }
+        if (heap.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Double> topScores = heap.stream().collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        // Tags swept as orphans since their buckets were written are simply not found
+        return tagRepository.findSummariesByIdIn(topScores.keySet()).stream()
+                .map(tag -> TrendingTagResponse.builder()
+                        .id(tag.getId())
+                        .name(tag.getName())
+                        .postCount(tag.getPostCount())
+                        .trendingScore(topScores.get(tag.getId()))
+                        .build())
+                .sorted(Comparator.comparingDouble(TrendingTagResponse::getTrendingScore).reversed()
+                        .thenComparing(TrendingTagResponse::getName))
+                .toList();
     }
 }
@@ -9,5 +9,6 @@ public interface UserService {
     UserResponse getUserByUsername(String username);
     UserResponse updateUser(UUID id, UserUpdateRequest request);
     void deleteUser(UUID id);
-    List<UserResponse> getTopUsersByKarma(int limit);
+    List<UserResponse> getTopUsersByKarma(int limit, String window);
+    UserRankResponse getUserRank(UUID id, String window);
 }
\ No newline at end of file
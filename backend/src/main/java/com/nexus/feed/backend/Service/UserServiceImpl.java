@@ -1,8 +1,13 @@
 package com.nexus.feed.backend.Service;
 
 import com.nexus.feed.backend.DTO.*;
+import com.nexus.feed.backend.Entity.UserStats;
 import com.nexus.feed.backend.Entity.Users;
+import com.nexus.feed.backend.Exception.LeaderboardNotReadyException;
 import com.nexus.feed.backend.Exception.ResourceNotFoundException;
+import com.nexus.feed.backend.Leaderboard.Service.KarmaLeaderboard;
+import com.nexus.feed.backend.Leaderboard.Service.LeaderboardWindow;
+import com.nexus.feed.backend.Leaderboard.Service.OrderStatisticTree;
 import com.nexus.feed.backend.Repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,8 +15,12 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -21,13 +30,16 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
     
     private final UserRepository userRepository;
+    private final UserStatsService userStatsService;
+    private final KarmaService karmaService;
+    private final KarmaLeaderboard karmaLeaderboard;
 
     @Override
     @Transactional(readOnly = true)
     public UserResponse getUserById(UUID id) {
         Users user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
-        return convertToResponse(user);
+        return convertToResponse(user, userStatsService.getStats(user.getId()), karmaService.getKarma(user));
     }
 
     @Override
@@ -35,7 +47,7 @@ public class UserServiceImpl implements UserService {
     public UserResponse getUserByUsername(String username) {
         Users user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
-        return convertToResponse(user);
+        return convertToResponse(user, userStatsService.getStats(user.getId()), karmaService.getKarma(user));
     }
 
     @Override
@@ -53,7 +65,7 @@ public class UserServiceImpl implements UserService {
 
         Users updatedUser = userRepository.save(user);
         log.info("User updated: id={}", id);
-        return convertToResponse(updatedUser);
+        return convertToResponse(updatedUser, userStatsService.getStats(id), karmaService.getKarma(updatedUser));
     }
 
     @Override
@@ -62,19 +74,91 @@ public class UserServiceImpl implements UserService {
             throw new ResourceNotFoundException("User", "id", id);
         }
         userRepository.deleteById(id);
+        userStatsService.delete(id);
+        karmaLeaderboard.remove(id);
         log.info("User deleted: id={}", id);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<UserResponse> getTopUsersByKarma(int limit) {
-        return userRepository.findTopByKarma(PageRequest.of(0, limit))
+    public List<UserResponse> getTopUsersByKarma(int limit, String window) {
+        LeaderboardWindow leaderboardWindow = LeaderboardWindow.fromValue(window);
+        if (!karmaLeaderboard.isReady()) {
+            // Still building at startup; only the all-time board can be answered from the table
+            if (leaderboardWindow != LeaderboardWindow.ALL) {
+                throw new LeaderboardNotReadyException(leaderboardWindow.getValue());
+            }
+            List<Users> users = userRepository.findTopByKarma(PageRequest.of(0, limit));
+            Map<UUID, UserStats> stats = userStatsService.getStats(users.stream().map(Users::getId).toList());
+            Map<UUID, Long> karma = karmaService.getKarma(users);
+            return users.stream()
+                    .map(user -> convertToResponse(user, stats.get(user.getId()), karma.get(user.getId())))
+                    .collect(Collectors.toList());
+        }
+
+        List<OrderStatisticTree.Entry> entries = karmaLeaderboard.top(leaderboardWindow, limit);
+        Map<UUID, Users> users = findUsers(entries);
+        while (users.size() < entries.size()) {
+            // Deleted since the board was built: drop them and refill the page
+            for (OrderStatisticTree.Entry entry : entries) {
+                if (!users.containsKey(entry.userId())) {
+                    karmaLeaderboard.remove(entry.userId());
+                }
+            }
+            entries = karmaLeaderboard.top(leaderboardWindow, limit);
+            users = findUsers(entries);
+        }
+
+        Map<UUID, UserStats> stats = userStatsService.getStats(new ArrayList<>(users.keySet()));
+        Map<UUID, Long> karma = karmaService.getKarma(users.values());
+        List<UserResponse> responses = new ArrayList<>(entries.size());
+        for (OrderStatisticTree.Entry entry : entries) {
+            UserResponse response = convertToResponse(users.get(entry.userId()), stats.get(entry.userId()),
+                    karma.get(entry.userId()));
+            if (leaderboardWindow != LeaderboardWindow.ALL) {
+                response.setWindowKarma(entry.score());
+            }
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserRankResponse getUserRank(UUID id, String window) {
+        LeaderboardWindow leaderboardWindow = LeaderboardWindow.fromValue(window);
+        Users user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+        UserRankResponse.UserRankResponseBuilder response = UserRankResponse.builder()
+                .userId(id)
+                .username(user.getUsername())
+                .window(leaderboardWindow.getValue());
+
+        if (!karmaLeaderboard.isReady()) {
+            if (leaderboardWindow != LeaderboardWindow.ALL) {
+                throw new LeaderboardNotReadyException(leaderboardWindow.getValue());
+            }
+            return response.rank(Math.toIntExact(userRepository.countByKarmaGreaterThan(user.getKarma()) + 1))
+                    .karma(user.getKarma())
+                    .rankedUsers(Math.toIntExact(userRepository.count()))
+                    .build();
+        }
+        Optional<KarmaLeaderboard.Standing> standing = karmaLeaderboard.standing(id, leaderboardWindow);
+        return standing
+                .map(s -> response.rank(s.rank()).karma(s.karma()).rankedUsers(s.rankedUsers()).build())
+                .orElseGet(() -> response.karma(0L).build());
+    }
+
+    private Map<UUID, Users> findUsers(List<OrderStatisticTree.Entry> entries) {
+        if (entries.isEmpty()) {
+            return Map.of();
+        }
+        return userRepository.findAllWithAppUserByIdIn(entries.stream().map(OrderStatisticTree.Entry::userId).toList())
                 .stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+                .collect(Collectors.toMap(Users::getId, Function.identity()));
     }
 
-    private UserResponse convertToResponse(Users user) {
+    private UserResponse convertToResponse(Users user, UserStats stats, long karma) {
         // Get email from AppUser relationship
         String email = user.getAppUser() != null ? user.getAppUser().getEmail() : null;
         
@@ -86,7 +170,9 @@ public class UserServiceImpl implements UserService {
                 .profilePictureUrl(user.getProfilePictureUrl())
                 .createdAt(user.getCreatedAt())
                 .updatedAt(user.getUpdatedAt())
-                .karma(user.getKarma())
+                .karma(karma)
+                .postCount(stats.getPostCount())
+                .commentCount(stats.getCommentCount())
                 .build();
     }
 }
\ No newline at end of file
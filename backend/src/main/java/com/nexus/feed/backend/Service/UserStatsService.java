@@ -0,0 +1,47 @@
+package com.nexus.feed.backend.Service;
+
+import com.nexus.feed.backend.Entity.UserStats;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Maintains the per-user post, comment and vote counters in {@code user_stats}.
+ */
+public interface UserStatsService {
+
+    void recordPost(UUID userId, int delta);
+
+    void recordComment(UUID userId, int delta);
+
+    void recordVote(UUID userId, int delta);
+
+    /**
+     * Recount the given users, e.g. after a delete that cascaded to their content.
+     */
+    void refresh(Collection<UUID> userIds);
+
+    /**
+     * Drop the counters of a deleted user.
+     */
+    void delete(UUID userId);
+
+    /**
+     * A user's counters, counted from the source tables if the user has no row yet.
+     */
+    UserStats getStats(UUID userId);
+
+    /**
+     * Counters for several users, keyed by user id, with one entry per requested id.
+     */
+    Map<UUID, UserStats> getStats(Collection<UUID> userIds);
+
+    /**
+     * Compare a batch of stored counters (ordered by user id, starting after
+     * {@code afterId}) against the source tables and repair any drift.
+     *
+     * @return the last user id examined, or null when there are no more rows
+     */
+    UUID reconcileBatch(UUID afterId, int batchSize);
+}
@@ -0,0 +1,140 @@
+package com.nexus.feed.backend.Service;
+
+import com.nexus.feed.backend.Entity.UserStats;
+import com.nexus.feed.backend.Repository.UserStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class UserStatsServiceImpl implements UserStatsService {
+
+    private final UserStatsRepository userStatsRepository;
+
+    private interface Adjustment {
+        int apply(UUID userId, int delta, Instant now);
+    }
+
+    @Override
+    public void recordPost(UUID userId, int delta) {
+        adjust(userId, delta, userStatsRepository::adjustPostCount);
+    }
+
+    @Override
+    public void recordComment(UUID userId, int delta) {
+        adjust(userId, delta, userStatsRepository::adjustCommentCount);
+    }
+
+    @Override
+    public void recordVote(UUID userId, int delta) {
+        adjust(userId, delta, userStatsRepository::adjustVoteCount);
+    }
+
+    private void adjust(UUID userId, int delta, Adjustment adjustment) {
+        if (delta == 0) {
+            return;
+        }
+        Instant now = Instant.now();
+        if (adjustment.apply(userId, delta, now) > 0) {
+            return;
+        }
+        // First write for this user: the counted row already includes this change
+        if (userStatsRepository.insertCounted(userId, now) == 0) {
+            // A concurrent first write created the row from counts that can't see ours
+            adjustment.apply(userId, delta, now);
+        }
+    }
+
+    @Override
+    public void refresh(Collection<UUID> userIds) {
+        if (!userIds.isEmpty()) {
+            userStatsRepository.recount(userIds, Instant.now());
+        }
+    }
+
+    @Override
+    public void delete(UUID userId) {
+        userStatsRepository.deleteById(userId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserStats getStats(UUID userId) {
+        return getStats(List.of(userId)).get(userId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<UUID, UserStats> getStats(Collection<UUID> userIds) {
+        Map<UUID, UserStats> stats = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return stats;
+        }
+        userStatsRepository.findAllById(userIds).forEach(s -> stats.put(s.getUserId(), s));
+
+        Set<UUID> missing = new HashSet<>(userIds);
+        missing.removeAll(stats.keySet());
+        if (!missing.isEmpty()) {
+            // Users with no activity since the table was introduced; rows appear on their next write
+            stats.putAll(countFromSource(missing));
+        }
+        return stats;
+    }
+
+    private Map<UUID, UserStats> countFromSource(Collection<UUID> userIds) {
+        Map<UUID, Long> posts = toMap(userStatsRepository.countPostsByUserIds(userIds));
+        Map<UUID, Long> comments = toMap(userStatsRepository.countCommentsByUserIds(userIds));
+        Map<UUID, Long> votes = toMap(userStatsRepository.countVotesByUserIds(userIds));
+        return userIds.stream().collect(Collectors.toMap(Function.identity(), id -> new UserStats(id,
+                posts.getOrDefault(id, 0L), comments.getOrDefault(id, 0L), votes.getOrDefault(id, 0L), null)));
+    }
+
+    private static Map<UUID, Long> toMap(List<UserStatsRepository.UserCount> counts) {
+        return counts.stream().collect(Collectors.toMap(
+                UserStatsRepository.UserCount::getUserId, UserStatsRepository.UserCount::getCount));
+    }
+
+    @Override
+    public UUID reconcileBatch(UUID afterId, int batchSize) {
+        PageRequest limit = PageRequest.of(0, batchSize);
+        List<UserStats> batch = afterId == null
+                ? userStatsRepository.findOrderByUserId(limit)
+                : userStatsRepository.findAfterUserId(afterId, limit);
+        if (batch.isEmpty()) {
+            return null;
+        }
+
+        List<UUID> userIds = batch.stream().map(UserStats::getUserId).collect(Collectors.toList());
+        Map<UUID, UserStats> actual = countFromSource(userIds);
+        Instant now = Instant.now();
+        for (UserStats stored : batch) {
+            UserStats counted = actual.get(stored.getUserId());
+            if (stored.getPostCount() != counted.getPostCount()
+                    || stored.getCommentCount() != counted.getCommentCount()
+                    || stored.getVoteCount() != counted.getVoteCount()) {
+                userStatsRepository.overwriteCounters(stored.getUserId(), counted.getPostCount(),
+                        counted.getCommentCount(), counted.getVoteCount(), now);
+                log.info("Repaired user counters: userId={}, posts {} -> {}, comments {} -> {}, votes {} -> {}",
+                        stored.getUserId(), stored.getPostCount(), counted.getPostCount(), stored.getCommentCount(),
+                        counted.getCommentCount(), stored.getVoteCount(), counted.getVoteCount());
+            }
+        }
+        return userIds.get(userIds.size() - 1);
+    }
+}
@@ -0,0 +1,55 @@
+package com.nexus.feed.backend.Service;
+
+import com.nexus.feed.backend.Entity.Vote;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Optional write-behind mode for votes. Votes are acknowledged from in-memory
+ * per-(user, votable) state and periodically flushed to the database, so a
+ * burst of up/down/undo clicks costs one write for its net effect.
+ * <p>
+ * Reads of a user's own vote must go through {@link #userVote} or
+ * {@link #overlayUserVotes} so unflushed votes stay visible to their author.
+ */
+public interface VoteBuffer {
+
+    boolean isEnabled();
+
+    /**
+     * Cast a vote with the usual toggle semantics: repeating the current value removes it.
+     *
+     * @param authorLookup resolves the content author, throwing if the votable does not exist;
+     *                     only called the first time this (user, votable) pair is seen
+     */
+    void vote(UUID userId, UUID votableId, Vote.VotableType votableType, Vote.VoteValue voteValue,
+              Supplier<UUID> authorLookup);
+
+    void removeVote(UUID userId, UUID votableId, Vote.VotableType votableType, Supplier<UUID> authorLookup);
+
+    /**
+     * The user's effective vote: the buffered value if there is one, otherwise {@code persisted}.
+     */
+    Vote.VoteValue userVote(UUID userId, UUID votableId, Vote.VoteValue persisted);
+
+    /**
+     * Replace entries of a votable id to vote name map, as read from the database, with the
+     * user's buffered votes.
+     */
+    void overlayUserVotes(UUID userId, Collection<UUID> votableIds, Map<UUID, String> userVotes);
+
+    /**
+     * Net change to a votable's count for {@code voteValue} that has not been flushed yet.
+     */
+    long pendingCount(UUID votableId, Vote.VoteValue voteValue);
+
+    /**
+     * Write all pending changes in one transaction.
+     *
+     * @return the number of votes written
+     */
+    int flush();
+}
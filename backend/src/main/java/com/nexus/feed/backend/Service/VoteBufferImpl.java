@@ -0,0 +1,370 @@
+package com.nexus.feed.backend.Service;
+
+import com.nexus.feed.backend.Entity.Vote;
+import com.nexus.feed.backend.Event.VoteCastEvent;
+import com.nexus.feed.backend.Repository.VoteRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory vote state keyed by (user, votable). Each entry remembers the value
+ * last written to the database and the value the user currently holds; a flush
+ * writes only entries where the two differ, so rapid toggles collapse into their
+ * net effect. Votes, karma, post and user counters are written in one transaction with
+ * JDBC batches, and a vote event per change is delivered after it commits.
+ * <p>
+ * State lives in this process, so the mode assumes a single application instance.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VoteBufferImpl implements VoteBuffer {
+
+    private final VoteRepository voteRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final PostStatsService postStatsService;
+    private final UserStatsService userStatsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${votes.write-behind.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${votes.write-behind.shutdown-flush-attempts:3}")
+    private int shutdownFlushAttempts = 3;
+
+    private final Map<VoteKey, Entry> entries = new ConcurrentHashMap<>();
+    // Per votable: unflushed change to the upvote and downvote counts
+    private final Map<UUID, long[]> pendingTallies = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private record VoteKey(UUID userId, UUID votableId) {
+    }
+
+    private static final class Entry {
+        final VoteKey key;
+        final Vote.VotableType votableType;
+        final UUID authorId;
+        Vote.VoteValue persisted;
+        Vote.VoteValue current;
+        boolean evicted;
+
+        Entry(VoteKey key, Vote.VotableType votableType, UUID authorId, Vote.VoteValue persisted) {
+            this.key = key;
+            this.votableType = votableType;
+            this.authorId = authorId;
+            this.persisted = persisted;
+            this.current = persisted;
+        }
+    }
+
+    private record Change(Entry entry, Vote.VoteValue from, Vote.VoteValue to) {
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("votes.write-behind.pending", entries, this::countDirty)
+                .description("Buffered votes not yet written to the database")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void vote(UUID userId, UUID votableId, Vote.VotableType votableType, Vote.VoteValue voteValue,
+                     Supplier<UUID> authorLookup) {
+        VoteKey key = new VoteKey(userId, votableId);
+        while (true) {
+            Entry entry = obtain(key, votableType, authorLookup, true);
+            synchronized (entry) {
+                if (entry.evicted) {
+                    continue;
+                }
+                transition(entry, entry.current == voteValue ? null : voteValue);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void removeVote(UUID userId, UUID votableId, Vote.VotableType votableType, Supplier<UUID> authorLookup) {
+        VoteKey key = new VoteKey(userId, votableId);
+        while (true) {
+            Entry entry = obtain(key, votableType, authorLookup, false);
+            if (entry == null) {
+                return;
+            }
+            synchronized (entry) {
+                if (entry.evicted) {
+                    continue;
+                }
+                transition(entry, null);
+                return;
+            }
+        }
+    }
+
+    /**
+     * The buffered entry for a key, loading the stored vote on first use. Returns null
+     * when {@code createIfNoVote} is false and the user has no vote to change.
+     */
+    private Entry obtain(VoteKey key, Vote.VotableType votableType, Supplier<UUID> authorLookup,
+                         boolean createIfNoVote) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            return entry;
+        }
+        Vote.VoteValue persisted = voteRepository.findById(new Vote.VoteId(key.userId(), key.votableId()))
+                .map(Vote::getVoteValue)
+                .orElse(null);
+        if (persisted == null && !createIfNoVote) {
+            return null;
+        }
+        Entry loaded = new Entry(key, votableType, authorLookup.get(), persisted);
+        Entry raced = entries.putIfAbsent(key, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    private void transition(Entry entry, Vote.VoteValue next) {
+        adjustTally(entry.key.votableId(), entry.current, next, 1);
+        entry.current = next;
+    }
+
+    private void adjustTally(UUID votableId, Vote.VoteValue from, Vote.VoteValue to, int sign) {
+        long up = sign * (indicator(to, Vote.VoteValue.UPVOTE) - indicator(from, Vote.VoteValue.UPVOTE));
+        long down = sign * (indicator(to, Vote.VoteValue.DOWNVOTE) - indicator(from, Vote.VoteValue.DOWNVOTE));
+        if (up == 0 && down == 0) {
+            return;
+        }
+        pendingTallies.compute(votableId, (id, tally) -> {
+            long[] next = tally == null ? new long[2] : tally;
+            next[0] += up;
+            next[1] += down;
+            return next[0] == 0 && next[1] == 0 ? null : next;
+        });
+    }
+
+    private static int indicator(Vote.VoteValue value, Vote.VoteValue expected) {
+        return value == expected ? 1 : 0;
+    }
+
+    private static int karmaValue(Vote.VoteValue value) {
+        if (value == null) {
+            return 0;
+        }
+        return value == Vote.VoteValue.UPVOTE ? 1 : -1;
+    }
+
+    @Override
+    public Vote.VoteValue userVote(UUID userId, UUID votableId, Vote.VoteValue persisted) {
+        Entry entry = entries.get(new VoteKey(userId, votableId));
+        if (entry == null) {
+            return persisted;
+        }
+        synchronized (entry) {
+            return entry.current;
+        }
+    }
+
+    @Override
+    public void overlayUserVotes(UUID userId, Collection<UUID> votableIds, Map<UUID, String> userVotes) {
+        for (UUID votableId : votableIds) {
+            Entry entry = entries.get(new VoteKey(userId, votableId));
+            if (entry == null) {
+                continue;
+            }
+            Vote.VoteValue current;
+            synchronized (entry) {
+                current = entry.current;
+            }
+            if (current == null) {
+                userVotes.remove(votableId);
+            } else {
+                userVotes.put(votableId, current.name());
+            }
+        }
+    }
+
+    @Override
+    public long pendingCount(UUID votableId, Vote.VoteValue voteValue) {
+        long[] tally = pendingTallies.get(votableId);
+        if (tally == null) {
+            return 0;
+        }
+        return voteValue == Vote.VoteValue.UPVOTE ? tally[0] : tally[1];
+    }
+
+    @Override
+    public int flush() {
+        flushLock.lock();
+        try {
+            List<Change> changes = collectChanges();
+            if (changes.isEmpty()) {
+                return 0;
+            }
+
+            Map<UUID, Integer> karmaDeltas = new HashMap<>();
+            Map<UUID, int[]> postDeltas = new HashMap<>();
+            Map<UUID, Integer> voteCountDeltas = new HashMap<>();
+            for (Change change : changes) {
+                Entry entry = change.entry();
+                voteCountDeltas.merge(entry.key.userId(),
+                        (change.to() != null ? 1 : 0) - (change.from() != null ? 1 : 0), Integer::sum);
+                if (!entry.authorId.equals(entry.key.userId())) {
+                    karmaDeltas.merge(entry.authorId, karmaValue(change.to()) - karmaValue(change.from()), Integer::sum);
+                }
+                if (entry.votableType == Vote.VotableType.POST) {
+                    int[] delta = postDeltas.computeIfAbsent(entry.key.votableId(), id -> new int[2]);
+                    delta[0] += indicator(change.to(), Vote.VoteValue.UPVOTE) - indicator(change.from(), Vote.VoteValue.UPVOTE);
+                    delta[1] += indicator(change.to(), Vote.VoteValue.DOWNVOTE) - indicator(change.from(), Vote.VoteValue.DOWNVOTE);
+                }
+            }
+
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                writeVotes(changes);
+                writeKarma(karmaDeltas);
+                postDeltas.forEach((postId, delta) -> postStatsService.recordVoteDelta(postId, delta[0], delta[1]));
+                voteCountDeltas.forEach(userStatsService::recordVote);
+                // Delivered once the transaction commits
+                for (Change change : changes) {
+                    Entry entry = change.entry();
+                    eventPublisher.publishEvent(new VoteCastEvent(entry.key.userId(), entry.key.votableId(),
+                            entry.votableType, entry.authorId, change.from(), change.to(),
+                            karmaValue(change.to()) - karmaValue(change.from())));
+                }
+            });
+
+            for (Change change : changes) {
+                synchronized (change.entry()) {
+                    change.entry().persisted = change.to();
+                }
+                adjustTally(change.entry().key.votableId(), change.from(), change.to(), -1);
+            }
+            log.debug("Flushed {} buffered vote(s)", changes.size());
+            return changes.size();
+        } catch (RuntimeException e) {
+            log.error("Vote buffer flush failed, will retry: {}", e.getMessage());
+            return 0;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Snapshot dirty entries and drop clean ones so the map only holds recent activity
+    private List<Change> collectChanges() {
+        List<Change> changes = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            synchronized (entry) {
+                if (entry.current == entry.persisted) {
+                    entry.evicted = true;
+                    entries.remove(entry.key, entry);
+                } else {
+                    changes.add(new Change(entry, entry.persisted, entry.current));
+                }
+            }
+        }
+        return changes;
+    }
+
+    private void writeVotes(List<Change> changes) {
+        List<Object[]> deletes = new ArrayList<>();
+        List<Change> upserts = new ArrayList<>();
+        for (Change change : changes) {
+            if (change.to() == null) {
+                deletes.add(new Object[]{change.entry().key.userId(), change.entry().key.votableId()});
+            } else {
+                upserts.add(change);
+            }
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate("DELETE FROM votes WHERE user_id = ? AND votable_id = ?", deletes);
+        }
+        if (upserts.isEmpty()) {
+            return;
+        }
+
+        // Update first and insert whatever matched no row, which also tolerates a stale remembered value
+        List<Object[]> updates = new ArrayList<>();
+        for (Change change : upserts) {
+            updates.add(new Object[]{change.to().name(), change.entry().key.userId(), change.entry().key.votableId()});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE votes SET vote_value = ? WHERE user_id = ? AND votable_id = ?", updates);
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < upserts.size(); i++) {
+            if (updated[i] == 0) {
+                Change change = upserts.get(i);
+                inserts.add(new Object[]{change.entry().key.userId(), change.entry().key.votableId(),
+                        change.entry().votableType.name(), change.to().name()});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO votes (user_id, votable_id, votable_type, vote_value) VALUES (?, ?, ?, ?)", inserts);
+        }
+    }
+
+    private void writeKarma(Map<UUID, Integer> karmaDeltas) {
+        List<Object[]> updates = new ArrayList<>();
+        karmaDeltas.forEach((authorId, delta) -> {
+            if (delta != 0) {
+                updates.add(new Object[]{delta, authorId});
+            }
+        });
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE users SET karma = karma + ? WHERE id = ?", updates);
+        }
+    }
+
+    private int countDirty(Map<VoteKey, Entry> snapshot) {
+        int dirty = 0;
+        for (Entry entry : snapshot.values()) {
+            synchronized (entry) {
+                if (entry.current != entry.persisted) {
+                    dirty++;
+                }
+            }
+        }
+        return dirty;
+    }
+
+    @PreDestroy
+    void drain() {
+        if (!enabled) {
+            return;
+        }
+        for (int attempt = 0; attempt < shutdownFlushAttempts && countDirty(entries) > 0; attempt++) {
+            flush();
+        }
+        int remaining = countDirty(entries);
+        if (remaining > 0) {
+            log.error("Shutting down with {} unflushed vote(s)", remaining);
+        } else {
+            log.info("Vote buffer drained");
+        }
+    }
+}
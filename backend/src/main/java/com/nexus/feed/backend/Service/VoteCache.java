@@ -0,0 +1,29 @@
+package com.nexus.feed.backend.Service;
+
+import com.nexus.feed.backend.Entity.Vote;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bounded read cache over stored votes: up/down totals per votable and each
+ * user's vote per votable. Misses are loaded in one grouped query per call.
+ * Committed vote changes are written through to cached entries, and entries
+ * expire so changes made by other instances are eventually seen.
+ * <p>
+ * Values are what the database holds; buffered votes are still overlaid by
+ * {@link VoteBuffer}.
+ */
+public interface VoteCache {
+
+    record VoteTally(long upvotes, long downvotes) {
+    }
+
+    Map<UUID, VoteTally> tallies(Collection<UUID> votableIds, Vote.VotableType votableType);
+
+    /**
+     * The user's stored votes, keyed by votable id; votables the user hasn't voted on are absent.
+     */
+    Map<UUID, Vote.VoteValue> userVotes(UUID userId, Collection<UUID> votableIds, Vote.VotableType votableType);
+}
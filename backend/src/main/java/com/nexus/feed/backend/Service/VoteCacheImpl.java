@@ -0,0 +1,261 @@
+package com.nexus.feed.backend.Service;
+
+import com.nexus.feed.backend.Entity.Vote;
+import com.nexus.feed.backend.Event.VoteCastEvent;
+import com.nexus.feed.backend.Repository.VoteRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Access-ordered LRU maps with a time-to-live, in the style of the karma read
+ * cache. Vote events are applied after commit: a user's own vote is always
+ * written, so it is visible on their next read, and a cached tally is adjusted
+ * in place.
+ * <p>
+ * Tally loads are ordered against vote commits by a sequence stamped on each
+ * votable just before its vote commits and again once it has. A load that spans
+ * a stamp isn't stored, and a tally loaded while a vote was committing, which may
+ * or may not count it, is evicted rather than adjusted, so no tally is kept
+ * missing or double counting a committed vote.
+ */
+@Service
+@RequiredArgsConstructor
+public class VoteCacheImpl implements VoteCache {
+
+    private final VoteRepository voteRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${votes.cache.ttl-ms:30000}")
+    private long ttlMs = 30000;
+
+    @Value("${votes.cache.max-tallies:50000}")
+    private int maxTallies = 50000;
+
+    @Value("${votes.cache.max-user-votes:100000}")
+    private int maxUserVotes = 100000;
+
+    private record UserVoteKey(UUID userId, UUID votableId) {
+    }
+
+    private record Cached<T>(T value, long expiresAt) {
+    }
+
+    private record CachedTally(VoteTally value, long expiresAt, long loadedFrom) {
+    }
+
+    private final Map<UUID, CachedTally> tallies = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, CachedTally> eldest) {
+            return size() > maxTallies;
+        }
+    };
+
+    // Guarded by tallies: the sequence loads and vote commits are ordered by, and each votable's latest stamp
+    private long sequence;
+    private final Map<UUID, Long> commitStamps = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Long> eldest) {
+            return size() > maxTallies;
+        }
+    };
+
+    // Optional.empty() records that the user hasn't voted, so "no vote" is a hit too
+    private final Map<UserVoteKey, Cached<Optional<Vote.VoteValue>>> userVotes = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UserVoteKey, Cached<Optional<Vote.VoteValue>>> eldest) {
+            return size() > maxUserVotes;
+        }
+    };
+
+    private final AtomicLong tallyHits = new AtomicLong();
+    private final AtomicLong tallyMisses = new AtomicLong();
+    private final AtomicLong userVoteHits = new AtomicLong();
+    private final AtomicLong userVoteMisses = new AtomicLong();
+
+    @PostConstruct
+    void registerMetrics() {
+        registerCache("tallies", tallies, tallyHits, tallyMisses);
+        registerCache("user-votes", userVotes, userVoteHits, userVoteMisses);
+    }
+
+    private void registerCache(String name, Map<?, ?> cache, AtomicLong hits, AtomicLong misses) {
+        FunctionCounter.builder("votes.cache.gets", hits, AtomicLong::get)
+                .tags("cache", name, "result", "hit")
+                .description("Vote cache lookups served from memory")
+                .register(meterRegistry);
+        FunctionCounter.builder("votes.cache.gets", misses, AtomicLong::get)
+                .tags("cache", name, "result", "miss")
+                .description("Vote cache lookups loaded from the database")
+                .register(meterRegistry);
+        Gauge.builder("votes.cache.size", cache, c -> {
+                    synchronized (c) {
+                        return c.size();
+                    }
+                })
+                .tag("cache", name)
+                .description("Entries held in the vote cache")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Map<UUID, VoteTally> tallies(Collection<UUID> votableIds, Vote.VotableType votableType) {
+        long now = System.currentTimeMillis();
+        Map<UUID, VoteTally> result = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        long loadedFrom;
+        synchronized (tallies) {
+            loadedFrom = sequence;
+            for (UUID votableId : votableIds) {
+                CachedTally cached = tallies.get(votableId);
+                if (cached != null && cached.expiresAt() > now) {
+                    result.put(votableId, cached.value());
+                } else {
+                    missing.add(votableId);
+                }
+            }
+        }
+        tallyHits.addAndGet(result.size());
+        tallyMisses.addAndGet(missing.size());
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        Map<UUID, long[]> loaded = new HashMap<>();
+        missing.forEach(votableId -> loaded.put(votableId, new long[2]));
+        for (VoteRepository.VoteCount count : voteRepository.countByVotableIdsAndVotableType(missing, votableType)) {
+            loaded.get(count.getVotableId())[count.getVoteValue() == Vote.VoteValue.UPVOTE ? 0 : 1] = count.getCount();
+        }
+        long expiresAt = System.currentTimeMillis() + ttlMs;
+        synchronized (tallies) {
+            loaded.forEach((votableId, counts) -> {
+                VoteTally tally = new VoteTally(counts[0], counts[1]);
+                // A vote that began committing during the load may or may not be in these counts
+                if (commitStamps.getOrDefault(votableId, 0L) <= loadedFrom) {
+                    tallies.put(votableId, new CachedTally(tally, expiresAt, loadedFrom));
+                }
+                result.put(votableId, tally);
+            });
+        }
+        return result;
+    }
+
+    @Override
+    public Map<UUID, Vote.VoteValue> userVotes(UUID userId, Collection<UUID> votableIds, Vote.VotableType votableType) {
+        long now = System.currentTimeMillis();
+        Map<UUID, Vote.VoteValue> result = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        synchronized (userVotes) {
+            for (UUID votableId : votableIds) {
+                Cached<Optional<Vote.VoteValue>> cached = userVotes.get(new UserVoteKey(userId, votableId));
+                if (cached != null && cached.expiresAt() > now) {
+                    cached.value().ifPresent(value -> result.put(votableId, value));
+                } else {
+                    missing.add(votableId);
+                }
+            }
+        }
+        userVoteHits.addAndGet(votableIds.size() - missing.size());
+        userVoteMisses.addAndGet(missing.size());
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        Map<UUID, Vote.VoteValue> loaded = new HashMap<>();
+        for (Vote vote : voteRepository.findByUserIdAndVotableIdsAndVotableType(userId, missing, votableType)) {
+            loaded.put(vote.getId().getVotableId(), vote.getVoteValue());
+        }
+        long expiresAt = System.currentTimeMillis() + ttlMs;
+        synchronized (userVotes) {
+            for (UUID votableId : missing) {
+                UserVoteKey key = new UserVoteKey(userId, votableId);
+                Cached<Optional<Vote.VoteValue>> current = userVotes.get(key);
+                if (current != null && current.expiresAt() > now) {
+                    // A vote committed while loading has already been written through; keep it
+                    current.value().ifPresent(value -> result.put(votableId, value));
+                    continue;
+                }
+                Optional<Vote.VoteValue> value = Optional.ofNullable(loaded.get(votableId));
+                userVotes.put(key, new Cached<>(value, expiresAt));
+                value.ifPresent(v -> result.put(votableId, v));
+            }
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onVoteCast(VoteCastEvent event) {
+        long committing = stamp(event.votableId());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Published outside a transaction there is no commit to order loads against
+            synchronized (tallies) {
+                tallies.remove(event.votableId());
+            }
+            writeUserVote(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                onVoteCommitted(event, committing);
+            }
+        });
+    }
+
+    private void onVoteCommitted(VoteCastEvent event, long committing) {
+        writeUserVote(event);
+        synchronized (tallies) {
+            CachedTally cached = tallies.get(event.votableId());
+            if (cached != null && cached.loadedFrom() >= committing) {
+                // Loaded while the vote was committing, so it may already count it
+                tallies.remove(event.votableId());
+            } else if (cached != null) {
+                VoteTally tally = cached.value();
+                tallies.put(event.votableId(), new CachedTally(new VoteTally(
+                        tally.upvotes() + indicator(event.newValue(), Vote.VoteValue.UPVOTE)
+                                - indicator(event.oldValue(), Vote.VoteValue.UPVOTE),
+                        tally.downvotes() + indicator(event.newValue(), Vote.VoteValue.DOWNVOTE)
+                                - indicator(event.oldValue(), Vote.VoteValue.DOWNVOTE)),
+                        cached.expiresAt(), cached.loadedFrom()));
+            }
+            commitStamps.put(event.votableId(), ++sequence);
+        }
+    }
+
+    private long stamp(UUID votableId) {
+        synchronized (tallies) {
+            commitStamps.put(votableId, ++sequence);
+            return sequence;
+        }
+    }
+
+    private void writeUserVote(VoteCastEvent event) {
+        long expiresAt = System.currentTimeMillis() + ttlMs;
+        synchronized (userVotes) {
+            userVotes.put(new UserVoteKey(event.voterId(), event.votableId()),
+                    new Cached<>(Optional.ofNullable(event.newValue()), expiresAt));
+        }
+    }
+
+    private static int indicator(Vote.VoteValue value, Vote.VoteValue expected) {
+        return value == expected ? 1 : 0;
+    }
+}
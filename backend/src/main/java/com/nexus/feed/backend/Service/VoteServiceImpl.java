@@ -4,8 +4,10 @@ import com.nexus.feed.backend.DTO.VoteRequest;
 import com.nexus.feed.backend.Entity.*;
 import com.nexus.feed.backend.Exception.ResourceNotFoundException;
 import com.nexus.feed.backend.Repository.*;
+import com.nexus.feed.backend.Event.VoteCastEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
@@ -22,100 +24,98 @@ public class VoteServiceImpl implements VoteService {
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
     private final KarmaService karmaService;
-    private final BadgeAwardingService badgeAwardingService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PostStatsService postStatsService;
+    private final VoteBuffer voteBuffer;
+    private final UserStatsService userStatsService;
 
     @Override
     public void vote(UUID userId, VoteRequest request) {
-        // Verify user exists
-        if (!userRepository.existsById(userId)) {
-            throw new ResourceNotFoundException("User", "id", userId);
+        if (voteBuffer.isEnabled()) {
+            // Validation only runs the first time this pair is seen; later toggles touch no tables
+            voteBuffer.vote(userId, request.getVotableId(), request.getVotableType(), request.getVoteValue(),
+                    () -> validateAndGetAuthorId(userId, request.getVotableId(), request.getVotableType()));
+            return;
         }
 
-        // Verify votable entity exists
-        if (request.getVotableType() == Vote.VotableType.POST) {
-            if (!postRepository.existsById(request.getVotableId())) {
-                throw new ResourceNotFoundException("Post", "id", request.getVotableId());
-            }
-        } else if (request.getVotableType() == Vote.VotableType.COMMENT) {
-            if (!commentRepository.existsById(request.getVotableId())) {
-                throw new ResourceNotFoundException("Comment", "id", request.getVotableId());
-            }
-        }
+        UUID contentAuthorId = validateAndGetAuthorId(userId, request.getVotableId(), request.getVotableType());
 
-        UUID contentAuthorId = getContentAuthorId(request.getVotableId(), request.getVotableType());
+        // One statement reads the old value and writes the new one, so concurrent clicks can't collide
+        VoteRepository.VoteTransition transition = voteRepository.castVote(
+                userId, request.getVotableId(), request.getVotableType(), request.getVoteValue());
+        recordPostVote(request, transition.oldValue(), transition.newValue());
+        userStatsService.recordVote(userId, transition.voteCountDelta());
+        karmaService.updateKarmaForVote(contentAuthorId, userId, transition.karmaDelta());
+        log.info("Vote cast: userId={}, votableId={}, type={}, {} -> {}", userId, request.getVotableId(),
+                request.getVotableType(), transition.oldValue(), transition.newValue());
+        eventPublisher.publishEvent(new VoteCastEvent(userId, request.getVotableId(), request.getVotableType(),
+                contentAuthorId, transition.oldValue(), transition.newValue(), transition.karmaDelta()));
+    }
 
-        Vote.VoteId voteId = new Vote.VoteId(userId, request.getVotableId());
-        Optional<Vote> existingVote = voteRepository.findById(voteId);
+    private void recordPostVote(VoteRequest request, Vote.VoteValue oldValue, Vote.VoteValue newValue) {
+        if (request.getVotableType() == Vote.VotableType.POST) {
+            postStatsService.recordVote(request.getVotableId(), oldValue, newValue);
+        }
+    }
 
-        if (existingVote.isPresent()) {
-            Vote vote = existingVote.get();
-            if (vote.getVoteValue() == request.getVoteValue()) {
-                // Same vote - remove it (toggle off)
-                int delta = vote.getVoteValue() == Vote.VoteValue.UPVOTE ? -1 : 1;
-                voteRepository.delete(vote);
-                karmaService.updateKarmaForVote(contentAuthorId, userId, delta);
-                log.info("Vote removed: userId={}, votableId={}, type={}", userId, request.getVotableId(), request.getVotableType());
-            } else {
-                // Different vote - update it (flip: +2 or -2)
-                int delta = request.getVoteValue() == Vote.VoteValue.UPVOTE ? 2 : -2;
-                vote.setVoteValue(request.getVoteValue());
-                voteRepository.save(vote);
-                karmaService.updateKarmaForVote(contentAuthorId, userId, delta);
-                log.info("Vote updated: userId={}, votableId={}, type={}, value={}", userId, request.getVotableId(), request.getVotableType(), request.getVoteValue());
-            }
-        } else {
-            // New vote
-            int delta = request.getVoteValue() == Vote.VoteValue.UPVOTE ? 1 : -1;
-            Vote newVote = new Vote();
-            newVote.setId(voteId);
-            newVote.setVotableType(request.getVotableType());
-            newVote.setVoteValue(request.getVoteValue());
-            voteRepository.save(newVote);
-            karmaService.updateKarmaForVote(contentAuthorId, userId, delta);
-            log.info("Vote created: userId={}, votableId={}, type={}, value={}", userId, request.getVotableId(), request.getVotableType(), request.getVoteValue());
-            
-            // Check for vote badges
-            badgeAwardingService.checkVoteBadges(userId);
+    private UUID validateAndGetAuthorId(UUID userId, UUID votableId, Vote.VotableType votableType) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
         }
+        // Resolving the author also proves the votable exists
+        return getContentAuthorId(votableId, votableType);
     }
 
     private UUID getContentAuthorId(UUID votableId, Vote.VotableType votableType) {
         if (votableType == Vote.VotableType.POST) {
-            return postRepository.findById(votableId)
-                    .map(post -> post.getUser().getId())
+            return postRepository.findAuthorIdById(votableId)
                     .orElseThrow(() -> new ResourceNotFoundException("Post", "id", votableId));
         } else {
-            return commentRepository.findById(votableId)
-                    .map(comment -> comment.getUser().getId())
+            return commentRepository.findAuthorIdById(votableId)
                     .orElseThrow(() -> new ResourceNotFoundException("Comment", "id", votableId));
         }
     }
 
     @Override
     public void removeVote(UUID userId, UUID votableId, Vote.VotableType votableType) {
+        if (voteBuffer.isEnabled()) {
+            voteBuffer.removeVote(userId, votableId, votableType, () -> getContentAuthorId(votableId, votableType));
+            return;
+        }
         Vote.VoteId voteId = new Vote.VoteId(userId, votableId);
-        voteRepository.deleteById(voteId);
+        voteRepository.findById(voteId).ifPresent(vote -> {
+            voteRepository.delete(vote);
+            userStatsService.recordVote(userId, -1);
+            if (votableType == Vote.VotableType.POST) {
+                postStatsService.recordVote(votableId, vote.getVoteValue(), null);
+            }
+            eventPublisher.publishEvent(new VoteCastEvent(userId, votableId, votableType, null,
+                    vote.getVoteValue(), null, 0));
+        });
     }
 
     @Override
     @Transactional(readOnly = true)
     public long getUpvoteCount(UUID votableId, Vote.VotableType votableType) {
-        return voteRepository.countByVotableIdAndVotableTypeAndVoteValue(
+        long upvotes = voteRepository.countByVotableIdAndVotableTypeAndVoteValue(
                 votableId, votableType, Vote.VoteValue.UPVOTE);
+        return voteBuffer.isEnabled() ? upvotes + voteBuffer.pendingCount(votableId, Vote.VoteValue.UPVOTE) : upvotes;
     }
 
     @Override
     @Transactional(readOnly = true)
     public long getDownvoteCount(UUID votableId, Vote.VotableType votableType) {
-        return voteRepository.countByVotableIdAndVotableTypeAndVoteValue(
+        long downvotes = voteRepository.countByVotableIdAndVotableTypeAndVoteValue(
                 votableId, votableType, Vote.VoteValue.DOWNVOTE);
+        return voteBuffer.isEnabled() ? downvotes + voteBuffer.pendingCount(votableId, Vote.VoteValue.DOWNVOTE) : downvotes;
     }
 
     @Override
     @Transactional(readOnly = true)
     public Vote.VoteValue getUserVote(UUID userId, UUID votableId, Vote.VotableType votableType) {
-        return voteRepository.findByUserIdAndVotableIdAndVotableType(userId, votableId, votableType)
+        Vote.VoteValue persisted = voteRepository.findByUserIdAndVotableIdAndVotableType(userId, votableId, votableType)
                 .map(Vote::getVoteValue)
                 .orElse(null);
+        return voteBuffer.isEnabled() ? voteBuffer.userVote(userId, votableId, persisted) : persisted;
     }
 }
\ No newline at end of file
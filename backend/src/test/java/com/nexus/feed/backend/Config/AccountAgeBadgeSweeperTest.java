@@ -0,0 +1,106 @@
+package com.nexus.feed.backend.Config;
+
+import com.nexus.feed.backend.Repository.UserRepository;
+import com.nexus.feed.backend.Service.BadgeAwardingService;
+import com.nexus.feed.backend.Service.JobLockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AccountAgeBadgeSweeper Unit Tests")
+class AccountAgeBadgeSweeperTest {
+
+    private static final String JOB = AccountAgeBadgeSweeper.JOB_NAME;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private BadgeAwardingService badgeAwardingService;
+
+    @Mock
+    private JobLockService jobLockService;
+
+    @InjectMocks
+    private AccountAgeBadgeSweeper sweeper;
+
+    private final UUID a = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private final UUID b = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private final UUID c = UUID.fromString("00000000-0000-0000-0000-000000000003");
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sweeper, "batchSize", 2);
+        ReflectionTestUtils.setField(sweeper, "parallelism", 2);
+        sweeper.setExecutor(Runnable::run);
+    }
+
+    @Test
+    @DisplayName("Should do nothing while another instance holds the lock")
+    void shouldSkipWhenLocked() {
+        when(jobLockService.tryAcquire(eq(JOB), any(Duration.class))).thenReturn(false);
+
+        sweeper.sweep();
+
+        verifyNoInteractions(userRepository, badgeAwardingService);
+        verify(jobLockService, never()).release(JOB);
+    }
+
+    @Test
+    @DisplayName("Should split each wave into chunks and save the cursor after it")
+    void shouldSweepInChunks() {
+        when(jobLockService.tryAcquire(eq(JOB), any(Duration.class))).thenReturn(true);
+        when(userRepository.findIdsOrderById(any(Pageable.class))).thenReturn(List.of(a, b, c));
+        when(userRepository.findIdsAfterId(eq(c), any(Pageable.class))).thenReturn(List.of());
+        when(jobLockService.saveProgress(eq(JOB), eq(c), any(Duration.class))).thenReturn(true);
+
+        sweeper.sweep();
+
+        verify(badgeAwardingService).awardAccountAgeBadges(List.of(a, b));
+        verify(badgeAwardingService).awardAccountAgeBadges(List.of(c));
+        verify(jobLockService).complete(JOB);
+        verify(jobLockService).release(JOB);
+    }
+
+    @Test
+    @DisplayName("Should resume from the saved cursor")
+    void shouldResumeFromCursor() {
+        when(jobLockService.tryAcquire(eq(JOB), any(Duration.class))).thenReturn(true);
+        when(jobLockService.getResumeCursor(JOB)).thenReturn(b);
+        when(userRepository.findIdsAfterId(eq(b), any(Pageable.class))).thenReturn(List.of());
+
+        sweeper.sweep();
+
+        verify(userRepository, never()).findIdsOrderById(any());
+        verify(jobLockService).complete(JOB);
+    }
+
+    @Test
+    @DisplayName("Should keep the cursor before a failed chunk and release the lock")
+    void shouldNotAdvancePastFailedChunk() {
+        when(jobLockService.tryAcquire(eq(JOB), any(Duration.class))).thenReturn(true);
+        when(userRepository.findIdsOrderById(any(Pageable.class))).thenReturn(List.of(a, b, c));
+        when(badgeAwardingService.awardAccountAgeBadges(List.of(c))).thenThrow(new IllegalStateException("boom"));
+
+        sweeper.sweep();
+
+        verify(jobLockService, never()).saveProgress(any(), any(), any());
+        verify(jobLockService, never()).complete(JOB);
+        verify(jobLockService).release(JOB);
+    }
+}
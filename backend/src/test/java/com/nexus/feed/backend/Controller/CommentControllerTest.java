@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nexus.feed.backend.DTO.CommentCreateRequest;
 import com.nexus.feed.backend.DTO.CommentResponse;
 import com.nexus.feed.backend.DTO.CommentUpdateRequest;
+import com.nexus.feed.backend.DTO.CursorPage;
 import com.nexus.feed.backend.Exception.GlobalExceptionHandler;
 import com.nexus.feed.backend.Exception.ResourceNotFoundException;
 import com.nexus.feed.backend.Exception.UnauthorizedException;
@@ -217,6 +218,59 @@ class CommentControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("Should get a paged comment thread with default limits")
+    void shouldGetCommentThreadWithDefaultLimits() throws Exception {
+        // Given
+        CursorPage<CommentResponse> thread = CursorPage.<CommentResponse>builder()
+                .content(List.of(commentResponse))
+                .size(1)
+                .nextCursor("next")
+                .hasNext(true)
+                .build();
+        when(commentService.getCommentThread(postId, null, 10, 3, 5)).thenReturn(thread);
+
+        // When & Then
+        mockMvc.perform(get("/api/comments/post/{postId}/thread", postId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].postId").value(postId.toString()))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    @DisplayName("Should get more replies after a cursor")
+    void shouldGetRepliesAfterCursor() throws Exception {
+        // Given
+        CursorPage<CommentResponse> replies = CursorPage.<CommentResponse>builder()
+                .content(List.of(commentResponse))
+                .size(1)
+                .hasNext(false)
+                .build();
+        when(commentService.getReplies(commentId, "abc", 20, 0, 5)).thenReturn(replies);
+
+        // When & Then
+        mockMvc.perform(get("/api/comments/{id}/replies", commentId)
+                        .param("cursor", "abc")
+                        .param("size", "20")
+                        .param("depth", "0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].postId").value(postId.toString()))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    @DisplayName("Should return 400 for an invalid thread request")
+    void shouldReturn400ForInvalidThreadRequest() throws Exception {
+        // Given
+        when(commentService.getCommentThread(postId, "bad", 10, 3, 5))
+                .thenThrow(new IllegalArgumentException("Invalid comment cursor"));
+
+        // When & Then
+        mockMvc.perform(get("/api/comments/post/{postId}/thread", postId).param("cursor", "bad"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Should get comments by user with pagination")
     void shouldGetCommentsByUserWithPagination() throws Exception {
@@ -3,6 +3,7 @@ package com.nexus.feed.backend.Controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nexus.feed.backend.Auth.Service.JwtService;
 import com.nexus.feed.backend.Auth.Service.UserDetailsServiceImpl;
+import com.nexus.feed.backend.DTO.CursorPage;
 import com.nexus.feed.backend.DTO.CommentResponse;
 import com.nexus.feed.backend.DTO.PostCreateRequest;
 import com.nexus.feed.backend.DTO.PostDetailResponse;
@@ -201,6 +202,28 @@ class PostControllerTest {
                 .andExpect(jsonPath("$.page.totalElements").value(1));
     }
 
+    @Test
+    @DisplayName("Should get cursor paged feed when cursor parameter is present")
+    void shouldGetCursorPagedFeed() throws Exception {
+        // Given
+        CursorPage<PostResponse> feed = CursorPage.<PostResponse>builder()
+                .content(Collections.singletonList(postResponse))
+                .size(1)
+                .nextCursor("next-token")
+                .hasNext(true)
+                .build();
+        when(postService.getPostFeed("", 10, "hot")).thenReturn(feed);
+
+        // When & Then
+        mockMvc.perform(get("/api/posts")
+                        .param("cursor", "")
+                        .param("sort", "hot"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Test Post Title"))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
     @Test
     @DisplayName("Should get posts by user with pagination")
     void shouldGetPostsByUserWithPagination() throws Exception {
@@ -3,6 +3,7 @@ package com.nexus.feed.backend.Controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nexus.feed.backend.Auth.Service.JwtService;
 import com.nexus.feed.backend.Auth.Service.UserDetailsServiceImpl;
+import com.nexus.feed.backend.DTO.UserRankResponse;
 import com.nexus.feed.backend.DTO.UserResponse;
 import com.nexus.feed.backend.DTO.UserUpdateRequest;
 import com.nexus.feed.backend.Exception.GlobalExceptionHandler;
@@ -188,5 +189,31 @@ class UserControllerTest {
         mockMvc.perform(delete("/api/users/id/{id}", userId))
                 .andExpect(status().isNotFound());
     }
-}
 
+    @Test
+    @DisplayName("Should get a user's rank in the requested window")
+    void shouldGetUserRank() throws Exception {
+        // Given
+        UserRankResponse rank = UserRankResponse.builder()
+                .userId(userId).username("tester").window("week").rank(3).karma(42L).rankedUsers(90).build();
+        when(userService.getUserRank(userId, "week")).thenReturn(rank);
+
+        // When & Then
+        mockMvc.perform(get("/api/users/{id}/rank", userId).param("window", "week"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rank").value(3))
+                .andExpect(jsonPath("$.karma").value(42));
+    }
+
+    @Test
+    @DisplayName("Should return 400 for an unknown leaderboard window")
+    void shouldReturn400ForUnknownWindow() throws Exception {
+        // Given
+        when(userService.getTopUsersByKarma(5, "year"))
+                .thenThrow(new IllegalArgumentException("Window must be one of all, week, month: year"));
+
+        // When & Then
+        mockMvc.perform(get("/api/users/top").param("window", "year"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,271 @@
+package com.nexus.feed.backend.Leaderboard.Service;
+
+import com.nexus.feed.backend.Entity.KarmaDailyDelta;
+import com.nexus.feed.backend.Entity.Users;
+import com.nexus.feed.backend.Entity.Vote;
+import com.nexus.feed.backend.Event.KarmaAdjustedEvent;
+import com.nexus.feed.backend.Event.VoteCastEvent;
+import com.nexus.feed.backend.Repository.KarmaDailyDeltaRepository;
+import com.nexus.feed.backend.Repository.KarmaShardRepository;
+import com.nexus.feed.backend.Repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InMemoryKarmaLeaderboard Unit Tests")
+class InMemoryKarmaLeaderboardTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private KarmaShardRepository karmaShardRepository;
+
+    @Mock
+    private KarmaDailyDeltaRepository karmaDailyDeltaRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private InMemoryKarmaLeaderboard leaderboard;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-03-10T12:00:00Z"));
+    private final UUID alice = new UUID(0, 1);
+    private final UUID bob = new UUID(0, 2);
+    private final UUID carol = new UUID(0, 3);
+
+    @BeforeEach
+    void setUp() {
+        leaderboard.setClock(clock);
+    }
+
+    @Test
+    @DisplayName("Should seed the all-time board from stored karma plus pending stripes")
+    void shouldSeedAllTimeBoard() {
+        // Given
+        when(userRepository.findKarmaOrderById(any(Pageable.class)))
+                .thenReturn(List.of(stored(alice, 10), stored(bob, 40), stored(carol, 25)));
+        when(karmaShardRepository.sumByUserIds(anyCollection())).thenReturn(List.of(pending(alice, 20)));
+
+        // When
+        leaderboard.rebuild();
+
+        // Then
+        assertThat(leaderboard.isReady()).isTrue();
+        assertThat(leaderboard.top(LeaderboardWindow.ALL, 2)).extracting(OrderStatisticTree.Entry::userId)
+                .containsExactly(bob, alice);
+        assertThat(leaderboard.standing(carol, LeaderboardWindow.ALL))
+                .contains(new KarmaLeaderboard.Standing(3, 25, 3));
+    }
+
+    @Test
+    @DisplayName("Should move boards on votes and adjustments, ignoring self-votes")
+    void shouldApplyVotesAndAdjustments() {
+        // Given
+        when(userRepository.findKarmaOrderById(any(Pageable.class)))
+                .thenReturn(List.of(stored(alice, 10), stored(bob, 12)));
+        leaderboard.rebuild();
+
+        // When
+        leaderboard.onVoteCast(vote(carol, alice, 1));
+        leaderboard.onVoteCast(vote(carol, alice, 1));
+        leaderboard.onVoteCast(vote(carol, alice, 1));
+        leaderboard.onVoteCast(vote(bob, bob, 1));
+        leaderboard.onKarmaAdjusted(new KarmaAdjustedEvent(Map.of(bob, -5L)));
+
+        // Then
+        assertThat(leaderboard.top(LeaderboardWindow.ALL, 2)).containsExactly(
+                new OrderStatisticTree.Entry(alice, 13), new OrderStatisticTree.Entry(bob, 7));
+        assertThat(leaderboard.top(LeaderboardWindow.WEEK, 10)).containsExactly(
+                new OrderStatisticTree.Entry(alice, 3));
+        assertThat(leaderboard.standing(bob, LeaderboardWindow.WEEK)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should drop daily buckets as they fall out of each window")
+    void shouldExpireBucketsFromWindows() {
+        // Given
+        leaderboard.rebuild();
+        leaderboard.onVoteCast(vote(carol, alice, 1));
+        clock.advance(Duration.ofDays(3));
+        leaderboard.onVoteCast(vote(carol, bob, 1));
+        leaderboard.onVoteCast(vote(alice, bob, 1));
+
+        // When
+        clock.advance(Duration.ofDays(5));
+
+        // Then: alice's day-0 vote is 8 days old, bob's are 5
+        assertThat(leaderboard.top(LeaderboardWindow.WEEK, 10)).containsExactly(
+                new OrderStatisticTree.Entry(bob, 2));
+        assertThat(leaderboard.top(LeaderboardWindow.MONTH, 10)).containsExactly(
+                new OrderStatisticTree.Entry(bob, 2), new OrderStatisticTree.Entry(alice, 1));
+
+        clock.advance(Duration.ofDays(27));
+        assertThat(leaderboard.top(LeaderboardWindow.MONTH, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should flush buffered buckets and rebuild windows from the stored ones")
+    void shouldFlushAndRebuildWindows() {
+        // Given
+        LocalDate today = LocalDate.of(2026, 3, 10);
+        leaderboard.onVoteCast(vote(carol, alice, 1));
+        leaderboard.onVoteCast(vote(carol, alice, 1));
+
+        // When
+        int written = leaderboard.flush();
+
+        // Then
+        assertThat(written).isEqualTo(1);
+        verify(karmaDailyDeltaRepository).addDeltas(
+                Map.of(new KarmaDailyDelta.KarmaDailyDeltaId(alice, today), 2L));
+
+        // Given: buckets another instance wrote, one outside the week
+        when(karmaDailyDeltaRepository.findSince(today.minusDays(29))).thenReturn(List.of(
+                bucket(alice, today, 2), bucket(bob, today.minusDays(1), 4), bucket(carol, today.minusDays(10), 9)));
+
+        // When
+        leaderboard.rebuild();
+
+        // Then
+        assertThat(leaderboard.top(LeaderboardWindow.WEEK, 10)).extracting(OrderStatisticTree.Entry::userId)
+                .containsExactly(bob, alice);
+        assertThat(leaderboard.standing(carol, LeaderboardWindow.MONTH))
+                .contains(new KarmaLeaderboard.Standing(1, 9, 3));
+    }
+
+    @Test
+    @DisplayName("Should keep all-time changes delivered while or after a rebuild reads their user")
+    void shouldKeepChangesDeliveredDuringRebuild() {
+        // Given: while bob's batch is read, alice (already read) and bob gain karma, and carol
+        // gains karma that her own later batch reads back
+        when(userRepository.findKarmaOrderById(any(Pageable.class))).thenReturn(List.of(stored(alice, 10)));
+        when(userRepository.findKarmaAfterId(any(), any(Pageable.class))).thenAnswer(invocation -> {
+            UUID lastId = invocation.getArgument(0);
+            if (alice.equals(lastId)) {
+                leaderboard.onVoteCast(vote(carol, alice, 1));
+                leaderboard.onKarmaAdjusted(new KarmaAdjustedEvent(Map.of(bob, 5L, carol, 3L)));
+                return List.of(stored(bob, 12));
+            }
+            return bob.equals(lastId) ? List.of(stored(carol, 30)) : List.of();
+        });
+
+        // When
+        leaderboard.rebuild();
+
+        // Then
+        assertThat(leaderboard.top(LeaderboardWindow.ALL, 10)).containsExactly(
+                new OrderStatisticTree.Entry(carol, 30), new OrderStatisticTree.Entry(bob, 17),
+                new OrderStatisticTree.Entry(alice, 11));
+    }
+
+    @Test
+    @DisplayName("Should keep changes delivered while a first-seen user is read")
+    void shouldKeepChangesDeliveredWhileTracking() {
+        // Given: a second vote commits after alice's karma is read but before it is put on the board
+        leaderboard.rebuild();
+        Users stale = new Users();
+        stale.setKarma(5L);
+        when(userRepository.findById(alice)).thenAnswer(invocation -> {
+            leaderboard.onVoteCast(vote(bob, alice, 1));
+            return Optional.of(stale);
+        });
+
+        // When
+        leaderboard.onVoteCast(vote(carol, alice, 1));
+
+        // Then
+        assertThat(leaderboard.standing(alice, LeaderboardWindow.ALL))
+                .contains(new KarmaLeaderboard.Standing(1, 6, 1));
+        verify(userRepository).findById(alice);
+    }
+
+    private VoteCastEvent vote(UUID voterId, UUID authorId, int karmaDelta) {
+        return new VoteCastEvent(voterId, UUID.randomUUID(), Vote.VotableType.POST, authorId,
+                null, Vote.VoteValue.UPVOTE, karmaDelta);
+    }
+
+    private KarmaDailyDelta bucket(UUID userId, LocalDate day, long delta) {
+        return new KarmaDailyDelta(new KarmaDailyDelta.KarmaDailyDeltaId(userId, day), delta);
+    }
+
+    private UserRepository.StoredKarma stored(UUID userId, long karma) {
+        return new UserRepository.StoredKarma() {
+            @Override
+            public UUID getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Long getKarma() {
+                return karma;
+            }
+        };
+    }
+
+    private KarmaShardRepository.PendingKarma pending(UUID userId, long pending) {
+        return new KarmaShardRepository.PendingKarma() {
+            @Override
+            public UUID getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Long getPending() {
+                return pending;
+            }
+        };
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.nexus.feed.backend.Leaderboard.Service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("OrderStatisticTree Tests")
+class OrderStatisticTreeTest {
+
+    private static final Comparator<OrderStatisticTree.Entry> ORDER =
+            Comparator.comparingLong(OrderStatisticTree.Entry::score).reversed()
+                    .thenComparing(OrderStatisticTree.Entry::userId);
+
+    @Test
+    @DisplayName("Should order by score descending and break ties by user id")
+    void shouldOrderByScoreThenUserId() {
+        OrderStatisticTree tree = new OrderStatisticTree();
+        UUID low = new UUID(0, 1);
+        UUID high = new UUID(0, 2);
+        UUID leader = new UUID(0, 3);
+        tree.put(high, 10);
+        tree.put(low, 10);
+        tree.put(leader, 50);
+
+        assertThat(tree.range(0, 10)).extracting(OrderStatisticTree.Entry::userId)
+                .containsExactly(leader, low, high);
+        assertThat(tree.rank(high)).isEqualTo(3);
+        assertThat(tree.rank(UUID.randomUUID())).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep ranks and ranges consistent with a sorted list through random updates")
+    void shouldMatchSortedListThroughRandomUpdates() {
+        Random random = new Random(42);
+        OrderStatisticTree tree = new OrderStatisticTree();
+        Map<UUID, Long> expected = new HashMap<>();
+        List<UUID> users = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            users.add(UUID.randomUUID());
+        }
+
+        for (int step = 0; step < 5000; step++) {
+            UUID user = users.get(random.nextInt(users.size()));
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    long score = random.nextInt(100) - 20;
+                    tree.put(user, score);
+                    expected.put(user, score);
+                }
+                case 1 -> {
+                    long delta = random.nextInt(11) - 5;
+                    tree.add(user, delta);
+                    expected.merge(user, delta, Long::sum);
+                }
+                default -> assertThat(tree.remove(user)).isEqualTo(expected.remove(user) != null);
+            }
+        }
+
+        List<OrderStatisticTree.Entry> sorted = expected.entrySet().stream()
+                .map(e -> new OrderStatisticTree.Entry(e.getKey(), e.getValue()))
+                .sorted(ORDER)
+                .toList();
+        assertThat(tree.size()).isEqualTo(sorted.size());
+        assertThat(tree.range(0, Integer.MAX_VALUE)).isEqualTo(sorted);
+        assertThat(tree.range(17, 5)).isEqualTo(sorted.subList(17, 22));
+        assertThat(tree.range(sorted.size(), 5)).isEmpty();
+        for (int i = 0; i < sorted.size(); i++) {
+            assertThat(tree.rank(sorted.get(i).userId())).isEqualTo(i + 1);
+        }
+    }
+}
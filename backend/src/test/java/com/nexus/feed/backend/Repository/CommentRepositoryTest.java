@@ -5,11 +5,13 @@ import com.nexus.feed.backend.Auth.Repository.AppUserRepository;
 import com.nexus.feed.backend.Entity.Comment;
 import com.nexus.feed.backend.Entity.Post;
 import com.nexus.feed.backend.Entity.Users;
+import com.nexus.feed.backend.Entity.Vote;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
@@ -37,6 +39,12 @@ class CommentRepositoryTest {
     @Autowired
     private AppUserRepository appUserRepository;
 
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
     private Users user;
     private Post post;
     private Comment comment1;
@@ -181,4 +189,118 @@ class CommentRepositoryTest {
         // Then
         assertThat(replies).isEmpty();
     }
+
+    @Test
+    @DisplayName("Should limit replies per parent in a single query")
+    void shouldLimitRepliesPerParent() {
+        // Given - comment1 gets three more replies, comment2 has none
+        for (int i = 0; i < 3; i++) {
+            Comment extra = new Comment();
+            extra.setBody("Extra reply " + i);
+            extra.setUser(user);
+            extra.setPost(post);
+            extra.setParentComment(comment1);
+            commentRepository.save(extra);
+        }
+        List<UUID> parents = List.of(comment1.getId(), comment2.getId());
+
+        // When
+        List<UUID> firstTwo = commentRepository.findFirstReplyIdsPerParent(parents, 2).stream()
+                .map(UUID::fromString)
+                .toList();
+
+        // Then
+        assertThat(firstTwo).hasSize(2);
+        assertThat(commentRepository.findAllWithUserByIdIn(firstTwo))
+                .allMatch(c -> c.getParentComment().getId().equals(comment1.getId()));
+        assertThat(commentRepository.findParentIdsWithReplies(parents)).containsExactly(comment1.getId());
+    }
+
+    @Test
+    @DisplayName("Should page top-level comments by keyset without repeats")
+    void shouldPageTopLevelCommentsByKeyset() {
+        // Cursors come from stored rows, so read back the database's timestamp precision
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<Comment> first = commentRepository.findTopLevelByPostId(post.getId(), PageRequest.of(0, 1));
+        Comment last = first.get(0);
+        List<Comment> rest = commentRepository.findTopLevelByPostIdAfter(
+                post.getId(), last.getCreatedAt(), last.getId(), PageRequest.of(0, 10));
+
+        // Then
+        assertThat(rest).hasSize(1);
+        assertThat(List.of(first.get(0).getId(), rest.get(0).getId()))
+                .containsExactlyInAnyOrder(comment1.getId(), comment2.getId());
+    }
+
+    @Test
+    @DisplayName("Should maintain materialized paths and query subtrees by prefix")
+    void shouldQuerySubtreesByPathPrefix() {
+        // Given - comment1 -> reply -> nested
+        Comment nested = new Comment();
+        nested.setBody("Nested reply");
+        nested.setUser(user);
+        nested.setPost(post);
+        nested.setParentComment(reply);
+        commentRepository.save(nested);
+
+        // Then
+        assertThat(comment1.getPath()).isEmpty();
+        assertThat(reply.getPath()).isEqualTo(comment1.getId() + "/");
+        assertThat(nested.getPath()).isEqualTo(comment1.getId() + "/" + reply.getId() + "/");
+        assertThat(commentRepository.findDescendantAuthorIds(comment1.descendantPathPrefix()))
+                .containsExactly(user.getId());
+        assertThat(commentRepository.findDescendantAuthorIds(reply.descendantPathPrefix()))
+                .containsExactly(user.getId());
+        assertThat(commentRepository.findDescendantAuthorIds(comment2.descendantPathPrefix())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should delete votes on a comment subtree in one statement")
+    void shouldDeleteVotesOnCommentSubtree() {
+        // Given
+        for (Comment target : List.of(comment1, reply, comment2)) {
+            Vote vote = new Vote();
+            vote.setId(new Vote.VoteId(user.getId(), target.getId()));
+            vote.setVotableType(Vote.VotableType.COMMENT);
+            vote.setVoteValue(Vote.VoteValue.UPVOTE);
+            voteRepository.save(vote);
+        }
+        entityManager.flush();
+
+        // When
+        int deleted = voteRepository.deleteByCommentSubtree(comment1.getId(), comment1.descendantPathPrefix());
+
+        // Then
+        assertThat(deleted).isEqualTo(2);
+        entityManager.clear();
+        assertThat(voteRepository.findAll()).extracting(v -> v.getId().getVotableId())
+                .containsExactly(comment2.getId());
+    }
+
+    @Test
+    @DisplayName("Should backfill missing paths one hierarchy level at a time")
+    void shouldBackfillMissingPaths() {
+        // Given - rows written before the path column existed
+        entityManager.flush();
+        entityManager.getEntityManager().createNativeQuery("UPDATE comments SET path = NULL").executeUpdate();
+        int maxParentLength = Comment.MAX_PATH_LENGTH - Comment.PATH_SEGMENT_LENGTH;
+
+        // When
+        int roots = commentRepository.backfillTopLevelPaths(1) + commentRepository.backfillTopLevelPaths(10);
+        int replies = commentRepository.backfillReplyPaths(maxParentLength, 10);
+        int remaining = commentRepository.backfillTopLevelPaths(10)
+                + commentRepository.backfillReplyPaths(maxParentLength, 10);
+
+        // Then
+        assertThat(roots).isEqualTo(2);
+        assertThat(replies).isEqualTo(1);
+        assertThat(remaining).isZero();
+        entityManager.clear();
+        assertThat(commentRepository.findById(reply.getId()).orElseThrow().getPath())
+                .isEqualTo(comment1.getId() + "/");
+        assertThat(commentRepository.findById(comment2.getId()).orElseThrow().getPath()).isEmpty();
+    }
 }
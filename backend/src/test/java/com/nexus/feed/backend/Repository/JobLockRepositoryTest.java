@@ -0,0 +1,75 @@
+package com.nexus.feed.backend.Repository;
+
+import com.nexus.feed.backend.Entity.JobLock;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("JobLockRepository Tests")
+class JobLockRepositoryTest {
+
+    private static final String JOB = "test-job";
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    @DisplayName("Should create the lock row only once")
+    void shouldInsertClaimedOnce() {
+        Instant until = Instant.now().plus(1, ChronoUnit.MINUTES);
+
+        assertThat(jobLockRepository.insertClaimed(JOB, "a", until)).isEqualTo(1);
+        assertThat(jobLockRepository.insertClaimed(JOB, "b", until)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should let only the holder renew an unexpired lease")
+    void shouldClaimOnlyWhenFreeOrOwned() {
+        Instant now = Instant.now();
+        jobLockRepository.insertClaimed(JOB, "a", now.plus(1, ChronoUnit.MINUTES));
+
+        assertThat(jobLockRepository.claim(JOB, "b", now, now.plus(1, ChronoUnit.MINUTES))).isZero();
+        assertThat(jobLockRepository.claim(JOB, "a", now, now.plus(2, ChronoUnit.MINUTES))).isEqualTo(1);
+
+        Instant later = now.plus(3, ChronoUnit.MINUTES);
+        assertThat(jobLockRepository.claim(JOB, "b", later, later.plus(1, ChronoUnit.MINUTES))).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep the cursor across releases until the job completes")
+    void shouldTrackCursor() {
+        Instant now = Instant.now();
+        UUID cursor = UUID.randomUUID();
+        jobLockRepository.insertClaimed(JOB, "a", now.plus(1, ChronoUnit.MINUTES));
+
+        assertThat(jobLockRepository.saveCursor(JOB, "b", cursor, now)).isZero();
+        jobLockRepository.saveCursor(JOB, "a", cursor, now.plus(1, ChronoUnit.MINUTES));
+        jobLockRepository.release(JOB, "a");
+        assertThat(load().getResumeCursor()).isEqualTo(cursor);
+        assertThat(load().getLockedUntil()).isNull();
+
+        jobLockRepository.complete(JOB, "a", now);
+        JobLock lock = load();
+        assertThat(lock.getResumeCursor()).isNull();
+        assertThat(lock.getLastCompletedAt()).isNotNull();
+    }
+
+    private JobLock load() {
+        entityManager.clear();
+        return jobLockRepository.findById(JOB).orElseThrow();
+    }
+}
@@ -0,0 +1,57 @@
+package com.nexus.feed.backend.Repository;
+
+import com.nexus.feed.backend.Entity.KarmaDailyDelta;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("KarmaDailyDeltaRepository Tests")
+class KarmaDailyDeltaRepositoryTest {
+
+    @Autowired
+    private KarmaDailyDeltaRepository karmaDailyDeltaRepository;
+
+    private final LocalDate today = LocalDate.of(2026, 3, 10);
+    private final UUID userId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("Should add deltas to existing buckets and create missing ones")
+    void shouldAddDeltas() {
+        KarmaDailyDelta.KarmaDailyDeltaId todayBucket = new KarmaDailyDelta.KarmaDailyDeltaId(userId, today);
+        KarmaDailyDelta.KarmaDailyDeltaId lastWeek = new KarmaDailyDelta.KarmaDailyDeltaId(userId, today.minusDays(7));
+
+        karmaDailyDeltaRepository.addDeltas(Map.of(todayBucket, 3L, lastWeek, 1L));
+        karmaDailyDeltaRepository.addDeltas(Map.of(todayBucket, -1L));
+
+        assertThat(karmaDailyDeltaRepository.findById(todayBucket)).get()
+                .extracting(KarmaDailyDelta::getDelta).isEqualTo(2L);
+        assertThat(karmaDailyDeltaRepository.findById(lastWeek)).get()
+                .extracting(KarmaDailyDelta::getDelta).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should read buckets inside a window and prune older ones")
+    void shouldReadWindowAndPrune() {
+        karmaDailyDeltaRepository.addDeltas(Map.of(
+                new KarmaDailyDelta.KarmaDailyDeltaId(userId, today), 5L,
+                new KarmaDailyDelta.KarmaDailyDeltaId(userId, today.minusDays(40)), 8L));
+
+        List<KarmaDailyDelta> recent = karmaDailyDeltaRepository.findSince(today.minusDays(29));
+        int pruned = karmaDailyDeltaRepository.deleteBefore(today.minusDays(30));
+
+        assertThat(recent).extracting(KarmaDailyDelta::getDelta).containsExactly(5L);
+        assertThat(pruned).isEqualTo(1);
+        assertThat(karmaDailyDeltaRepository.count()).isEqualTo(1);
+    }
+}
@@ -3,19 +3,23 @@ package com.nexus.feed.backend.Repository;
 import com.nexus.feed.backend.Auth.Entity.AppUser;
 import com.nexus.feed.backend.Auth.Repository.AppUserRepository;
 import com.nexus.feed.backend.Entity.Post;
+import com.nexus.feed.backend.Entity.PostImage;
 import com.nexus.feed.backend.Entity.Tag;
 import com.nexus.feed.backend.Entity.Users;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.Instant;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -38,6 +42,9 @@ class PostRepositoryTest {
     @Autowired
     private TagRepository tagRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private Users user;
     private Post post1;
     private Post post2;
@@ -182,4 +189,115 @@ class PostRepositoryTest {
         // Then
         assertThat(found).isEmpty();
     }
+
+    @Test
+    @DisplayName("Should apply vote deltas to denormalized post counters")
+    void shouldApplyVoteDeltaToCounters() {
+        // When
+        postRepository.applyVoteDelta(post1.getId(), 1, 0, Instant.now());
+        postRepository.applyVoteDelta(post1.getId(), 1, 0, Instant.now());
+        postRepository.applyVoteDelta(post1.getId(), -1, 1, Instant.now());
+        entityManager.clear();
+
+        // Then
+        Post found = postRepository.findById(post1.getId()).orElseThrow();
+        assertThat(found.getUpvoteCount()).isEqualTo(1);
+        assertThat(found.getDownvoteCount()).isEqualTo(1);
+        assertThat(found.getScore()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not overwrite counters when saving a stale post entity")
+    void shouldNotOverwriteCountersFromStaleEntity() {
+        // Given
+        postRepository.applyVoteDelta(post1.getId(), 3, 0, Instant.now());
+
+        // When - post1 still holds the counters it was created with
+        post1.setTitle("Java Tutorial (edited)");
+        postRepository.saveAndFlush(post1);
+        entityManager.clear();
+
+        // Then
+        Post found = postRepository.findById(post1.getId()).orElseThrow();
+        assertThat(found.getTitle()).isEqualTo("Java Tutorial (edited)");
+        assertThat(found.getUpvoteCount()).isEqualTo(3);
+        assertThat(found.getScore()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should overwrite counters during reconciliation")
+    void shouldOverwriteCounters() {
+        // Given
+        postRepository.applyVoteDelta(post2.getId(), 5, 0, Instant.now());
+
+        // When
+        postRepository.overwriteCounters(post2.getId(), 2, 1, 4);
+        entityManager.clear();
+
+        // Then
+        Post found = postRepository.findById(post2.getId()).orElseThrow();
+        assertThat(found.getUpvoteCount()).isEqualTo(2);
+        assertThat(found.getDownvoteCount()).isEqualTo(1);
+        assertThat(found.getScore()).isEqualTo(1);
+        assertThat(found.getCommentCount()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should page every feed query in the database and hydrate collections for the page")
+    void shouldPageFeedQueriesWithoutInMemoryPagination() {
+        // Given - multi-row collections, so a collection JOIN FETCH on the paged query would multiply rows
+        Tag springTag = tagRepository.save(Tag.builder().name("spring").build());
+        post1.getTags().add(springTag);
+        post2.setTags(new HashSet<>(Set.of(javaTag, springTag)));
+        for (Post post : List.of(post1, post2)) {
+            for (int i = 0; i < 2; i++) {
+                PostImage image = new PostImage();
+                image.setPost(post);
+                image.setImageUrl("https://img.example.com/" + post.getTitle().hashCode() + "/" + i);
+                image.setOrderIndex(i);
+                entityManager.persist(image);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        PageRequest firstOfOne = PageRequest.of(0, 1);
+
+        // When - test profile sets fail_on_pagination_over_collection_fetch, so in-memory paging would throw
+        List<Page<Post>> pages = List.of(
+                postRepository.findAllOrderByCreatedAtDesc(firstOfOne),
+                postRepository.findByUserOrderByCreatedAtDesc(user, firstOfOne),
+                postRepository.findByTitleContainingOrBodyContainingOrderByCreatedAtDesc("i", firstOfOne),
+                postRepository.findByTagName("java", firstOfOne),
+                postRepository.findByTagNames(List.of("java", "spring"), firstOfOne),
+                postRepository.findAllOrderByBest(firstOfOne),
+                postRepository.findAllOrderByHot(firstOfOne),
+                postRepository.findAllOrderByReportsDesc(firstOfOne),
+                postRepository.findAllOrderByReportsAsc(firstOfOne));
+
+        // Then
+        for (Page<Post> page : pages) {
+            assertThat(page.getContent()).hasSize(1);
+            assertThat(page.getTotalElements()).isEqualTo(2);
+            Post post = page.getContent().get(0);
+            assertThat(Hibernate.isInitialized(post.getUser())).isTrue();
+            assertThat(Hibernate.isInitialized(post.getImages())).isTrue();
+            assertThat(Hibernate.isInitialized(post.getTags())).isTrue();
+            assertThat(post.getImages()).hasSize(2);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep id order when hydrating later pages")
+    void shouldKeepOrderAcrossPages() {
+        // When
+        Page<Post> first = postRepository.findAllOrderByCreatedAtDesc(PageRequest.of(0, 1));
+        Page<Post> second = postRepository.findAllOrderByCreatedAtDesc(PageRequest.of(1, 1));
+        Page<Post> beyond = postRepository.findAllOrderByCreatedAtDesc(PageRequest.of(2, 1));
+
+        // Then
+        assertThat(first.getContent()).extracting(Post::getTitle).containsExactly("Spring Boot Guide");
+        assertThat(second.getContent()).extracting(Post::getTitle).containsExactly("Java Tutorial");
+        assertThat(beyond.getContent()).isEmpty();
+        assertThat(beyond.getTotalElements()).isEqualTo(2);
+    }
 }
@@ -0,0 +1,55 @@
+package com.nexus.feed.backend.Repository;
+
+import com.nexus.feed.backend.Entity.TagHourlyCount;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("TagHourlyCountRepository Tests")
+class TagHourlyCountRepositoryTest {
+
+    @Autowired
+    private TagHourlyCountRepository tagHourlyCountRepository;
+
+    private final Instant hour = Instant.now().truncatedTo(ChronoUnit.HOURS);
+
+    @Test
+    @DisplayName("Should accumulate counts per tag and hour")
+    void shouldAccumulateCounts() {
+        TagHourlyCount.TagHourlyCountId java = new TagHourlyCount.TagHourlyCountId(1L, hour);
+        TagHourlyCount.TagHourlyCountId spring = new TagHourlyCount.TagHourlyCountId(2L, hour);
+
+        tagHourlyCountRepository.addCounts(Map.of(java, 1, spring, 1));
+        tagHourlyCountRepository.addCounts(Map.of(java, 2, spring, -1));
+
+        assertThat(tagHourlyCountRepository.findSince(hour.minus(Duration.ofDays(1))))
+                .extracting(count -> count.getId().getTagId(), TagHourlyCount::getPostCount)
+                .containsExactly(org.assertj.core.groups.Tuple.tuple(1L, 3));
+    }
+
+    @Test
+    @DisplayName("Should delete expired and emptied buckets")
+    void shouldDeleteExpiredBuckets() {
+        Instant old = hour.minus(Duration.ofDays(31));
+        tagHourlyCountRepository.addCounts(Map.of(
+                new TagHourlyCount.TagHourlyCountId(1L, hour), 2,
+                new TagHourlyCount.TagHourlyCountId(2L, hour), 0,
+                new TagHourlyCount.TagHourlyCountId(1L, old), 4));
+
+        int deleted = tagHourlyCountRepository.deleteExpired(hour.minus(Duration.ofDays(30)));
+
+        assertThat(deleted).isEqualTo(2);
+        assertThat(tagHourlyCountRepository.count()).isEqualTo(1);
+    }
+}
@@ -6,9 +6,11 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -64,7 +66,7 @@ class TagRepositoryTest {
     @DisplayName("Should search tags by name")
     void shouldSearchTagsByName() {
         // When
-        List<Tag> tags = tagRepository.searchByName("jav");
+        List<Tag> tags = tagRepository.searchByName("JAV", PageRequest.of(0, 10));
 
         // Then
         assertThat(tags).hasSize(1);
@@ -74,11 +76,78 @@ class TagRepositoryTest {
     @Test
     @DisplayName("Should find top tags")
     void shouldFindTopTags() {
+        // Given
+        tagRepository.adjustPostCount(List.of(springTag.getId()), 5);
+        tagRepository.adjustPostCount(List.of(pythonTag.getId(), springTag.getId()), 2);
+
         // When
-        List<Tag> tags = tagRepository.findTopTags();
+        List<Tag> tags = tagRepository.findTopTags(PageRequest.of(0, 2));
 
         // Then
-        assertThat(tags).hasSize(3);
+        assertThat(tags).extracting(Tag::getName).containsExactly("spring", "python");
+    }
+
+    @Test
+    @DisplayName("Should search by prefix, treating wildcards literally")
+    void shouldSearchTagsByPrefix() {
+        // Given
+        tagRepository.save(Tag.builder().name("py_test").build());
+        tagRepository.save(Tag.builder().name("pyxtest").build());
+
+        // When & Then
+        assertThat(tagRepository.searchByNamePrefix("py", PageRequest.of(0, 10)))
+                .extracting(Tag::getName).containsExactly("py_test", "python", "pyxtest");
+        assertThat(tagRepository.searchByNamePrefix("py\\_", PageRequest.of(0, 10)))
+                .extracting(Tag::getName).containsExactly("py_test");
+        assertThat(tagRepository.searchByNamePrefix("ava", PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should recount post counts that drifted from post_tags")
+    void shouldRecountPostCounts() {
+        // Given
+        tagRepository.adjustPostCount(List.of(javaTag.getId()), 4);
+
+        // When
+        int repaired = tagRepository.recountPostCounts();
+
+        // Then
+        assertThat(repaired).isEqualTo(1);
+        assertThat(tagRepository.findTopTags(PageRequest.of(0, 3)))
+                .extracting(Tag::getPostCount).containsOnly(0);
+    }
+
+    @Test
+    @DisplayName("Should find existing tag ids ignoring case and insert the missing names")
+    void shouldFindOrInsertTagIds() {
+        // Given
+        Tag legacy = tagRepository.save(Tag.builder().name("Kotlin").build());
+
+        // When
+        Map<String, Long> ids = tagRepository.findOrInsertIds(List.of("java", "kotlin", "rust"));
+
+        // Then
+        assertThat(ids).containsEntry("java", javaTag.getId()).containsEntry("kotlin", legacy.getId());
+        assertThat(tagRepository.findById(ids.get("rust"))).get().extracting(Tag::getName).isEqualTo("rust");
+        assertThat(tagRepository.findOrInsertIds(List.of("rust"))).isEqualTo(Map.of("rust", ids.get("rust")));
+        assertThat(tagRepository.count()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should only delete unused tags whose count and posts agree")
+    void shouldDeleteUnusedTags() {
+        // Given
+        tagRepository.adjustPostCount(List.of(springTag.getId()), 1);
+
+        // When
+        List<Long> candidates = tagRepository.findUnusedIdsAfter(0L, PageRequest.of(0, 10));
+        int deleted = tagRepository.deleteUnusedByIdIn(candidates);
+
+        // Then
+        assertThat(candidates).containsExactly(javaTag.getId(), pythonTag.getId());
+        assertThat(deleted).isEqualTo(2);
+        assertThat(tagRepository.findAll()).extracting(Tag::getName).containsExactly("spring");
+        assertThat(tagRepository.findUnusedIdsAfter(javaTag.getId(), PageRequest.of(0, 10))).isEmpty();
     }
 
     @Test
@@ -104,7 +173,7 @@ class TagRepositoryTest {
     @DisplayName("Should return empty list when no tags match search")
     void shouldReturnEmptyListWhenNoTagsMatchSearch() {
         // When
-        List<Tag> tags = tagRepository.searchByName("xyz");
+        List<Tag> tags = tagRepository.searchByName("xyz", PageRequest.of(0, 10));
 
         // Then
         assertThat(tags).isEmpty();
@@ -0,0 +1,96 @@
+package com.nexus.feed.backend.Repository;
+
+import com.nexus.feed.backend.Auth.Entity.AppUser;
+import com.nexus.feed.backend.Entity.Badge;
+import com.nexus.feed.backend.Entity.UserBadge;
+import com.nexus.feed.backend.Entity.Users;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("UserBadgeRepository Tests")
+class UserBadgeRepositoryTest {
+
+    @Autowired
+    private UserBadgeRepository userBadgeRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Users veteran;
+    private Users holder;
+    private Users newcomer;
+    private Badge badge;
+
+    @BeforeEach
+    void setUp() {
+        veteran = createUser("sweep_veteran");
+        holder = createUser("sweep_holder");
+        newcomer = createUser("sweep_newcomer");
+
+        badge = new Badge();
+        badge.setName("Newcomer");
+        badge.setCriteria("ACCOUNT_AGE_DAYS >= 7");
+        entityManager.persist(badge);
+
+        UserBadge held = new UserBadge();
+        held.setId(new UserBadge.UserBadgeId(holder.getId(), badge.getId()));
+        held.setUser(holder);
+        held.setBadge(badge);
+        entityManager.persist(held);
+        entityManager.flush();
+
+        // createdAt is set on persist, so age the accounts afterwards
+        entityManager.getEntityManager().createQuery("UPDATE Users u SET u.createdAt = :createdAt WHERE u.id <> :id")
+                .setParameter("createdAt", Instant.now().minus(10, ChronoUnit.DAYS))
+                .setParameter("id", newcomer.getId())
+                .executeUpdate();
+        entityManager.clear();
+    }
+
+    private Users createUser(String username) {
+        AppUser appUser = new AppUser();
+        appUser.setEmail(username + "@example.com");
+        appUser.setPassword("password");
+        Users user = new Users();
+        user.setUsername(username);
+        user.setAppUser(appUser);
+        appUser.setUserProfile(user);
+        entityManager.persist(appUser);
+        return user;
+    }
+
+    @Test
+    @DisplayName("Should find users old enough who do not hold the badge")
+    void shouldFindUsersMissingBadge() {
+        List<UUID> eligible = userBadgeRepository.findUserIdsMissingBadge(
+                List.of(veteran.getId(), holder.getId(), newcomer.getId()),
+                Instant.now().minus(7, ChronoUnit.DAYS), badge.getId());
+
+        assertThat(eligible).containsExactly(veteran.getId());
+    }
+
+    @Test
+    @DisplayName("Should insert awards in a batch and skip users who already hold the badge")
+    void shouldInsertAwards() {
+        List<UUID> awarded = userBadgeRepository.insertAwards(
+                badge.getId(), List.of(veteran.getId(), holder.getId()), Instant.now());
+
+        assertThat(awarded).containsExactly(veteran.getId());
+        assertThat(userBadgeRepository.findBadgeIdsByUserId(veteran.getId())).containsExactly(badge.getId());
+        assertThat(userBadgeRepository.count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,138 @@
+package com.nexus.feed.backend.Repository;
+
+import com.nexus.feed.backend.Auth.Entity.AppUser;
+import com.nexus.feed.backend.Entity.Comment;
+import com.nexus.feed.backend.Entity.Post;
+import com.nexus.feed.backend.Entity.UserStats;
+import com.nexus.feed.backend.Entity.Users;
+import com.nexus.feed.backend.Entity.Vote;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("UserStatsRepository Tests")
+class UserStatsRepositoryTest {
+
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Users author;
+    private Users voter;
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        author = createUser("stats_author");
+        voter = createUser("stats_voter");
+
+        post = new Post();
+        post.setTitle("Counted");
+        post.setBody("Body");
+        post.setUser(author);
+        entityManager.persist(post);
+
+        Comment comment = new Comment();
+        comment.setBody("Comment");
+        comment.setUser(author);
+        comment.setPost(post);
+        entityManager.persist(comment);
+
+        Vote vote = new Vote();
+        vote.setId(new Vote.VoteId(voter.getId(), post.getId()));
+        vote.setVotableType(Vote.VotableType.POST);
+        vote.setVoteValue(Vote.VoteValue.UPVOTE);
+        entityManager.persist(vote);
+        entityManager.flush();
+    }
+
+    private Users createUser(String username) {
+        AppUser appUser = new AppUser();
+        appUser.setEmail(username + "@example.com");
+        appUser.setPassword("password");
+        Users user = new Users();
+        user.setUsername(username);
+        user.setAppUser(appUser);
+        appUser.setUserProfile(user);
+        entityManager.persist(appUser);
+        return user;
+    }
+
+    private UserStats load(UUID userId) {
+        entityManager.clear();
+        return userStatsRepository.findById(userId).orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Should seed a row from the source tables, including unflushed writes")
+    void shouldInsertCountedRow() {
+        Post unflushed = new Post();
+        unflushed.setTitle("Second");
+        unflushed.setBody("Body");
+        unflushed.setUser(author);
+        postRepository.save(unflushed);
+
+        assertThat(userStatsRepository.insertCounted(author.getId(), Instant.now())).isEqualTo(1);
+        assertThat(userStatsRepository.insertCounted(author.getId(), Instant.now())).isZero();
+
+        UserStats stats = load(author.getId());
+        assertThat(stats.getPostCount()).isEqualTo(2);
+        assertThat(stats.getCommentCount()).isEqualTo(1);
+        assertThat(stats.getVoteCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should adjust only existing rows")
+    void shouldAdjustExistingRows() {
+        assertThat(userStatsRepository.adjustVoteCount(voter.getId(), 1, Instant.now())).isZero();
+
+        userStatsRepository.insertCounted(voter.getId(), Instant.now());
+        assertThat(userStatsRepository.adjustVoteCount(voter.getId(), 1, Instant.now())).isEqualTo(1);
+
+        assertThat(load(voter.getId()).getVoteCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should recount drifted rows")
+    void shouldRecount() {
+        userStatsRepository.insertCounted(author.getId(), Instant.now());
+        userStatsRepository.adjustPostCount(author.getId(), 5, Instant.now());
+        userStatsRepository.adjustCommentCount(author.getId(), -1, Instant.now());
+
+        userStatsRepository.recount(List.of(author.getId()), Instant.now());
+
+        UserStats stats = load(author.getId());
+        assertThat(stats.getPostCount()).isEqualTo(1);
+        assertThat(stats.getCommentCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should count activity grouped by user")
+    void shouldCountByUserIds() {
+        List<UUID> ids = List.of(author.getId(), voter.getId());
+
+        assertThat(userStatsRepository.countPostsByUserIds(ids))
+                .extracting(UserStatsRepository.UserCount::getUserId, UserStatsRepository.UserCount::getCount)
+                .containsExactly(org.assertj.core.groups.Tuple.tuple(author.getId(), 1L));
+        assertThat(userStatsRepository.countVotesByUserIds(ids))
+                .extracting(UserStatsRepository.UserCount::getUserId, UserStatsRepository.UserCount::getCount)
+                .containsExactly(org.assertj.core.groups.Tuple.tuple(voter.getId(), 1L));
+    }
+}
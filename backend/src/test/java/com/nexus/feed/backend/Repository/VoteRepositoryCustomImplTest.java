@@ -0,0 +1,87 @@
+package com.nexus.feed.backend.Repository;
+
+import com.nexus.feed.backend.Entity.Vote;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Covers how the PostgreSQL writable-CTE result is read; the CTE itself only runs
+ * against PostgreSQL, which the test suite does not start.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("VoteRepositoryCustomImpl PostgreSQL Path Tests")
+class VoteRepositoryCustomImplTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private VoteRepositoryCustomImpl repository;
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID votableId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        repository = new VoteRepositoryCustomImpl(jdbcTemplate);
+        ReflectionTestUtils.setField(repository, "postgres", true);
+    }
+
+    private static ResultSet row(String oldValue, String newValue, long removed, long changed, long created)
+            throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        lenient().when(rs.getString("old_value")).thenReturn(oldValue);
+        lenient().when(rs.getString("new_value")).thenReturn(newValue);
+        lenient().when(rs.getLong("removed")).thenReturn(removed);
+        lenient().when(rs.getLong("changed")).thenReturn(changed);
+        lenient().when(rs.getLong("created")).thenReturn(created);
+        return rs;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void returnRows(ResultSet... rows) {
+        int[] call = {0};
+        when(jdbcTemplate.queryForObject(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenAnswer(invocation -> invocation.<RowMapper<?>>getArgument(2).mapRow(rows[call[0]++], 0));
+    }
+
+    @Test
+    @DisplayName("Should retry when the locked row changed under the snapshot and nothing was written")
+    void shouldRetryWhenLockedRowChangedUnderSnapshot() throws Exception {
+        // A concurrent UP->DOWN flip: old sees DOWNVOTE, removed and changed both skipped the row
+        returnRows(row("DOWNVOTE", null, 0, 0, 0), row("DOWNVOTE", null, 1, 0, 0));
+
+        VoteRepositoryCustom.VoteTransition transition =
+                repository.castVote(userId, votableId, Vote.VotableType.POST, Vote.VoteValue.DOWNVOTE);
+
+        assertThat(transition).isEqualTo(new VoteRepositoryCustom.VoteTransition(Vote.VoteValue.DOWNVOTE, null));
+        verify(jdbcTemplate, times(2)).queryForObject(anyString(), any(SqlParameterSource.class), any(RowMapper.class));
+    }
+
+    @Test
+    @DisplayName("Should retry when a concurrent first vote won the insert")
+    void shouldRetryWhenConcurrentInsertWon() throws Exception {
+        returnRows(row(null, null, 0, 0, 0), row("UPVOTE", "DOWNVOTE", 0, 1, 0));
+
+        VoteRepositoryCustom.VoteTransition transition =
+                repository.castVote(userId, votableId, Vote.VotableType.POST, Vote.VoteValue.DOWNVOTE);
+
+        assertThat(transition)
+                .isEqualTo(new VoteRepositoryCustom.VoteTransition(Vote.VoteValue.UPVOTE, Vote.VoteValue.DOWNVOTE));
+    }
+}
@@ -2,6 +2,7 @@ package com.nexus.feed.backend.Repository;
 
 import com.nexus.feed.backend.Auth.Entity.AppUser;
 import com.nexus.feed.backend.Auth.Repository.AppUserRepository;
+import com.nexus.feed.backend.Entity.Comment;
 import com.nexus.feed.backend.Entity.Post;
 import com.nexus.feed.backend.Entity.Users;
 import com.nexus.feed.backend.Entity.Vote;
@@ -19,6 +20,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DataJpaTest
 @ActiveProfiles("test")
@@ -34,6 +36,9 @@ class VoteRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CommentRepository commentRepository;
+
     @Autowired
     private AppUserRepository appUserRepository;
 
@@ -252,4 +257,66 @@ class VoteRepositoryTest {
         // Then
         assertThat(voteCounts).isEmpty();
     }
+
+    @Test
+    @DisplayName("Should cast votes with toggle semantics and report each transition")
+    void shouldCastVotesWithToggleSemantics() {
+        UUID voter = user2.getId();
+        UUID postId = post1.getId();
+
+        // Insert, flip, toggle off
+        assertThat(voteRepository.castVote(voter, postId, Vote.VotableType.POST, Vote.VoteValue.UPVOTE))
+                .isEqualTo(new VoteRepository.VoteTransition(null, Vote.VoteValue.UPVOTE));
+        assertThat(voteRepository.castVote(voter, postId, Vote.VotableType.POST, Vote.VoteValue.DOWNVOTE))
+                .isEqualTo(new VoteRepository.VoteTransition(Vote.VoteValue.UPVOTE, Vote.VoteValue.DOWNVOTE));
+        assertThat(voteRepository.findByUserIdAndVotableIdAndVotableType(voter, postId, Vote.VotableType.POST))
+                .map(Vote::getVoteValue)
+                .contains(Vote.VoteValue.DOWNVOTE);
+
+        VoteRepository.VoteTransition removed =
+                voteRepository.castVote(voter, postId, Vote.VotableType.POST, Vote.VoteValue.DOWNVOTE);
+
+        assertThat(removed).isEqualTo(new VoteRepository.VoteTransition(Vote.VoteValue.DOWNVOTE, null));
+        assertThat(removed.karmaDelta()).isEqualTo(1);
+        assertThat(voteRepository.findByUserIdAndVotableIdAndVotableType(voter, postId, Vote.VotableType.POST))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should sum karma on a comment subtree by author, ignoring self-votes")
+    void shouldSumKarmaOnCommentSubtree() {
+        // Given
+        Comment parent = new Comment();
+        parent.setBody("Parent");
+        parent.setUser(user1);
+        parent.setPost(post1);
+        commentRepository.save(parent);
+        Comment reply = new Comment();
+        reply.setBody("Reply");
+        reply.setUser(user2);
+        reply.setPost(post1);
+        reply.setParentComment(parent);
+        commentRepository.save(reply);
+
+        voteRepository.save(new Vote(new Vote.VoteId(user2.getId(), parent.getId()), Vote.VotableType.COMMENT, Vote.VoteValue.UPVOTE));
+        voteRepository.save(new Vote(new Vote.VoteId(user1.getId(), reply.getId()), Vote.VotableType.COMMENT, Vote.VoteValue.DOWNVOTE));
+        voteRepository.save(new Vote(new Vote.VoteId(user2.getId(), reply.getId()), Vote.VotableType.COMMENT, Vote.VoteValue.UPVOTE));
+        voteRepository.save(new Vote(new Vote.VoteId(user2.getId(), post1.getId()), Vote.VotableType.POST, Vote.VoteValue.UPVOTE));
+        voteRepository.flush();
+
+        // When
+        List<VoteRepository.AuthorKarma> subtree =
+                voteRepository.sumKarmaOnCommentSubtree(parent.getId(), parent.descendantPathPrefix());
+        List<VoteRepository.AuthorKarma> onPost = voteRepository.sumKarmaOnPost(post1.getId());
+        List<VoteRepository.AuthorKarma> byAuthor = voteRepository.sumCommentKarmaByAuthors(List.of(user1.getId(), user2.getId()));
+
+        // Then
+        assertThat(subtree)
+                .extracting(VoteRepository.AuthorKarma::getUserId, VoteRepository.AuthorKarma::getKarma)
+                .containsExactlyInAnyOrder(tuple(user1.getId(), 1L), tuple(user2.getId(), -1L));
+        assertThat(onPost)
+                .extracting(VoteRepository.AuthorKarma::getUserId, VoteRepository.AuthorKarma::getKarma)
+                .containsExactly(tuple(user1.getId(), 1L));
+        assertThat(byAuthor).hasSize(2);
+    }
 }
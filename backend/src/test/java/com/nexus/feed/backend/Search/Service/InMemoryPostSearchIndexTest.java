@@ -0,0 +1,142 @@
+package com.nexus.feed.backend.Search.Service;
+
+import com.nexus.feed.backend.Event.PostDeletedEvent;
+import com.nexus.feed.backend.Event.PostUpdatedEvent;
+import com.nexus.feed.backend.Repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InMemoryPostSearchIndex Unit Tests")
+class InMemoryPostSearchIndexTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @InjectMocks
+    private InMemoryPostSearchIndex searchIndex;
+
+    private final Instant now = Instant.now();
+    private final UUID springTitle = UUID.randomUUID();
+    private final UUID springBody = UUID.randomUUID();
+    private final UUID unrelated = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        searchIndex.index(springTitle, "Spring Boot tips", "Some configuration advice", now.minusSeconds(30));
+        searchIndex.index(springBody, "Weekend notes", "Tried spring boot for a side project", now);
+        searchIndex.index(unrelated, "Gardening", "Tomatoes need sun", now.minusSeconds(60));
+    }
+
+    private List<UUID> search(String query) {
+        return searchIndex.search(query, PageRequest.of(0, 10)).getContent();
+    }
+
+    @Test
+    @DisplayName("Should rank a title match above a body match")
+    void shouldRankTitleMatchAboveBodyMatch() {
+        assertThat(search("spring")).containsExactly(springTitle, springBody);
+    }
+
+    @Test
+    @DisplayName("Should favour posts matching more query terms")
+    void shouldFavourPostsMatchingMoreTerms() {
+        searchIndex.index(unrelated, "Gardening", "Spring planting for tomatoes", now.minusSeconds(60));
+
+        assertThat(search("spring tomatoes").get(0)).isEqualTo(unrelated);
+    }
+
+    @Test
+    @DisplayName("Should match case-insensitively and on word prefixes")
+    void shouldMatchCaseInsensitivelyAndOnPrefixes() {
+        assertThat(search("TOMATO")).containsExactly(unrelated);
+        assertThat(search("config")).containsExactly(springTitle);
+        assertThat(search("kubernetes")).isEmpty();
+        assertThat(search("  ")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should page results and report the total match count")
+    void shouldPageResults() {
+        Page<UUID> second = searchIndex.search("spring", PageRequest.of(1, 1));
+
+        assertThat(second.getContent()).containsExactly(springBody);
+        assertThat(second.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reindex updated posts and drop deleted ones")
+    void shouldApplyUpdatesAndDeletes() {
+        when(postRepository.findSearchDocumentById(springTitle))
+                .thenReturn(Optional.of(document(springTitle, "Release checklist", "Nothing seasonal here")));
+
+        searchIndex.onPostUpdated(new PostUpdatedEvent(springTitle));
+        searchIndex.onPostDeleted(new PostDeletedEvent(springBody));
+
+        assertThat(search("spring")).isEmpty();
+        assertThat(search("checklist")).containsExactly(springTitle);
+    }
+
+    @Test
+    @DisplayName("Should become ready after rebuilding from the database in batches")
+    void shouldRebuildFromDatabase() {
+        UUID stored = UUID.randomUUID();
+        when(postRepository.findSearchDocumentsOrderById(any(Pageable.class)))
+                .thenReturn(List.of(document(stored, "Rust ownership", "Borrow checker explained")));
+        when(postRepository.findSearchDocumentsAfterId(any(UUID.class), any(Pageable.class))).thenReturn(List.of());
+
+        assertThat(searchIndex.isReady()).isFalse();
+        searchIndex.rebuild();
+
+        assertThat(searchIndex.isReady()).isTrue();
+        assertThat(search("borrow")).containsExactly(stored);
+    }
+
+    @Test
+    @DisplayName("Should tokenize on non-alphanumeric characters")
+    void shouldTokenize() {
+        assertThat(InMemoryPostSearchIndex.tokenize("Héllo, World! C3PO's  v2.0"))
+                .containsExactly("héllo", "world", "c3po", "s", "v2", "0");
+    }
+
+    private PostRepository.SearchDocument document(UUID id, String title, String body) {
+        return new PostRepository.SearchDocument() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public String getBody() {
+                return body;
+            }
+
+            @Override
+            public Instant getCreatedAt() {
+                return now;
+            }
+        };
+    }
+}
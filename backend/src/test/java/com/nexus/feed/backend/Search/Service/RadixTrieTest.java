@@ -0,0 +1,85 @@
+package com.nexus.feed.backend.Search.Service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RadixTrie Tests")
+class RadixTrieTest {
+
+    private static final Comparator<RadixTrie.Entry> ORDER =
+            Comparator.comparingLong(RadixTrie.Entry::weight).reversed().thenComparing(RadixTrie.Entry::name);
+
+    @Test
+    @DisplayName("Should complete prefixes that end inside a compressed edge, heaviest first")
+    void shouldCompletePrefixesInsideEdges() {
+        RadixTrie trie = new RadixTrie(10);
+        trie.put(1L, "java", 7);
+        trie.put(2L, "javascript", 12);
+        trie.put(3L, "jakarta", 2);
+        trie.put(4L, "Kotlin", 3);
+
+        assertThat(trie.complete("ja", 10)).extracting(RadixTrie.Entry::name)
+                .containsExactly("javascript", "java", "jakarta");
+        assertThat(trie.complete("javas", 10)).extracting(RadixTrie.Entry::name).containsExactly("javascript");
+        assertThat(trie.complete("KOT", 10)).extracting(RadixTrie.Entry::name).containsExactly("Kotlin");
+        assertThat(trie.complete("jx", 10)).isEmpty();
+        assertThat(trie.complete("javascripts", 10)).isEmpty();
+
+        trie.adjust(2L, "javascript", -12);
+        assertThat(trie.size()).isEqualTo(3);
+        assertThat(trie.complete("jav", 10)).extracting(RadixTrie.Entry::name).containsExactly("java");
+    }
+
+    @Test
+    @DisplayName("Should match a brute-force prefix scan through random updates")
+    void shouldMatchBruteForceThroughRandomUpdates() {
+        Random random = new Random(7);
+        RadixTrie trie = new RadixTrie(5);
+        Map<String, Long> expected = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            StringBuilder name = new StringBuilder();
+            int length = 1 + random.nextInt(6);
+            for (int c = 0; c < length; c++) {
+                name.append((char) ('a' + random.nextInt(3)));
+            }
+            names.add(name.toString());
+        }
+
+        for (int step = 0; step < 5000; step++) {
+            String name = names.get(random.nextInt(names.size()));
+            if (random.nextInt(4) == 0) {
+                assertThat(trie.remove(name)).isEqualTo(expected.remove(name) != null);
+            } else {
+                long delta = random.nextInt(9) - 3;
+                trie.adjust((long) name.hashCode(), name, delta);
+                long weight = expected.getOrDefault(name, 0L) + delta;
+                if (weight > 0) {
+                    expected.put(name, weight);
+                } else {
+                    expected.remove(name);
+                }
+            }
+        }
+
+        assertThat(trie.size()).isEqualTo(expected.size());
+        for (String prefix : List.of("", "a", "b", "ab", "cc", "abc", "bacab")) {
+            List<RadixTrie.Entry> matches = expected.entrySet().stream()
+                    .filter(e -> e.getKey().startsWith(prefix))
+                    .map(e -> new RadixTrie.Entry((long) e.getKey().hashCode(), e.getKey(), e.getValue()))
+                    .sorted(ORDER)
+                    .limit(5)
+                    .toList();
+            assertThat(trie.complete(prefix, 10)).as(prefix).isEqualTo(matches);
+        }
+    }
+}
@@ -2,21 +2,28 @@ package com.nexus.feed.backend.Service;
 
 import com.nexus.feed.backend.Auth.Entity.AppUser;
 import com.nexus.feed.backend.Email.Service.EmailService;
-import com.nexus.feed.backend.Entity.Badge;
+import com.nexus.feed.backend.Entity.UserStats;
 import com.nexus.feed.backend.Entity.Users;
 import com.nexus.feed.backend.Repository.*;
+import com.nexus.feed.backend.Service.BadgeCriteria.Metric;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -27,17 +34,13 @@ class BadgeAwardingServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
-    private PostRepository postRepository;
+    private UserStatsService userStatsService;
     @Mock
-    private VoteRepository voteRepository;
-    @Mock
-    private CommentRepository commentRepository;
-    @Mock
-    private BadgeRepository badgeRepository;
+    private KarmaService karmaService;
     @Mock
     private UserBadgeRepository userBadgeRepository;
     @Mock
-    private BadgeService badgeService;
+    private BadgeCatalog badgeCatalog;
     @Mock
     private EmailService emailService;
 
@@ -46,8 +49,8 @@ class BadgeAwardingServiceImplTest {
 
     private UUID userId;
     private Users user;
-    private Badge badge;
-    private Integer badgeId;
+    private BadgeCatalog.Rule firstPost;
+    private BadgeCatalog.Rule storyteller;
 
     @BeforeEach
     void setUp() {
@@ -61,27 +64,25 @@ class BadgeAwardingServiceImplTest {
         appUser.setEmail("test@example.com");
         user.setAppUser(appUser);
 
-        badgeId = 1;
-        badge = new Badge();
-        badge.setId(badgeId);
-        badge.setName("First Post");
-        badge.setDescription("Created your first post");
-        badge.setIconUrl("🎉");
+        firstPost = new BadgeCatalog.Rule(1, "First Post", "Created your first post", "🎉",
+                BadgeCriteria.parse("POSTS >= 1"));
+        storyteller = rule(2, "Storyteller", "POSTS >= 5");
+        ReflectionTestUtils.setField(badgeAwardingService, "heldCacheMaxUsers", 100);
     }
 
     @Test
     void checkPostBadges_shouldAwardFirstPostBadge_whenUserHasOnePost() {
         // Given
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(postRepository.countByUser(user)).thenReturn(1L);
-        when(badgeRepository.findByName("First Post")).thenReturn(Optional.of(badge));
-        when(userBadgeRepository.existsByIdUserIdAndIdBadgeId(userId, badgeId)).thenReturn(false);
+        when(userStatsService.getStats(userId)).thenReturn(stats(1, 0, 0));
+        when(badgeCatalog.rulesFor(Metric.POSTS)).thenReturn(List.of(firstPost, storyteller));
+        stubAward(1);
 
         // When
         badgeAwardingService.checkPostBadges(userId);
 
         // Then
-        verify(badgeService).awardBadgeToUser(userId, badgeId);
+        verify(userBadgeRepository, never()).insertAwards(eq(2), any(), any());
         verify(emailService).sendBadgeAwardedEmail(
             eq("test@example.com"),
             eq("testuser"),
@@ -94,130 +95,143 @@ class BadgeAwardingServiceImplTest {
     @Test
     void checkPostBadges_shouldNotAwardBadge_whenUserAlreadyHasIt() {
         // Given
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(postRepository.countByUser(user)).thenReturn(1L);
-        when(badgeRepository.findByName("First Post")).thenReturn(Optional.of(badge));
-        when(userBadgeRepository.existsByIdUserIdAndIdBadgeId(userId, badgeId)).thenReturn(true);
+        when(userStatsService.getStats(userId)).thenReturn(stats(1, 0, 0));
+        when(badgeCatalog.rulesFor(Metric.POSTS)).thenReturn(List.of(firstPost, storyteller));
+        when(userBadgeRepository.findBadgeIdsByUserId(userId)).thenReturn(List.of(1));
 
         // When
         badgeAwardingService.checkPostBadges(userId);
 
         // Then
-        verify(badgeService, never()).awardBadgeToUser(any(), any());
+        verify(userBadgeRepository, never()).insertAwards(any(), any(), any());
         verify(emailService, never()).sendBadgeAwardedEmail(any(), any(), any(), any(), any());
     }
 
     @Test
     void checkPostBadges_shouldAwardStorytellerBadge_whenUserHasFivePosts() {
         // Given
-        Integer storytellerBadgeId = 2;
-        Badge storytellerBadge = new Badge();
-        storytellerBadge.setId(storytellerBadgeId);
-        storytellerBadge.setName("Storyteller");
-        storytellerBadge.setDescription("Created 5 posts");
-        storytellerBadge.setIconUrl("📝");
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userStatsService.getStats(userId)).thenReturn(stats(5, 0, 0));
+        when(badgeCatalog.rulesFor(Metric.POSTS)).thenReturn(List.of(firstPost, storyteller));
+        stubAward(1);
+        stubAward(2);
+
+        // When
+        badgeAwardingService.checkPostBadges(userId);
 
+        // Then
+        verify(emailService, times(2)).sendBadgeAwardedEmail(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void checkPostBadges_shouldRememberHeldBadges_betweenChecks() {
+        // Given
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(postRepository.countByUser(user)).thenReturn(5L);
-        when(badgeRepository.findByName("First Post")).thenReturn(Optional.of(badge));
-        when(badgeRepository.findByName("Storyteller")).thenReturn(Optional.of(storytellerBadge));
-        when(userBadgeRepository.existsByIdUserIdAndIdBadgeId(userId, badgeId)).thenReturn(false);
-        when(userBadgeRepository.existsByIdUserIdAndIdBadgeId(userId, storytellerBadgeId)).thenReturn(false);
+        when(userStatsService.getStats(userId)).thenReturn(stats(1, 0, 0));
+        when(badgeCatalog.rulesFor(Metric.POSTS)).thenReturn(List.of(firstPost, storyteller));
+        stubAward(1);
+
+        // When
+        badgeAwardingService.checkPostBadges(userId);
+        badgeAwardingService.checkPostBadges(userId);
+
+        // Then - held badges are loaded once and the award is not retried
+        verify(userBadgeRepository, times(1)).findBadgeIdsByUserId(userId);
+        verify(userBadgeRepository, times(1)).insertAwards(eq(1), eq(List.of(userId)), any(Instant.class));
+    }
+
+    @Test
+    void checkPostBadges_shouldNotLoadHeldBadges_whenNoThresholdIsCrossed() {
+        // Given
+        when(userStatsService.getStats(userId)).thenReturn(stats(0, 0, 0));
+        when(badgeCatalog.rulesFor(Metric.POSTS)).thenReturn(List.of(firstPost, storyteller));
 
         // When
         badgeAwardingService.checkPostBadges(userId);
 
         // Then
-        verify(badgeService).awardBadgeToUser(userId, badgeId);
-        verify(badgeService).awardBadgeToUser(userId, storytellerBadgeId);
+        verifyNoInteractions(userBadgeRepository);
     }
 
     @Test
-    void checkCommentBadges_shouldAwardFirstCommentBadge_whenUserHasOneComment() {
+    void checkPostBadges_shouldTreatDuplicateAwardAsHeld() {
         // Given
-        Integer firstCommentBadgeId = 3;
-        Badge firstCommentBadge = new Badge();
-        firstCommentBadge.setId(firstCommentBadgeId);
-        firstCommentBadge.setName("First Comment");
-        firstCommentBadge.setDescription("Made your first comment");
-        firstCommentBadge.setIconUrl("💭");
+        when(userStatsService.getStats(userId)).thenReturn(stats(1, 0, 0));
+        when(badgeCatalog.rulesFor(Metric.POSTS)).thenReturn(List.of(firstPost));
+        when(userBadgeRepository.insertAwards(eq(1), eq(List.of(userId)), any(Instant.class))).thenReturn(List.of());
+
+        // When
+        badgeAwardingService.checkPostBadges(userId);
+        badgeAwardingService.checkPostBadges(userId);
 
+        // Then
+        verify(userBadgeRepository, times(1)).insertAwards(eq(1), eq(List.of(userId)), any(Instant.class));
+        verify(userRepository, never()).findById(any());
+        verify(emailService, never()).sendBadgeAwardedEmail(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void checkCommentBadges_shouldAwardFirstCommentBadge_whenUserHasOneComment() {
+        // Given
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(commentRepository.countByUser(user)).thenReturn(1L);
-        when(badgeRepository.findByName("First Comment")).thenReturn(Optional.of(firstCommentBadge));
-        when(userBadgeRepository.existsByIdUserIdAndIdBadgeId(userId, firstCommentBadgeId)).thenReturn(false);
+        when(userStatsService.getStats(userId)).thenReturn(stats(0, 1, 0));
+        when(badgeCatalog.rulesFor(Metric.COMMENTS))
+                .thenReturn(List.of(rule(3, "First Comment", "COMMENTS >= 1")));
+        stubAward(3);
 
         // When
         badgeAwardingService.checkCommentBadges(userId);
 
         // Then
-        verify(badgeService).awardBadgeToUser(userId, firstCommentBadgeId);
+        verify(emailService).sendBadgeAwardedEmail(any(), any(), eq("First Comment"), any(), any());
     }
 
     @Test
     void checkKarmaBadges_shouldAwardGettingStartedBadge_whenUserHas10Karma() {
         // Given
-        Integer karmaBadgeId = 4;
-        Badge karmaBadge = new Badge();
-        karmaBadge.setId(karmaBadgeId);
-        karmaBadge.setName("Getting Started");
-        karmaBadge.setDescription("Reached 10 karma");
-        karmaBadge.setIconUrl("🌱");
-
-        user.setKarma(10L);
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(badgeRepository.findByName("Getting Started")).thenReturn(Optional.of(karmaBadge));
-        when(userBadgeRepository.existsByIdUserIdAndIdBadgeId(userId, karmaBadgeId)).thenReturn(false);
+        when(karmaService.getKarma(user)).thenReturn(10L);
+        when(badgeCatalog.rulesFor(Metric.KARMA)).thenReturn(List.of(
+                rule(4, "Getting Started", "KARMA >= 10"), rule(7, "Rising Star", "KARMA >= 50")));
+        stubAward(4);
 
         // When
         badgeAwardingService.checkKarmaBadges(userId);
 
         // Then
-        verify(badgeService).awardBadgeToUser(userId, karmaBadgeId);
+        verify(emailService).sendBadgeAwardedEmail(any(), any(), eq("Getting Started"), any(), any());
+        verify(userBadgeRepository, never()).insertAwards(eq(7), any(), any());
     }
 
     @Test
     void checkVoteBadges_shouldAwardFirstVoteBadge_whenUserHasOneVote() {
         // Given
-        Integer voteBadgeId = 5;
-        Badge voteBadge = new Badge();
-        voteBadge.setId(voteBadgeId);
-        voteBadge.setName("First Vote");
-        voteBadge.setDescription("Cast your first vote");
-        voteBadge.setIconUrl("👍");
-
-        when(voteRepository.countByUserId(userId)).thenReturn(1L);
-        when(badgeRepository.findByName("First Vote")).thenReturn(Optional.of(voteBadge));
-        when(userBadgeRepository.existsByIdUserIdAndIdBadgeId(userId, voteBadgeId)).thenReturn(false);
+        when(userStatsService.getStats(userId)).thenReturn(stats(0, 0, 1));
+        when(badgeCatalog.rulesFor(Metric.VOTES)).thenReturn(List.of(rule(5, "First Vote", "VOTES >= 1")));
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        stubAward(5);
 
         // When
         badgeAwardingService.checkVoteBadges(userId);
 
         // Then
-        verify(badgeService).awardBadgeToUser(userId, voteBadgeId);
+        verify(emailService).sendBadgeAwardedEmail(any(), any(), eq("First Vote"), any(), any());
     }
 
     @Test
     void checkAccountAgeBadges_shouldAwardNewcomerBadge_whenAccountIs7DaysOld() {
         // Given
-        Integer newcomerBadgeId = 6;
-        Badge newcomerBadge = new Badge();
-        newcomerBadge.setId(newcomerBadgeId);
-        newcomerBadge.setName("Newcomer");
-        newcomerBadge.setDescription("Member for 7 days");
-        newcomerBadge.setIconUrl("👋");
-
         user.setCreatedAt(Instant.now().minus(8, ChronoUnit.DAYS));
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(badgeRepository.findByName("Newcomer")).thenReturn(Optional.of(newcomerBadge));
-        when(userBadgeRepository.existsByIdUserIdAndIdBadgeId(userId, newcomerBadgeId)).thenReturn(false);
+        when(badgeCatalog.rulesFor(Metric.ACCOUNT_AGE_DAYS))
+                .thenReturn(List.of(rule(6, "Newcomer", "ACCOUNT_AGE_DAYS >= 7")));
+        stubAward(6);
 
         // When
         badgeAwardingService.checkAccountAgeBadges(userId);
 
         // Then
-        verify(badgeService).awardBadgeToUser(userId, newcomerBadgeId);
+        verify(emailService).sendBadgeAwardedEmail(any(), any(), eq("Newcomer"), any(), any());
     }
 
     @Test
@@ -225,43 +239,74 @@ class BadgeAwardingServiceImplTest {
         // Given
         user.setCreatedAt(Instant.now().minus(3, ChronoUnit.DAYS));
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(badgeCatalog.rulesFor(Metric.ACCOUNT_AGE_DAYS))
+                .thenReturn(List.of(rule(6, "Newcomer", "ACCOUNT_AGE_DAYS >= 7")));
 
         // When
         badgeAwardingService.checkAccountAgeBadges(userId);
 
         // Then
-        verify(badgeService, never()).awardBadgeToUser(any(), any());
+        verify(userBadgeRepository, never()).insertAwards(any(), any(), any());
     }
 
     @Test
     void checkAllBadges_shouldCheckAllBadgeTypes() {
         // Given
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(postRepository.countByUser(user)).thenReturn(0L);
-        when(commentRepository.countByUser(user)).thenReturn(0L);
-        when(voteRepository.countByUserId(userId)).thenReturn(0L);
+        when(userStatsService.getStats(userId)).thenReturn(stats(0, 0, 0));
+        when(badgeCatalog.rulesFor(any())).thenReturn(List.of());
 
         // When
         badgeAwardingService.checkAllBadges(userId);
 
-        // Then - verify all check methods were called
-        verify(postRepository).countByUser(user);
-        verify(commentRepository).countByUser(user);
-        verify(voteRepository).countByUserId(userId);
+        // Then - every metric is evaluated from one read of the counters and the user
+        verify(userStatsService, times(1)).getStats(userId);
+        verify(userRepository, times(1)).findById(userId);
+        for (Metric metric : Metric.values()) {
+            verify(badgeCatalog).rulesFor(metric);
+        }
     }
 
     @Test
-    void tryAwardBadge_shouldHandleMissingBadgeGracefully() {
+    void awardAccountAgeBadges_shouldBatchAwardsAndNotifyOnlyNewHolders() {
         // Given
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(postRepository.countByUser(user)).thenReturn(1L);
-        when(badgeRepository.findByName("First Post")).thenReturn(Optional.empty());
+        UUID otherId = UUID.randomUUID();
+        BadgeCatalog.Rule newcomer = rule(6, "Newcomer", "ACCOUNT_AGE_DAYS >= 7");
+        BadgeCatalog.Rule regular = rule(8, "Regular", "ACCOUNT_AGE_DAYS >= 30");
+        List<UUID> chunk = List.of(userId, otherId);
+        when(badgeCatalog.rulesFor(Metric.ACCOUNT_AGE_DAYS)).thenReturn(List.of(newcomer, regular));
+        when(userBadgeRepository.findUserIdsMissingBadge(eq(chunk), any(Instant.class), eq(6)))
+                .thenReturn(List.of(userId, otherId));
+        when(userBadgeRepository.findUserIdsMissingBadge(eq(chunk), any(Instant.class), eq(8)))
+                .thenReturn(List.of());
+        when(userBadgeRepository.insertAwards(eq(6), eq(List.of(userId, otherId)), any(Instant.class)))
+                .thenReturn(List.of(userId));
+        when(userBadgeRepository.insertAwards(eq(8), eq(List.of()), any(Instant.class))).thenReturn(List.of());
+        when(userRepository.findAllWithAppUserByIdIn(Set.of(userId))).thenReturn(List.of(user));
 
         // When
-        badgeAwardingService.checkPostBadges(userId);
+        int awarded = badgeAwardingService.awardAccountAgeBadges(chunk);
+
+        // Then
+        assertThat(awarded).isEqualTo(1);
+        verify(emailService).sendBadgeAwardedEmail(
+                eq("test@example.com"), eq("testuser"), eq("Newcomer"), any(), any());
+    }
 
-        // Then - should not throw, just log warning
-        verify(badgeService, never()).awardBadgeToUser(any(), any());
+    @Test
+    void awardBadge_shouldPropagateFailureWithoutMarkingOrNotifying() {
+        // Given
+        when(userStatsService.getStats(userId)).thenReturn(stats(1, 0, 0));
+        when(badgeCatalog.rulesFor(Metric.POSTS)).thenReturn(List.of(firstPost));
+        when(userBadgeRepository.insertAwards(eq(1), eq(List.of(userId)), any(Instant.class)))
+                .thenThrow(new DataIntegrityViolationException("badge missing"));
+
+        // When & Then - the failure fails the check, and the next check tries again
+        assertThatThrownBy(() -> badgeAwardingService.checkPostBadges(userId))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> badgeAwardingService.checkPostBadges(userId))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        verify(emailService, never()).sendBadgeAwardedEmail(any(), any(), any(), any(), any());
     }
 
     @Test
@@ -270,10 +315,23 @@ class BadgeAwardingServiceImplTest {
         when(userRepository.findById(userId)).thenReturn(Optional.empty());
 
         // When
-        badgeAwardingService.checkPostBadges(userId);
+        badgeAwardingService.checkKarmaBadges(userId);
+        badgeAwardingService.checkAccountAgeBadges(userId);
 
         // Then - should not throw
-        verify(postRepository, never()).countByUser(any());
-        verify(badgeService, never()).awardBadgeToUser(any(), any());
+        verify(userBadgeRepository, never()).insertAwards(any(), any(), any());
+    }
+
+    private void stubAward(Integer badgeId) {
+        when(userBadgeRepository.insertAwards(eq(badgeId), eq(List.of(userId)), any(Instant.class)))
+                .thenReturn(List.of(userId));
+    }
+
+    private UserStats stats(long posts, long comments, long votes) {
+        return new UserStats(userId, posts, comments, votes, Instant.now());
+    }
+
+    private BadgeCatalog.Rule rule(Integer id, String name, String criteria) {
+        return new BadgeCatalog.Rule(id, name, name + " description", "🏅", BadgeCriteria.parse(criteria));
     }
 }
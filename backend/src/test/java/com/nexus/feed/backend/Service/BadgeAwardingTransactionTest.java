@@ -0,0 +1,153 @@
+package com.nexus.feed.backend.Service;
+
+import com.nexus.feed.backend.Auth.Entity.AppUser;
+import com.nexus.feed.backend.Auth.Repository.AppUserRepository;
+import com.nexus.feed.backend.Email.Service.EmailService;
+import com.nexus.feed.backend.Entity.Badge;
+import com.nexus.feed.backend.Entity.Users;
+import com.nexus.feed.backend.Event.BadgeCatalogChangedEvent;
+import com.nexus.feed.backend.Repository.BadgeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs badge checks in real transactions: a badge awarded behind this instance's
+ * held-badge cache must not poison the pass, and nothing is cached or emailed
+ * for awards that never commit.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Badge Awarding Transaction Tests")
+class BadgeAwardingTransactionTest {
+
+    private static final long POSTS = 1_000_000;
+
+    @Autowired
+    private BadgeAwardingService badgeAwardingService;
+
+    @Autowired
+    private BadgeCatalog badgeCatalog;
+
+    @Autowired
+    private BadgeRepository badgeRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    private Users user;
+    private Badge awardedElsewhere;
+    private Badge pending;
+
+    @BeforeEach
+    void setUp() {
+        AppUser appUser = new AppUser();
+        appUser.setEmail("badge_tx@example.com");
+        appUser.setPassword("password");
+        user = new Users();
+        user.setUsername("badge_tx");
+        user.setCreatedAt(Instant.now());
+        user.setUpdatedAt(Instant.now());
+        user.setAppUser(appUser);
+        appUser.setUserProfile(user);
+        appUserRepository.save(appUser);
+        jdbcTemplate.update("INSERT INTO user_stats (user_id, post_count, comment_count, vote_count, updated_at) "
+                + "VALUES (?, ?, 0, 0, ?)", user.getId(), POSTS, Timestamp.from(Instant.now()));
+
+        awardedElsewhere = badgeRepository.save(badge("Prolific"));
+        pending = badgeRepository.save(badge("Very Prolific"));
+        badgeCatalog.onCatalogChanged(new BadgeCatalogChangedEvent(pending.getId()));
+
+        // This instance believes the user holds nothing, as after loading the bitset earlier
+        heldBadges().put(user.getId(), new BitSet());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_badges WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM user_stats WHERE user_id = ?", user.getId());
+        badgeRepository.deleteAllById(List.of(awardedElsewhere.getId(), pending.getId()));
+        badgeCatalog.onCatalogChanged(new BadgeCatalogChangedEvent(pending.getId()));
+        heldBadges().remove(user.getId());
+        appUserRepository.deleteById(user.getAppUser().getId());
+    }
+
+    private Badge badge(String name) {
+        Badge badge = new Badge();
+        badge.setName(name + " " + UUID.randomUUID());
+        badge.setDescription(name);
+        badge.setCriteria("POSTS >= " + POSTS);
+        return badge;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<UUID, BitSet> heldBadges() {
+        Object target = AopTestUtils.getTargetObject(badgeAwardingService);
+        return (Map<UUID, BitSet>) ReflectionTestUtils.getField(target, "heldBadges");
+    }
+
+    private List<Integer> storedBadgeIds() {
+        return jdbcTemplate.queryForList("SELECT badge_id FROM user_badges WHERE user_id = ?", Integer.class, user.getId());
+    }
+
+    @Test
+    @DisplayName("A badge awarded elsewhere is skipped and the rest of the pass commits")
+    void awardedElsewhereDoesNotRollBackThePass() {
+        jdbcTemplate.update("INSERT INTO user_badges (user_id, badge_id, awarded_at) VALUES (?, ?, ?)",
+                user.getId(), awardedElsewhere.getId(), Timestamp.from(Instant.now()));
+
+        badgeAwardingService.checkPostBadges(user.getId());
+
+        assertThat(storedBadgeIds()).contains(awardedElsewhere.getId(), pending.getId());
+        BitSet held = heldBadges().get(user.getId());
+        assertThat(held.get(awardedElsewhere.getId())).isTrue();
+        assertThat(held.get(pending.getId())).isTrue();
+        verify(emailService).sendBadgeAwardedEmail(any(), any(), eq(pending.getName()), any(), any());
+        verify(emailService, never()).sendBadgeAwardedEmail(any(), any(), eq(awardedElsewhere.getName()), any(), any());
+    }
+
+    @Test
+    @DisplayName("Awards rolled back with the caller are neither cached nor emailed")
+    void rolledBackAwardsAreNotCachedOrEmailed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            badgeAwardingService.checkPostBadges(user.getId());
+            status.setRollbackOnly();
+        });
+
+        assertThat(storedBadgeIds()).doesNotContain(pending.getId());
+        assertThat(heldBadges().get(user.getId()).get(pending.getId())).isFalse();
+        verify(emailService, never()).sendBadgeAwardedEmail(any(), any(), eq(pending.getName()), any(), any());
+    }
+}
@@ -0,0 +1,87 @@
+package com.nexus.feed.backend.Service;
+
+import com.nexus.feed.backend.Entity.Badge;
+import com.nexus.feed.backend.Event.BadgeCatalogChangedEvent;
+import com.nexus.feed.backend.Repository.BadgeRepository;
+import com.nexus.feed.backend.Service.BadgeCriteria.Metric;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BadgeCatalog Unit Tests")
+class BadgeCatalogTest {
+
+    @Mock
+    private BadgeRepository badgeRepository;
+
+    @InjectMocks
+    private BadgeCatalog badgeCatalog;
+
+    @Test
+    @DisplayName("Should group active rules by metric in threshold order")
+    void shouldGroupRulesByMetric() {
+        when(badgeRepository.findAll()).thenReturn(List.of(
+                badge(1, "Prolific Poster", "POSTS >= 10", true),
+                badge(2, "First Post", "POSTS >= 1", true),
+                badge(3, "Retired", "POSTS >= 3", false),
+                badge(4, "Manual", null, true),
+                badge(5, "Broken", "STREAK >= 3", true),
+                badge(6, "First Vote", "votes>=1", true)));
+
+        assertThat(badgeCatalog.rulesFor(Metric.POSTS))
+                .extracting(BadgeCatalog.Rule::name)
+                .containsExactly("First Post", "Prolific Poster");
+        assertThat(badgeCatalog.rulesFor(Metric.VOTES))
+                .extracting(BadgeCatalog.Rule::badgeId)
+                .containsExactly(6);
+        assertThat(badgeCatalog.rulesFor(Metric.KARMA)).isEmpty();
+        verify(badgeRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Should reload after the catalog changes")
+    void shouldReloadAfterChange() {
+        when(badgeRepository.findAll())
+                .thenReturn(List.of(badge(1, "First Post", "POSTS >= 1", true)))
+                .thenReturn(List.of(badge(1, "First Post", "POSTS >= 1", true),
+                        badge(2, "Storyteller", "POSTS >= 5", true)));
+
+        assertThat(badgeCatalog.rulesFor(Metric.POSTS)).hasSize(1);
+        badgeCatalog.onCatalogChanged(new BadgeCatalogChangedEvent(2));
+
+        assertThat(badgeCatalog.rulesFor(Metric.POSTS)).hasSize(2);
+        verify(badgeRepository, times(2)).findAll();
+    }
+
+    @Test
+    @DisplayName("Should parse and reject criteria text")
+    void shouldParseCriteria() {
+        assertThat(BadgeCriteria.parse(" account_age_days >= 365 "))
+                .isEqualTo(new BadgeCriteria(Metric.ACCOUNT_AGE_DAYS, 365));
+        assertThat(BadgeCriteria.parse("KARMA >= 50").isMetBy(49)).isFalse();
+        assertThatThrownBy(() -> BadgeCriteria.parse("KARMA = 50"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BadgeCriteria.parse("STREAK >= 3"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("STREAK");
+    }
+
+    private Badge badge(Integer id, String name, String criteria, boolean active) {
+        Badge badge = new Badge();
+        badge.setId(id);
+        badge.setName(name);
+        badge.setCriteria(criteria);
+        badge.setIsActive(active);
+        return badge;
+    }
+}
@@ -0,0 +1,118 @@
+package com.nexus.feed.backend.Service;
+
+import com.nexus.feed.backend.Entity.Vote;
+import com.nexus.feed.backend.Event.CommentCreatedEvent;
+import com.nexus.feed.backend.Event.PostCreatedEvent;
+import com.nexus.feed.backend.Event.VoteCastEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BadgeEventDispatcher Unit Tests")
+class BadgeEventDispatcherTest {
+
+    @Mock
+    private BadgeAwardingService badgeAwardingService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Runnable> queued = new ArrayList<>();
+    private BadgeEventDispatcher dispatcher;
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID authorId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new BadgeEventDispatcher(badgeAwardingService, meterRegistry);
+        dispatcher.registerMetrics();
+        dispatcher.setExecutor(queued::add);
+    }
+
+    private void runQueued() {
+        List<Runnable> tasks = new ArrayList<>(queued);
+        queued.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private VoteCastEvent vote(UUID voterId, Vote.VoteValue oldValue, Vote.VoteValue newValue, int karmaDelta) {
+        return new VoteCastEvent(voterId, UUID.randomUUID(), Vote.VotableType.POST, authorId,
+                oldValue, newValue, karmaDelta);
+    }
+
+    @Test
+    @DisplayName("Should coalesce repeated events for a user into one pass")
+    void shouldCoalesceRepeatedEventsPerUser() {
+        dispatcher.onPostCreated(new PostCreatedEvent(UUID.randomUUID(), userId, Instant.now()));
+        dispatcher.onCommentCreated(new CommentCreatedEvent(UUID.randomUUID(), UUID.randomUUID(), userId));
+        dispatcher.onPostCreated(new PostCreatedEvent(UUID.randomUUID(), userId, Instant.now()));
+
+        assertThat(queued).hasSize(1);
+        assertThat(meterRegistry.get("events.badge.queue.depth").gauge().value()).isEqualTo(1);
+        verifyNoInteractions(badgeAwardingService);
+
+        runQueued();
+
+        verify(badgeAwardingService, times(1)).checkPostBadges(userId);
+        verify(badgeAwardingService, times(1)).checkCommentBadges(userId);
+        assertThat(dispatcher.pendingCount()).isZero();
+        assertThat(meterRegistry.get("events.badge.coalesced").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("events.badge.lag").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should schedule a fresh pass for events arriving after a pass started")
+    void shouldScheduleAgainAfterPassStarted() {
+        dispatcher.onPostCreated(new PostCreatedEvent(UUID.randomUUID(), userId, Instant.now()));
+        runQueued();
+        dispatcher.onPostCreated(new PostCreatedEvent(UUID.randomUUID(), userId, Instant.now()));
+        runQueued();
+
+        verify(badgeAwardingService, times(2)).checkPostBadges(userId);
+    }
+
+    @Test
+    @DisplayName("Should check vote badges for new votes and karma badges for karma gains")
+    void shouldRouteVoteEvents() {
+        dispatcher.onVoteCast(vote(userId, null, Vote.VoteValue.UPVOTE, 1));
+        runQueued();
+
+        verify(badgeAwardingService).checkVoteBadges(userId);
+        verify(badgeAwardingService).checkKarmaBadges(authorId);
+    }
+
+    @Test
+    @DisplayName("Should skip badge checks for removed votes, downvotes and self-votes")
+    void shouldSkipVoteEventsWithoutGains() {
+        dispatcher.onVoteCast(vote(userId, Vote.VoteValue.UPVOTE, null, -1));
+        dispatcher.onVoteCast(vote(userId, Vote.VoteValue.UPVOTE, Vote.VoteValue.DOWNVOTE, -2));
+        dispatcher.onVoteCast(vote(authorId, Vote.VoteValue.DOWNVOTE, Vote.VoteValue.UPVOTE, 2));
+
+        assertThat(queued).isEmpty();
+        verifyNoInteractions(badgeAwardingService);
+    }
+
+    @Test
+    @DisplayName("Should keep running checks after one fails")
+    void shouldContinueAfterFailedCheck() {
+        doThrow(new RuntimeException("boom")).when(badgeAwardingService).checkPostBadges(userId);
+
+        dispatcher.onPostCreated(new PostCreatedEvent(UUID.randomUUID(), userId, Instant.now()));
+        dispatcher.onCommentCreated(new CommentCreatedEvent(UUID.randomUUID(), UUID.randomUUID(), userId));
+        runQueued();
+
+        verify(badgeAwardingService).checkCommentBadges(userId);
+    }
+}
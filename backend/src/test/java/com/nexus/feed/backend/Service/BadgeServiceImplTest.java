@@ -4,6 +4,7 @@ import com.nexus.feed.backend.DTO.BadgeResponse;
 import com.nexus.feed.backend.Entity.Badge;
 import com.nexus.feed.backend.Entity.UserBadge;
 import com.nexus.feed.backend.Entity.Users;
+import com.nexus.feed.backend.Event.BadgeCatalogChangedEvent;
 import com.nexus.feed.backend.Exception.ResourceNotFoundException;
 import com.nexus.feed.backend.Repository.BadgeRepository;
 import com.nexus.feed.backend.Repository.UserBadgeRepository;
@@ -15,6 +16,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Arrays;
 import java.util.List;
@@ -39,6 +41,9 @@ class BadgeServiceImplTest {
     @Mock
     private UserBadgeRepository userBadgeRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BadgeServiceImpl badgeService;
 
@@ -150,6 +155,29 @@ class BadgeServiceImplTest {
         // Then
         assertThat(created).isNotNull();
         verify(badgeRepository).save(any(Badge.class));
+        verify(eventPublisher).publishEvent(new BadgeCatalogChangedEvent(1));
+    }
+
+    @Test
+    @DisplayName("Should reject badges with malformed criteria")
+    void shouldRejectMalformedCriteria() {
+        assertThatThrownBy(() -> badgeService.createBadge("New Badge", "Description", "🏆", "POSTS > five"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("POSTS >= 5");
+
+        verify(badgeRepository, never()).save(any(Badge.class));
+    }
+
+    @Test
+    @DisplayName("Should update criteria and refresh the catalog")
+    void shouldUpdateBadgeCriteria() {
+        when(badgeRepository.findById(1)).thenReturn(Optional.of(badge));
+        when(badgeRepository.save(badge)).thenReturn(badge);
+
+        Badge updated = badgeService.updateBadgeCriteria(1, "POSTS >= 1");
+
+        assertThat(updated.getCriteria()).isEqualTo("POSTS >= 1");
+        verify(eventPublisher).publishEvent(new BadgeCatalogChangedEvent(1));
     }
 
     @Test
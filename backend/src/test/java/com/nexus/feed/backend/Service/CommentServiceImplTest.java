@@ -3,10 +3,12 @@ package com.nexus.feed.backend.Service;
 import com.nexus.feed.backend.DTO.CommentCreateRequest;
 import com.nexus.feed.backend.DTO.CommentResponse;
 import com.nexus.feed.backend.DTO.CommentUpdateRequest;
+import com.nexus.feed.backend.DTO.CursorPage;
 import com.nexus.feed.backend.Entity.Comment;
 import com.nexus.feed.backend.Entity.Post;
 import com.nexus.feed.backend.Entity.Users;
 import com.nexus.feed.backend.Entity.Vote;
+import com.nexus.feed.backend.Event.CommentCreatedEvent;
 import com.nexus.feed.backend.Exception.ResourceNotFoundException;
 import com.nexus.feed.backend.Exception.UnauthorizedException;
 import com.nexus.feed.backend.Repository.*;
@@ -17,6 +19,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -28,6 +31,9 @@ import java.util.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -44,7 +50,7 @@ class CommentServiceImplTest {
     private UserRepository userRepository;
 
     @Mock
-    private VoteRepository voteRepository;
+    private VoteCache voteCache;
 
     @Mock
     private AuthenticationService authenticationService;
@@ -53,7 +59,16 @@ class CommentServiceImplTest {
     private KarmaService karmaService;
 
     @Mock
-    private BadgeAwardingService badgeAwardingService;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PostStatsService postStatsService;
+
+    @Mock
+    private VoteBuffer voteBuffer;
+
+    @Mock
+    private UserStatsService userStatsService;
 
     @InjectMocks
     private CommentServiceImpl commentService;
@@ -99,7 +114,7 @@ class CommentServiceImplTest {
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(postRepository.findById(postId)).thenReturn(Optional.of(post));
         when(commentRepository.save(any(Comment.class))).thenReturn(comment);
-        when(voteRepository.countByVotableIdAndVotableTypeAndVoteValue(any(), any(), any())).thenReturn(0L);
+        stubEmptyTallies();
 
         // When
         CommentResponse response = commentService.createComment(userId, postId, request);
@@ -109,6 +124,9 @@ class CommentServiceImplTest {
         assertThat(response.getPostId()).isEqualTo(postId);
         assertThat(response.getUserId()).isEqualTo(userId);
         verify(commentRepository).save(any(Comment.class));
+        verify(postStatsService).recordCommentAdded(postId);
+        verify(eventPublisher).publishEvent(new CommentCreatedEvent(comment.getId(), postId, userId));
+        verify(userStatsService).recordComment(userId, 1);
     }
 
     @Test
@@ -132,7 +150,7 @@ class CommentServiceImplTest {
         when(postRepository.findById(postId)).thenReturn(Optional.of(post));
         when(commentRepository.findById(parentCommentId)).thenReturn(Optional.of(parentComment));
         when(commentRepository.save(any(Comment.class))).thenReturn(comment);
-        when(voteRepository.countByVotableIdAndVotableTypeAndVoteValue(any(), any(), any())).thenReturn(0L);
+        stubEmptyTallies();
 
         // When
         CommentResponse response = commentService.createComment(userId, postId, request);
@@ -143,6 +161,44 @@ class CommentServiceImplTest {
         verify(commentRepository).save(any(Comment.class));
     }
 
+    @Test
+    @DisplayName("Should reject replies nested past the maximum path depth")
+    void shouldRejectRepliesPastMaximumDepth() {
+        // Given - a parent that already sits at the deepest storable level
+        UUID parentCommentId = UUID.randomUUID();
+        Comment parentComment = new Comment();
+        parentComment.setId(parentCommentId);
+        parentComment.setPath((UUID.randomUUID() + "/").repeat(Comment.MAX_DEPTH));
+
+        CommentCreateRequest request = new CommentCreateRequest();
+        request.setBody("Too deep");
+        request.setParentCommentId(parentCommentId);
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(postRepository.findById(postId)).thenReturn(Optional.of(post));
+        when(commentRepository.findById(parentCommentId)).thenReturn(Optional.of(parentComment));
+
+        // When & Then
+        assertThatThrownBy(() -> commentService.createComment(userId, postId, request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(String.valueOf(Comment.MAX_DEPTH));
+        verify(commentRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should backfill top-level paths before descending to replies")
+    void shouldBackfillTopLevelPathsFirst() {
+        // Given
+        when(commentRepository.backfillTopLevelPaths(100)).thenReturn(7, 0);
+        when(commentRepository.backfillReplyPaths(anyInt(), eq(100))).thenReturn(3);
+
+        // When & Then
+        assertThat(commentService.backfillPathBatch(100)).isEqualTo(7);
+        verify(commentRepository, never()).backfillReplyPaths(anyInt(), anyInt());
+        assertThat(commentService.backfillPathBatch(100)).isEqualTo(3);
+        verify(commentRepository).backfillReplyPaths(Comment.MAX_PATH_LENGTH - Comment.PATH_SEGMENT_LENGTH, 100);
+    }
+
     @Test
     @DisplayName("Should throw ResourceNotFoundException when user not found")
     void shouldThrowExceptionWhenUserNotFound() {
@@ -197,8 +253,8 @@ class CommentServiceImplTest {
     @DisplayName("Should get comment by id successfully")
     void shouldGetCommentByIdSuccessfully() {
         // Given
-        when(commentRepository.findById(commentId)).thenReturn(Optional.of(comment));
-        when(voteRepository.countByVotableIdAndVotableTypeAndVoteValue(any(), any(), any())).thenReturn(0L);
+        when(commentRepository.findWithUserById(commentId)).thenReturn(Optional.of(comment));
+        stubEmptyTallies();
 
         // When
         CommentResponse response = commentService.getCommentById(commentId);
@@ -213,13 +269,11 @@ class CommentServiceImplTest {
     @DisplayName("Should get comments by post with batch queries")
     void shouldGetCommentsByPostWithBatchQueries() {
         // Given
-        when(postRepository.findById(postId)).thenReturn(Optional.of(post));
-        when(commentRepository.findByPostAndParentCommentIsNullOrderByCreatedAtDesc(post))
+        when(postRepository.existsById(postId)).thenReturn(true);
+        when(commentRepository.findAllByPostIdWithUser(postId))
                 .thenReturn(Collections.singletonList(comment));
-        when(commentRepository.findByParentCommentOrderByCreatedAtAsc(any()))
-                .thenReturn(new ArrayList<>());
-        when(voteRepository.countByVotableIdsAndVotableType(any(), any()))
-                .thenReturn(new ArrayList<>());
+        when(voteCache.tallies(any(), any()))
+                .thenReturn(Map.of(comment.getId(), new VoteCache.VoteTally(3, 1)));
 
         // When
         List<CommentResponse> responses = commentService.getCommentsByPost(postId);
@@ -227,7 +281,9 @@ class CommentServiceImplTest {
         // Then
         assertThat(responses).isNotEmpty();
         assertThat(responses).hasSize(1);
-        verify(voteRepository).countByVotableIdsAndVotableType(any(), eq(Vote.VotableType.COMMENT));
+        assertThat(responses.get(0).getUpvotes()).isEqualTo(3);
+        assertThat(responses.get(0).getDownvotes()).isEqualTo(1);
+        verify(voteCache).tallies(List.of(comment.getId()), Vote.VotableType.COMMENT);
     }
 
     @Test
@@ -252,36 +308,160 @@ class CommentServiceImplTest {
         reply2.setCreatedAt(Instant.now());
         reply2.setUpdatedAt(Instant.now());
 
-        when(postRepository.findById(postId)).thenReturn(Optional.of(post));
-        when(commentRepository.findByPostAndParentCommentIsNullOrderByCreatedAtDesc(post))
-                .thenReturn(Collections.singletonList(comment));
-        when(commentRepository.findByParentCommentOrderByCreatedAtAsc(comment))
-                .thenReturn(Arrays.asList(reply1, reply2));
-        when(commentRepository.findByParentCommentOrderByCreatedAtAsc(reply1))
-                .thenReturn(new ArrayList<>());
-        when(commentRepository.findByParentCommentOrderByCreatedAtAsc(reply2))
-                .thenReturn(new ArrayList<>());
-        when(voteRepository.countByVotableIdsAndVotableType(any(), any()))
-                .thenReturn(new ArrayList<>());
+        when(postRepository.existsById(postId)).thenReturn(true);
+        when(commentRepository.findAllByPostIdWithUser(postId))
+                .thenReturn(Arrays.asList(comment, reply1, reply2));
+
+        // When
+        List<CommentResponse> responses = commentService.getCommentsByPost(postId);
+
+        // Then
+        assertThat(responses).hasSize(1);
+        assertThat(responses.get(0).getReplies()).extracting(CommentResponse::getBody)
+                .containsExactly("Reply 1", "Reply 2");
+        verify(commentRepository, never()).findByParentCommentOrderByCreatedAtAsc(any());
+    }
+
+    @Test
+    @DisplayName("Should build deep reply chains without recursion")
+    void shouldBuildDeepReplyChainsWithoutRecursion() {
+        // Given - deep enough that a recursive walk would overflow the stack
+        List<Comment> thread = new ArrayList<>();
+        Comment parent = null;
+        for (int i = 0; i < 20_000; i++) {
+            Comment c = new Comment();
+            c.setId(UUID.randomUUID());
+            c.setBody("Depth " + i);
+            c.setUser(user);
+            c.setPost(post);
+            c.setParentComment(parent);
+            thread.add(c);
+            parent = c;
+        }
+        when(postRepository.existsById(postId)).thenReturn(true);
+        when(commentRepository.findAllByPostIdWithUser(postId)).thenReturn(thread);
 
         // When
         List<CommentResponse> responses = commentService.getCommentsByPost(postId);
 
         // Then
         assertThat(responses).hasSize(1);
-        assertThat(responses.get(0).getReplies()).hasSize(2);
+        CommentResponse node = responses.get(0);
+        int depth = 1;
+        while (!node.getReplies().isEmpty()) {
+            node = node.getReplies().get(0);
+            depth++;
+        }
+        assertThat(depth).isEqualTo(20_000);
+    }
+
+    @Test
+    @DisplayName("Should page top-level comments and cut replies at the depth and breadth limits")
+    void shouldPageThreadWithinDepthAndBreadthLimits() {
+        // Given - two roots with a page size of one; the first root has two replies, one of which has replies
+        Instant base = Instant.parse("2024-01-01T00:00:00Z");
+        Comment newerRoot = threadComment(null, base.plusSeconds(60));
+        Comment olderRoot = threadComment(null, base);
+        Comment firstReply = threadComment(newerRoot, base.plusSeconds(120));
+        Comment secondReply = threadComment(newerRoot, base.plusSeconds(180));
+        when(postRepository.existsById(postId)).thenReturn(true);
+        when(commentRepository.findTopLevelByPostId(eq(postId), any(Pageable.class)))
+                .thenReturn(new ArrayList<>(List.of(newerRoot, olderRoot)));
+        when(commentRepository.findFirstReplyIdsPerParent(List.of(newerRoot.getId()), 2))
+                .thenReturn(List.of(firstReply.getId().toString(), secondReply.getId().toString()));
+        when(commentRepository.findAllWithUserByIdIn(anyList())).thenReturn(List.of(secondReply, firstReply));
+        when(commentRepository.findParentIdsWithReplies(List.of(firstReply.getId())))
+                .thenReturn(List.of(firstReply.getId()));
+
+        // When
+        CursorPage<CommentResponse> page = commentService.getCommentThread(postId, null, 1, 1, 1);
+
+        // Then
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(CommentCursor.decode(page.getNextCursor()))
+                .isEqualTo(new CommentCursor(newerRoot.getCreatedAt(), newerRoot.getId()));
+        CommentResponse root = page.getContent().get(0);
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(root.getId()).isEqualTo(newerRoot.getId());
+        assertThat(root.getReplies()).extracting(CommentResponse::getId).containsExactly(firstReply.getId());
+        assertThat(root.isHasMoreReplies()).isTrue();
+        assertThat(CommentCursor.decode(root.getRepliesCursor()))
+                .isEqualTo(new CommentCursor(firstReply.getCreatedAt(), firstReply.getId()));
+        CommentResponse reply = root.getReplies().get(0);
+        assertThat(reply.getReplies()).isEmpty();
+        assertThat(reply.isHasMoreReplies()).isTrue();
+        assertThat(CommentCursor.decode(reply.getRepliesCursor()).isStart()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should continue a reply list after the cursor")
+    void shouldContinueRepliesAfterCursor() {
+        // Given
+        Instant shownAt = Instant.parse("2024-01-01T00:00:00Z");
+        UUID shownId = UUID.randomUUID();
+        Comment next = threadComment(comment, shownAt.plusSeconds(1));
+        when(commentRepository.existsById(commentId)).thenReturn(true);
+        when(commentRepository.findRepliesByParentIdAfter(eq(commentId), eq(shownAt), eq(shownId), any(Pageable.class)))
+                .thenReturn(new ArrayList<>(List.of(next)));
+
+        // When
+        CursorPage<CommentResponse> page = commentService.getReplies(
+                commentId, new CommentCursor(shownAt, shownId).encode(), 10, 0, 5);
+
+        // Then
+        assertThat(page.getContent()).extracting(CommentResponse::getId).containsExactly(next.getId());
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+        verify(commentRepository, never()).findFirstReplyIdsPerParent(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should reject thread limits outside the allowed range and malformed cursors")
+    void shouldRejectInvalidThreadRequests() {
+        assertThatThrownBy(() -> commentService.getCommentThread(postId, null, 0, 1, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> commentService.getCommentThread(postId, null, 10, -1, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> commentService.getCommentThread(postId, null, 10, 1, 1000))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        when(postRepository.existsById(postId)).thenReturn(true);
+        assertThatThrownBy(() -> commentService.getCommentThread(postId, "not-a-cursor", 10, 1, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should throw when fetching replies of a missing comment")
+    void shouldThrowWhenRepliesParentMissing() {
+        when(commentRepository.existsById(commentId)).thenReturn(false);
+
+        assertThatThrownBy(() -> commentService.getReplies(commentId, null, 10, 1, 1))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private Comment threadComment(Comment parent, Instant createdAt) {
+        Comment c = new Comment();
+        c.setId(UUID.randomUUID());
+        c.setBody("Thread comment");
+        c.setUser(user);
+        c.setPost(post);
+        c.setParentComment(parent);
+        c.setCreatedAt(createdAt);
+        c.setUpdatedAt(createdAt);
+        return c;
     }
 
     @Test
-    @DisplayName("Should get comments by user with pagination")
+    @DisplayName("Should get comments by user with pagination and batch vote lookups")
     void shouldGetCommentsByUserWithPagination() {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
         Page<Comment> commentPage = new PageImpl<>(Collections.singletonList(comment), pageable, 1);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(commentRepository.findByUserOrderByCreatedAtDesc(user, pageable)).thenReturn(commentPage);
-        when(voteRepository.countByVotableIdAndVotableTypeAndVoteValue(any(), any(), any())).thenReturn(0L);
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(commentRepository.findPageWithUserByUserId(userId, pageable)).thenReturn(commentPage);
+        when(voteCache.tallies(any(), any()))
+                .thenReturn(Map.of(comment.getId(), new VoteCache.VoteTally(2, 1)));
 
         // When
         Page<CommentResponse> responses = commentService.getCommentsByUser(userId, pageable);
@@ -289,6 +469,20 @@ class CommentServiceImplTest {
         // Then
         assertThat(responses).isNotNull();
         assertThat(responses.getContent()).hasSize(1);
+        assertThat(responses.getContent().get(0).getUpvotes()).isEqualTo(2);
+        verify(voteCache, times(1)).tallies(List.of(comment.getId()), Vote.VotableType.COMMENT);
+    }
+
+    @Test
+    @DisplayName("Should throw ResourceNotFoundException when listing comments of an unknown user")
+    void shouldThrowExceptionWhenListingCommentsOfUnknownUser() {
+        // Given
+        when(userRepository.existsById(userId)).thenReturn(false);
+
+        // When & Then
+        assertThatThrownBy(() -> commentService.getCommentsByUser(userId, PageRequest.of(0, 10)))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(commentRepository, never()).findPageWithUserByUserId(any(), any());
     }
 
     @Test
@@ -300,7 +494,7 @@ class CommentServiceImplTest {
 
         when(commentRepository.findById(commentId)).thenReturn(Optional.of(comment));
         when(commentRepository.save(any(Comment.class))).thenReturn(comment);
-        when(voteRepository.countByVotableIdAndVotableTypeAndVoteValue(any(), any(), any())).thenReturn(0L);
+        stubEmptyTallies();
 
         // When
         CommentResponse response = commentService.updateComment(commentId, userId, request);
@@ -332,12 +526,16 @@ class CommentServiceImplTest {
         // Given
         when(commentRepository.findById(commentId)).thenReturn(Optional.of(comment));
         doNothing().when(commentRepository).delete(any(Comment.class));
+        when(karmaService.karmaOnComment(comment)).thenReturn(Map.of(userId, -2L));
 
         // When
         commentService.deleteComment(commentId, userId);
 
         // Then
         verify(commentRepository).delete(comment);
+        verify(postStatsService).refreshCommentCount(postId);
+        verify(karmaService).subtractKarma(Map.of(userId, -2L));
+        verify(karmaService, never()).recalculateKarma(any());
     }
 
     @Test
@@ -357,8 +555,8 @@ class CommentServiceImplTest {
     @DisplayName("Should return empty list when post has no comments")
     void shouldReturnEmptyListWhenPostHasNoComments() {
         // Given
-        when(postRepository.findById(postId)).thenReturn(Optional.of(post));
-        when(commentRepository.findByPostAndParentCommentIsNullOrderByCreatedAtDesc(post))
+        when(postRepository.existsById(postId)).thenReturn(true);
+        when(commentRepository.findAllByPostIdWithUser(postId))
                 .thenReturn(new ArrayList<>());
 
         // When
@@ -367,4 +565,15 @@ class CommentServiceImplTest {
         // Then
         assertThat(responses).isEmpty();
     }
+
+    // Every requested comment has no votes, as the cache reports for a fresh comment
+    private void stubEmptyTallies() {
+        when(voteCache.tallies(any(), any())).thenAnswer(invocation -> {
+            Map<UUID, VoteCache.VoteTally> tallies = new HashMap<>();
+            for (UUID id : invocation.<Collection<UUID>>getArgument(0)) {
+                tallies.put(id, new VoteCache.VoteTally(0, 0));
+            }
+            return tallies;
+        });
+    }
 }
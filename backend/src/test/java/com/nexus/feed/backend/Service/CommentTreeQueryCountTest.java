@@ -0,0 +1,105 @@
+package com.nexus.feed.backend.Service;
+
+import com.nexus.feed.backend.Auth.Entity.AppUser;
+import com.nexus.feed.backend.Entity.Comment;
+import com.nexus.feed.backend.Entity.Post;
+import com.nexus.feed.backend.Entity.Users;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmarks the number of SQL statements {@code getCommentsByPost} issues as a
+ * thread grows; the single-query loader must keep it constant.
+ */
+@SpringBootTest(properties = StatementCounter.PROPERTY)
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Comment Tree Query Count Tests")
+class CommentTreeQueryCountTest {
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Users author;
+
+    @BeforeEach
+    void setUp() {
+        AppUser appUser = new AppUser();
+        appUser.setEmail("thread_author@example.com");
+        appUser.setPassword("password");
+        author = new Users();
+        author.setUsername("thread_author");
+        author.setCreatedAt(Instant.now());
+        author.setUpdatedAt(Instant.now());
+        author.setAppUser(appUser);
+        appUser.setUserProfile(author);
+        entityManager.persist(appUser);
+    }
+
+    /**
+     * Creates a post whose comments form a mix of top-level comments, wide reply
+     * fans and one deep reply chain.
+     */
+    private UUID createThread(int size) {
+        Post post = new Post();
+        post.setTitle("Thread of " + size);
+        post.setBody("Body");
+        post.setUser(author);
+        entityManager.persist(post);
+
+        List<Comment> created = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Comment comment = new Comment();
+            comment.setBody("Comment " + i);
+            comment.setUser(author);
+            comment.setPost(post);
+            if (i % 3 == 1) {
+                comment.setParentComment(created.get(i - 1));
+            } else if (i % 3 == 2) {
+                comment.setParentComment(created.get(i / 2));
+            }
+            entityManager.persist(comment);
+            created.add(comment);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return post.getId();
+    }
+
+    private long statementsFor(UUID postId) {
+        entityManager.clear();
+        StatementCounter.reset();
+        assertThat(commentService.getCommentsByPost(postId)).isNotEmpty();
+        return StatementCounter.statements();
+    }
+
+    @Test
+    @DisplayName("Query count stays constant as the thread grows")
+    void queryCountIsConstantInThreadSize() {
+        Map<Integer, Long> statementsBySize = new LinkedHashMap<>();
+        for (int size : new int[]{3, 30, 300}) {
+            statementsBySize.put(size, statementsFor(createThread(size)));
+        }
+
+        assertThat(statementsBySize.values()).containsOnly(statementsBySize.get(3));
+        assertThat(statementsBySize.get(3)).isLessThanOrEqualTo(4);
+    }
+}
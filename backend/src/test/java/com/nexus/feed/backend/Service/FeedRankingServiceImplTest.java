@@ -0,0 +1,229 @@
+package com.nexus.feed.backend.Service;
+
+import com.nexus.feed.backend.Event.PostCreatedEvent;
+import com.nexus.feed.backend.Event.PostDeletedEvent;
+import com.nexus.feed.backend.Event.PostScoreChangedEvent;
+import com.nexus.feed.backend.Repository.PostRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FeedRankingServiceImpl Unit Tests")
+class FeedRankingServiceImplTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private FeedRankingServiceImpl feedRankingService;
+
+    private final Instant now = Instant.now();
+    private final UUID top = UUID.randomUUID();
+    private final UUID middle = UUID.randomUUID();
+    private final UUID bottom = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        feedRankingService = new FeedRankingServiceImpl(postRepository, meterRegistry);
+        ReflectionTestUtils.setField(feedRankingService, "windowSize", 3);
+        feedRankingService.registerMetrics();
+    }
+
+    private void loadBestWindow(long totalPosts, PostRepository.RankingRow... rows) {
+        when(postRepository.findRankingRowsOrderByBest(any(Pageable.class))).thenReturn(List.of(rows));
+        when(postRepository.findFeedHotFirst(any(Instant.class), any(Pageable.class))).thenReturn(List.of());
+        when(postRepository.count()).thenReturn(totalPosts);
+        feedRankingService.refresh();
+    }
+
+    private List<UUID> bestPage(int page, int size) {
+        return feedRankingService.findPage("best", PageRequest.of(page, size))
+                .map(Page::getContent)
+                .orElse(null);
+    }
+
+    @Test
+    @DisplayName("Should be empty before the first refresh")
+    void shouldBeEmptyBeforeRefresh() {
+        assertThat(feedRankingService.findPage("hot", PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should serve pages inside the window and defer to SQL past it")
+    void shouldServePagesInsideWindowOnly() {
+        loadBestWindow(10, row(top, 9, 3), row(middle, 5, 2), row(bottom, 1, 1));
+
+        Optional<Page<UUID>> first = feedRankingService.findPage("best", PageRequest.of(0, 2));
+
+        assertThat(first).isPresent();
+        assertThat(first.get().getContent()).containsExactly(top, middle);
+        assertThat(first.get().getTotalElements()).isEqualTo(10);
+        assertThat(feedRankingService.findPage("best", PageRequest.of(1, 2))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should re-rank a windowed post when its score changes")
+    void shouldReRankOnScoreChange() {
+        loadBestWindow(10, row(top, 9, 3), row(middle, 5, 2), row(bottom, 4, 1));
+
+        feedRankingService.onScoreChanged(new PostScoreChangedEvent(bottom, 2));
+
+        assertThat(bestPage(0, 3)).containsExactly(top, bottom, middle);
+    }
+
+    @Test
+    @DisplayName("Should drop a post that sinks below the window tail")
+    void shouldDropPostSinkingBelowTail() {
+        loadBestWindow(10, row(top, 9, 3), row(middle, 5, 2), row(bottom, 4, 1));
+
+        feedRankingService.onScoreChanged(new PostScoreChangedEvent(middle, -3));
+
+        assertThat(bestPage(0, 2)).containsExactly(top, bottom);
+        assertThat(meterRegistry.get("feed.ranking.index.size").tag("sort", "best").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should admit an upvoted outsider and evict the tail")
+    void shouldAdmitUpvotedOutsider() {
+        loadBestWindow(10, row(top, 9, 3), row(middle, 5, 2), row(bottom, 4, 1));
+        UUID outsider = UUID.randomUUID();
+        when(postRepository.findRankingRowsByIdIn(List.of(outsider))).thenReturn(List.of(row(outsider, 6, 5)));
+
+        feedRankingService.onScoreChanged(new PostScoreChangedEvent(outsider, 3));
+
+        assertThat(bestPage(0, 3)).containsExactly(top, outsider, middle);
+    }
+
+    @Test
+    @DisplayName("Should not lose score changes applied concurrently to one post")
+    void shouldNotLoseConcurrentScoreChanges() throws Exception {
+        loadBestWindow(2, row(top, 10, 1), row(middle, 5, 2));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> voters = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            voters.add(executor.submit(() -> {
+                for (int vote = 0; vote < 500; vote++) {
+                    feedRankingService.onScoreChanged(new PostScoreChangedEvent(middle, 1));
+                }
+            }));
+        }
+        for (Future<?> voter : voters) {
+            voter.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // 5 + 4000 - 3994 = 11 outranks top; a single lost change would tie at 10, where newer top wins
+        feedRankingService.onScoreChanged(new PostScoreChangedEvent(middle, -3994));
+
+        assertThat(bestPage(0, 2)).containsExactly(middle, top);
+    }
+
+    @Test
+    @DisplayName("Should track every post while the window holds them all")
+    void shouldTrackAllPostsWhileComplete() {
+        loadBestWindow(2, row(top, 9, 3), row(middle, 5, 2));
+        UUID created = UUID.randomUUID();
+
+        feedRankingService.onPostCreated(new PostCreatedEvent(created, UUID.randomUUID(), now));
+        feedRankingService.onPostDeleted(new PostDeletedEvent(top));
+
+        Page<UUID> page = feedRankingService.findPage("best", PageRequest.of(0, 10)).orElseThrow();
+        assertThat(page.getContent()).containsExactly(middle, created);
+        assertThat(page.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should rank hot posts using the ranks computed by the database")
+    void shouldRankHotPostsFromDatabaseRanks() {
+        when(postRepository.findRankingRowsOrderByBest(any(Pageable.class))).thenReturn(List.of());
+        when(postRepository.findFeedHotFirst(any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(hotKey(middle, 0.8), hotKey(top, 0.3)));
+        when(postRepository.findRankingRowsByIdIn(anyCollection()))
+                .thenAnswer(invocation -> {
+                    List<PostRepository.RankingRow> rows = new ArrayList<>();
+                    for (UUID id : invocation.<Collection<UUID>>getArgument(0)) {
+                        rows.add(id.equals(top) ? row(top, 9, 30) : row(middle, 5, 1));
+                    }
+                    return rows;
+                });
+        when(postRepository.count()).thenReturn(2L);
+
+        feedRankingService.refresh();
+
+        assertThat(feedRankingService.findPage("hot", PageRequest.of(0, 10)).orElseThrow().getContent())
+                .containsExactly(middle, top);
+        assertThat(meterRegistry.get("feed.ranking.refresh.lag").tag("sort", "hot").gauge().value())
+                .isBetween(0.0, 60.0);
+    }
+
+    @Test
+    @DisplayName("Hot rank should decay with age at equal score")
+    void hotRankShouldDecayWithAge() {
+        double fresh = FeedRankingServiceImpl.hotRank(10, now, now);
+        double dayOld = FeedRankingServiceImpl.hotRank(10, now.minus(1, ChronoUnit.DAYS), now);
+
+        assertThat(fresh).isGreaterThan(dayOld);
+        assertThat(FeedRankingServiceImpl.hotRank(10, now.plusSeconds(5), now)).isEqualTo(fresh);
+    }
+
+    private PostRepository.RankingRow row(UUID id, int score, int hoursAgo) {
+        Instant createdAt = now.minus(hoursAgo, ChronoUnit.HOURS);
+        return new PostRepository.RankingRow() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getScore() {
+                return score;
+            }
+
+            @Override
+            public Instant getCreatedAt() {
+                return createdAt;
+            }
+        };
+    }
+
+    private PostRepository.HotFeedKey hotKey(UUID id, double rank) {
+        return new PostRepository.HotFeedKey() {
+            @Override
+            public String getId() {
+                return id.toString();
+            }
+
+            @Override
+            public Double getHotRank() {
+                return rank;
+            }
+        };
+    }
+}
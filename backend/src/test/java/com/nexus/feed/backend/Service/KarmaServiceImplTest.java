@@ -1,6 +1,9 @@
 package com.nexus.feed.backend.Service;
 
 import com.nexus.feed.backend.Entity.Users;
+import com.nexus.feed.backend.Entity.KarmaShard;
+import com.nexus.feed.backend.Event.KarmaAdjustedEvent;
+import com.nexus.feed.backend.Repository.KarmaShardRepository;
 import com.nexus.feed.backend.Repository.UserRepository;
 import com.nexus.feed.backend.Repository.VoteRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,11 +13,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,7 +40,13 @@ class KarmaServiceImplTest {
     private VoteRepository voteRepository;
 
     @Mock
-    private BadgeAwardingService badgeAwardingService;
+    private KarmaShardRepository karmaShardRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
     @InjectMocks
     private KarmaServiceImpl karmaService;
@@ -56,7 +74,6 @@ class KarmaServiceImplTest {
 
         // Then
         verify(userRepository).incrementKarma(contentAuthorId, 1);
-        verify(badgeAwardingService).checkKarmaBadges(contentAuthorId);
     }
 
     @Test
@@ -67,7 +84,6 @@ class KarmaServiceImplTest {
 
         // Then
         verify(userRepository).incrementKarma(contentAuthorId, -1);
-        verify(badgeAwardingService, never()).checkKarmaBadges(any());
     }
 
     @Test
@@ -78,7 +94,6 @@ class KarmaServiceImplTest {
 
         // Then
         verify(userRepository, never()).incrementKarma(any(), anyInt());
-        verify(badgeAwardingService, never()).checkKarmaBadges(any());
     }
 
     @Test
@@ -141,12 +156,148 @@ class KarmaServiceImplTest {
     }
 
     @Test
-    @DisplayName("Should check karma badges on positive delta")
-    void shouldCheckKarmaBadgesOnPositiveDelta() {
+    @DisplayName("Should spread sharded karma over stripes chosen by voter")
+    void shouldWriteShardedKarmaToVoterStripe() {
+        // Given
+        ReflectionTestUtils.setField(karmaService, "shardingEnabled", true);
+
+        // When
+        karmaService.updateKarmaForVote(contentAuthorId, voterId, 1);
+
+        // Then
+        verify(karmaShardRepository).addDelta(contentAuthorId, Math.floorMod(voterId.hashCode(), 8), 1L);
+        verify(userRepository, never()).incrementKarma(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should add pending stripes to stored karma and cache the total")
+    void shouldSumAndCacheShardedKarma() {
+        // Given
+        ReflectionTestUtils.setField(karmaService, "shardingEnabled", true);
+        when(karmaShardRepository.sumByUserIds(any())).thenReturn(List.of(pending(contentAuthorId, 7)));
+
+        // When
+        long first = karmaService.getKarma(author);
+        Map<UUID, Long> second = karmaService.getKarma(List.of(author));
+
+        // Then
+        assertThat(first).isEqualTo(107L);
+        assertThat(second).containsEntry(contentAuthorId, 107L);
+        verify(karmaShardRepository, times(1)).sumByUserIds(any());
+    }
+
+    @Test
+    @DisplayName("Should read stored karma without touching stripes when sharding is off")
+    void shouldReadStoredKarmaWhenUnsharded() {
+        assertThat(karmaService.getKarma(author)).isEqualTo(100L);
+        verifyNoInteractions(karmaShardRepository);
+    }
+
+    @Test
+    @DisplayName("Should fold each user's stripes into their karma in a transaction of its own")
+    void shouldCompactStripes() {
+        // Given
+        when(karmaShardRepository.findUserIdsWithPendingKarma(any(Pageable.class)))
+                .thenReturn(List.of(contentAuthorId, voterId));
+        when(karmaShardRepository.findPendingByUserId(contentAuthorId)).thenReturn(List.of(
+                new KarmaShard(new KarmaShard.KarmaShardId(contentAuthorId, 0), 5),
+                new KarmaShard(new KarmaShard.KarmaShardId(contentAuthorId, 3), -2)));
+        when(karmaShardRepository.findPendingByUserId(voterId)).thenReturn(List.of(
+                new KarmaShard(new KarmaShard.KarmaShardId(voterId, 1), 4)));
+
+        // When
+        int users = karmaService.compactShards(100);
+
+        // Then
+        assertThat(users).isEqualTo(2);
+        verify(karmaShardRepository).subtractDelta(contentAuthorId, 0, 5);
+        verify(karmaShardRepository).subtractDelta(contentAuthorId, 3, -2);
+        verify(userRepository).incrementKarma(contentAuthorId, 3);
+        verify(userRepository).incrementKarma(voterId, 4);
+        verify(karmaShardRepository).deleteDrained();
+        // Two users and the drained-row cleanup
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should subtract karma earned on deleted content from each author")
+    void shouldSubtractDeletedKarma() {
+        // Given
+        UUID commenterId = UUID.randomUUID();
+        UUID postId = UUID.randomUUID();
+        when(voteRepository.sumKarmaOnPost(postId)).thenReturn(List.of(karma(contentAuthorId, 5)));
+        when(voteRepository.sumKarmaOnPostComments(postId))
+                .thenReturn(List.of(karma(contentAuthorId, 1), karma(commenterId, -3)));
+
+        // When
+        karmaService.subtractKarma(karmaService.karmaOnPost(postId));
+
+        // Then
+        verify(userRepository).incrementKarma(contentAuthorId, -6);
+        verify(userRepository).incrementKarma(commenterId, 3);
+        verify(eventPublisher).publishEvent(new KarmaAdjustedEvent(Map.of(contentAuthorId, -6L, commenterId, 3L)));
+    }
+
+    @Test
+    @DisplayName("Should repair drifted karma only when the stored value is unchanged")
+    void shouldReconcileBatch() {
+        // Given
+        UUID accurateId = UUID.randomUUID();
+        when(userRepository.findKarmaOrderById(any(Pageable.class)))
+                .thenReturn(List.of(stored(contentAuthorId, 100), stored(accurateId, 2)));
+        when(voteRepository.sumPostKarmaByAuthors(any()))
+                .thenReturn(List.of(karma(contentAuthorId, 90), karma(accurateId, 2)));
+        when(voteRepository.sumCommentKarmaByAuthors(any())).thenReturn(List.of(karma(contentAuthorId, 5)));
+        when(userRepository.setKarmaIfUnchanged(contentAuthorId, 100L, 95L)).thenReturn(1);
+
         // When
-        karmaService.updateKarmaForVote(contentAuthorId, voterId, 2);
+        UUID cursor = karmaService.reconcileBatch(null, 2);
 
         // Then
-        verify(badgeAwardingService).checkKarmaBadges(contentAuthorId);
+        assertThat(cursor).isEqualTo(accurateId);
+        verify(userRepository, never()).setKarmaIfUnchanged(eq(accurateId), anyLong(), anyLong());
+        verify(eventPublisher).publishEvent(new KarmaAdjustedEvent(Map.of(contentAuthorId, -5L)));
+    }
+
+    private VoteRepository.AuthorKarma karma(UUID userId, long amount) {
+        return new VoteRepository.AuthorKarma() {
+            @Override
+            public UUID getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Long getKarma() {
+                return amount;
+            }
+        };
+    }
+
+    private UserRepository.StoredKarma stored(UUID userId, long amount) {
+        return new UserRepository.StoredKarma() {
+            @Override
+            public UUID getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Long getKarma() {
+                return amount;
+            }
+        };
+    }
+
+    private KarmaShardRepository.PendingKarma pending(UUID userId, long amount) {
+        return new KarmaShardRepository.PendingKarma() {
+            @Override
+            public UUID getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Long getPending() {
+                return amount;
+            }
+        };
     }
 }
@@ -15,8 +15,7 @@ class KarmaServicePropertyTest {
     void selfVoteShouldNotChangeKarma(@ForAll("deltas") int delta) {
         // Given
         UserRepository userRepository = Mockito.mock(UserRepository.class);
-        BadgeAwardingService badgeAwardingService = Mockito.mock(BadgeAwardingService.class);
-        KarmaServiceImpl karmaService = new KarmaServiceImpl(userRepository, null, badgeAwardingService);
+        KarmaServiceImpl karmaService = new KarmaServiceImpl(userRepository, null, null, event -> { }, null);
         UUID userId = UUID.randomUUID();
 
         // When
@@ -30,8 +29,7 @@ class KarmaServicePropertyTest {
     void nonSelfVoteShouldChangeKarma(@ForAll("deltas") int delta) {
         // Given
         UserRepository userRepository = Mockito.mock(UserRepository.class);
-        BadgeAwardingService badgeAwardingService = Mockito.mock(BadgeAwardingService.class);
-        KarmaServiceImpl karmaService = new KarmaServiceImpl(userRepository, null, badgeAwardingService);
+        KarmaServiceImpl karmaService = new KarmaServiceImpl(userRepository, null, null, event -> { }, null);
         UUID authorId = UUID.randomUUID();
         UUID voterId = UUID.randomUUID();
 
@@ -46,8 +44,7 @@ class KarmaServicePropertyTest {
     void upvoteShouldIncreaseKarmaByOne() {
         // Given
         UserRepository userRepository = Mockito.mock(UserRepository.class);
-        BadgeAwardingService badgeAwardingService = Mockito.mock(BadgeAwardingService.class);
-        KarmaServiceImpl karmaService = new KarmaServiceImpl(userRepository, null, badgeAwardingService);
+        KarmaServiceImpl karmaService = new KarmaServiceImpl(userRepository, null, null, event -> { }, null);
         UUID authorId = UUID.randomUUID();
         UUID voterId = UUID.randomUUID();
 
@@ -62,8 +59,7 @@ class KarmaServicePropertyTest {
     void downvoteShouldDecreaseKarmaByOne() {
         // Given
         UserRepository userRepository = Mockito.mock(UserRepository.class);
-        BadgeAwardingService badgeAwardingService = Mockito.mock(BadgeAwardingService.class);
-        KarmaServiceImpl karmaService = new KarmaServiceImpl(userRepository, null, badgeAwardingService);
+        KarmaServiceImpl karmaService = new KarmaServiceImpl(userRepository, null, null, event -> { }, null);
         UUID authorId = UUID.randomUUID();
         UUID voterId = UUID.randomUUID();
 
@@ -78,8 +74,7 @@ class KarmaServicePropertyTest {
     void voteRemovalShouldReturnKarmaToOriginal(@ForAll("voteDeltas") int voteDelta) {
         // Given
         UserRepository userRepository = Mockito.mock(UserRepository.class);
-        BadgeAwardingService badgeAwardingService = Mockito.mock(BadgeAwardingService.class);
-        KarmaServiceImpl karmaService = new KarmaServiceImpl(userRepository, null, badgeAwardingService);
+        KarmaServiceImpl karmaService = new KarmaServiceImpl(userRepository, null, null, event -> { }, null);
         UUID authorId = UUID.randomUUID();
         UUID voterId = UUID.randomUUID();
         int removalDelta = -voteDelta;
@@ -97,8 +92,7 @@ class KarmaServicePropertyTest {
     void voteFlipShouldChangeKarmaByTwo(@ForAll("flipDeltas") int flipDelta) {
         // Given
         UserRepository userRepository = Mockito.mock(UserRepository.class);
-        BadgeAwardingService badgeAwardingService = Mockito.mock(BadgeAwardingService.class);
-        KarmaServiceImpl karmaService = new KarmaServiceImpl(userRepository, null, badgeAwardingService);
+        KarmaServiceImpl karmaService = new KarmaServiceImpl(userRepository, null, null, event -> { }, null);
         UUID authorId = UUID.randomUUID();
         UUID voterId = UUID.randomUUID();
 
@@ -155,8 +149,7 @@ class KarmaServicePropertyTest {
         // Given
         UserRepository userRepository = Mockito.mock(UserRepository.class);
         VoteRepository voteRepository = Mockito.mock(VoteRepository.class);
-        BadgeAwardingService badgeAwardingService = Mockito.mock(BadgeAwardingService.class);
-        KarmaServiceImpl karmaService = new KarmaServiceImpl(userRepository, voteRepository, badgeAwardingService);
+        KarmaServiceImpl karmaService = new KarmaServiceImpl(userRepository, voteRepository, null, event -> { }, null);
         UUID userId = UUID.randomUUID();
 
         when(voteRepository.calculatePostKarma(userId)).thenReturn(postKarma);
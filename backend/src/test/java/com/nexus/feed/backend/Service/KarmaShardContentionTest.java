@@ -0,0 +1,131 @@
+package com.nexus.feed.backend.Service;
+
+import com.nexus.feed.backend.Auth.Entity.AppUser;
+import com.nexus.feed.backend.Auth.Repository.AppUserRepository;
+import com.nexus.feed.backend.Entity.Users;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hundreds of voters upvoting one author at once, the shape of a post going
+ * viral, through both the author's row and striped karma rows; every vote must
+ * be counted exactly once either way.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Karma Shard Contention Tests")
+class KarmaShardContentionTest {
+
+    private static final int THREADS = 16;
+    private static final int VOTERS = 400;
+
+    @Autowired
+    private KarmaService karmaService;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Users author;
+    private final List<UUID> voterIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        AppUser appUser = new AppUser();
+        appUser.setEmail("karma_author@example.com");
+        appUser.setPassword("password");
+        author = new Users();
+        author.setUsername("karma_author");
+        author.setCreatedAt(Instant.now());
+        author.setUpdatedAt(Instant.now());
+        author.setAppUser(appUser);
+        appUser.setUserProfile(author);
+        appUserRepository.save(appUser);
+        for (int i = 0; i < VOTERS; i++) {
+            voterIds.add(UUID.randomUUID());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        setSharding(false);
+        jdbcTemplate.update("DELETE FROM karma_shards WHERE user_id = ?", author.getId());
+        appUserRepository.deleteById(author.getAppUser().getId());
+    }
+
+    private void setSharding(boolean enabled) {
+        Object target = AopTestUtils.getTargetObject(karmaService);
+        ReflectionTestUtils.setField(target, "shardingEnabled", enabled);
+    }
+
+    private void upvoteFromEveryVoter() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (UUID voterId : voterIds) {
+            tasks.add(() -> {
+                new TransactionTemplate(transactionManager).executeWithoutResult(
+                        status -> karmaService.updateKarmaForVote(author.getId(), voterId, 1));
+                return null;
+            });
+        }
+        for (Future<Void> future : pool.invokeAll(tasks)) {
+            future.get();
+        }
+        pool.shutdown();
+    }
+
+    private long storedKarma() {
+        return jdbcTemplate.queryForObject("SELECT karma FROM users WHERE id = ?", Long.class, author.getId());
+    }
+
+    @Test
+    @DisplayName("Striped karma should count every concurrent vote and fold back exactly")
+    void stripedKarmaStaysExact() throws Exception {
+        upvoteFromEveryVoter();
+        assertThat(storedKarma()).isEqualTo(VOTERS);
+
+        setSharding(true);
+        upvoteFromEveryVoter();
+
+        assertThat(storedKarma()).isEqualTo(VOTERS);
+        Integer stripes = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM karma_shards WHERE user_id = ?", Integer.class, author.getId());
+        assertThat(stripes).isGreaterThan(1);
+
+        Users reloaded = new Users();
+        reloaded.setId(author.getId());
+        reloaded.setKarma(storedKarma());
+        assertThat(karmaService.getKarma(reloaded)).isEqualTo(2L * VOTERS);
+
+        karmaService.compactShards(100);
+        assertThat(storedKarma()).isEqualTo(2L * VOTERS);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM karma_shards WHERE user_id = ?", Integer.class, author.getId())).isZero();
+    }
+}
@@ -0,0 +1,109 @@
+package com.nexus.feed.backend.Service;
+
+import com.nexus.feed.backend.Auth.Entity.AppUser;
+import com.nexus.feed.backend.DTO.PostResponse;
+import com.nexus.feed.backend.Entity.Post;
+import com.nexus.feed.backend.Entity.PostImage;
+import com.nexus.feed.backend.Entity.Tag;
+import com.nexus.feed.backend.Entity.Users;
+import com.nexus.feed.backend.Entity.Vote;
+import com.nexus.feed.backend.Repository.PostRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pins the post detail read to two projection queries that load no entities into
+ * the persistence context.
+ */
+@SpringBootTest(properties = StatementCounter.PROPERTY)
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Post Detail Query Count Tests")
+class PostDetailQueryCountTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Users author;
+    private UUID postId;
+
+    @BeforeEach
+    void setUp() {
+        AppUser appUser = new AppUser();
+        appUser.setEmail("detail_author@example.com");
+        appUser.setPassword("password");
+        author = new Users();
+        author.setUsername("detail_author");
+        author.setCreatedAt(Instant.now());
+        author.setUpdatedAt(Instant.now());
+        author.setAppUser(appUser);
+        appUser.setUserProfile(author);
+        entityManager.persist(appUser);
+
+        Post post = new Post();
+        post.setTitle("Detailed post");
+        post.setBody("Body");
+        post.setUser(author);
+        for (String name : new String[]{"spring", "java"}) {
+            Tag tag = Tag.builder().name("detail_" + name).build();
+            entityManager.persist(tag);
+            post.getTags().add(tag);
+        }
+        entityManager.persist(post);
+        for (int i = 2; i >= 0; i--) {
+            PostImage image = new PostImage();
+            image.setPost(post);
+            image.setImageUrl("https://img.example.com/" + i + ".png");
+            image.setOrderIndex(i);
+            entityManager.persist(image);
+        }
+        entityManager.persist(new Vote(new Vote.VoteId(author.getId(), post.getId()),
+                Vote.VotableType.POST, Vote.VoteValue.DOWNVOTE));
+        entityManager.flush();
+        entityManager.clear();
+        postId = post.getId();
+    }
+
+    @Test
+    @DisplayName("Post detail takes two statements and leaves nothing managed")
+    void postDetailTakesTwoStatements() {
+        entityManager.clear();
+        StatementCounter.reset();
+        PostResponse response = postService.getPostById(postId);
+
+        assertThat(StatementCounter.statements()).isEqualTo(2);
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+        assertThat(response.getUsername()).isEqualTo("detail_author");
+        assertThat(response.getImageUrls()).containsExactly(
+                "https://img.example.com/0.png", "https://img.example.com/1.png", "https://img.example.com/2.png");
+        assertThat(response.getTags()).containsExactly("detail_java", "detail_spring");
+        assertThat(response.getUserVote()).isNull();
+    }
+
+    @Test
+    @DisplayName("Detail projection carries the viewer's vote")
+    void detailProjectionCarriesViewerVote() {
+        assertThat(postRepository.findDetailById(postId, author.getId()).orElseThrow().getUserVote())
+                .isEqualTo(Vote.VoteValue.DOWNVOTE);
+        assertThat(postRepository.findDetailById(postId, UUID.randomUUID()).orElseThrow().getUserVote()).isNull();
+        assertThat(postRepository.findDetailById(postId, null).orElseThrow().getUserVote()).isNull();
+    }
+}
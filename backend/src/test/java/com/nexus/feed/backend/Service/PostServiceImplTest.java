@@ -2,16 +2,22 @@ package com.nexus.feed.backend.Service;
 
 import com.nexus.feed.backend.DTO.*;
 import com.nexus.feed.backend.Entity.*;
+import com.nexus.feed.backend.Event.PostCreatedEvent;
+import com.nexus.feed.backend.Event.PostDeletedEvent;
+import com.nexus.feed.backend.Event.PostUpdatedEvent;
 import com.nexus.feed.backend.Exception.ResourceNotFoundException;
 import com.nexus.feed.backend.Exception.UnauthorizedException;
 import com.nexus.feed.backend.Repository.*;
+import com.nexus.feed.backend.Search.Service.PostSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -40,10 +46,7 @@ class PostServiceImplTest {
     private PostImageRepository postImageRepository;
 
     @Mock
-    private VoteRepository voteRepository;
-
-    @Mock
-    private CommentRepository commentRepository;
+    private VoteCache voteCache;
 
     @Mock
     private AuthenticationService authenticationService;
@@ -55,13 +58,25 @@ class PostServiceImplTest {
     private KarmaService karmaService;
 
     @Mock
-    private BadgeAwardingService badgeAwardingService;
+    private TagService tagService;
 
     @Mock
-    private TagService tagService;
+    private FeedRankingService feedRankingService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PostSearchIndex postSearchIndex;
+
+    @Mock
+    private VoteBuffer voteBuffer;
+
+    @Mock
+    private UserStatsService userStatsService;
 
     @Mock
-    private TagRepository tagRepository;
+    private CommentRepository commentRepository;
 
     @InjectMocks
     private PostServiceImpl postService;
@@ -91,6 +106,70 @@ class PostServiceImplTest {
         post.setTags(new HashSet<>());
     }
 
+    private PostRepository.PostDetailView detailView(Vote.VoteValue userVote) {
+        return new PostRepository.PostDetailView() {
+            public UUID getId() {
+                return post.getId();
+            }
+
+            public String getTitle() {
+                return post.getTitle();
+            }
+
+            public String getBody() {
+                return post.getBody();
+            }
+
+            public Instant getCreatedAt() {
+                return post.getCreatedAt();
+            }
+
+            public Instant getUpdatedAt() {
+                return post.getUpdatedAt();
+            }
+
+            public UUID getUserId() {
+                return user.getId();
+            }
+
+            public String getUsername() {
+                return user.getUsername();
+            }
+
+            public String getProfilePictureUrl() {
+                return user.getProfilePictureUrl();
+            }
+
+            public Integer getCommentCount() {
+                return post.getCommentCount();
+            }
+
+            public Integer getUpvoteCount() {
+                return post.getUpvoteCount();
+            }
+
+            public Integer getDownvoteCount() {
+                return post.getDownvoteCount();
+            }
+
+            public Vote.VoteValue getUserVote() {
+                return userVote;
+            }
+        };
+    }
+
+    private static PostRepository.PostAttributeView attribute(String kind, String content) {
+        return new PostRepository.PostAttributeView() {
+            public String getKind() {
+                return kind;
+            }
+
+            public String getContent() {
+                return content;
+            }
+        };
+    }
+
     @Test
     @DisplayName("Should create post successfully")
     void shouldCreatePostSuccessfully() {
@@ -101,8 +180,6 @@ class PostServiceImplTest {
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(postRepository.save(any(Post.class))).thenReturn(post);
-        when(voteRepository.countByVotableIdAndVotableTypeAndVoteValue(any(), any(), any())).thenReturn(0L);
-        when(commentRepository.countByPost(any())).thenReturn(0L);
 
         // When
         PostResponse response = postService.createPost(userId, request);
@@ -111,7 +188,10 @@ class PostServiceImplTest {
         assertThat(response).isNotNull();
         assertThat(response.getUsername()).isEqualTo("tester");
         verify(postRepository).save(any(Post.class));
-        verify(badgeAwardingService).checkPostBadges(userId);
+        ArgumentCaptor<PostCreatedEvent> event = ArgumentCaptor.forClass(PostCreatedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().authorId()).isEqualTo(userId);
+        verify(userStatsService).recordPost(userId, 1);
     }
 
     @Test
@@ -130,8 +210,6 @@ class PostServiceImplTest {
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(tagService.getOrCreateTags(anyList())).thenReturn(tags);
         when(postRepository.save(any(Post.class))).thenReturn(post);
-        when(voteRepository.countByVotableIdAndVotableTypeAndVoteValue(any(), any(), any())).thenReturn(0L);
-        when(commentRepository.countByPost(any())).thenReturn(0L);
 
         // When
         PostResponse response = postService.createPost(userId, request);
@@ -153,8 +231,6 @@ class PostServiceImplTest {
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(postRepository.save(any(Post.class))).thenReturn(post);
         when(postImageRepository.saveAll(anyCollection())).thenReturn(new ArrayList<>());
-        when(voteRepository.countByVotableIdAndVotableTypeAndVoteValue(any(), any(), any())).thenReturn(0L);
-        when(commentRepository.countByPost(any())).thenReturn(0L);
 
         // When
         PostResponse response = postService.createPost(userId, request);
@@ -183,9 +259,11 @@ class PostServiceImplTest {
     @DisplayName("Should get post by id successfully")
     void shouldGetPostByIdSuccessfully() {
         // Given
-        when(postRepository.findByIdWithUserAndImages(postId)).thenReturn(Optional.of(post));
-        when(voteRepository.countByVotableIdAndVotableTypeAndVoteValue(any(), any(), any())).thenReturn(0L);
-        when(commentRepository.countByPost(any())).thenReturn(0L);
+        when(postRepository.findDetailById(postId, null)).thenReturn(Optional.of(detailView(null)));
+        when(postRepository.findDetailAttributesById(postId)).thenReturn(List.of(
+                attribute(PostRepository.ATTRIBUTE_IMAGE, "https://img/1.png"),
+                attribute(PostRepository.ATTRIBUTE_IMAGE, "https://img/2.png"),
+                attribute(PostRepository.ATTRIBUTE_TAG, "java")));
 
         // When
         PostResponse response = postService.getPostById(postId);
@@ -194,13 +272,17 @@ class PostServiceImplTest {
         assertThat(response).isNotNull();
         assertThat(response.getId()).isEqualTo(postId);
         assertThat(response.getTitle()).isEqualTo("Test Post");
+        assertThat(response.getImageUrls()).containsExactly("https://img/1.png", "https://img/2.png");
+        assertThat(response.getTags()).containsExactly("java");
+        assertThat(response.getUserVote()).isNull();
+        verify(postRepository, never()).findByIdWithUserAndImages(any());
     }
 
     @Test
     @DisplayName("Should throw ResourceNotFoundException when post not found")
     void shouldThrowExceptionWhenPostNotFound() {
         // Given
-        when(postRepository.findByIdWithUserAndImages(postId)).thenReturn(Optional.empty());
+        when(postRepository.findDetailById(postId, null)).thenReturn(Optional.empty());
 
         // When & Then
         assertThatThrownBy(() -> postService.getPostById(postId))
@@ -216,9 +298,7 @@ class PostServiceImplTest {
                 CommentResponse.builder().id(UUID.randomUUID()).body("Comment 1").build()
         );
 
-        when(postRepository.findByIdWithUserAndImages(postId)).thenReturn(Optional.of(post));
-        when(voteRepository.countByVotableIdAndVotableTypeAndVoteValue(any(), any(), any())).thenReturn(0L);
-        when(commentRepository.countByPost(any())).thenReturn(1L);
+        when(postRepository.findDetailById(postId, null)).thenReturn(Optional.of(detailView(null)));
         when(commentService.getCommentsByPost(postId)).thenReturn(comments);
 
         // When
@@ -238,8 +318,6 @@ class PostServiceImplTest {
         Page<Post> postPage = new PageImpl<>(List.of(post), pageable, 1);
 
         when(postRepository.findAllOrderByCreatedAtDesc(pageable)).thenReturn(postPage);
-        when(voteRepository.countByVotableIdsAndVotableType(anyList(), any())).thenReturn(new ArrayList<>());
-        when(commentRepository.countByPostIds(anyList())).thenReturn(new ArrayList<>());
 
         // When
         Page<PostResponse> responses = postService.getAllPosts(pageable, "new");
@@ -249,6 +327,102 @@ class PostServiceImplTest {
         assertThat(responses.getContent()).hasSize(1);
     }
 
+    @Test
+    @DisplayName("Should serve leading hot pages from the ranking index")
+    void shouldServeHotPageFromRankingIndex() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<UUID> rankedIds = new PageImpl<>(List.of(postId), pageable, 1);
+        when(feedRankingService.findPage("hot", pageable)).thenReturn(Optional.of(rankedIds));
+        when(postRepository.hydratePage(rankedIds)).thenReturn(new PageImpl<>(List.of(post), pageable, 1));
+
+        // When
+        Page<PostResponse> responses = postService.getAllPosts(pageable, "hot");
+
+        // Then
+        assertThat(responses.getContent()).extracting(PostResponse::getId).containsExactly(postId);
+        verify(postRepository, never()).findAllOrderByHot(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should fall back to SQL past the ranking window")
+    void shouldFallBackToSqlPastRankingWindow() {
+        // Given
+        Pageable pageable = PageRequest.of(500, 10);
+        when(feedRankingService.findPage("best", pageable)).thenReturn(Optional.empty());
+        when(postRepository.findAllOrderByBest(pageable)).thenReturn(new PageImpl<>(List.of(post), pageable, 5001));
+
+        // When
+        Page<PostResponse> responses = postService.getAllPosts(pageable, "best");
+
+        // Then
+        assertThat(responses.getContent()).hasSize(1);
+        verify(postRepository).findAllOrderByBest(pageable);
+    }
+
+    @Test
+    @DisplayName("Should return next cursor when more posts exist")
+    void shouldReturnNextCursorWhenMorePostsExist() {
+        // Given
+        Post second = new Post();
+        second.setId(UUID.randomUUID());
+        second.setTitle("Older Post");
+        second.setUser(user);
+        second.setCreatedAt(post.getCreatedAt().minusSeconds(60));
+        second.setImages(new LinkedHashSet<>());
+        second.setTags(new HashSet<>());
+
+        when(postRepository.findFeedNewFirst(PageRequest.of(0, 2))).thenReturn(List.of(post, second));
+
+        // When
+        CursorPage<PostResponse> page = postService.getPostFeed(null, 1, "new");
+
+        // Then
+        assertThat(page.getContent()).extracting(PostResponse::getId).containsExactly(postId);
+        assertThat(page.isHasNext()).isTrue();
+        FeedCursor cursor = FeedCursor.decode(page.getNextCursor());
+        assertThat(cursor.sort()).isEqualTo("new");
+        assertThat(cursor.id()).isEqualTo(postId);
+        assertThat(cursor.createdAt()).isEqualTo(post.getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("Should continue feed after cursor position")
+    void shouldContinueFeedAfterCursor() {
+        // Given
+        post.setScore(4);
+        String cursor = new FeedCursor("best", 7, Instant.parse("2024-01-01T00:00:00Z"), UUID.randomUUID(), null).encode();
+        FeedCursor position = FeedCursor.decode(cursor);
+
+        when(postRepository.findFeedBestAfter(7, position.createdAt(), position.id(), PageRequest.of(0, 11)))
+                .thenReturn(List.of(post));
+
+        // When
+        CursorPage<PostResponse> page = postService.getPostFeed(cursor, 10, "best");
+
+        // Then
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject cursor issued for a different sort")
+    void shouldRejectCursorForDifferentSort() {
+        String cursor = new FeedCursor("new", 0, Instant.now(), UUID.randomUUID(), null).encode();
+
+        assertThatThrownBy(() -> postService.getPostFeed(cursor, 10, "best"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursor")
+    void shouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> postService.getPostFeed("not-a-cursor", 10, "new"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid feed cursor");
+    }
+
     @Test
     @DisplayName("Should get posts by user with pagination")
     void shouldGetPostsByUserWithPagination() {
@@ -258,8 +432,6 @@ class PostServiceImplTest {
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(postRepository.findByUserOrderByCreatedAtDesc(user, pageable)).thenReturn(postPage);
-        when(voteRepository.countByVotableIdsAndVotableType(anyList(), any())).thenReturn(new ArrayList<>());
-        when(commentRepository.countByPostIds(anyList())).thenReturn(new ArrayList<>());
 
         // When
         Page<PostResponse> responses = postService.getPostsByUser(userId, pageable);
@@ -269,6 +441,24 @@ class PostServiceImplTest {
         assertThat(responses.getContent()).hasSize(1);
     }
 
+    @Test
+    @DisplayName("Should search posts through the search index once it is ready")
+    void shouldSearchPostsThroughIndexWhenReady() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<UUID> hits = new PageImpl<>(List.of(postId), pageable, 1);
+        when(postSearchIndex.isReady()).thenReturn(true);
+        when(postSearchIndex.search("test", pageable)).thenReturn(hits);
+        when(postRepository.hydratePage(hits)).thenReturn(new PageImpl<>(List.of(post), pageable, 1));
+
+        // When
+        Page<PostResponse> responses = postService.searchPosts("test", pageable);
+
+        // Then
+        assertThat(responses.getContent()).extracting(PostResponse::getId).containsExactly(postId);
+        verify(postRepository, never()).findByTitleContainingOrBodyContainingOrderByCreatedAtDesc(any(), any());
+    }
+
     @Test
     @DisplayName("Should search posts by keyword")
     void shouldSearchPostsByKeyword() {
@@ -278,8 +468,6 @@ class PostServiceImplTest {
 
         when(postRepository.findByTitleContainingOrBodyContainingOrderByCreatedAtDesc("test", pageable))
                 .thenReturn(postPage);
-        when(voteRepository.countByVotableIdsAndVotableType(anyList(), any())).thenReturn(new ArrayList<>());
-        when(commentRepository.countByPostIds(anyList())).thenReturn(new ArrayList<>());
 
         // When
         Page<PostResponse> responses = postService.searchPosts("test", pageable);
@@ -297,8 +485,6 @@ class PostServiceImplTest {
         Page<Post> postPage = new PageImpl<>(List.of(post), pageable, 1);
 
         when(postRepository.findByTagName("java", pageable)).thenReturn(postPage);
-        when(voteRepository.countByVotableIdsAndVotableType(anyList(), any())).thenReturn(new ArrayList<>());
-        when(commentRepository.countByPostIds(anyList())).thenReturn(new ArrayList<>());
 
         // When
         Page<PostResponse> responses = postService.searchByTag("Java", pageable);
@@ -318,8 +504,6 @@ class PostServiceImplTest {
 
         when(postRepository.findById(postId)).thenReturn(Optional.of(post));
         when(postRepository.save(any(Post.class))).thenReturn(post);
-        when(voteRepository.countByVotableIdAndVotableTypeAndVoteValue(any(), any(), any())).thenReturn(0L);
-        when(commentRepository.countByPost(any())).thenReturn(0L);
 
         // When
         PostResponse response = postService.updatePost(postId, userId, request);
@@ -327,6 +511,7 @@ class PostServiceImplTest {
         // Then
         assertThat(response).isNotNull();
         verify(postRepository).save(any(Post.class));
+        verify(eventPublisher).publishEvent(new PostUpdatedEvent(postId));
     }
 
     @Test
@@ -358,8 +543,6 @@ class PostServiceImplTest {
         when(postRepository.findById(postId)).thenReturn(Optional.of(post));
         when(tagService.getOrCreateTags(anyList())).thenReturn(tags);
         when(postRepository.save(any(Post.class))).thenReturn(post);
-        when(voteRepository.countByVotableIdAndVotableTypeAndVoteValue(any(), any(), any())).thenReturn(0L);
-        when(commentRepository.countByPost(any())).thenReturn(0L);
 
         // When
         PostResponse response = postService.updatePost(postId, userId, request);
@@ -375,34 +558,32 @@ class PostServiceImplTest {
         // Given
         when(postRepository.findById(postId)).thenReturn(Optional.of(post));
         doNothing().when(postRepository).delete(any(Post.class));
-        when(tagRepository.deleteOrphanTags()).thenReturn(0);
-        doNothing().when(karmaService).recalculateKarma(any());
+        when(karmaService.karmaOnPost(postId)).thenReturn(Map.of(userId, 4L));
 
         // When
         postService.deletePost(postId, userId);
 
         // Then
         verify(postRepository).delete(post);
-        verify(tagRepository).deleteOrphanTags();
-        verify(karmaService).recalculateKarma(userId);
+        verify(eventPublisher).publishEvent(new PostDeletedEvent(postId));
+        verify(userStatsService).refresh(Set.of(userId));
+        verify(karmaService).subtractKarma(Map.of(userId, 4L));
+        verify(karmaService, never()).recalculateKarma(any());
     }
 
     @Test
-    @DisplayName("Should delete post and clean up orphan tags")
-    void shouldDeletePostAndCleanUpOrphanTags() {
+    @DisplayName("Should release the post's tags on delete and leave orphans to the sweeper")
+    void shouldReleasePostTagsOnDelete() {
         // Given
         when(postRepository.findById(postId)).thenReturn(Optional.of(post));
         doNothing().when(postRepository).delete(any(Post.class));
-        when(tagRepository.deleteOrphanTags()).thenReturn(2);
-        doNothing().when(karmaService).recalculateKarma(any());
 
         // When
         postService.deletePost(postId, userId);
 
         // Then
+        verify(tagService).recordPostTagsChanged(post.getTags(), Set.of(), post.getCreatedAt());
         verify(postRepository).delete(post);
-        verify(tagRepository).deleteOrphanTags();
-        verify(karmaService).recalculateKarma(userId);
     }
 
     @Test
@@ -451,16 +632,12 @@ class PostServiceImplTest {
     void shouldIncludeUserVoteWhenAuthenticated() {
         // Given
         UUID currentUserId = UUID.randomUUID();
-        Vote vote = new Vote();
-        vote.setVoteValue(Vote.VoteValue.UPVOTE);
 
-        when(postRepository.findByIdWithUserAndImages(postId)).thenReturn(Optional.of(post));
-        when(voteRepository.countByVotableIdAndVotableTypeAndVoteValue(postId, Vote.VotableType.POST, Vote.VoteValue.UPVOTE)).thenReturn(5L);
-        when(voteRepository.countByVotableIdAndVotableTypeAndVoteValue(postId, Vote.VotableType.POST, Vote.VoteValue.DOWNVOTE)).thenReturn(1L);
+        post.setUpvoteCount(5);
+        post.setDownvoteCount(1);
         when(authenticationService.getCurrentUserId()).thenReturn(currentUserId);
-        when(voteRepository.findByUserIdAndVotableIdAndVotableType(currentUserId, postId, Vote.VotableType.POST))
-                .thenReturn(Optional.of(vote));
-        when(commentRepository.countByPost(any())).thenReturn(0L);
+        when(postRepository.findDetailById(postId, currentUserId))
+                .thenReturn(Optional.of(detailView(Vote.VoteValue.UPVOTE)));
 
         // When
         PostResponse response = postService.getPostById(postId);
@@ -471,4 +648,23 @@ class PostServiceImplTest {
         assertThat(response.getDownvotes()).isEqualTo(1);
         assertThat(response.getUserVote()).isEqualTo("UPVOTE");
     }
+
+    @Test
+    @DisplayName("Should overlay a buffered vote on the projected vote")
+    void shouldOverlayBufferedVoteOnPostDetail() {
+        // Given
+        UUID currentUserId = UUID.randomUUID();
+
+        when(authenticationService.getCurrentUserId()).thenReturn(currentUserId);
+        when(postRepository.findDetailById(postId, currentUserId))
+                .thenReturn(Optional.of(detailView(Vote.VoteValue.UPVOTE)));
+        when(voteBuffer.isEnabled()).thenReturn(true);
+        when(voteBuffer.userVote(currentUserId, postId, Vote.VoteValue.UPVOTE)).thenReturn(null);
+
+        // When
+        PostResponse response = postService.getPostById(postId);
+
+        // Then
+        assertThat(response.getUserVote()).isNull();
+    }
 }
@@ -13,12 +13,15 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
 
@@ -41,6 +44,9 @@ class PostSortingPropertyTest {
     @Autowired
     private VoteRepository voteRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     @BeforeEach
     void setUp() {
         voteRepository.deleteAll();
@@ -81,6 +87,11 @@ class PostSortingPropertyTest {
         vote.setVotableType(Vote.VotableType.POST);
         vote.setVoteValue(voteValue);
         voteRepository.save(vote);
+        // Mirror what PostStatsService does for real votes
+        postRepository.applyVoteDelta(postId,
+                voteValue == Vote.VoteValue.UPVOTE ? 1 : 0,
+                voteValue == Vote.VoteValue.DOWNVOTE ? 1 : 0,
+                Instant.now());
     }
 
     @Test
@@ -173,4 +184,82 @@ class PostSortingPropertyTest {
 
         assertThat(bestPosts.getContent()).hasSize(2);
     }
+
+    @Test
+    @DisplayName("Best sorting ranks an older post with a higher score first")
+    void bestSortingRanksOlderHigherScoredPostFirst() {
+        Users author = createUser("author_score");
+        Instant baseTime = Instant.now();
+
+        Post olderPost = createPost(author, "Older popular", baseTime.minus(2, ChronoUnit.HOURS));
+        Post newerPost = createPost(author, "Newer unpopular", baseTime.minus(1, ChronoUnit.HOURS));
+
+        Users voter1 = createUser("voter_score1");
+        Users voter2 = createUser("voter_score2");
+        addVote(voter1.getId(), olderPost.getId(), Vote.VoteValue.UPVOTE);
+        addVote(voter2.getId(), olderPost.getId(), Vote.VoteValue.UPVOTE);
+        addVote(voter1.getId(), newerPost.getId(), Vote.VoteValue.DOWNVOTE);
+
+        List<Post> best = postRepository.findAllOrderByBest(PageRequest.of(0, 100)).getContent();
+        List<Post> hot = postRepository.findAllOrderByHot(PageRequest.of(0, 100)).getContent();
+
+        assertThat(best).extracting(Post::getTitle).containsExactly("Older popular", "Newer unpopular");
+        assertThat(hot).extracting(Post::getTitle).containsExactly("Older popular", "Newer unpopular");
+    }
+
+    @Test
+    @DisplayName("Keyset feed queries visit every post exactly once in sort order")
+    void keysetFeedVisitsEveryPostOnce() {
+        Users author = createUser("author_keyset");
+        Users voter = createUser("voter_keyset");
+        Instant baseTime = Instant.now();
+        for (int i = 0; i < 7; i++) {
+            Post post = createPost(author, "Keyset " + i, baseTime.minus(i, ChronoUnit.HOURS));
+            if (i % 2 == 0) {
+                addVote(voter.getId(), post.getId(), Vote.VoteValue.UPVOTE);
+            }
+        }
+        // Counter updates bypass the persistence context; read fresh rows like a new request would
+        entityManager.flush();
+        entityManager.clear();
+        PageRequest limit = PageRequest.of(0, 3);
+
+        // new: (createdAt, id)
+        List<UUID> newIds = new ArrayList<>();
+        List<Post> slice = postRepository.findFeedNewFirst(limit);
+        while (!slice.isEmpty()) {
+            slice.forEach(p -> newIds.add(p.getId()));
+            Post last = slice.get(slice.size() - 1);
+            slice = postRepository.findFeedNewAfter(last.getCreatedAt(), last.getId(), limit);
+        }
+        assertThat(newIds).doesNotHaveDuplicates().hasSize(7);
+
+        // best: (score, createdAt, id)
+        List<Post> bestOrder = new ArrayList<>();
+        slice = postRepository.findFeedBestFirst(limit);
+        while (!slice.isEmpty()) {
+            bestOrder.addAll(slice);
+            Post last = slice.get(slice.size() - 1);
+            slice = postRepository.findFeedBestAfter(last.getScore(), last.getCreatedAt(), last.getId(), limit);
+        }
+        assertThat(bestOrder).extracting(Post::getId).doesNotHaveDuplicates().hasSize(7);
+        assertThat(bestOrder).extracting(Post::getScore).isSortedAccordingTo(Comparator.reverseOrder());
+
+        // hot: (rank at asOf, createdAt, id)
+        Instant asOf = Instant.now();
+        List<UUID> hotIds = new ArrayList<>();
+        List<Double> hotRanks = new ArrayList<>();
+        List<PostRepository.HotFeedKey> keys = postRepository.findFeedHotFirst(asOf, limit);
+        while (!keys.isEmpty()) {
+            keys.forEach(k -> {
+                hotIds.add(k.getPostId());
+                hotRanks.add(k.getHotRank());
+            });
+            PostRepository.HotFeedKey last = keys.get(keys.size() - 1);
+            Post lastPost = postRepository.findById(last.getPostId()).orElseThrow();
+            keys = postRepository.findFeedHotAfter(asOf, last.getHotRank(), lastPost.getCreatedAt(), last.getPostId(), limit);
+        }
+        assertThat(hotIds).doesNotHaveDuplicates().hasSize(7);
+        assertThat(hotRanks).isSortedAccordingTo(Comparator.reverseOrder());
+    }
 }
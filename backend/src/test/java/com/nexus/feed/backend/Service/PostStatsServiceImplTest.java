@@ -0,0 +1,135 @@
+package com.nexus.feed.backend.Service;
+
+import com.nexus.feed.backend.Entity.Vote;
+import com.nexus.feed.backend.Event.PostScoreChangedEvent;
+import com.nexus.feed.backend.Repository.CommentRepository;
+import com.nexus.feed.backend.Repository.PostRepository;
+import com.nexus.feed.backend.Repository.VoteRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PostStatsServiceImpl Unit Tests")
+class PostStatsServiceImplTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private VoteRepository voteRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private PostStatsServiceImpl postStatsService;
+
+    private final UUID postId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("Should increment upvotes for a new upvote")
+    void shouldIncrementUpvotesForNewUpvote() {
+        postStatsService.recordVote(postId, null, Vote.VoteValue.UPVOTE);
+
+        verify(postRepository).applyVoteDelta(eq(postId), eq(1), eq(0), any(Instant.class));
+        verify(eventPublisher).publishEvent(new PostScoreChangedEvent(postId, 1));
+    }
+
+    @Test
+    @DisplayName("Should move a vote between counters when it flips")
+    void shouldMoveVoteWhenFlipped() {
+        postStatsService.recordVote(postId, Vote.VoteValue.UPVOTE, Vote.VoteValue.DOWNVOTE);
+
+        verify(postRepository).applyVoteDelta(eq(postId), eq(-1), eq(1), any(Instant.class));
+        verify(eventPublisher).publishEvent(new PostScoreChangedEvent(postId, -2));
+    }
+
+    @Test
+    @DisplayName("Should decrement downvotes when a downvote is removed")
+    void shouldDecrementDownvotesWhenRemoved() {
+        postStatsService.recordVote(postId, Vote.VoteValue.DOWNVOTE, null);
+
+        verify(postRepository).applyVoteDelta(eq(postId), eq(0), eq(-1), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Should skip the update when the vote does not change")
+    void shouldSkipUnchangedVote() {
+        postStatsService.recordVote(postId, Vote.VoteValue.UPVOTE, Vote.VoteValue.UPVOTE);
+
+        verifyNoInteractions(postRepository, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should repair drifted counters and leave correct ones alone")
+    void shouldRepairDriftedCounters() {
+        UUID driftedId = UUID.randomUUID();
+        UUID correctId = UUID.randomUUID();
+        when(postRepository.findCountersOrderById(any(Pageable.class)))
+                .thenReturn(List.of(counters(driftedId, 5, 0, 0), counters(correctId, 1, 0, 2)));
+        when(voteRepository.countByVotableIdsAndVotableType(List.of(driftedId, correctId), Vote.VotableType.POST))
+                .thenReturn(List.of(voteCount(driftedId, Vote.VoteValue.UPVOTE, 3),
+                        voteCount(driftedId, Vote.VoteValue.DOWNVOTE, 1),
+                        voteCount(correctId, Vote.VoteValue.UPVOTE, 1)));
+        when(commentRepository.countByPostIds(List.of(driftedId, correctId)))
+                .thenReturn(List.of(commentCount(driftedId, 4), commentCount(correctId, 2)));
+
+        UUID last = postStatsService.reconcileBatch(null, 100);
+
+        assertThat(last).isEqualTo(correctId);
+        verify(postRepository).overwriteCounters(driftedId, 3, 1, 4);
+        verify(postRepository, never()).overwriteCounters(eq(correctId), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should return null when there are no more posts to reconcile")
+    void shouldReturnNullWhenNoMorePosts() {
+        UUID afterId = UUID.randomUUID();
+        when(postRepository.findCountersAfterId(eq(afterId), any(Pageable.class))).thenReturn(List.of());
+
+        assertThat(postStatsService.reconcileBatch(afterId, 100)).isNull();
+    }
+
+    private PostRepository.PostCounters counters(UUID id, int upvotes, int downvotes, int comments) {
+        return new PostRepository.PostCounters() {
+            public UUID getId() { return id; }
+            public Integer getUpvoteCount() { return upvotes; }
+            public Integer getDownvoteCount() { return downvotes; }
+            public Integer getCommentCount() { return comments; }
+        };
+    }
+
+    private VoteRepository.VoteCount voteCount(UUID votableId, Vote.VoteValue value, long count) {
+        return new VoteRepository.VoteCount() {
+            public UUID getVotableId() { return votableId; }
+            public Vote.VoteValue getVoteValue() { return value; }
+            public Long getCount() { return count; }
+        };
+    }
+
+    private CommentRepository.CommentCount commentCount(UUID postId, long count) {
+        return new CommentRepository.CommentCount() {
+            public UUID getPostId() { return postId; }
+            public Long getCount() { return count; }
+        };
+    }
+}
@@ -4,7 +4,13 @@ import com.nexus.feed.backend.DTO.TagResponse;
 import com.nexus.feed.backend.DTO.TrendingTagResponse;
 import com.nexus.feed.backend.Entity.Post;
 import com.nexus.feed.backend.Entity.Tag;
+import com.nexus.feed.backend.Entity.TagHourlyCount;
+import com.nexus.feed.backend.Event.TagPostCountsChangedEvent;
+import com.nexus.feed.backend.Repository.PostRepository;
+import com.nexus.feed.backend.Repository.TagHourlyCountRepository;
 import com.nexus.feed.backend.Repository.TagRepository;
+import com.nexus.feed.backend.Search.Service.RadixTrie;
+import com.nexus.feed.backend.Search.Service.TagAutocompleteIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,13 +18,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +40,18 @@ class TagServiceImplTest {
     @Mock
     private TagRepository tagRepository;
 
+    @Mock
+    private TagHourlyCountRepository tagHourlyCountRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private TagAutocompleteIndex tagAutocompleteIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private TagServiceImpl tagService;
 
@@ -45,13 +69,14 @@ class TagServiceImplTest {
     void shouldGetExistingTags() {
         // Given
         List<String> tagNames = List.of("java", "spring");
-        when(tagRepository.findByNameInIgnoreCase(any())).thenReturn(List.of(tag1, tag2));
+        when(tagRepository.findOrInsertIds(any())).thenReturn(Map.of("java", 1L, "spring", 2L));
+        when(tagRepository.findAllById(any())).thenReturn(List.of(tag1, tag2));
 
         // When
         Set<Tag> result = tagService.getOrCreateTags(tagNames);
 
         // Then
-        assertThat(result).hasSize(2);
+        assertThat(result).containsExactlyInAnyOrder(tag1, tag2);
         verify(tagRepository, never()).save(any(Tag.class));
     }
 
@@ -62,15 +87,72 @@ class TagServiceImplTest {
         List<String> tagNames = List.of("newtag");
         Tag newTag = Tag.builder().id(3L).name("newtag").build();
 
-        when(tagRepository.findByNameInIgnoreCase(any())).thenReturn(List.of());
-        when(tagRepository.save(any(Tag.class))).thenReturn(newTag);
+        when(tagRepository.findOrInsertIds(List.of("newtag"))).thenReturn(Map.of("newtag", 3L));
+        when(tagRepository.findAllById(any())).thenReturn(List.of(newTag));
 
         // When
         Set<Tag> result = tagService.getOrCreateTags(tagNames);
 
         // Then
-        assertThat(result).hasSize(1);
-        verify(tagRepository).save(any(Tag.class));
+        assertThat(result).containsExactly(newTag);
+    }
+
+    @Test
+    @DisplayName("Should resolve cached tag names without inserting")
+    void shouldResolveCachedTagNames() {
+        // Given
+        when(tagRepository.findOrInsertIds(List.of("java"))).thenReturn(Map.of("java", 1L));
+        when(tagRepository.findAllById(any())).thenReturn(List.of(tag1));
+        tagService.getOrCreateTags(List.of("java"));
+
+        // When
+        Set<Tag> result = tagService.getOrCreateTags(List.of("Java"));
+
+        // Then
+        assertThat(result).containsExactly(tag1);
+        verify(tagRepository, times(1)).findOrInsertIds(any());
+        verify(tagRepository, times(2)).findAllById(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("Should look up cached names again once their tag was deleted")
+    void shouldRefreshStaleCachedIds() {
+        // Given
+        Tag recreated = Tag.builder().id(9L).name("java").build();
+        when(tagRepository.findOrInsertIds(List.of("java")))
+                .thenReturn(Map.of("java", 1L))
+                .thenReturn(Map.of("java", 9L));
+        when(tagRepository.findAllById(List.of(1L))).thenReturn(List.of(tag1)).thenReturn(List.of());
+        when(tagRepository.findAllById(List.of(9L))).thenReturn(List.of(recreated));
+        tagService.getOrCreateTags(List.of("java"));
+
+        // When
+        Set<Tag> result = tagService.getOrCreateTags(List.of("java"));
+
+        // Then
+        assertThat(result).containsExactly(recreated);
+    }
+
+    @Test
+    @DisplayName("Should sweep unused tags in batches and forget their cached ids")
+    void shouldSweepOrphanTags() {
+        // Given
+        when(tagRepository.findOrInsertIds(List.of("java"))).thenReturn(Map.of("java", 1L)).thenReturn(Map.of("java", 4L));
+        when(tagRepository.findAllById(List.of(1L))).thenReturn(List.of(tag1));
+        when(tagRepository.findAllById(List.of(4L))).thenReturn(List.of(Tag.builder().id(4L).name("java").build()));
+        tagService.getOrCreateTags(List.of("java"));
+        when(tagRepository.findUnusedIdsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(1L, 3L));
+        when(tagRepository.deleteUnusedByIdIn(List.of(1L, 3L))).thenReturn(2);
+        when(tagRepository.findUnusedIdsAfter(eq(3L), any(Pageable.class))).thenReturn(List.of());
+
+        // When
+        Long cursor = tagService.sweepOrphanTags(0L, 2);
+
+        // Then
+        assertThat(cursor).isEqualTo(3L);
+        assertThat(tagService.sweepOrphanTags(cursor, 2)).isNull();
+        tagService.getOrCreateTags(List.of("java"));
+        verify(tagRepository, times(2)).findOrInsertIds(List.of("java"));
     }
 
     @Test
@@ -78,7 +160,9 @@ class TagServiceImplTest {
     void shouldNormalizeTagNamesToLowercase() {
         // Given
         List<String> tagNames = List.of("JAVA", "Spring");
-        when(tagRepository.findByNameInIgnoreCase(any())).thenReturn(List.of(tag1, tag2));
+        when(tagRepository.findOrInsertIds(argThat(names -> Set.copyOf(names).equals(Set.of("java", "spring")))))
+                .thenReturn(Map.of("java", 1L, "spring", 2L));
+        when(tagRepository.findAllById(any())).thenReturn(List.of(tag1, tag2));
 
         // When
         Set<Tag> result = tagService.getOrCreateTags(tagNames);
@@ -95,7 +179,7 @@ class TagServiceImplTest {
 
         // Then
         assertThat(result).isEmpty();
-        verify(tagRepository, never()).findByNameInIgnoreCase(any());
+        verifyNoInteractions(tagRepository);
     }
 
     @Test
@@ -116,8 +200,8 @@ class TagServiceImplTest {
         List<String> tagNames = List.of("", "  ", longTag, "valid");
         Tag validTag = Tag.builder().id(1L).name("valid").build();
 
-        when(tagRepository.findByNameInIgnoreCase(any())).thenReturn(List.of());
-        when(tagRepository.save(any(Tag.class))).thenReturn(validTag);
+        when(tagRepository.findOrInsertIds(List.of("valid"))).thenReturn(Map.of("valid", 1L));
+        when(tagRepository.findAllById(List.of(1L))).thenReturn(List.of(validTag));
 
         // When
         Set<Tag> result = tagService.getOrCreateTags(tagNames);
@@ -130,7 +214,8 @@ class TagServiceImplTest {
     @DisplayName("Should search tags by query")
     void shouldSearchTagsByQuery() {
         // Given
-        when(tagRepository.searchByName("jav")).thenReturn(List.of(tag1));
+        tag1.setPostCount(7);
+        when(tagRepository.searchByName(eq("jav"), any(Pageable.class))).thenReturn(List.of(tag1));
 
         // When
         List<TagResponse> result = tagService.searchTags("jav");
@@ -138,27 +223,73 @@ class TagServiceImplTest {
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getName()).isEqualTo("java");
+        assertThat(result.get(0).getPostCount()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Should search short queries by escaped prefix")
+    void shouldSearchShortQueriesByPrefix() {
+        // Given
+        when(tagRepository.searchByNamePrefix(eq("c\\_"), any(Pageable.class))).thenReturn(List.of());
+
+        // When
+        List<TagResponse> result = tagService.searchTags(" c_ ");
+
+        // Then
+        assertThat(result).isEmpty();
+        verify(tagRepository, never()).searchByName(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should complete prefixes from the autocomplete index and fill with substring matches")
+    void shouldCompleteFromIndexAndFillWithSubstringMatches() {
+        // Given
+        Tag javascript = Tag.builder().id(3L).name("javascript").postCount(4).build();
+        Tag kotlinJava = Tag.builder().id(4L).name("kotlin-java").postCount(2).build();
+        when(tagAutocompleteIndex.isReady()).thenReturn(true);
+        when(tagAutocompleteIndex.complete("jav", 10)).thenReturn(List.of(
+                new RadixTrie.Entry(1L, "java", 7), new RadixTrie.Entry(3L, "javascript", 4)));
+        when(tagRepository.searchByName(eq("jav"), any(Pageable.class))).thenReturn(List.of(javascript, kotlinJava));
+
+        // When
+        List<TagResponse> result = tagService.searchTags("jav");
+
+        // Then
+        assertThat(result).extracting(TagResponse::getName).containsExactly("java", "javascript", "kotlin-java");
+        assertThat(result.get(0).getPostCount()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Should answer short queries from the autocomplete index alone")
+    void shouldAnswerShortQueriesFromIndex() {
+        when(tagAutocompleteIndex.isReady()).thenReturn(true);
+        when(tagAutocompleteIndex.complete("c", 10)).thenReturn(List.of(new RadixTrie.Entry(5L, "css", 3)));
+
+        List<TagResponse> result = tagService.searchTags("c");
+
+        assertThat(result).extracting(TagResponse::getName).containsExactly("css");
+        verifyNoInteractions(tagRepository);
     }
 
     @Test
     @DisplayName("Should return trending tags when search query is empty")
     void shouldReturnTrendingTagsWhenQueryEmpty() {
         // Given
-        when(tagRepository.findTopTags()).thenReturn(List.of(tag1, tag2));
+        when(tagRepository.findTopTags(PageRequest.of(0, 10))).thenReturn(List.of(tag1, tag2));
 
         // When
         List<TagResponse> result = tagService.searchTags("");
 
         // Then
         assertThat(result).hasSize(2);
-        verify(tagRepository).findTopTags();
+        verify(tagRepository).findTopTags(PageRequest.of(0, 10));
     }
 
     @Test
     @DisplayName("Should get trending tags")
     void shouldGetTrendingTags() {
         // Given
-        when(tagRepository.findTopTags()).thenReturn(List.of(tag1, tag2));
+        when(tagRepository.findTopTags(PageRequest.of(0, 10))).thenReturn(List.of(tag1, tag2));
 
         // When
         List<TagResponse> result = tagService.getTrendingTags(10);
@@ -216,35 +347,146 @@ class TagServiceImplTest {
     @Test
     @DisplayName("Should get trending tags with score")
     void shouldGetTrendingTagsWithScore() {
-        // Given
-        Post recentPost = new Post();
-        recentPost.setCreatedAt(Instant.now().minus(Duration.ofHours(6)));
-        tag1.setPosts(new HashSet<>(List.of(recentPost)));
-
-        when(tagRepository.findAllWithPosts()).thenReturn(List.of(tag1));
+        // Given: two posts on java in the last day, one on spring three days ago
+        Instant now = Instant.now();
+        when(tagHourlyCountRepository.findSince(any())).thenReturn(List.of(
+                bucket(1L, now.minus(Duration.ofHours(6)), 2),
+                bucket(2L, now.minus(Duration.ofDays(3)), 1)));
+        when(tagRepository.findSummariesByIdIn(any())).thenReturn(List.of(summary(2L, "spring", 4), summary(1L, "java", 9)));
 
         // When
         List<TrendingTagResponse> result = tagService.getTrendingTagsWithScore(10);
 
         // Then
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getTrendingScore()).isGreaterThan(0);
+        assertThat(result).extracting(TrendingTagResponse::getName).containsExactly("java", "spring");
+        assertThat(result.get(0).getTrendingScore()).isEqualTo(2.0);
+        assertThat(result.get(0).getPostCount()).isEqualTo(9);
+        assertThat(result.get(1).getTrendingScore()).isEqualTo(0.5);
     }
 
     @Test
     @DisplayName("Should exclude tags with no recent posts from trending")
     void shouldExcludeTagsWithNoRecentPosts() {
         // Given
-        Post oldPost = new Post();
-        oldPost.setCreatedAt(Instant.now().minus(Duration.ofDays(60)));
-        tag1.setPosts(new HashSet<>(List.of(oldPost)));
-
-        when(tagRepository.findAllWithPosts()).thenReturn(List.of(tag1));
+        when(tagHourlyCountRepository.findSince(any())).thenReturn(List.of());
 
         // When
         List<TrendingTagResponse> result = tagService.getTrendingTagsWithScore(10);
 
         // Then
         assertThat(result).isEmpty();
+        verify(tagRepository, never()).findSummariesByIdIn(any());
+    }
+
+    @Test
+    @DisplayName("Should keep only the top K tags when refreshing")
+    void shouldKeepTopKTagsOnRefresh() {
+        // Given
+        ReflectionTestUtils.setField(tagService, "trendingTopK", 2);
+        Instant recent = Instant.now().minus(Duration.ofHours(1));
+        when(tagHourlyCountRepository.findSince(any())).thenReturn(List.of(
+                bucket(1L, recent, 5), bucket(2L, recent, 1), bucket(3L, recent, 3)));
+        when(tagRepository.findSummariesByIdIn(Set.of(1L, 3L)))
+                .thenReturn(List.of(summary(1L, "java", 5), summary(3L, "kotlin", 3)));
+
+        // When
+        tagService.refreshTrendingTags();
+        List<TrendingTagResponse> result = tagService.getTrendingTagsWithScore(10);
+
+        // Then
+        assertThat(result).extracting(TrendingTagResponse::getName).containsExactly("java", "kotlin");
+        verify(tagHourlyCountRepository).deleteExpired(any());
+        verify(tagHourlyCountRepository, times(1)).findSince(any());
+    }
+
+    @Test
+    @DisplayName("Should move hourly counts for tags added to and removed from a post")
+    void shouldRecordPostTagChanges() {
+        // Given
+        Tag kotlin = Tag.builder().id(3L).name("kotlin").posts(new HashSet<>()).build();
+        Instant createdAt = Instant.now().minus(Duration.ofMinutes(90));
+        Instant hour = createdAt.truncatedTo(ChronoUnit.HOURS);
+
+        // When
+        tagService.recordPostTagsChanged(Set.of(tag1, tag2), Set.of(tag2, kotlin), createdAt);
+
+        // Then
+        verify(tagRepository).adjustPostCount(List.of(1L), -1);
+        verify(tagRepository).adjustPostCount(List.of(3L), 1);
+        verify(tagHourlyCountRepository).addCounts(Map.of(
+                new TagHourlyCount.TagHourlyCountId(1L, hour), -1,
+                new TagHourlyCount.TagHourlyCountId(3L, hour), 1));
+        verify(eventPublisher).publishEvent(new TagPostCountsChangedEvent(List.of(
+                new TagPostCountsChangedEvent.Change(1L, "java", -1),
+                new TagPostCountsChangedEvent.Change(3L, "kotlin", 1))));
+    }
+
+    @Test
+    @DisplayName("Should only adjust post counts for posts older than the trending window")
+    void shouldIgnoreTagChangesOnOldPosts() {
+        tagService.recordPostTagsChanged(Set.of(tag1), Set.of(), Instant.now().minus(Duration.ofDays(45)));
+
+        verify(tagRepository).adjustPostCount(List.of(1L), -1);
+        verifyNoInteractions(tagHourlyCountRepository);
+    }
+
+    @Test
+    @DisplayName("Should seed hourly counts from recent posts only when none exist")
+    void shouldBackfillTrendingCounts() {
+        // Given
+        Instant createdAt = Instant.now().minus(Duration.ofDays(2));
+        Instant hour = createdAt.truncatedTo(ChronoUnit.HOURS);
+        when(postRepository.findTaggedPostsSince(any())).thenReturn(List.of(
+                taggedPost(1L, createdAt), taggedPost(1L, createdAt), taggedPost(2L, createdAt)));
+
+        // When
+        int buckets = tagService.backfillTrendingCounts();
+
+        // Then
+        assertThat(buckets).isEqualTo(2);
+        verify(tagHourlyCountRepository).addCounts(Map.of(
+                new TagHourlyCount.TagHourlyCountId(1L, hour), 2,
+                new TagHourlyCount.TagHourlyCountId(2L, hour), 1));
+
+        when(tagHourlyCountRepository.count()).thenReturn(2L);
+        assertThat(tagService.backfillTrendingCounts()).isZero();
+    }
+
+    private PostRepository.TaggedPost taggedPost(long tagId, Instant createdAt) {
+        return new PostRepository.TaggedPost() {
+            @Override
+            public Long getTagId() {
+                return tagId;
+            }
+
+            @Override
+            public Instant getCreatedAt() {
+                return createdAt;
+            }
+        };
+    }
+
+    private TagHourlyCount bucket(long tagId, Instant createdAt, int posts) {
+        return new TagHourlyCount(
+                new TagHourlyCount.TagHourlyCountId(tagId, createdAt.truncatedTo(ChronoUnit.HOURS)), posts);
+    }
+
+    private TagRepository.TagSummary summary(long id, String name, int postCount) {
+        return new TagRepository.TagSummary() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Integer getPostCount() {
+                return postCount;
+            }
+        };
     }
 }
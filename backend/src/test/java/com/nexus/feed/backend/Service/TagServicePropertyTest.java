@@ -22,7 +22,7 @@ class TagServicePropertyTest {
     ) {
         // Given
         TagRepository tagRepository = Mockito.mock(TagRepository.class);
-        TagServiceImpl tagService = new TagServiceImpl(tagRepository);
+        TagServiceImpl tagService = new TagServiceImpl(tagRepository, null, null, null, null);
 
         Tag tag = createTagWithPosts(postsLast24h, posts1to7days, posts7to30days, postsOlderThan30days);
 
@@ -38,7 +38,7 @@ class TagServicePropertyTest {
     void staleTagsHaveZeroScore(@ForAll("postCounts") int postCount) {
         // Given
         TagRepository tagRepository = Mockito.mock(TagRepository.class);
-        TagServiceImpl tagService = new TagServiceImpl(tagRepository);
+        TagServiceImpl tagService = new TagServiceImpl(tagRepository, null, null, null, null);
 
         Tag tag = createTagWithPosts(0, 0, 0, postCount);
 
@@ -53,7 +53,7 @@ class TagServicePropertyTest {
     void emptyTagHasZeroScore() {
         // Given
         TagRepository tagRepository = Mockito.mock(TagRepository.class);
-        TagServiceImpl tagService = new TagServiceImpl(tagRepository);
+        TagServiceImpl tagService = new TagServiceImpl(tagRepository, null, null, null, null);
 
         Tag tag = new Tag();
         tag.setId(1L);
@@ -71,7 +71,7 @@ class TagServicePropertyTest {
     void nullPostsHasZeroScore() {
         // Given
         TagRepository tagRepository = Mockito.mock(TagRepository.class);
-        TagServiceImpl tagService = new TagServiceImpl(tagRepository);
+        TagServiceImpl tagService = new TagServiceImpl(tagRepository, null, null, null, null);
 
         Tag tag = new Tag();
         tag.setId(1L);
@@ -89,7 +89,7 @@ class TagServicePropertyTest {
     void scoreIsAlwaysNonNegative(@ForAll("postCounts") int postCount) {
         // Given
         TagRepository tagRepository = Mockito.mock(TagRepository.class);
-        TagServiceImpl tagService = new TagServiceImpl(tagRepository);
+        TagServiceImpl tagService = new TagServiceImpl(tagRepository, null, null, null, null);
 
         Tag tag = createTagWithPosts(postCount, postCount, postCount, postCount);
 
@@ -104,7 +104,7 @@ class TagServicePropertyTest {
     void recentPostsScoreHigherThanOldPosts() {
         // Given
         TagRepository tagRepository = Mockito.mock(TagRepository.class);
-        TagServiceImpl tagService = new TagServiceImpl(tagRepository);
+        TagServiceImpl tagService = new TagServiceImpl(tagRepository, null, null, null, null);
 
         Tag recentTag = createTagWithPosts(1, 0, 0, 0);
         Tag oldTag = createTagWithPosts(0, 0, 1, 0);
@@ -0,0 +1,137 @@
+package com.nexus.feed.backend.Service;
+
+import com.nexus.feed.backend.Auth.Entity.AppUser;
+import com.nexus.feed.backend.DTO.CommentResponse;
+import com.nexus.feed.backend.Entity.Comment;
+import com.nexus.feed.backend.Entity.Post;
+import com.nexus.feed.backend.Entity.Users;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmarks the number of SQL statements {@code getCommentsByUser} and
+ * {@code getCommentById} issue; authors come with the comments and vote counts in
+ * one batch, so neither may grow with the page size or the posts it spans.
+ */
+@SpringBootTest(properties = StatementCounter.PROPERTY)
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("User Comments Query Count Tests")
+class UserCommentsQueryCountTest {
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Users author;
+    private Users op;
+
+    @BeforeEach
+    void setUp() {
+        author = createUser("page_author");
+        op = createUser("page_op");
+    }
+
+    private Users createUser(String username) {
+        AppUser appUser = new AppUser();
+        appUser.setEmail(username + "@example.com");
+        appUser.setPassword("password");
+        Users user = new Users();
+        user.setUsername(username);
+        user.setCreatedAt(Instant.now());
+        user.setUpdatedAt(Instant.now());
+        user.setAppUser(appUser);
+        appUser.setUserProfile(user);
+        entityManager.persist(appUser);
+        return user;
+    }
+
+    /**
+     * Gives the author {@code size} comments, each on its own post and every other one a
+     * reply to a comment by someone else, so neither posts nor parents repeat in the page.
+     */
+    private List<UUID> createComments(int size) {
+        Users other = createUser("page_other_" + size);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Post post = new Post();
+            post.setTitle("Commented post " + i);
+            post.setBody("Body");
+            post.setUser(op);
+            entityManager.persist(post);
+
+            Comment comment = new Comment();
+            comment.setBody("Comment " + i);
+            comment.setUser(author);
+            comment.setPost(post);
+            if (i % 2 == 1) {
+                Comment parent = new Comment();
+                parent.setBody("Parent " + i);
+                parent.setUser(other);
+                parent.setPost(post);
+                entityManager.persist(parent);
+                comment.setParentComment(parent);
+            }
+            entityManager.persist(comment);
+            ids.add(comment.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return ids;
+    }
+
+    private long statementsForPage(int pageSize) {
+        entityManager.clear();
+        StatementCounter.reset();
+        Page<CommentResponse> page = commentService.getCommentsByUser(author.getId(), PageRequest.of(0, pageSize));
+        assertThat(page.getContent()).hasSize(pageSize);
+        assertThat(page.getContent()).anyMatch(response -> response.getParentCommentId() != null);
+        return StatementCounter.statements();
+    }
+
+    @Test
+    @DisplayName("Query count stays constant as the page grows")
+    void queryCountIsConstantInPageSize() {
+        createComments(60);
+
+        Map<Integer, Long> statementsBySize = new LinkedHashMap<>();
+        for (int size : new int[]{2, 20, 50}) {
+            statementsBySize.put(size, statementsForPage(size));
+        }
+
+        assertThat(statementsBySize.values()).containsOnly(statementsBySize.get(2));
+        assertThat(statementsBySize.get(2)).isLessThanOrEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Single comment lookup loads author and parent with the comment")
+    void singleCommentLoadsInFewStatements() {
+        UUID replyId = createComments(2).get(1);
+
+        StatementCounter.reset();
+        CommentResponse response = commentService.getCommentById(replyId);
+
+        assertThat(response.getParentCommentId()).isNotNull();
+        assertThat(response.getUsername()).isEqualTo("page_author");
+        assertThat(StatementCounter.statements()).isLessThanOrEqualTo(3);
+    }
+}
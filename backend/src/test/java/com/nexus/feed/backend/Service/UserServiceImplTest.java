@@ -1,10 +1,16 @@
 package com.nexus.feed.backend.Service;
 
 import com.nexus.feed.backend.Auth.Entity.AppUser;
+import com.nexus.feed.backend.DTO.UserRankResponse;
 import com.nexus.feed.backend.DTO.UserResponse;
 import com.nexus.feed.backend.DTO.UserUpdateRequest;
+import com.nexus.feed.backend.Entity.UserStats;
 import com.nexus.feed.backend.Entity.Users;
+import com.nexus.feed.backend.Exception.LeaderboardNotReadyException;
 import com.nexus.feed.backend.Exception.ResourceNotFoundException;
+import com.nexus.feed.backend.Leaderboard.Service.KarmaLeaderboard;
+import com.nexus.feed.backend.Leaderboard.Service.LeaderboardWindow;
+import com.nexus.feed.backend.Leaderboard.Service.OrderStatisticTree;
 import com.nexus.feed.backend.Repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,6 +21,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -30,6 +38,15 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserStatsService userStatsService;
+
+    @Mock
+    private KarmaService karmaService;
+
+    @Mock
+    private KarmaLeaderboard karmaLeaderboard;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -59,6 +76,7 @@ class UserServiceImplTest {
     void shouldGetUserByIdSuccessfully() {
         // Given
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userStatsService.getStats(userId)).thenReturn(new UserStats(userId, 3, 12, 40, Instant.now()));
 
         // When
         UserResponse response = userService.getUserById(userId);
@@ -70,6 +88,8 @@ class UserServiceImplTest {
         assertThat(response.getEmail()).isEqualTo("test@example.com");
         assertThat(response.getBio()).isEqualTo("Test bio");
         assertThat(response.getProfilePictureUrl()).isEqualTo("https://example.com/pic.jpg");
+        assertThat(response.getPostCount()).isEqualTo(3);
+        assertThat(response.getCommentCount()).isEqualTo(12);
     }
 
     @Test
@@ -90,6 +110,7 @@ class UserServiceImplTest {
     void shouldGetUserByUsernameSuccessfully() {
         // Given
         when(userRepository.findByUsername("tester")).thenReturn(Optional.of(user));
+        when(userStatsService.getStats(userId)).thenReturn(new UserStats(userId, 3, 12, 40, Instant.now()));
 
         // When
         UserResponse response = userService.getUserByUsername("tester");
@@ -121,6 +142,7 @@ class UserServiceImplTest {
         request.setBio("Updated bio");
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userStatsService.getStats(userId)).thenReturn(new UserStats(userId, 3, 12, 40, Instant.now()));
         when(userRepository.save(any(Users.class))).thenReturn(user);
 
         // When
@@ -139,6 +161,7 @@ class UserServiceImplTest {
         request.setProfilePictureUrl("https://example.com/newpic.jpg");
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userStatsService.getStats(userId)).thenReturn(new UserStats(userId, 3, 12, 40, Instant.now()));
         when(userRepository.save(any(Users.class))).thenReturn(user);
 
         // When
@@ -158,6 +181,7 @@ class UserServiceImplTest {
         request.setProfilePictureUrl("https://example.com/newpic.jpg");
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userStatsService.getStats(userId)).thenReturn(new UserStats(userId, 3, 12, 40, Instant.now()));
         when(userRepository.save(any(Users.class))).thenReturn(user);
 
         // When
@@ -195,6 +219,8 @@ class UserServiceImplTest {
 
         // Then
         verify(userRepository).deleteById(userId);
+        verify(userStatsService).delete(userId);
+        verify(karmaLeaderboard).remove(userId);
     }
 
     @Test
@@ -215,6 +241,7 @@ class UserServiceImplTest {
         // Given
         user.setAppUser(null);
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userStatsService.getStats(userId)).thenReturn(new UserStats(userId, 3, 12, 40, Instant.now()));
 
         // When
         UserResponse response = userService.getUserById(userId);
@@ -223,4 +250,81 @@ class UserServiceImplTest {
         assertThat(response).isNotNull();
         assertThat(response.getEmail()).isNull();
     }
+
+    @Test
+    @DisplayName("Should serve a windowed board from the leaderboard, dropping deleted users")
+    void shouldGetTopUsersFromLeaderboard() {
+        // Given
+        UUID deletedId = UUID.randomUUID();
+        List<OrderStatisticTree.Entry> withDeleted = List.of(
+                new OrderStatisticTree.Entry(deletedId, 30), new OrderStatisticTree.Entry(userId, 12));
+        when(karmaLeaderboard.isReady()).thenReturn(true);
+        when(karmaLeaderboard.top(LeaderboardWindow.WEEK, 2))
+                .thenReturn(withDeleted, List.of(new OrderStatisticTree.Entry(userId, 12)));
+        when(userRepository.findAllWithAppUserByIdIn(any())).thenReturn(List.of(user));
+        when(userStatsService.getStats(List.of(userId)))
+                .thenReturn(Map.of(userId, new UserStats(userId, 3, 12, 40, Instant.now())));
+        when(karmaService.getKarma(any(java.util.Collection.class))).thenReturn(Map.of(userId, 250L));
+
+        // When
+        List<UserResponse> top = userService.getTopUsersByKarma(2, "week");
+
+        // Then
+        assertThat(top).hasSize(1);
+        assertThat(top.get(0).getId()).isEqualTo(userId);
+        assertThat(top.get(0).getKarma()).isEqualTo(250L);
+        assertThat(top.get(0).getWindowKarma()).isEqualTo(12L);
+        verify(karmaLeaderboard).remove(deletedId);
+    }
+
+    @Test
+    @DisplayName("Should report a user's rank from the leaderboard")
+    void shouldGetUserRankFromLeaderboard() {
+        // Given
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(karmaLeaderboard.isReady()).thenReturn(true);
+        when(karmaLeaderboard.standing(userId, LeaderboardWindow.MONTH))
+                .thenReturn(Optional.of(new KarmaLeaderboard.Standing(4, 80, 120)));
+
+        // When
+        UserRankResponse rank = userService.getUserRank(userId, "month");
+
+        // Then
+        assertThat(rank.getRank()).isEqualTo(4);
+        assertThat(rank.getKarma()).isEqualTo(80L);
+        assertThat(rank.getRankedUsers()).isEqualTo(120);
+        assertThat(rank.getWindow()).isEqualTo("month");
+    }
+
+    @Test
+    @DisplayName("Should count users ahead while the leaderboard is still building")
+    void shouldRankFromDatabaseBeforeLeaderboardIsReady() {
+        // Given
+        user.setKarma(50L);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.countByKarmaGreaterThan(50L)).thenReturn(6L);
+        when(userRepository.count()).thenReturn(40L);
+
+        // When
+        UserRankResponse rank = userService.getUserRank(userId, "all");
+
+        // Then
+        assertThat(rank.getRank()).isEqualTo(7);
+        assertThat(rank.getRankedUsers()).isEqualTo(40);
+    }
+
+    @Test
+    @DisplayName("Should refuse a windowed board while the leaderboard is still building")
+    void shouldRefuseWindowedBoardBeforeLeaderboardIsReady() {
+        assertThatThrownBy(() -> userService.getTopUsersByKarma(5, "week"))
+                .isInstanceOf(LeaderboardNotReadyException.class);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown leaderboard window")
+    void shouldRejectUnknownWindow() {
+        assertThatThrownBy(() -> userService.getTopUsersByKarma(5, "year"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
 }
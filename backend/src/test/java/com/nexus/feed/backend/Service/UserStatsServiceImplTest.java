@@ -0,0 +1,122 @@
+package com.nexus.feed.backend.Service;
+
+import com.nexus.feed.backend.Entity.UserStats;
+import com.nexus.feed.backend.Repository.UserStatsRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserStatsServiceImpl Unit Tests")
+class UserStatsServiceImplTest {
+
+    @Mock
+    private UserStatsRepository userStatsRepository;
+
+    @InjectMocks
+    private UserStatsServiceImpl userStatsService;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("Should increment an existing row in place")
+    void shouldIncrementExistingRow() {
+        when(userStatsRepository.adjustPostCount(eq(userId), eq(1), any(Instant.class))).thenReturn(1);
+
+        userStatsService.recordPost(userId, 1);
+
+        verify(userStatsRepository, never()).insertCounted(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should seed a missing row from counts that already include the write")
+    void shouldSeedMissingRow() {
+        when(userStatsRepository.adjustCommentCount(eq(userId), eq(1), any(Instant.class))).thenReturn(0);
+        when(userStatsRepository.insertCounted(eq(userId), any(Instant.class))).thenReturn(1);
+
+        userStatsService.recordComment(userId, 1);
+
+        verify(userStatsRepository, times(1)).adjustCommentCount(eq(userId), eq(1), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Should apply the change when a concurrent write created the row first")
+    void shouldReapplyAfterLosingInsertRace() {
+        when(userStatsRepository.adjustVoteCount(eq(userId), eq(-1), any(Instant.class))).thenReturn(0, 1);
+        when(userStatsRepository.insertCounted(eq(userId), any(Instant.class))).thenReturn(0);
+
+        userStatsService.recordVote(userId, -1);
+
+        verify(userStatsRepository, times(2)).adjustVoteCount(eq(userId), eq(-1), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Should skip zero deltas")
+    void shouldSkipZeroDelta() {
+        userStatsService.recordVote(userId, 0);
+
+        verifyNoInteractions(userStatsRepository);
+    }
+
+    @Test
+    @DisplayName("Should count users without a row from the source tables")
+    void shouldCountMissingUsersFromSource() {
+        UUID stored = UUID.randomUUID();
+        when(userStatsRepository.findAllById(anyCollection()))
+                .thenReturn(List.of(new UserStats(stored, 4, 5, 6, Instant.now())));
+        when(userStatsRepository.countPostsByUserIds(anyCollection()))
+                .thenReturn(List.of(count(userId, 2)));
+
+        Map<UUID, UserStats> stats = userStatsService.getStats(List.of(stored, userId));
+
+        assertThat(stats.get(stored).getPostCount()).isEqualTo(4);
+        assertThat(stats.get(userId).getPostCount()).isEqualTo(2);
+        assertThat(stats.get(userId).getCommentCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should overwrite only drifted rows when reconciling")
+    void shouldReconcileDriftedRows() {
+        UUID accurate = UUID.randomUUID();
+        when(userStatsRepository.findOrderByUserId(any(Pageable.class))).thenReturn(List.of(
+                new UserStats(userId, 3, 0, 0, null), new UserStats(accurate, 1, 0, 0, null)));
+        when(userStatsRepository.countPostsByUserIds(anyCollection()))
+                .thenReturn(List.of(count(userId, 2), count(accurate, 1)));
+
+        UUID cursor = userStatsService.reconcileBatch(null, 2);
+
+        assertThat(cursor).isEqualTo(accurate);
+        verify(userStatsRepository).overwriteCounters(eq(userId), eq(2L), eq(0L), eq(0L), any(Instant.class));
+        verify(userStatsRepository, never()).overwriteCounters(eq(accurate), anyLong(), anyLong(), anyLong(), any());
+    }
+
+    private UserStatsRepository.UserCount count(UUID id, long count) {
+        return new UserStatsRepository.UserCount() {
+            @Override
+            public UUID getUserId() {
+                return id;
+            }
+
+            @Override
+            public Long getCount() {
+                return count;
+            }
+        };
+    }
+}
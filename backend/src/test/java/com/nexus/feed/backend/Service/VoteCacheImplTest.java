@@ -0,0 +1,169 @@
+package com.nexus.feed.backend.Service;
+
+import com.nexus.feed.backend.Entity.Vote;
+import com.nexus.feed.backend.Event.VoteCastEvent;
+import com.nexus.feed.backend.Repository.VoteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("VoteCacheImpl Unit Tests")
+class VoteCacheImplTest {
+
+    @Mock
+    private VoteRepository voteRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private VoteCacheImpl voteCache;
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID voted = UUID.randomUUID();
+    private final UUID unvoted = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        voteCache = new VoteCacheImpl(voteRepository, meterRegistry);
+        voteCache.registerMetrics();
+    }
+
+    private static VoteRepository.VoteCount count(UUID votableId, Vote.VoteValue value, long count) {
+        return new VoteRepository.VoteCount() {
+            public UUID getVotableId() {
+                return votableId;
+            }
+
+            public Vote.VoteValue getVoteValue() {
+                return value;
+            }
+
+            public Long getCount() {
+                return count;
+            }
+        };
+    }
+
+    // Runs the event's before-commit phase inside a transaction and returns its after-commit phase
+    private Runnable commit(VoteCastEvent event) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            voteCache.onVoteCast(event);
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            return () -> synchronizations.forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private double gets(String cache, String result) {
+        return meterRegistry.get("votes.cache.gets").tags("cache", cache, "result", result).functionCounter().count();
+    }
+
+    @Test
+    @DisplayName("Should load missing tallies in one query and serve them from memory afterwards")
+    void shouldCacheTallies() {
+        when(voteRepository.countByVotableIdsAndVotableType(List.of(voted, unvoted), Vote.VotableType.COMMENT))
+                .thenReturn(List.of(count(voted, Vote.VoteValue.UPVOTE, 4), count(voted, Vote.VoteValue.DOWNVOTE, 1)));
+
+        voteCache.tallies(List.of(voted, unvoted), Vote.VotableType.COMMENT);
+        Map<UUID, VoteCache.VoteTally> tallies = voteCache.tallies(List.of(voted, unvoted), Vote.VotableType.COMMENT);
+
+        assertThat(tallies).containsEntry(voted, new VoteCache.VoteTally(4, 1))
+                .containsEntry(unvoted, new VoteCache.VoteTally(0, 0));
+        verify(voteRepository, times(1)).countByVotableIdsAndVotableType(any(), any());
+        assertThat(gets("tallies", "miss")).isEqualTo(2);
+        assertThat(gets("tallies", "hit")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should cache the absence of a vote as well as a vote")
+    void shouldCacheUserVotes() {
+        Vote vote = new Vote();
+        vote.setId(new Vote.VoteId(userId, voted));
+        vote.setVoteValue(Vote.VoteValue.DOWNVOTE);
+        when(voteRepository.findByUserIdAndVotableIdsAndVotableType(userId, List.of(voted, unvoted), Vote.VotableType.POST))
+                .thenReturn(List.of(vote));
+
+        voteCache.userVotes(userId, List.of(voted, unvoted), Vote.VotableType.POST);
+        Map<UUID, Vote.VoteValue> votes = voteCache.userVotes(userId, List.of(voted, unvoted), Vote.VotableType.POST);
+
+        assertThat(votes).isEqualTo(Map.of(voted, Vote.VoteValue.DOWNVOTE));
+        verify(voteRepository, times(1)).findByUserIdAndVotableIdsAndVotableType(any(), any(), any());
+        assertThat(gets("user-votes", "hit")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should write committed votes through to the voter's entry and cached tallies")
+    void shouldWriteThroughVoteEvents() {
+        when(voteRepository.countByVotableIdsAndVotableType(List.of(voted), Vote.VotableType.POST))
+                .thenReturn(List.of(count(voted, Vote.VoteValue.UPVOTE, 2)));
+        voteCache.tallies(List.of(voted), Vote.VotableType.POST);
+
+        commit(new VoteCastEvent(userId, voted, Vote.VotableType.POST, UUID.randomUUID(),
+                Vote.VoteValue.UPVOTE, Vote.VoteValue.DOWNVOTE, -2)).run();
+        commit(new VoteCastEvent(userId, unvoted, Vote.VotableType.POST, UUID.randomUUID(),
+                null, Vote.VoteValue.UPVOTE, 1)).run();
+
+        assertThat(voteCache.tallies(List.of(voted), Vote.VotableType.POST))
+                .containsEntry(voted, new VoteCache.VoteTally(1, 1));
+        assertThat(voteCache.userVotes(userId, List.of(voted, unvoted), Vote.VotableType.POST))
+                .isEqualTo(Map.of(voted, Vote.VoteValue.DOWNVOTE, unvoted, Vote.VoteValue.UPVOTE));
+        verify(voteRepository).countByVotableIdsAndVotableType(List.of(voted), Vote.VotableType.POST);
+        verify(voteRepository, never()).findByUserIdAndVotableIdsAndVotableType(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should not keep a tally loaded while a vote on it was committing")
+    void shouldNotCacheTalliesLoadedDuringCommit() {
+        VoteCastEvent upvote = new VoteCastEvent(userId, voted, Vote.VotableType.POST, UUID.randomUUID(),
+                null, Vote.VoteValue.UPVOTE, 1);
+        when(voteRepository.countByVotableIdsAndVotableType(List.of(voted), Vote.VotableType.POST))
+                .thenReturn(List.of(count(voted, Vote.VoteValue.UPVOTE, 1)));
+
+        // Loaded between the vote's commit and its after-commit event: the counts already include it
+        Runnable afterCommit = commit(upvote);
+        voteCache.tallies(List.of(voted), Vote.VotableType.POST);
+        afterCommit.run();
+
+        // A load the commit started during: whether it counted the vote is unknown
+        when(voteRepository.countByVotableIdsAndVotableType(List.of(voted), Vote.VotableType.POST))
+                .thenAnswer(invocation -> {
+                    commit(upvote);
+                    return List.of(count(voted, Vote.VoteValue.UPVOTE, 1));
+                })
+                .thenReturn(List.of(count(voted, Vote.VoteValue.UPVOTE, 2)));
+        assertThat(voteCache.tallies(List.of(voted), Vote.VotableType.POST))
+                .containsEntry(voted, new VoteCache.VoteTally(1, 0));
+
+        assertThat(voteCache.tallies(List.of(voted), Vote.VotableType.POST))
+                .containsEntry(voted, new VoteCache.VoteTally(2, 0));
+        verify(voteRepository, times(3)).countByVotableIdsAndVotableType(List.of(voted), Vote.VotableType.POST);
+    }
+
+    @Test
+    @DisplayName("Should reload entries once they expire")
+    void shouldReloadExpiredEntries() {
+        ReflectionTestUtils.setField(voteCache, "ttlMs", -1L);
+        when(voteRepository.countByVotableIdsAndVotableType(List.of(voted), Vote.VotableType.POST)).thenReturn(List.of());
+
+        voteCache.tallies(List.of(voted), Vote.VotableType.POST);
+        voteCache.tallies(List.of(voted), Vote.VotableType.POST);
+
+        verify(voteRepository, times(2)).countByVotableIdsAndVotableType(List.of(voted), Vote.VotableType.POST);
+    }
+}
@@ -0,0 +1,230 @@
+package com.nexus.feed.backend.Service;
+
+import com.nexus.feed.backend.Auth.Entity.AppUser;
+import com.nexus.feed.backend.Auth.Repository.AppUserRepository;
+import com.nexus.feed.backend.DTO.VoteRequest;
+import com.nexus.feed.backend.Entity.Post;
+import com.nexus.feed.backend.Entity.Users;
+import com.nexus.feed.backend.Entity.Vote;
+import com.nexus.feed.backend.Repository.PostRepository;
+import com.nexus.feed.backend.Repository.UserRepository;
+import com.nexus.feed.backend.Repository.VoteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers a few (user, post) pairs from many threads, the way double-clicks
+ * arrive, checks every cast applies and is counted exactly once, and compares
+ * the single-statement cast with the previous read-then-write sequence.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Vote Concurrency Stress Tests")
+class VoteConcurrencyStressTest {
+
+    private static final int THREADS = 8;
+    private static final int VOTES_PER_THREAD = 100;
+
+    @Autowired
+    private VoteService voteService;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private PostStatsService postStatsService;
+
+    @Autowired
+    private KarmaService karmaService;
+
+    @Autowired
+    private BadgeAwardingService badgeAwardingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Users author;
+    private final List<Users> voters = new ArrayList<>();
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        author = saveUser("stress_author");
+        for (int i = 0; i < 4; i++) {
+            voters.add(saveUser("stress_voter_" + i));
+        }
+        post = new Post();
+        post.setTitle("Stress");
+        post.setBody("Body");
+        post.setUser(author);
+        postRepository.save(post);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM votes WHERE votable_id = ?", post.getId());
+        postRepository.deleteById(post.getId());
+        appUserRepository.deleteAll(appUserRepository.findAllById(
+                voters.stream().map(v -> v.getAppUser().getId()).toList()));
+        appUserRepository.deleteById(author.getAppUser().getId());
+    }
+
+    private Users saveUser(String username) {
+        AppUser appUser = new AppUser();
+        appUser.setEmail(username + "@example.com");
+        appUser.setPassword("password");
+        Users user = new Users();
+        user.setUsername(username);
+        user.setCreatedAt(Instant.now());
+        user.setUpdatedAt(Instant.now());
+        user.setAppUser(appUser);
+        appUser.setUserProfile(user);
+        appUserRepository.save(appUser);
+        return user;
+    }
+
+    private record Result(double appliedPerSecond, int failures) {
+    }
+
+    @FunctionalInterface
+    private interface VoteAction {
+        void vote(UUID voterId, Vote.VoteValue value);
+    }
+
+    private Result run(VoteAction action) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        AtomicInteger failures = new AtomicInteger();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            tasks.add(() -> {
+                for (int i = 0; i < VOTES_PER_THREAD; i++) {
+                    UUID voterId = voters.get((thread + i) % voters.size()).getId();
+                    Vote.VoteValue value = (thread + i) % 3 == 0 ? Vote.VoteValue.DOWNVOTE : Vote.VoteValue.UPVOTE;
+                    try {
+                        action.vote(voterId, value);
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        long started = System.nanoTime();
+        for (Future<Void> future : pool.invokeAll(tasks)) {
+            future.get();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        pool.shutdown();
+        return new Result((THREADS * VOTES_PER_THREAD - failures.get()) / seconds, failures.get());
+    }
+
+    private void castVote(UUID voterId, Vote.VoteValue value) {
+        VoteRequest request = new VoteRequest();
+        request.setVotableId(post.getId());
+        request.setVotableType(Vote.VotableType.POST);
+        request.setVoteValue(value);
+        voteService.vote(voterId, request);
+    }
+
+    // The pre-upsert sequence: validate, load the post twice, load the vote, then write
+    private void legacyVote(UUID voterId, Vote.VoteValue value) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userRepository.existsById(voterId);
+            postRepository.existsById(post.getId());
+            UUID authorId = postRepository.findById(post.getId()).map(p -> p.getUser().getId()).orElseThrow();
+            Vote.VoteId id = new Vote.VoteId(voterId, post.getId());
+            Optional<Vote> existing = voteRepository.findById(id);
+            Vote.VoteValue oldValue = existing.map(Vote::getVoteValue).orElse(null);
+            Vote.VoteValue newValue = oldValue == value ? null : value;
+            if (existing.isEmpty()) {
+                voteRepository.saveAndFlush(new Vote(id, Vote.VotableType.POST, value));
+            } else if (newValue == null) {
+                voteRepository.delete(existing.get());
+            } else {
+                existing.get().setVoteValue(value);
+            }
+            postStatsService.recordVote(post.getId(), oldValue, newValue);
+            karmaService.updateKarmaForVote(authorId, voterId,
+                    new VoteRepository.VoteTransition(oldValue, newValue).karmaDelta());
+            if (oldValue == null) {
+                badgeAwardingService.checkVoteBadges(voterId);
+            }
+        });
+    }
+
+    private void resetVotes() {
+        jdbcTemplate.update("DELETE FROM votes WHERE votable_id = ?", post.getId());
+        jdbcTemplate.update("UPDATE posts SET upvote_count = 0, downvote_count = 0, score = 0 WHERE id = ?", post.getId());
+        jdbcTemplate.update("UPDATE users SET karma = 0 WHERE id = ?", author.getId());
+    }
+
+    @Test
+    @DisplayName("Concurrent casts should never violate constraints and keep counters consistent")
+    void concurrentCastsStayConsistent() throws Exception {
+        assertThat(run(this::castVote).failures()).isZero();
+
+        // Every applied transition was counted exactly once
+        Integer upvotes = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM votes WHERE votable_id = ? AND vote_value = 'UPVOTE'", Integer.class, post.getId());
+        Integer downvotes = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM votes WHERE votable_id = ? AND vote_value = 'DOWNVOTE'", Integer.class, post.getId());
+        assertThat(jdbcTemplate.queryForObject("SELECT upvote_count FROM posts WHERE id = ?", Integer.class, post.getId()))
+                .isEqualTo(upvotes);
+        assertThat(jdbcTemplate.queryForObject("SELECT downvote_count FROM posts WHERE id = ?", Integer.class, post.getId()))
+                .isEqualTo(downvotes);
+        assertThat(jdbcTemplate.queryForObject("SELECT karma FROM users WHERE id = ?", Long.class, author.getId()))
+                .isEqualTo((long) upvotes - downvotes);
+    }
+
+    @Test
+    @DisplayName("The single-statement cast should outpace the read-then-write sequence")
+    void castOutpacesReadThenWrite() throws Exception {
+        // Warm both paths up so neither pays for class loading and JIT alone
+        run(this::legacyVote);
+        resetVotes();
+        run(this::castVote);
+        resetVotes();
+
+        Result legacy = run(this::legacyVote);
+        resetVotes();
+        Result cast = run(this::castVote);
+
+        // Colliding read-then-write casts fail and are lost; the single statement applies every one
+        assertThat(cast.failures()).isZero();
+        assertThat(cast.appliedPerSecond()).isGreaterThan(legacy.appliedPerSecond());
+    }
+}
@@ -5,6 +5,7 @@ import com.nexus.feed.backend.Entity.Comment;
 import com.nexus.feed.backend.Entity.Post;
 import com.nexus.feed.backend.Entity.Users;
 import com.nexus.feed.backend.Entity.Vote;
+import com.nexus.feed.backend.Event.VoteCastEvent;
 import com.nexus.feed.backend.Exception.ResourceNotFoundException;
 import com.nexus.feed.backend.Repository.*;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,6 +15,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -21,6 +23,7 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,7 +46,16 @@ class VoteServiceImplTest {
     private KarmaService karmaService;
 
     @Mock
-    private BadgeAwardingService badgeAwardingService;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PostStatsService postStatsService;
+
+    @Mock
+    private VoteBuffer voteBuffer;
+
+    @Mock
+    private UserStatsService userStatsService;
 
     @InjectMocks
     private VoteServiceImpl voteService;
@@ -83,179 +95,146 @@ class VoteServiceImplTest {
         comment.setUser(author);
     }
 
+    private VoteRequest request(UUID votableId, Vote.VotableType type, Vote.VoteValue value) {
+        VoteRequest request = new VoteRequest();
+        request.setVotableId(votableId);
+        request.setVotableType(type);
+        request.setVoteValue(value);
+        return request;
+    }
+
+    private void givenCast(UUID votableId, Vote.VotableType type, Vote.VoteValue value,
+                           Vote.VoteValue oldValue, Vote.VoteValue newValue) {
+        when(voteRepository.castVote(userId, votableId, type, value))
+                .thenReturn(new VoteRepository.VoteTransition(oldValue, newValue));
+    }
+
     @Test
     @DisplayName("Should create new upvote on post successfully")
     void shouldCreateNewUpvoteOnPostSuccessfully() {
         // Given
-        VoteRequest request = new VoteRequest();
-        request.setVotableId(postId);
-        request.setVotableType(Vote.VotableType.POST);
-        request.setVoteValue(Vote.VoteValue.UPVOTE);
-
         when(userRepository.existsById(userId)).thenReturn(true);
-        when(postRepository.existsById(postId)).thenReturn(true);
-        when(postRepository.findById(postId)).thenReturn(Optional.of(post));
-        when(voteRepository.findById(any(Vote.VoteId.class))).thenReturn(Optional.empty());
-        when(voteRepository.save(any(Vote.class))).thenReturn(new Vote());
+        when(postRepository.findAuthorIdById(postId)).thenReturn(Optional.of(authorId));
+        givenCast(postId, Vote.VotableType.POST, Vote.VoteValue.UPVOTE, null, Vote.VoteValue.UPVOTE);
 
         // When
-        voteService.vote(userId, request);
+        voteService.vote(userId, request(postId, Vote.VotableType.POST, Vote.VoteValue.UPVOTE));
 
         // Then
-        verify(voteRepository).save(any(Vote.class));
+        verify(voteRepository).castVote(userId, postId, Vote.VotableType.POST, Vote.VoteValue.UPVOTE);
         verify(karmaService).updateKarmaForVote(authorId, userId, 1);
+        verify(postStatsService).recordVote(postId, null, Vote.VoteValue.UPVOTE);
+        verify(userStatsService).recordVote(userId, 1);
+        verify(eventPublisher).publishEvent(new VoteCastEvent(userId, postId, Vote.VotableType.POST, authorId,
+                null, Vote.VoteValue.UPVOTE, 1));
     }
 
     @Test
     @DisplayName("Should create new downvote on post successfully")
     void shouldCreateNewDownvoteOnPostSuccessfully() {
         // Given
-        VoteRequest request = new VoteRequest();
-        request.setVotableId(postId);
-        request.setVotableType(Vote.VotableType.POST);
-        request.setVoteValue(Vote.VoteValue.DOWNVOTE);
-
         when(userRepository.existsById(userId)).thenReturn(true);
-        when(postRepository.existsById(postId)).thenReturn(true);
-        when(postRepository.findById(postId)).thenReturn(Optional.of(post));
-        when(voteRepository.findById(any(Vote.VoteId.class))).thenReturn(Optional.empty());
-        when(voteRepository.save(any(Vote.class))).thenReturn(new Vote());
+        when(postRepository.findAuthorIdById(postId)).thenReturn(Optional.of(authorId));
+        givenCast(postId, Vote.VotableType.POST, Vote.VoteValue.DOWNVOTE, null, Vote.VoteValue.DOWNVOTE);
 
         // When
-        voteService.vote(userId, request);
+        voteService.vote(userId, request(postId, Vote.VotableType.POST, Vote.VoteValue.DOWNVOTE));
 
         // Then
-        verify(voteRepository).save(any(Vote.class));
         verify(karmaService).updateKarmaForVote(authorId, userId, -1);
+        verify(postStatsService).recordVote(postId, null, Vote.VoteValue.DOWNVOTE);
     }
 
     @Test
     @DisplayName("Should toggle off existing vote when same vote value")
     void shouldToggleOffExistingVote() {
         // Given
-        VoteRequest request = new VoteRequest();
-        request.setVotableId(postId);
-        request.setVotableType(Vote.VotableType.POST);
-        request.setVoteValue(Vote.VoteValue.UPVOTE);
-
-        Vote existingVote = new Vote();
-        existingVote.setId(new Vote.VoteId(userId, postId));
-        existingVote.setVotableType(Vote.VotableType.POST);
-        existingVote.setVoteValue(Vote.VoteValue.UPVOTE);
-
         when(userRepository.existsById(userId)).thenReturn(true);
-        when(postRepository.existsById(postId)).thenReturn(true);
-        when(postRepository.findById(postId)).thenReturn(Optional.of(post));
-        when(voteRepository.findById(any(Vote.VoteId.class))).thenReturn(Optional.of(existingVote));
+        when(postRepository.findAuthorIdById(postId)).thenReturn(Optional.of(authorId));
+        givenCast(postId, Vote.VotableType.POST, Vote.VoteValue.UPVOTE, Vote.VoteValue.UPVOTE, null);
 
         // When
-        voteService.vote(userId, request);
+        voteService.vote(userId, request(postId, Vote.VotableType.POST, Vote.VoteValue.UPVOTE));
 
         // Then
-        verify(voteRepository).delete(existingVote);
         verify(karmaService).updateKarmaForVote(authorId, userId, -1);
+        verify(postStatsService).recordVote(postId, Vote.VoteValue.UPVOTE, null);
+        verify(userStatsService).recordVote(userId, -1);
+        verify(eventPublisher).publishEvent(new VoteCastEvent(userId, postId, Vote.VotableType.POST, authorId,
+                Vote.VoteValue.UPVOTE, null, -1));
     }
 
     @Test
     @DisplayName("Should flip vote when different vote value")
     void shouldFlipVoteWhenDifferentValue() {
         // Given
-        VoteRequest request = new VoteRequest();
-        request.setVotableId(postId);
-        request.setVotableType(Vote.VotableType.POST);
-        request.setVoteValue(Vote.VoteValue.UPVOTE);
-
-        Vote existingVote = new Vote();
-        existingVote.setId(new Vote.VoteId(userId, postId));
-        existingVote.setVotableType(Vote.VotableType.POST);
-        existingVote.setVoteValue(Vote.VoteValue.DOWNVOTE);
-
         when(userRepository.existsById(userId)).thenReturn(true);
-        when(postRepository.existsById(postId)).thenReturn(true);
-        when(postRepository.findById(postId)).thenReturn(Optional.of(post));
-        when(voteRepository.findById(any(Vote.VoteId.class))).thenReturn(Optional.of(existingVote));
-        when(voteRepository.save(any(Vote.class))).thenReturn(existingVote);
+        when(postRepository.findAuthorIdById(postId)).thenReturn(Optional.of(authorId));
+        givenCast(postId, Vote.VotableType.POST, Vote.VoteValue.UPVOTE, Vote.VoteValue.DOWNVOTE, Vote.VoteValue.UPVOTE);
 
         // When
-        voteService.vote(userId, request);
+        voteService.vote(userId, request(postId, Vote.VotableType.POST, Vote.VoteValue.UPVOTE));
 
         // Then
-        verify(voteRepository).save(any(Vote.class));
         verify(karmaService).updateKarmaForVote(authorId, userId, 2);
+        verify(postStatsService).recordVote(postId, Vote.VoteValue.DOWNVOTE, Vote.VoteValue.UPVOTE);
+        verify(userStatsService).recordVote(userId, 0);
+        verify(eventPublisher).publishEvent(new VoteCastEvent(userId, postId, Vote.VotableType.POST, authorId,
+                Vote.VoteValue.DOWNVOTE, Vote.VoteValue.UPVOTE, 2));
     }
 
     @Test
     @DisplayName("Should vote on comment successfully")
     void shouldVoteOnCommentSuccessfully() {
         // Given
-        VoteRequest request = new VoteRequest();
-        request.setVotableId(commentId);
-        request.setVotableType(Vote.VotableType.COMMENT);
-        request.setVoteValue(Vote.VoteValue.UPVOTE);
-
         when(userRepository.existsById(userId)).thenReturn(true);
-        when(commentRepository.existsById(commentId)).thenReturn(true);
-        when(commentRepository.findById(commentId)).thenReturn(Optional.of(comment));
-        when(voteRepository.findById(any(Vote.VoteId.class))).thenReturn(Optional.empty());
-        when(voteRepository.save(any(Vote.class))).thenReturn(new Vote());
+        when(commentRepository.findAuthorIdById(commentId)).thenReturn(Optional.of(authorId));
+        givenCast(commentId, Vote.VotableType.COMMENT, Vote.VoteValue.UPVOTE, null, Vote.VoteValue.UPVOTE);
 
         // When
-        voteService.vote(userId, request);
+        voteService.vote(userId, request(commentId, Vote.VotableType.COMMENT, Vote.VoteValue.UPVOTE));
 
         // Then
-        verify(voteRepository).save(any(Vote.class));
         verify(karmaService).updateKarmaForVote(authorId, userId, 1);
+        verifyNoInteractions(postStatsService);
     }
 
     @Test
     @DisplayName("Should throw ResourceNotFoundException when user not found")
     void shouldThrowExceptionWhenUserNotFound() {
         // Given
-        VoteRequest request = new VoteRequest();
-        request.setVotableId(postId);
-        request.setVotableType(Vote.VotableType.POST);
-        request.setVoteValue(Vote.VoteValue.UPVOTE);
-
         when(userRepository.existsById(userId)).thenReturn(false);
 
         // When & Then
-        assertThatThrownBy(() -> voteService.vote(userId, request))
+        assertThatThrownBy(() -> voteService.vote(userId, request(postId, Vote.VotableType.POST, Vote.VoteValue.UPVOTE)))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("User");
+        verify(voteRepository, never()).castVote(any(), any(), any(), any());
     }
 
     @Test
     @DisplayName("Should throw ResourceNotFoundException when post not found")
     void shouldThrowExceptionWhenPostNotFound() {
         // Given
-        VoteRequest request = new VoteRequest();
-        request.setVotableId(postId);
-        request.setVotableType(Vote.VotableType.POST);
-        request.setVoteValue(Vote.VoteValue.UPVOTE);
-
         when(userRepository.existsById(userId)).thenReturn(true);
-        when(postRepository.existsById(postId)).thenReturn(false);
+        when(postRepository.findAuthorIdById(postId)).thenReturn(Optional.empty());
 
         // When & Then
-        assertThatThrownBy(() -> voteService.vote(userId, request))
+        assertThatThrownBy(() -> voteService.vote(userId, request(postId, Vote.VotableType.POST, Vote.VoteValue.UPVOTE)))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Post");
+        verify(voteRepository, never()).castVote(any(), any(), any(), any());
     }
 
     @Test
     @DisplayName("Should throw ResourceNotFoundException when comment not found")
     void shouldThrowExceptionWhenCommentNotFound() {
         // Given
-        VoteRequest request = new VoteRequest();
-        request.setVotableId(commentId);
-        request.setVotableType(Vote.VotableType.COMMENT);
-        request.setVoteValue(Vote.VoteValue.UPVOTE);
-
         when(userRepository.existsById(userId)).thenReturn(true);
-        when(commentRepository.existsById(commentId)).thenReturn(false);
+        when(commentRepository.findAuthorIdById(commentId)).thenReturn(Optional.empty());
 
         // When & Then
-        assertThatThrownBy(() -> voteService.vote(userId, request))
+        assertThatThrownBy(() -> voteService.vote(userId, request(commentId, Vote.VotableType.COMMENT, Vote.VoteValue.UPVOTE)))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Comment");
     }
@@ -265,13 +244,21 @@ class VoteServiceImplTest {
     void shouldRemoveVoteSuccessfully() {
         // Given
         Vote.VoteId voteId = new Vote.VoteId(userId, postId);
-        doNothing().when(voteRepository).deleteById(voteId);
+        Vote existingVote = new Vote();
+        existingVote.setId(voteId);
+        existingVote.setVotableType(Vote.VotableType.POST);
+        existingVote.setVoteValue(Vote.VoteValue.UPVOTE);
+        when(voteRepository.findById(voteId)).thenReturn(Optional.of(existingVote));
 
         // When
         voteService.removeVote(userId, postId, Vote.VotableType.POST);
 
         // Then
-        verify(voteRepository).deleteById(voteId);
+        verify(voteRepository).delete(existingVote);
+        verify(postStatsService).recordVote(postId, Vote.VoteValue.UPVOTE, null);
+        verify(userStatsService).recordVote(userId, -1);
+        verify(eventPublisher).publishEvent(new VoteCastEvent(userId, postId, Vote.VotableType.POST, null,
+                Vote.VoteValue.UPVOTE, null, 0));
     }
 
     @Test
@@ -332,4 +319,22 @@ class VoteServiceImplTest {
         // Then
         assertThat(result).isNull();
     }
+
+    @Test
+    @DisplayName("Should hand votes to the write-behind buffer when it is enabled")
+    void shouldDelegateToBufferWhenEnabled() {
+        // Given
+        VoteRequest request = new VoteRequest();
+        request.setVotableId(postId);
+        request.setVotableType(Vote.VotableType.POST);
+        request.setVoteValue(Vote.VoteValue.UPVOTE);
+        when(voteBuffer.isEnabled()).thenReturn(true);
+
+        // When
+        voteService.vote(userId, request);
+
+        // Then
+        verify(voteBuffer).vote(eq(userId), eq(postId), eq(Vote.VotableType.POST), eq(Vote.VoteValue.UPVOTE), any());
+        verifyNoInteractions(voteRepository, karmaService, postStatsService, eventPublisher);
+    }
 }
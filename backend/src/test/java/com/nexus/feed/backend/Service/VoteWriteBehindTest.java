@@ -0,0 +1,149 @@
+package com.nexus.feed.backend.Service;
+
+import com.nexus.feed.backend.Auth.Entity.AppUser;
+import com.nexus.feed.backend.DTO.VoteRequest;
+import com.nexus.feed.backend.Entity.Post;
+import com.nexus.feed.backend.Entity.Users;
+import com.nexus.feed.backend.Entity.Vote;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exercises write-behind voting end to end: clicks are served from memory and a
+ * flush writes only their net effect to votes, users.karma and the post counters.
+ */
+@SpringBootTest(properties = {
+        "votes.write-behind.enabled=true",
+        "votes.write-behind.flush-interval-ms=3600000",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Write-Behind Vote Tests")
+class VoteWriteBehindTest {
+
+    @Autowired
+    private VoteService voteService;
+
+    @Autowired
+    private VoteBuffer voteBuffer;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Users author;
+    private Users voter;
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        author = persistUser("wb_author");
+        voter = persistUser("wb_voter");
+        post = new Post();
+        post.setTitle("Buffered");
+        post.setBody("Body");
+        post.setUser(author);
+        entityManager.persist(post);
+        entityManager.flush();
+    }
+
+    private Users persistUser(String username) {
+        AppUser appUser = new AppUser();
+        appUser.setEmail(username + "@example.com");
+        appUser.setPassword("password");
+        Users user = new Users();
+        user.setUsername(username);
+        user.setCreatedAt(Instant.now());
+        user.setUpdatedAt(Instant.now());
+        user.setAppUser(appUser);
+        appUser.setUserProfile(user);
+        entityManager.persist(appUser);
+        return user;
+    }
+
+    private void click(Vote.VoteValue value) {
+        VoteRequest request = new VoteRequest();
+        request.setVotableId(post.getId());
+        request.setVotableType(Vote.VotableType.POST);
+        request.setVoteValue(value);
+        voteService.vote(voter.getId(), request);
+    }
+
+    private Integer storedVotes() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM votes WHERE votable_id = ?", Integer.class, post.getId());
+    }
+
+    private Long karma(Users user) {
+        return jdbcTemplate.queryForObject("SELECT karma FROM users WHERE id = ?", Long.class, user.getId());
+    }
+
+    @Test
+    @DisplayName("Should coalesce toggles in memory and flush their net effect")
+    void shouldCoalesceTogglesAndFlushNetEffect() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // When - up, flip to down, undo, up again
+        click(Vote.VoteValue.UPVOTE);
+        statistics.clear();
+        click(Vote.VoteValue.DOWNVOTE);
+        click(Vote.VoteValue.DOWNVOTE);
+        click(Vote.VoteValue.UPVOTE);
+
+        // Then - later clicks never reach the database, yet the voter reads their own vote
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(storedVotes()).isZero();
+        assertThat(voteService.getUserVote(voter.getId(), post.getId(), Vote.VotableType.POST))
+                .isEqualTo(Vote.VoteValue.UPVOTE);
+        assertThat(voteService.getUpvoteCount(post.getId(), Vote.VotableType.POST)).isEqualTo(1);
+        assertThat(voteService.getDownvoteCount(post.getId(), Vote.VotableType.POST)).isZero();
+
+        // When
+        int flushed = voteBuffer.flush();
+
+        // Then
+        assertThat(flushed).isEqualTo(1);
+        assertThat(storedVotes()).isEqualTo(1);
+        assertThat(karma(author)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT upvote_count FROM posts WHERE id = ?", Integer.class, post.getId()))
+                .isEqualTo(1);
+        assertThat(voteService.getUpvoteCount(post.getId(), Vote.VotableType.POST)).isEqualTo(1);
+        assertThat(voteBuffer.flush()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should flush a removal of a stored vote")
+    void shouldFlushRemoval() {
+        click(Vote.VoteValue.DOWNVOTE);
+        voteBuffer.flush();
+        assertThat(karma(author)).isEqualTo(-1);
+
+        // When
+        voteService.removeVote(voter.getId(), post.getId(), Vote.VotableType.POST);
+
+        // Then
+        assertThat(voteService.getUserVote(voter.getId(), post.getId(), Vote.VotableType.POST)).isNull();
+        assertThat(voteBuffer.flush()).isEqualTo(1);
+        assertThat(storedVotes()).isZero();
+        assertThat(karma(author)).isZero();
+    }
+}